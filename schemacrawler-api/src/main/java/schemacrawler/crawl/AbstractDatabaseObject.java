@@ -50,6 +50,10 @@ abstract class AbstractDatabaseObject
   private static final long serialVersionUID = 3099561832386790624L;
 
   private final Schema schema;
+  // Cached, since the full name is used as a lookup key, along with the
+  // schema full name that it was built from
+  private transient String fullName;
+  private transient String schemaFullName;
 
   AbstractDatabaseObject(final Schema schema, final String name)
   {
@@ -138,15 +142,33 @@ abstract class AbstractDatabaseObject
    */
   @Override
   public String getFullName()
+  {
+    // Objects can be read from a snapshot before their schema, or their
+    // own name, is read, so the full name is only cached once both are
+    // available, and is rebuilt if the schema full name changes
+    final String currentSchemaFullName = schema == null? null
+                                                       : schema.getFullName();
+    if (fullName != null && currentSchemaFullName != null
+        && currentSchemaFullName.equals(schemaFullName))
+    {
+      return fullName;
+    }
+
+    final String builtFullName = buildFullName(currentSchemaFullName);
+    if (currentSchemaFullName != null && getName() != null)
+    {
+      fullName = builtFullName;
+      schemaFullName = currentSchemaFullName;
+    }
+    return builtFullName;
+  }
+
+  private String buildFullName(final String schemaFullName)
   {
     final StringBuilder buffer = new StringBuilder(64);
-    if (schema != null)
+    if (!isBlank(schemaFullName))
     {
-      final String schemaFullName = schema.getFullName();
-      if (!isBlank(schemaFullName))
-      {
-        buffer.append(schemaFullName).append('.');
-      }
+      buffer.append(schemaFullName).append('.');
     }
     final String quotedName = getName();
     if (!isBlank(quotedName))
@@ -49,6 +49,10 @@ abstract class AbstractDependantObject<D extends DatabaseObject>
   private static final long serialVersionUID = -4327208866052082457L;
 
   private final DatabaseObjectReference<D> parent;
+  // Cached, since the full name is used as a lookup key, along with the
+  // parent full name that it was built from
+  private transient String fullName;
+  private transient String parentFullName;
 
   AbstractDependantObject(final DatabaseObjectReference<D> parent,
                           final String name)
@@ -100,15 +104,34 @@ abstract class AbstractDependantObject<D extends DatabaseObject>
    */
   @Override
   public String getFullName()
+  {
+    // Objects can be read from a snapshot before their parent, or their
+    // own name, is read, so the full name is only cached once the
+    // parent has cached its full name, and is rebuilt if that changes
+    final String currentParentFullName = parent == null? null
+                                                       : parent.get()
+                                                         .getFullName();
+    if (fullName != null && currentParentFullName != null
+        && currentParentFullName.equals(parentFullName))
+    {
+      return fullName;
+    }
+
+    final String builtFullName = buildFullName(currentParentFullName);
+    if (currentParentFullName != null && getName() != null)
+    {
+      fullName = builtFullName;
+      parentFullName = currentParentFullName;
+    }
+    return builtFullName;
+  }
+
+  private String buildFullName(final String parentFullName)
   {
     final StringBuilder buffer = new StringBuilder(64);
-    if (parent != null)
+    if (!isBlank(parentFullName))
     {
-      final String parentFullName = parent.get().getFullName();
-      if (!isBlank(parentFullName))
-      {
-        buffer.append(parentFullName).append('.');
-      }
+      buffer.append(parentFullName).append('.');
     }
     final String quotedName = getName();
     if (!isBlank(quotedName))
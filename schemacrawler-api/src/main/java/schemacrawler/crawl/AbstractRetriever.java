@@ -40,10 +40,11 @@ import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.crawl.RetrievalStrategyPlanner.MetadataProbe;
+import schemacrawler.crawl.ShardedRetrieval.ShardRetriever;
 import schemacrawler.schema.DatabaseObject;
 import schemacrawler.schema.JavaSqlType;
 import schemacrawler.schema.Schema;
-import schemacrawler.schema.SchemaReference;
 import schemacrawler.schemacrawler.InclusionRule;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.utility.TypeMap;
@@ -125,6 +126,11 @@ abstract class AbstractRetriever
     return retrieverConnection.getConnection();
   }
 
+  FetchSizePolicy getFetchSizePolicy()
+  {
+    return retrieverConnection.getFetchSizePolicy();
+  }
+
   DatabaseMetaData getMetaData()
   {
     return retrieverConnection.getMetaData();
@@ -169,6 +175,66 @@ abstract class AbstractRetriever
     }
   }
 
+  /**
+   * Resolves the adaptive retrieval strategy to a concrete strategy, by
+   * probing the database. Other strategies are returned unchanged.
+   *
+   * @param phase
+   *        Description of the metadata being retrieved
+   * @param strategy
+   *        Configured retrieval strategy
+   * @param hasDataDictionarySql
+   *        Whether data dictionary SQL is provided for this phase
+   * @param allTables
+   *        All tables in the catalog
+   * @param perTableProbe
+   *        Metadata call for a single table
+   * @param perSchemaProbe
+   *        Metadata call for all tables in a single schema
+   * @return Retrieval strategy to use
+   */
+  MetadataRetrievalStrategy resolveRetrievalStrategy(final String phase,
+                                                     final MetadataRetrievalStrategy strategy,
+                                                     final boolean hasDataDictionarySql,
+                                                     final NamedObjectList<MutableTable> allTables,
+                                                     final MetadataProbe<MutableTable> perTableProbe,
+                                                     final MetadataProbe<Schema> perSchemaProbe)
+  {
+    if (strategy != MetadataRetrievalStrategy.adaptive)
+    {
+      return strategy;
+    }
+    return retrieverConnection.getRetrievalStrategyPlanner()
+      .plan(phase,
+            hasDataDictionarySql,
+            allTables,
+            getSchemas().size(),
+            perTableProbe,
+            perSchemaProbe);
+  }
+
+  /**
+   * Retrieves metadata for each shard, in parallel if the crawl options
+   * allow it, and additional connections are available. Connections
+   * are limited for the whole crawl by the connection permits of the
+   * retriever connection.
+   *
+   * @param description
+   *        Description of the metadata being retrieved, for logging
+   * @param shards
+   *        Shards, such as schemas or tables
+   * @param shardRetriever
+   *        Retrieves metadata for a single shard
+   */
+  <S> void retrieveSharded(final String description,
+                           final Collection<S> shards,
+                           final ShardRetriever<S> shardRetriever)
+    throws SQLException
+  {
+    new ShardedRetrieval(retrieverConnection, options.getCrawlParallelism())
+      .retrieve(description, shards, shardRetriever);
+  }
+
   /**
    * Creates a data type from the JDBC data type id, and the database
    * specific type name, if it does not exist.
@@ -207,6 +273,22 @@ abstract class AbstractRetriever
                                                      final int javaSqlTypeInt,
                                                      final String databaseSpecificTypeName,
                                                      final String mappedClassName)
+  {
+    // Lookup and create under a lock, since routines and tables may
+    // be crawled concurrently, and share column data types
+    synchronized (catalog)
+    {
+      return lookupOrCreateColumnDataType0(schema,
+                                           javaSqlTypeInt,
+                                           databaseSpecificTypeName,
+                                           mappedClassName);
+    }
+  }
+
+  private MutableColumnDataType lookupOrCreateColumnDataType0(final Schema schema,
+                                                              final int javaSqlTypeInt,
+                                                              final String databaseSpecificTypeName,
+                                                              final String mappedClassName)
   {
     MutableColumnDataType columnDataType = catalog
       .lookupColumnDataType(schema, databaseSpecificTypeName).orElse(catalog
@@ -257,21 +339,20 @@ abstract class AbstractRetriever
     {
       routineLookupName = routineName;
     }
-    return catalog.lookupRoutine(new SchemaReference(catalogName, schemaName),
-                                 routineLookupName);
+    return catalog.lookupRoutine(catalogName, schemaName, routineLookupName);
   }
 
   Optional<MutableTable> lookupTable(final String catalogName,
                                      final String schemaName,
                                      final String tableName)
   {
-    return catalog.lookupTable(new SchemaReference(catalogName, schemaName),
-                               tableName);
+    return catalog.lookupTable(catalogName, schemaName, tableName);
   }
 
   String quotedName(final String name)
   {
-    return retrieverConnection.getIdentifiers().quotedName(name);
+    return retrieverConnection
+      .internName(retrieverConnection.getIdentifiers().quotedName(name));
   }
 
   String unquotedName(final String name)
@@ -404,12 +404,13 @@ final class DatabaseInfoRetriever
       statement = connection.createStatement();
       results = new MetadataResultSet(typeInfoSql,
                                       statement,
-                                      getSchemaInclusionRule());
+                                      getSchemaInclusionRule(),
+                                      getFetchSizePolicy());
     }
     else
     {
       statement = null;
-      results = new MetadataResultSet(getMetaData().getTypeInfo());
+      results = new MetadataResultSet(getMetaData().getTypeInfo(), getFetchSizePolicy());
     }
 
     try
@@ -505,7 +506,8 @@ final class DatabaseInfoRetriever
       .getUDTs(unquotedName(catalogName),
                unquotedName(schemaName),
                "%",
-               null));)
+               null),
+                                                                 getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -0,0 +1,159 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions.DEFAULT_METADATA_FETCH_SIZE;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import sf.util.StringFormat;
+
+/**
+ * Decides the fetch size for metadata result sets, and keeps running
+ * totals of rows read, and estimated network round trips taken, for all
+ * result sets on a connection. Fetch sizes can be set for individual
+ * information schema views, and otherwise a default is used. In
+ * adaptive mode, the fetch size of a result set is doubled every time
+ * a full batch of rows is read, up to a limit, so that large data
+ * dictionary queries need fewer round trips.
+ *
+ * @author Sualeh Fatehi
+ */
+final class FetchSizePolicy
+{
+
+  static final int MAX_ADAPTIVE_FETCH_SIZE = 5000;
+
+  private final int defaultFetchSize;
+  private final Map<String, Integer> fetchSizes;
+  private final boolean adaptive;
+  private final AtomicLong rowCount;
+  private final AtomicLong roundTrips;
+
+  FetchSizePolicy(final int defaultFetchSize,
+                  final Map<InformationSchemaKey, Integer> fetchSizes,
+                  final boolean adaptive)
+  {
+    requireNonNull(fetchSizes, "No fetch sizes provided");
+
+    this.defaultFetchSize = defaultFetchSize > 0? defaultFetchSize
+                                                : DEFAULT_METADATA_FETCH_SIZE;
+    // Information schema view queries are named for their keys
+    this.fetchSizes = new HashMap<>();
+    for (final Map.Entry<InformationSchemaKey, Integer> fetchSize: fetchSizes
+      .entrySet())
+    {
+      this.fetchSizes.put(fetchSize.getKey().name(), fetchSize.getValue());
+    }
+    this.adaptive = adaptive;
+    rowCount = new AtomicLong();
+    roundTrips = new AtomicLong();
+  }
+
+  /**
+   * Gets the initial fetch size for a metadata result set.
+   *
+   * @param queryName
+   *        Name of the information schema view query, or null for
+   *        result sets from database metadata calls
+   * @return Fetch size
+   */
+  int getFetchSize(final String queryName)
+  {
+    if (queryName != null)
+    {
+      final Integer fetchSize = fetchSizes.get(queryName);
+      if (fetchSize != null && fetchSize > 0)
+      {
+        return fetchSize;
+      }
+    }
+    return defaultFetchSize;
+  }
+
+  /**
+   * Gets the fetch size to use after a full batch of rows has been
+   * read.
+   *
+   * @param fetchSize
+   *        Current fetch size
+   * @return Next fetch size
+   */
+  int getNextFetchSize(final int fetchSize)
+  {
+    if (!adaptive || fetchSize >= MAX_ADAPTIVE_FETCH_SIZE)
+    {
+      return fetchSize;
+    }
+    return Math.min(fetchSize * 2, MAX_ADAPTIVE_FETCH_SIZE);
+  }
+
+  long getRoundTrips()
+  {
+    return roundTrips.get();
+  }
+
+  long getRowCount()
+  {
+    return rowCount.get();
+  }
+
+  boolean isAdaptive()
+  {
+    return adaptive;
+  }
+
+  /**
+   * Gets a summary of rows read and round trips taken, for crawl
+   * statistics.
+   *
+   * @return Summary of metadata fetch statistics
+   */
+  StringFormat getStatistics()
+  {
+    final long rows = rowCount.get();
+    final long trips = roundTrips.get();
+    return new StringFormat("Fetched %d metadata rows in about %d round trips (%.1f rows per round trip, %s fetch size)",
+                            rows,
+                            trips,
+                            trips == 0? 0d: (double) rows / trips,
+                            adaptive? "adaptive": "fixed");
+  }
+
+  void record(final int rows, final int trips)
+  {
+    rowCount.addAndGet(rows);
+    roundTrips.addAndGet(trips);
+  }
+
+}
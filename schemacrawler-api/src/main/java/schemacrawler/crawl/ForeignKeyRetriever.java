@@ -33,17 +33,18 @@ import static java.util.Objects.requireNonNull;
 import static sf.util.Utility.isBlank;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.crawl.RetrievalStrategyPlanner.MetadataProbe;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.ForeignKey;
 import schemacrawler.schema.ForeignKeyDeferrability;
 import schemacrawler.schema.ForeignKeyUpdateRule;
+import schemacrawler.schema.Schema;
 import schemacrawler.schema.SchemaReference;
 import schemacrawler.schema.Table;
 import schemacrawler.schema.View;
@@ -106,7 +107,8 @@ final class ForeignKeyRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(extForeignKeysSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -140,23 +142,50 @@ final class ForeignKeyRetriever
   }
 
   void retrieveForeignKeys(final NamedObjectList<MutableTable> allTables)
-    throws SchemaCrawlerSQLException
+    throws SQLException
   {
     requireNonNull(allTables);
 
     final InformationSchemaViews informationSchemaViews = getRetrieverConnection()
       .getInformationSchemaViews();
 
-    if (!informationSchemaViews.hasForeignKeysSql())
-    {
-      LOGGER.log(Level.INFO,
-                 "Retrieving foreign keys, using database metadata");
-      retrieveForeignKeysUsingDatabaseMetadata(allTables);
-    }
-    else
+    final MetadataRetrievalStrategy foreignKeyRetrievalStrategy = resolveForeignKeyRetrievalStrategy(allTables);
+    switch (foreignKeyRetrievalStrategy)
     {
-      LOGGER.log(Level.INFO, "Retrieving foreign keys, using SQL");
-      retrieveForeignKeysUsingSql(informationSchemaViews);
+      case data_dictionary_all:
+        LOGGER
+          .log(Level.INFO,
+               "Retrieving foreign keys, using fast data dictionary retrieval");
+        if (!informationSchemaViews.hasForeignKeysSql())
+        {
+          throw new SchemaCrawlerSQLException("No foreign keys SQL provided",
+                                              null);
+        }
+        retrieveForeignKeysUsingSql(informationSchemaViews);
+        break;
+
+      case metadata_all:
+        LOGGER.log(Level.INFO,
+                   "Retrieving foreign keys, using fast meta-data retrieval");
+        retrieveForeignKeysUsingDatabaseMetadataForAllTables(allTables);
+        break;
+
+      case metadata:
+        if (!informationSchemaViews.hasForeignKeysSql())
+        {
+          LOGGER.log(Level.INFO,
+                     "Retrieving foreign keys, using database metadata");
+          retrieveForeignKeysUsingDatabaseMetadata(allTables);
+        }
+        else
+        {
+          LOGGER.log(Level.INFO, "Retrieving foreign keys, using SQL");
+          retrieveForeignKeysUsingSql(informationSchemaViews);
+        }
+        break;
+
+      default:
+        break;
     }
   }
 
@@ -166,96 +195,107 @@ final class ForeignKeyRetriever
   {
     while (results.next())
     {
-      String foreignKeyName = quotedName(results.getString("FK_NAME"));
-      LOGGER
-        .log(Level.FINE,
-             new StringFormat("Retrieving foreign key: %s", foreignKeyName));
-
-      final String pkTableCatalogName = quotedName(results
-        .getString("PKTABLE_CAT"));
-      final String pkTableSchemaName = quotedName(results
-        .getString("PKTABLE_SCHEM"));
-      final String pkTableName = quotedName(results.getString("PKTABLE_NAME"));
-      final String pkColumnName = quotedName(results
-        .getString("PKCOLUMN_NAME"));
-
-      final String fkTableCatalogName = quotedName(results
-        .getString("FKTABLE_CAT"));
-      final String fkTableSchemaName = quotedName(results
-        .getString("FKTABLE_SCHEM"));
-      final String fkTableName = quotedName(results.getString("FKTABLE_NAME"));
-      final String fkColumnName = quotedName(results
-        .getString("FKCOLUMN_NAME"));
-
-      final int keySequence = results.getInt("KEY_SEQ", 0);
-      final ForeignKeyUpdateRule updateRule = results
-        .getEnumFromId("UPDATE_RULE", ForeignKeyUpdateRule.unknown);
-      final ForeignKeyUpdateRule deleteRule = results
-        .getEnumFromId("DELETE_RULE", ForeignKeyUpdateRule.unknown);
-      final ForeignKeyDeferrability deferrability = results
-        .getEnumFromId("DEFERRABILITY", ForeignKeyDeferrability.unknown);
-
-      final Column pkColumn = lookupOrCreateColumn(pkTableCatalogName,
-                                                   pkTableSchemaName,
-                                                   pkTableName,
-                                                   pkColumnName);
-      final Column fkColumn = lookupOrCreateColumn(fkTableCatalogName,
-                                                   fkTableSchemaName,
-                                                   fkTableName,
-                                                   fkColumnName);
-      final boolean isPkColumnPartial = pkColumn instanceof ColumnPartial;
-      final boolean isFkColumnPartial = fkColumn instanceof ColumnPartial;
-
-      if (pkColumn == null || fkColumn == null
-          || isFkColumnPartial && isPkColumnPartial)
+      // Rows may be fetched on worker threads, but are added to the
+      // catalog one at a time
+      synchronized (catalog)
       {
-        continue;
+        createForeignKey(results, foreignKeys);
       }
+    }
+  }
 
-      if (isBlank(foreignKeyName))
-      {
-        foreignKeyName = MetaDataUtility.constructForeignKeyName(pkColumn,
-                                                                 fkColumn);
-      }
+  private void createForeignKey(final MetadataResultSet results,
+                                final NamedObjectList<MutableForeignKey> foreignKeys)
+  {
+    String foreignKeyName = quotedName(results.getString("FK_NAME"));
+    LOGGER
+      .log(Level.FINE,
+           new StringFormat("Retrieving foreign key: %s", foreignKeyName));
+
+    final String pkTableCatalogName = quotedName(results
+      .getString("PKTABLE_CAT"));
+    final String pkTableSchemaName = quotedName(results
+      .getString("PKTABLE_SCHEM"));
+    final String pkTableName = quotedName(results.getString("PKTABLE_NAME"));
+    final String pkColumnName = quotedName(results
+      .getString("PKCOLUMN_NAME"));
+
+    final String fkTableCatalogName = quotedName(results
+      .getString("FKTABLE_CAT"));
+    final String fkTableSchemaName = quotedName(results
+      .getString("FKTABLE_SCHEM"));
+    final String fkTableName = quotedName(results.getString("FKTABLE_NAME"));
+    final String fkColumnName = quotedName(results
+      .getString("FKCOLUMN_NAME"));
+
+    final int keySequence = results.getInt("KEY_SEQ", 0);
+    final ForeignKeyUpdateRule updateRule = results
+      .getEnumFromId("UPDATE_RULE", ForeignKeyUpdateRule.unknown);
+    final ForeignKeyUpdateRule deleteRule = results
+      .getEnumFromId("DELETE_RULE", ForeignKeyUpdateRule.unknown);
+    final ForeignKeyDeferrability deferrability = results
+      .getEnumFromId("DEFERRABILITY", ForeignKeyDeferrability.unknown);
+
+    final Column pkColumn = lookupOrCreateColumn(pkTableCatalogName,
+                                                 pkTableSchemaName,
+                                                 pkTableName,
+                                                 pkColumnName);
+    final Column fkColumn = lookupOrCreateColumn(fkTableCatalogName,
+                                                 fkTableSchemaName,
+                                                 fkTableName,
+                                                 fkColumnName);
+    final boolean isPkColumnPartial = pkColumn instanceof ColumnPartial;
+    final boolean isFkColumnPartial = fkColumn instanceof ColumnPartial;
+
+    if (pkColumn == null || fkColumn == null
+        || isFkColumnPartial && isPkColumnPartial)
+    {
+      return;
+    }
 
-      final Optional<MutableForeignKey> foreignKeyOptional = foreignKeys
-        .lookup(foreignKeyName);
-      final MutableForeignKey foreignKey;
-      if (foreignKeyOptional.isPresent())
-      {
-        foreignKey = foreignKeyOptional.get();
-      }
-      else
-      {
-        foreignKey = new MutableForeignKey(foreignKeyName);
-        foreignKeys.add(foreignKey);
-      }
+    if (isBlank(foreignKeyName))
+    {
+      foreignKeyName = MetaDataUtility.constructForeignKeyName(pkColumn,
+                                                               fkColumn);
+    }
 
-      foreignKey.addColumnReference(keySequence, pkColumn, fkColumn);
-      foreignKey.setUpdateRule(updateRule);
-      foreignKey.setDeleteRule(deleteRule);
-      foreignKey.setDeferrability(deferrability);
-      foreignKey.addAttributes(results.getAttributes());
+    final Optional<MutableForeignKey> foreignKeyOptional = foreignKeys
+      .lookup(foreignKeyName);
+    final MutableForeignKey foreignKey;
+    if (foreignKeyOptional.isPresent())
+    {
+      foreignKey = foreignKeyOptional.get();
+    }
+    else
+    {
+      foreignKey = new MutableForeignKey(foreignKeyName);
+      foreignKeys.add(foreignKey);
+    }
 
-      if (fkColumn instanceof MutableColumn)
-      {
-        ((MutableColumn) fkColumn).setReferencedColumn(pkColumn);
-        ((MutableTable) fkColumn.getParent()).addForeignKey(foreignKey);
-      }
-      else if (isFkColumnPartial)
-      {
-        ((ColumnPartial) fkColumn).setReferencedColumn(pkColumn);
-        ((TablePartial) fkColumn.getParent()).addForeignKey(foreignKey);
-      }
+    foreignKey.addColumnReference(keySequence, pkColumn, fkColumn);
+    foreignKey.setUpdateRule(updateRule);
+    foreignKey.setDeleteRule(deleteRule);
+    foreignKey.setDeferrability(deferrability);
+    foreignKey.addAttributes(results.getAttributes());
 
-      if (pkColumn instanceof MutableColumn)
-      {
-        ((MutableTable) pkColumn.getParent()).addForeignKey(foreignKey);
-      }
-      else if (isPkColumnPartial)
-      {
-        ((TablePartial) pkColumn.getParent()).addForeignKey(foreignKey);
-      }
+    if (fkColumn instanceof MutableColumn)
+    {
+      ((MutableColumn) fkColumn).setReferencedColumn(pkColumn);
+      ((MutableTable) fkColumn.getParent()).addForeignKey(foreignKey);
+    }
+    else if (isFkColumnPartial)
+    {
+      ((ColumnPartial) fkColumn).setReferencedColumn(pkColumn);
+      ((TablePartial) fkColumn.getParent()).addForeignKey(foreignKey);
+    }
+
+    if (pkColumn instanceof MutableColumn)
+    {
+      ((MutableTable) pkColumn.getParent()).addForeignKey(foreignKey);
+    }
+    else if (isPkColumnPartial)
+    {
+      ((TablePartial) pkColumn.getParent()).addForeignKey(foreignKey);
     }
   }
 
@@ -271,9 +311,8 @@ final class ForeignKeyRetriever
   {
     Column column = null;
 
-    final SchemaReference schema = new SchemaReference(catalogName, schemaName);
-    final Optional<MutableTable> tableOptional = catalog.lookupTable(schema,
-                                                                     tableName);
+    final Optional<MutableTable> tableOptional = catalog
+      .lookupTable(catalogName, schemaName, tableName);
     if (tableOptional.isPresent())
     {
       final Table table = tableOptional.get();
@@ -288,6 +327,8 @@ final class ForeignKeyRetriever
     if (column == null)
     {
       // Create the table and column, but do not add it to the schema
+      final SchemaReference schema = new SchemaReference(catalogName,
+                                                         schemaName);
       final Table table = new TablePartial(schema, tableName);
       column = new ColumnPartial(table, columnName);
       ((TablePartial) table).addColumn(column);
@@ -299,22 +340,45 @@ final class ForeignKeyRetriever
     return column;
   }
 
+  private MetadataRetrievalStrategy resolveForeignKeyRetrievalStrategy(final NamedObjectList<MutableTable> allTables)
+  {
+    // Imported keys are probed, since exported keys cost about the same
+    final MetadataProbe<MutableTable> perTableProbe = (table, metaData) -> {
+      final Schema schema = table.getSchema();
+      return metaData.getImportedKeys(unquotedName(schema.getCatalogName()),
+                                      unquotedName(schema.getName()),
+                                      unquotedName(table.getName()));
+    };
+    final MetadataProbe<Schema> perSchemaProbe = (schema, metaData) -> metaData
+      .getImportedKeys(unquotedName(schema.getCatalogName()),
+                       unquotedName(schema.getName()),
+                       null);
+    return resolveRetrievalStrategy("foreign keys",
+                                    getRetrieverConnection()
+                                      .getForeignKeyRetrievalStrategy(),
+                                    getRetrieverConnection()
+                                      .getInformationSchemaViews()
+                                      .hasForeignKeysSql(),
+                                    allTables,
+                                    perTableProbe,
+                                    perSchemaProbe);
+  }
+
   private void retrieveForeignKeysUsingDatabaseMetadata(final NamedObjectList<MutableTable> allTables)
-    throws SchemaCrawlerSQLException
+    throws SQLException
   {
     final NamedObjectList<MutableForeignKey> foreignKeys = new NamedObjectList<>();
-    for (final MutableTable table: allTables)
-    {
+    retrieveSharded("foreign keys", allTables, (table, metaData) -> {
       if (table instanceof View)
       {
-        continue;
+        return;
       }
 
-      final DatabaseMetaData metaData = getMetaData();
       try (final MetadataResultSet results = new MetadataResultSet(metaData
         .getImportedKeys(unquotedName(table.getSchema().getCatalogName()),
                          unquotedName(table.getSchema().getName()),
-                         unquotedName(table.getName())));)
+                         unquotedName(table.getName())),
+                                                                   getFetchSizePolicy());)
       {
         createForeignKeys(results, foreignKeys);
       }
@@ -332,7 +396,8 @@ final class ForeignKeyRetriever
       try (final MetadataResultSet results = new MetadataResultSet(metaData
         .getExportedKeys(unquotedName(table.getSchema().getCatalogName()),
                          unquotedName(table.getSchema().getName()),
-                         unquotedName(table.getName())));)
+                         unquotedName(table.getName())),
+                                                                   getFetchSizePolicy());)
       {
         createForeignKeys(results, foreignKeys);
       }
@@ -341,6 +406,45 @@ final class ForeignKeyRetriever
         throw new SchemaCrawlerSQLException("Could not retrieve foreign keys for table "
                                             + table, e);
       }
+    });
+  }
+
+  /**
+   * Retrieves imported and exported foreign keys for all tables in each
+   * schema with a single pair of metadata calls, by not specifying a
+   * table name. Falls back to retrieving foreign keys table by table, if
+   * the JDBC driver does not support this.
+   */
+  private void retrieveForeignKeysUsingDatabaseMetadataForAllTables(final NamedObjectList<MutableTable> allTables)
+    throws SQLException
+  {
+    final NamedObjectList<MutableForeignKey> foreignKeys = new NamedObjectList<>();
+    try
+    {
+      retrieveSharded("foreign keys", getSchemas(), (schema, metaData) -> {
+        final String catalogName = unquotedName(schema.getCatalogName());
+        final String schemaName = unquotedName(schema.getName());
+        try (final MetadataResultSet results = new MetadataResultSet(metaData
+          .getImportedKeys(catalogName, schemaName, null),
+                                                                     getFetchSizePolicy());)
+        {
+          createForeignKeys(results, foreignKeys);
+        }
+        // Exported keys are needed for foreign keys from tables in
+        // other schemas
+        try (final MetadataResultSet results = new MetadataResultSet(metaData
+          .getExportedKeys(catalogName, schemaName, null),
+                                                                     getFetchSizePolicy());)
+        {
+          createForeignKeys(results, foreignKeys);
+        }
+      });
+    }
+    catch (final SQLException e)
+    {
+      logPossiblyUnsupportedSQLFeature(new StringFormat("Could not retrieve foreign keys for all tables, retrieving for each table instead"),
+                                       e);
+      retrieveForeignKeysUsingDatabaseMetadata(allTables);
     }
   }
 
@@ -353,7 +457,8 @@ final class ForeignKeyRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(fkSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrieveForeignKeysUsingSql");
       createForeignKeys(results, foreignKeys);
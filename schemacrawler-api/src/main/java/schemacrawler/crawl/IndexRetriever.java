@@ -33,16 +33,19 @@ import static java.util.Objects.requireNonNull;
 import static sf.util.Utility.isBlank;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.crawl.RetrievalStrategyPlanner.MetadataProbe;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.IndexColumnSortSequence;
 import schemacrawler.schema.IndexType;
 import schemacrawler.schema.PrimaryKey;
+import schemacrawler.schema.Schema;
 import schemacrawler.schema.SchemaReference;
 import schemacrawler.schema.View;
 import schemacrawler.schemacrawler.InformationSchemaViews;
@@ -80,15 +83,41 @@ final class IndexRetriever
     final InformationSchemaViews informationSchemaViews = getRetrieverConnection()
       .getInformationSchemaViews();
 
-    if (!informationSchemaViews.hasIndexesSql())
+    final MetadataRetrievalStrategy indexRetrievalStrategy = resolveIndexRetrievalStrategy(allTables);
+    switch (indexRetrievalStrategy)
     {
-      LOGGER.log(Level.INFO, "Retrieving indexes, using database metadata");
-      retrieveIndexesUsingDatabaseMetadata(allTables);
-    }
-    else
-    {
-      LOGGER.log(Level.INFO, "Retrieving indexes, using SQL");
-      retrieveIndexesUsingSql(informationSchemaViews, allTables);
+      case data_dictionary_all:
+        LOGGER.log(Level.INFO,
+                   "Retrieving indexes, using fast data dictionary retrieval");
+        if (!informationSchemaViews.hasIndexesSql())
+        {
+          throw new SchemaCrawlerSQLException("No indexes SQL provided", null);
+        }
+        retrieveIndexesUsingSql(informationSchemaViews, allTables);
+        break;
+
+      case metadata_all:
+        LOGGER.log(Level.INFO,
+                   "Retrieving indexes, using fast meta-data retrieval");
+        retrieveIndexesUsingDatabaseMetadataForAllTables(allTables);
+        break;
+
+      case metadata:
+        if (!informationSchemaViews.hasIndexesSql())
+        {
+          LOGGER.log(Level.INFO,
+                     "Retrieving indexes, using database metadata");
+          retrieveIndexesUsingDatabaseMetadata(allTables);
+        }
+        else
+        {
+          LOGGER.log(Level.INFO, "Retrieving indexes, using SQL");
+          retrieveIndexesUsingSql(informationSchemaViews, allTables);
+        }
+        break;
+
+      default:
+        break;
     }
 
   }
@@ -125,7 +154,8 @@ final class IndexRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(extPrimaryKeysSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -177,16 +207,43 @@ final class IndexRetriever
     final InformationSchemaViews informationSchemaViews = getRetrieverConnection()
       .getInformationSchemaViews();
 
-    if (!informationSchemaViews.hasPrimaryKeysSql())
+    final MetadataRetrievalStrategy primaryKeyRetrievalStrategy = resolvePrimaryKeyRetrievalStrategy(allTables);
+    switch (primaryKeyRetrievalStrategy)
     {
-      LOGGER.log(Level.INFO,
-                 "Retrieving primary keys, using database metadata");
-      retrievePrimaryKeysUsingDatabaseMetadata(allTables);
-    }
-    else
-    {
-      LOGGER.log(Level.INFO, "Retrieving primary keys, using SQL");
-      retrievePrimaryKeysUsingSql(informationSchemaViews, allTables);
+      case data_dictionary_all:
+        LOGGER
+          .log(Level.INFO,
+               "Retrieving primary keys, using fast data dictionary retrieval");
+        if (!informationSchemaViews.hasPrimaryKeysSql())
+        {
+          throw new SchemaCrawlerSQLException("No primary keys SQL provided",
+                                              null);
+        }
+        retrievePrimaryKeysUsingSql(informationSchemaViews, allTables);
+        break;
+
+      case metadata_all:
+        LOGGER.log(Level.INFO,
+                   "Retrieving primary keys, using fast meta-data retrieval");
+        retrievePrimaryKeysUsingDatabaseMetadataForAllTables(allTables);
+        break;
+
+      case metadata:
+        if (!informationSchemaViews.hasPrimaryKeysSql())
+        {
+          LOGGER.log(Level.INFO,
+                     "Retrieving primary keys, using database metadata");
+          retrievePrimaryKeysUsingDatabaseMetadata(allTables);
+        }
+        else
+        {
+          LOGGER.log(Level.INFO, "Retrieving primary keys, using SQL");
+          retrievePrimaryKeysUsingSql(informationSchemaViews, allTables);
+        }
+        break;
+
+      default:
+        break;
     }
 
   }
@@ -197,7 +254,35 @@ final class IndexRetriever
   {
     while (results.next())
     {
-      createIndexForTable(table, results);
+      // Rows may be fetched on worker threads, but are added to the
+      // catalog one at a time
+      synchronized (catalog)
+      {
+        createIndexForTable(table, results);
+      }
+    }
+  }
+
+  /**
+   * Creates indexes from a result set that has indexes for many tables,
+   * looking up the table for each row.
+   */
+  private void createIndexesForTables(final MetadataResultSet results,
+                                      final NamedObjectList<MutableTable> allTables)
+    throws SQLException
+  {
+    while (results.next())
+    {
+      final Optional<MutableTable> optionalTable = lookupTableForRow(results,
+                                                                     allTables);
+      if (!optionalTable.isPresent())
+      {
+        continue;
+      }
+      synchronized (catalog)
+      {
+        createIndexForTable(optionalTable.get(), results);
+      }
     }
   }
 
@@ -270,7 +355,6 @@ final class IndexRetriever
     else
     {
       index = new MutableIndex(table, indexName);
-      table.addIndex(index);
     }
 
     final MutableIndexColumn indexColumn = new MutableIndexColumn(index,
@@ -283,9 +367,35 @@ final class IndexRetriever
     index.setIndexType(type);
     index.setCardinality(cardinality);
     index.setPages(pages);
+    // Indexes are sorted by their columns, so (re-)add the index once
+    // the column is added, to discard the sorted view of the indexes
+    table.addIndex(index);
     index.addAttributes(results.getAttributes());
   }
 
+  /**
+   * Creates primary keys from a result set that has primary keys for
+   * many tables, looking up the table for each row.
+   */
+  private void createPrimaryKeysForTables(final MetadataResultSet results,
+                                          final NamedObjectList<MutableTable> allTables)
+    throws SQLException
+  {
+    while (results.next())
+    {
+      final Optional<MutableTable> optionalTable = lookupTableForRow(results,
+                                                                     allTables);
+      if (!optionalTable.isPresent())
+      {
+        continue;
+      }
+      synchronized (catalog)
+      {
+        createPrimaryKeyForTable(optionalTable.get(), results);
+      }
+    }
+  }
+
   private void createPrimaryKeyForTable(final MutableTable table,
                                         final MetadataResultSet results)
   {
@@ -318,14 +428,76 @@ final class IndexRetriever
     }
   }
 
-  private void retrieveIndexes(final MutableTable table, final boolean unique)
+  private Optional<MutableTable> lookupTableForRow(final MetadataResultSet results,
+                                                  final NamedObjectList<MutableTable> allTables)
+  {
+    final String catalogName = quotedName(results.getString("TABLE_CAT"));
+    final String schemaName = quotedName(results.getString("TABLE_SCHEM"));
+    final String tableName = quotedName(results.getString("TABLE_NAME"));
+
+    return allTables.lookup(catalogName, schemaName, tableName);
+  }
+
+  private MetadataRetrievalStrategy resolveIndexRetrievalStrategy(final NamedObjectList<MutableTable> allTables)
+  {
+    final MetadataProbe<MutableTable> perTableProbe = (table, metaData) -> {
+      final Schema schema = table.getSchema();
+      return metaData.getIndexInfo(unquotedName(schema.getCatalogName()),
+                                   unquotedName(schema.getName()),
+                                   unquotedName(table.getName()),
+                                   false,
+                                   true/* approximate */);
+    };
+    final MetadataProbe<Schema> perSchemaProbe = (schema, metaData) -> metaData
+      .getIndexInfo(unquotedName(schema.getCatalogName()),
+                    unquotedName(schema.getName()),
+                    null,
+                    false,
+                    true/* approximate */);
+    return resolveRetrievalStrategy("indexes",
+                                    getRetrieverConnection()
+                                      .getIndexRetrievalStrategy(),
+                                    getRetrieverConnection()
+                                      .getInformationSchemaViews()
+                                      .hasIndexesSql(),
+                                    allTables,
+                                    perTableProbe,
+                                    perSchemaProbe);
+  }
+
+  private MetadataRetrievalStrategy resolvePrimaryKeyRetrievalStrategy(final NamedObjectList<MutableTable> allTables)
+  {
+    final MetadataProbe<MutableTable> perTableProbe = (table, metaData) -> {
+      final Schema schema = table.getSchema();
+      return metaData.getPrimaryKeys(unquotedName(schema.getCatalogName()),
+                                     unquotedName(schema.getName()),
+                                     unquotedName(table.getName()));
+    };
+    final MetadataProbe<Schema> perSchemaProbe = (schema, metaData) -> metaData
+      .getPrimaryKeys(unquotedName(schema.getCatalogName()),
+                      unquotedName(schema.getName()),
+                      null);
+    return resolveRetrievalStrategy("primary keys",
+                                    getRetrieverConnection()
+                                      .getPrimaryKeyRetrievalStrategy(),
+                                    getRetrieverConnection()
+                                      .getInformationSchemaViews()
+                                      .hasPrimaryKeysSql(),
+                                    allTables,
+                                    perTableProbe,
+                                    perSchemaProbe);
+  }
+
+  private void retrieveIndexes(final MutableTable table,
+                               final DatabaseMetaData metaData,
+                               final boolean unique)
     throws SQLException
   {
 
     SQLException sqlEx = null;
     try
     {
-      retrieveIndexes1(table, unique);
+      retrieveIndexes1(table, metaData, unique);
     }
     catch (final SQLException e)
     {
@@ -342,7 +514,7 @@ final class IndexRetriever
       try
       {
         sqlEx = null;
-        retrieveIndexes2(table, unique);
+        retrieveIndexes2(table, metaData, unique);
       }
       catch (final SQLException e)
       {
@@ -356,16 +528,19 @@ final class IndexRetriever
     }
   }
 
-  private void retrieveIndexes1(final MutableTable table, final boolean unique)
+  private void retrieveIndexes1(final MutableTable table,
+                                final DatabaseMetaData metaData,
+                                final boolean unique)
     throws SQLException
   {
 
-    try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
       .getIndexInfo(unquotedName(table.getSchema().getCatalogName()),
                     unquotedName(table.getSchema().getName()),
                     unquotedName(table.getName()),
                     unique,
-                    true/* approximate */));)
+                    true/* approximate */),
+                                                                 getFetchSizePolicy());)
     {
       createIndexes(table, results);
     }
@@ -377,16 +552,19 @@ final class IndexRetriever
 
   }
 
-  private void retrieveIndexes2(final MutableTable table, final boolean unique)
+  private void retrieveIndexes2(final MutableTable table,
+                                final DatabaseMetaData metaData,
+                                final boolean unique)
     throws SQLException
   {
 
-    try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
       .getIndexInfo(null,
                     null,
                     table.getName(),
                     unique,
-                    true/* approximate */));)
+                    true/* approximate */),
+                                                                 getFetchSizePolicy());)
     {
       createIndexes(table, results);
     }
@@ -401,14 +579,45 @@ final class IndexRetriever
   private void retrieveIndexesUsingDatabaseMetadata(final NamedObjectList<MutableTable> allTables)
     throws SQLException
   {
-    for (final MutableTable table: allTables)
-    {
+    retrieveSharded("indexes", allTables, (table, metaData) -> {
       if (table instanceof View)
       {
-        continue;
+        return;
       }
-      retrieveIndexes(table, false);
-      retrieveIndexes(table, true);
+      retrieveIndexes(table, metaData, false);
+      retrieveIndexes(table, metaData, true);
+    });
+  }
+
+  /**
+   * Retrieves indexes for all tables in each schema with a single
+   * metadata call, by not specifying a table name. Falls back to
+   * retrieving indexes table by table, if the JDBC driver does not
+   * support this.
+   */
+  private void retrieveIndexesUsingDatabaseMetadataForAllTables(final NamedObjectList<MutableTable> allTables)
+    throws SQLException
+  {
+    try
+    {
+      retrieveSharded("indexes", getSchemas(), (schema, metaData) -> {
+        try (final MetadataResultSet results = new MetadataResultSet(metaData
+          .getIndexInfo(unquotedName(schema.getCatalogName()),
+                        unquotedName(schema.getName()),
+                        null,
+                        false,
+                        true/* approximate */),
+                                                                     getFetchSizePolicy());)
+        {
+          createIndexesForTables(results, allTables);
+        }
+      });
+    }
+    catch (final SQLException e)
+    {
+      logPossiblyUnsupportedSQLFeature(new StringFormat("Could not retrieve indexes for all tables, retrieving for each table instead"),
+                                       e);
+      retrieveIndexesUsingDatabaseMetadata(allTables);
     }
   }
 
@@ -421,24 +630,11 @@ final class IndexRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(indexesSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrieveIndexesUsingSql");
-      while (results.next())
-      {
-        final String catalogName = quotedName(results.getString("TABLE_CAT"));
-        final String schemaName = quotedName(results.getString("TABLE_SCHEM"));
-        final String tableName = quotedName(results.getString("TABLE_NAME"));
-
-        final Optional<MutableTable> optionalTable = allTables
-          .lookup(new SchemaReference(catalogName, schemaName), tableName);
-        if (!optionalTable.isPresent())
-        {
-          continue;
-        }
-        final MutableTable table = optionalTable.get();
-        createIndexForTable(table, results);
-      }
+      createIndexesForTables(results, allTables);
     }
     catch (final SQLException e)
     {
@@ -447,19 +643,24 @@ final class IndexRetriever
     }
   }
 
-  private void retrievePrimaryKey(final MutableTable table)
+  private void retrievePrimaryKey(final MutableTable table,
+                                  final DatabaseMetaData metaData)
     throws SQLException
   {
 
-    try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
       .getPrimaryKeys(unquotedName(table.getSchema().getCatalogName()),
                       unquotedName(table.getSchema().getName()),
-                      unquotedName(table.getName())));)
+                      unquotedName(table.getName())),
+                                                                 getFetchSizePolicy());)
     {
 
       while (results.next())
       {
-        createPrimaryKeyForTable(table, results);
+        synchronized (catalog)
+        {
+          createPrimaryKeyForTable(table, results);
+        }
       }
     }
     catch (final SQLException e)
@@ -473,13 +674,42 @@ final class IndexRetriever
   private void retrievePrimaryKeysUsingDatabaseMetadata(final NamedObjectList<MutableTable> allTables)
     throws SQLException
   {
-    for (final MutableTable table: allTables)
-    {
+    retrieveSharded("primary keys", allTables, (table, metaData) -> {
       if (table instanceof View)
       {
-        continue;
+        return;
       }
-      retrievePrimaryKey(table);
+      retrievePrimaryKey(table, metaData);
+    });
+  }
+
+  /**
+   * Retrieves primary keys for all tables in each schema with a single
+   * metadata call, by not specifying a table name. Falls back to
+   * retrieving primary keys table by table, if the JDBC driver does not
+   * support this.
+   */
+  private void retrievePrimaryKeysUsingDatabaseMetadataForAllTables(final NamedObjectList<MutableTable> allTables)
+    throws SQLException
+  {
+    try
+    {
+      retrieveSharded("primary keys", getSchemas(), (schema, metaData) -> {
+        try (final MetadataResultSet results = new MetadataResultSet(metaData
+          .getPrimaryKeys(unquotedName(schema.getCatalogName()),
+                          unquotedName(schema.getName()),
+                          null),
+                                                                     getFetchSizePolicy());)
+        {
+          createPrimaryKeysForTables(results, allTables);
+        }
+      });
+    }
+    catch (final SQLException e)
+    {
+      logPossiblyUnsupportedSQLFeature(new StringFormat("Could not retrieve primary keys for all tables, retrieving for each table instead"),
+                                       e);
+      retrievePrimaryKeysUsingDatabaseMetadata(allTables);
     }
   }
 
@@ -492,24 +722,11 @@ final class IndexRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(pkSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrievePrimaryKeysUsingSql");
-      while (results.next())
-      {
-        final String catalogName = quotedName(results.getString("TABLE_CAT"));
-        final String schemaName = quotedName(results.getString("TABLE_SCHEM"));
-        final String tableName = quotedName(results.getString("TABLE_NAME"));
-
-        final Optional<MutableTable> optionalTable = allTables
-          .lookup(new SchemaReference(catalogName, schemaName), tableName);
-        if (!optionalTable.isPresent())
-        {
-          continue;
-        }
-        final MutableTable table = optionalTable.get();
-        createPrimaryKeyForTable(table, results);
-      }
+      createPrimaryKeysForTables(results, allTables);
     }
     catch (final SQLException e)
     {
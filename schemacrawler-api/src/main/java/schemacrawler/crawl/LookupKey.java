@@ -0,0 +1,201 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+/**
+ * Key for looking up named objects, made up of name parts that are
+ * joined with dots, such as a catalog, schema and table name. Blank
+ * parts are skipped. Keys compare and hash the same as the joined
+ * name, but without building it, so that lookups do not allocate. Keys
+ * are only equal to other keys, and a key that is used to probe a map
+ * can be reused by setting new parts, but keys that are stored in a map
+ * must never be changed.
+ *
+ * @author Sualeh Fatehi
+ */
+final class LookupKey
+{
+
+  private static final int MAX_PARTS = 3;
+
+  private final String[] parts = new String[MAX_PARTS];
+  private int partsCount;
+  private int length;
+  private int hash;
+
+  LookupKey()
+  {
+    set(null, null, null);
+  }
+
+  LookupKey(final String key)
+  {
+    set(null, null, key);
+  }
+
+  @Override
+  public boolean equals(final Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+    if (!(obj instanceof LookupKey))
+    {
+      return false;
+    }
+    final LookupKey other = (LookupKey) obj;
+    if (hash != other.hash || length != other.length)
+    {
+      return false;
+    }
+
+    // Compare character by character across parts
+    int part = 0;
+    int index = 0;
+    int otherPart = 0;
+    int otherIndex = 0;
+    for (int i = 0; i < length; i++)
+    {
+      final char c;
+      if (index == parts[part].length())
+      {
+        c = '.';
+        part++;
+        index = 0;
+      }
+      else
+      {
+        c = parts[part].charAt(index++);
+      }
+      final char otherC;
+      if (otherIndex == other.parts[otherPart].length())
+      {
+        otherC = '.';
+        otherPart++;
+        otherIndex = 0;
+      }
+      else
+      {
+        otherC = other.parts[otherPart].charAt(otherIndex++);
+      }
+      if (c != otherC)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return hash;
+  }
+
+  /**
+   * Checks whether the key has any parts.
+   *
+   * @return Whether the key is empty
+   */
+  boolean isEmpty()
+  {
+    return partsCount == 0;
+  }
+
+  /**
+   * Sets the parts of the key, skipping parts that are null or empty.
+   * The hash is the same as that of the joined name.
+   *
+   * @param part1
+   *        First part, such as a catalog name
+   * @param part2
+   *        Second part, such as a schema name
+   * @param part3
+   *        Third part, such as a table name
+   * @return This key
+   */
+  LookupKey set(final String part1, final String part2, final String part3)
+  {
+    for (int i = 0; i < MAX_PARTS; i++)
+    {
+      parts[i] = null;
+    }
+    partsCount = 0;
+    length = 0;
+    hash = 0;
+    addPart(part1);
+    addPart(part2);
+    addPart(part3);
+    return this;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder buffer = new StringBuilder(length);
+    for (int i = 0; i < partsCount; i++)
+    {
+      if (i > 0)
+      {
+        buffer.append('.');
+      }
+      buffer.append(parts[i]);
+    }
+    return buffer.toString();
+  }
+
+  private void addPart(final String part)
+  {
+    if (part == null || part.isEmpty())
+    {
+      return;
+    }
+    if (partsCount > 0)
+    {
+      hash = 31 * hash + '.';
+      length++;
+    }
+    if (partsCount == 0)
+    {
+      // Use the hash cached in the string, if it is the whole key
+      hash = part.hashCode();
+    }
+    else
+    {
+      for (int i = 0; i < part.length(); i++)
+      {
+        hash = 31 * hash + part.charAt(i);
+      }
+    }
+    parts[partsCount++] = part;
+    length += part.length();
+  }
+
+}
@@ -43,13 +43,12 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -62,7 +61,10 @@ import sf.util.StringFormat;
  * A wrapper around a JDBC resultset obtained from a database metadata
  * call. This allows type-safe methods to obtain boolean, integer and
  * string data, while abstracting away the quirks of the JDBC metadata
- * API.
+ * API. Column labels are resolved to column indexes once, when the
+ * result set is opened, and values are read by column index. The fetch
+ * size is decided by a fetch size policy, and may grow as rows are
+ * read.
  *
  * @author Sualeh Fatehi
  */
@@ -73,35 +75,46 @@ final class MetadataResultSet
   private static final Logger LOGGER = Logger
     .getLogger(MetadataResultSet.class.getName());
 
-  private static final int FETCHSIZE = 20;
-
   private String description;
   private final ResultSet results;
   private final List<String> resultSetColumns;
-  private Set<String> readColumns;
+  private final Map<String, Integer> resultSetColumnIndexes;
+  private final BitSet readColumns;
+  private final FetchSizePolicy fetchSizePolicy;
 
   private int rowCount;
+  private int fetchSize;
+  private int batchRowCount;
+  private int roundTrips;
 
   MetadataResultSet(final Query query,
                     final Statement statement,
-                    final InclusionRule schemaInclusionRule)
+                    final InclusionRule schemaInclusionRule,
+                    final FetchSizePolicy fetchSizePolicy)
+    throws SQLException
+  {
+    this(executeAgainstSchema(query, statement, schemaInclusionRule),
+         query.getName(),
+         fetchSizePolicy);
+  }
+
+  MetadataResultSet(final ResultSet resultSet,
+                    final FetchSizePolicy fetchSizePolicy)
     throws SQLException
   {
-    this(executeAgainstSchema(query, statement, schemaInclusionRule));
+    this(resultSet, null, fetchSizePolicy);
   }
 
-  MetadataResultSet(final ResultSet resultSet)
+  private MetadataResultSet(final ResultSet resultSet,
+                            final String queryName,
+                            final FetchSizePolicy fetchSizePolicy)
     throws SQLException
   {
     results = requireNonNull(resultSet, "Cannot use null results");
-    try
-    {
-      results.setFetchSize(FETCHSIZE);
-    }
-    catch (final NullPointerException | SQLException e)
-    {
-      LOGGER.log(Level.WARNING, "Could not set fetch size", e);
-    }
+    this.fetchSizePolicy = requireNonNull(fetchSizePolicy,
+                                          "No fetch size policy provided");
+    fetchSize = fetchSizePolicy.getFetchSize(queryName);
+    setFetchSize();
 
     final List<String> resultSetColumns = new ArrayList<>();
     try
@@ -124,7 +137,14 @@ final class MetadataResultSet
     }
     this.resultSetColumns = Collections.unmodifiableList(resultSetColumns);
 
-    readColumns = new HashSet<>();
+    // Like JDBC, use the first column if a label is repeated
+    resultSetColumnIndexes = new HashMap<>();
+    for (int i = 0; i < resultSetColumns.size(); i++)
+    {
+      resultSetColumnIndexes.putIfAbsent(resultSetColumns.get(i), i + 1);
+    }
+
+    readColumns = new BitSet(resultSetColumns.size() + 1);
   }
 
   /**
@@ -141,12 +161,21 @@ final class MetadataResultSet
   {
     results.close();
 
+    // Count the last, partly filled batch, or the empty one
+    if (batchRowCount > 0 || rowCount == 0)
+    {
+      roundTrips = roundTrips + 1;
+    }
+    fetchSizePolicy.record(rowCount, roundTrips);
+
     if (LOGGER.isLoggable(Level.INFO) && !isBlank(description))
     {
       LOGGER.log(Level.INFO,
-                 new StringFormat("Processed %d rows for <%s>",
+                 new StringFormat("Processed %d rows for <%s>, in about %d round trips, with a final fetch size of %d",
                                   rowCount,
-                                  description));
+                                  description,
+                                  roundTrips,
+                                  fetchSize));
     }
   }
 
@@ -162,11 +191,12 @@ final class MetadataResultSet
     final Map<String, Object> attributes = new HashMap<>();
     for (final String columnName: resultSetColumns)
     {
-      if (!readColumns.contains(columnName))
+      final int columnIndex = resultSetColumnIndexes.get(columnName);
+      if (!readColumns.get(columnIndex))
       {
         try
         {
-          final Object value = results.getObject(columnName);
+          final Object value = results.getObject(columnIndex);
           attributes.put(columnName, value);
         }
         catch (final SQLException | ArrayIndexOutOfBoundsException e)
@@ -219,11 +249,12 @@ final class MetadataResultSet
    */
   boolean getBoolean(final String columnName)
   {
-    if (useColumn(columnName))
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0)
     {
       try
       {
-        final Object booleanValue = results.getObject(columnName);
+        final Object booleanValue = results.getObject(columnIndex);
         final String stringBooleanValue;
         if (results.wasNull() || booleanValue == null)
         {
@@ -327,11 +358,12 @@ final class MetadataResultSet
   int getInt(final String columnName, final int defaultValue)
   {
     int value = defaultValue;
-    if (useColumn(columnName))
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0)
     {
       try
       {
-        value = results.getInt(columnName);
+        value = results.getInt(columnIndex);
         if (results.wasNull())
         {
           LOGGER.log(Level.FINER,
@@ -365,11 +397,12 @@ final class MetadataResultSet
   long getLong(final String columnName, final long defaultValue)
   {
     long value = defaultValue;
-    if (useColumn(columnName))
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0)
     {
       try
       {
-        value = results.getLong(columnName);
+        value = results.getLong(columnIndex);
         if (results.wasNull())
         {
           LOGGER.log(Level.FINER,
@@ -403,11 +436,12 @@ final class MetadataResultSet
   short getShort(final String columnName, final short defaultValue)
   {
     short value = defaultValue;
-    if (useColumn(columnName))
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0)
     {
       try
       {
-        value = results.getShort(columnName);
+        value = results.getShort(columnIndex);
         if (results.wasNull())
         {
           LOGGER.log(Level.FINER,
@@ -438,11 +472,12 @@ final class MetadataResultSet
   String getString(final String columnName)
   {
     String value = null;
-    if (useColumn(columnName))
+    final int columnIndex = useColumn(columnName);
+    if (columnIndex > 0)
     {
       try
       {
-        value = results.getString(columnName);
+        value = results.getString(columnIndex);
         if (results.wasNull())
         {
           value = null;
@@ -479,13 +514,26 @@ final class MetadataResultSet
   boolean next()
     throws SQLException
   {
-    readColumns = new HashSet<>();
+    readColumns.clear();
 
     final boolean next = results.next();
     logSQLWarnings(results);
     if (next)
     {
       rowCount = rowCount + 1;
+      batchRowCount = batchRowCount + 1;
+      if (batchRowCount >= fetchSize)
+      {
+        roundTrips = roundTrips + 1;
+        batchRowCount = 0;
+
+        final int nextFetchSize = fetchSizePolicy.getNextFetchSize(fetchSize);
+        if (nextFetchSize != fetchSize)
+        {
+          fetchSize = nextFetchSize;
+          setFetchSize();
+        }
+      }
     }
     return next;
   }
@@ -496,15 +544,39 @@ final class MetadataResultSet
     this.description = description;
   }
 
-  private boolean useColumn(final String columnName)
+  private void setFetchSize()
+  {
+    try
+    {
+      results.setFetchSize(fetchSize);
+    }
+    catch (final NullPointerException | SQLException e)
+    {
+      LOGGER.log(Level.WARNING, "Could not set fetch size", e);
+    }
+  }
+
+  /**
+   * Marks a column as read, so that it is not returned as an additional
+   * attribute.
+   *
+   * @param columnName
+   *        Column name
+   * @return Column index, or 0 if the column is not in the result set
+   */
+  private int useColumn(final String columnName)
   {
-    final boolean useColumn = columnName != null
-                              && resultSetColumns.contains(columnName);
-    if (useColumn)
+    if (columnName == null)
+    {
+      return 0;
+    }
+    final Integer columnIndex = resultSetColumnIndexes.get(columnName);
+    if (columnIndex == null)
     {
-      readColumns.add(columnName);
+      return 0;
     }
-    return useColumn;
+    readColumns.set(columnIndex);
+    return columnIndex;
   }
 
 }
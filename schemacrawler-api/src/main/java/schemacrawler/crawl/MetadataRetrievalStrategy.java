@@ -33,6 +33,11 @@ public enum MetadataRetrievalStrategy
 
  metadata,
  metadata_all,
- data_dictionary_all;
+ data_dictionary_all,
+ /**
+  * Chooses between the other strategies at crawl time, by timing
+  * probe metadata calls.
+  */
+ adaptive;
 
 }
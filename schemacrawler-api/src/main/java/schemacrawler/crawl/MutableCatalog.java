@@ -309,6 +309,17 @@ final class MutableCatalog
     return routines.lookup(schema, name);
   }
 
+  /**
+   * Looks up a routine by catalog, schema and routine name, without
+   * creating a schema reference.
+   */
+  Optional<MutableRoutine> lookupRoutine(final String catalogName,
+                                         final String schemaName,
+                                         final String name)
+  {
+    return routines.lookup(catalogName, schemaName, name);
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -370,6 +381,17 @@ final class MutableCatalog
     return tables.lookup(schemaRef, name);
   }
 
+  /**
+   * Looks up a table by catalog, schema and table name, without
+   * creating a schema reference.
+   */
+  Optional<MutableTable> lookupTable(final String catalogName,
+                                     final String schemaName,
+                                     final String name)
+  {
+    return tables.lookup(catalogName, schemaName, name);
+  }
+
   @Override
   public <N extends NamedObject> void reduce(final Class<N> clazz,
                                              final Reducer<N> reducer)
@@ -47,6 +47,10 @@ import sf.util.ObjectToString;
 
 /**
  * Ordered list of named objects, that can be searched associatively.
+ * The list is safe for use from multiple threads, so that independent
+ * crawl phases can add objects to the same catalog concurrently. The
+ * sorted view of the list is cached, and only rebuilt after the list
+ * is modified, or when the objects are no longer in order.
  *
  * @author Sualeh Fatehi
  */
@@ -70,43 +74,14 @@ class NamedObjectList<N extends NamedObject>
     return key;
   }
 
-  private static String makeLookupKey(final NamedObject namedObject,
-                                      final String name)
-  {
-    final StringBuilder buffer = new StringBuilder(256);
-
-    final String key;
-    final String namedObjectLookupKey = makeLookupKey(namedObject);
-
-    if (namedObjectLookupKey != null)
-    {
-      buffer.append(namedObjectLookupKey);
-    }
-    if (buffer.length() > 0)
-    {
-      buffer.append('.');
-    }
-    buffer.append(name);
-
-    key = buffer.toString();
-    return key;
-  }
-
-  private static String makeLookupKey(final String fullName)
-  {
-    final String key;
-    if (isBlank(fullName))
-    {
-      key = null;
-    }
-    else
-    {
-      key = fullName;
-    }
-    return key;
-  }
-
   private final Map<String, N> objects = new HashMap<>();
+  // Index of the same objects by lookup keys, so that lookups do not
+  // build a string key; not serialized, and rebuilt when needed
+  private transient Map<LookupKey, N> index;
+  // Reused for lookups, which are synchronized, so that they do not
+  // allocate a key
+  private transient LookupKey probe;
+  private transient List<N> sortedValues;
 
   /**
    * Add a named object to the list.
@@ -115,11 +90,16 @@ class NamedObjectList<N extends NamedObject>
    *        Named object
    */
   @Override
-  public boolean add(final N namedObject)
+  public synchronized boolean add(final N namedObject)
   {
     requireNonNull(namedObject, "Cannot add a null object to the list");
     final String key = makeLookupKey(namedObject);
     objects.put(key, namedObject);
+    if (index != null)
+    {
+      index.put(new LookupKey(key), namedObject);
+    }
+    sortedValues = null;
     return true;
   }
 
@@ -130,15 +110,17 @@ class NamedObjectList<N extends NamedObject>
   }
 
   @Override
-  public void clear()
+  public synchronized void clear()
   {
     objects.clear();
+    index = null;
+    sortedValues = null;
   }
 
   @Override
-  public boolean contains(final Object object)
+  public synchronized boolean contains(final Object object)
   {
-    return objects.containsKey(makeLookupKey((N) object));
+    return index().containsKey(probe(object));
   }
 
   @Override
@@ -155,7 +137,7 @@ class NamedObjectList<N extends NamedObject>
   }
 
   @Override
-  public boolean isEmpty()
+  public synchronized boolean isEmpty()
   {
     return objects.isEmpty();
   }
@@ -166,20 +148,19 @@ class NamedObjectList<N extends NamedObject>
    * @see java.lang.Iterable#iterator()
    */
   @Override
-  public Iterator<N> iterator()
+  public synchronized Iterator<N> iterator()
   {
     return values().iterator();
   }
 
   @Override
-  public boolean remove(final Object object)
+  public synchronized boolean remove(final Object object)
   {
-    final N removedObject = objects.remove(makeLookupKey((N) object));
-    return removedObject != null;
+    return internalRemove(probe(object)) != null;
   }
 
   @Override
-  public boolean removeAll(final Collection<?> c)
+  public synchronized boolean removeAll(final Collection<?> c)
   {
     if (c == null)
     {
@@ -193,8 +174,7 @@ class NamedObjectList<N extends NamedObject>
       final N namedObject = iterator.next();
       if (namedObject != null && c.contains(namedObject))
       {
-        final String key = makeLookupKey(namedObject);
-        objects.remove(key);
+        internalRemove(probe(namedObject));
         modified = true;
       }
     }
@@ -202,7 +182,7 @@ class NamedObjectList<N extends NamedObject>
   }
 
   @Override
-  public boolean retainAll(final Collection<?> c)
+  public synchronized boolean retainAll(final Collection<?> c)
   {
     if (c == null)
     {
@@ -216,8 +196,7 @@ class NamedObjectList<N extends NamedObject>
       final N namedObject = iterator.next();
       if (namedObject != null && !c.contains(namedObject))
       {
-        final String key = makeLookupKey(namedObject);
-        objects.remove(key);
+        internalRemove(probe(namedObject));
         modified = true;
       }
     }
@@ -230,19 +209,19 @@ class NamedObjectList<N extends NamedObject>
    * @return Number of elements in this list.
    */
   @Override
-  public int size()
+  public synchronized int size()
   {
     return objects.size();
   }
 
   @Override
-  public Object[] toArray()
+  public synchronized Object[] toArray()
   {
     return values().toArray();
   }
 
   @Override
-  public <T> T[] toArray(final T[] a)
+  public synchronized <T> T[] toArray(final T[] a)
   {
     return values().toArray(a);
   }
@@ -253,15 +232,52 @@ class NamedObjectList<N extends NamedObject>
    * @see java.lang.Object#toString()
    */
   @Override
-  public String toString()
+  public synchronized String toString()
   {
     return ObjectToString.toString(values());
   }
 
-  Optional<N> lookup(final NamedObject namedObject, final String name)
+  synchronized Optional<N> lookup(final NamedObject namedObject, final String name)
   {
-    final String key = makeLookupKey(namedObject, name);
-    return internalGet(key);
+    if (name == null)
+    {
+      return Optional.empty();
+    }
+    final String parentKey;
+    if (namedObject == null)
+    {
+      parentKey = null;
+    }
+    else
+    {
+      parentKey = namedObject.getLookupKey();
+    }
+    return internalGet(probe().set(null, parentKey, name));
+  }
+
+  /**
+   * Looks up a named object by the names of its catalog and schema, and
+   * its own name, without building the fully qualified name.
+   *
+   * @param catalogName
+   *        Catalog name, may be blank
+   * @param schemaName
+   *        Schema name, may be blank
+   * @param name
+   *        Name of the object
+   * @return Named object
+   */
+  synchronized Optional<N> lookup(final String catalogName,
+                                  final String schemaName,
+                                  final String name)
+  {
+    if (name == null)
+    {
+      return Optional.empty();
+    }
+    return internalGet(probe().set(isBlank(catalogName)? null: catalogName,
+                                 isBlank(schemaName)? null: schemaName,
+                                 name));
   }
 
   /**
@@ -271,37 +287,107 @@ class NamedObjectList<N extends NamedObject>
    *        Fully qualified name
    * @return Named object
    */
-  Optional<N> lookup(final String fullName)
+  synchronized Optional<N> lookup(final String fullName)
   {
-    final String key = makeLookupKey(fullName);
-    return internalGet(key);
+    if (isBlank(fullName))
+    {
+      return Optional.empty();
+    }
+    return internalGet(probe().set(null, null, fullName));
   }
 
-  N remove(final N namedObject)
+  synchronized N remove(final N namedObject)
   {
-    return objects.remove(makeLookupKey(namedObject));
+    return internalRemove(probe(namedObject));
   }
 
-  N remove(final String fullName)
+  synchronized N remove(final String fullName)
   {
-    return objects.remove(makeLookupKey(fullName));
+    if (isBlank(fullName))
+    {
+      return null;
+    }
+    return internalRemove(probe().set(null, null, fullName));
   }
 
   /**
-   * Gets all named objects in the list, in sorted order.
+   * Discards the sorted view of the named objects. This needs to be
+   * called when objects change their sort order after they have been
+   * added, for example when tables are sorted by foreign key
+   * dependencies.
+   */
+  synchronized void sortOrderChanged()
+  {
+    sortedValues = null;
+  }
+
+  /**
+   * Gets all named objects in the list, in sorted order. The returned
+   * list is a snapshot, and cannot be modified.
    *
    * @return All named objects
    */
-  List<N> values()
+  synchronized List<N> values()
+  {
+    if (sortedValues == null)
+    {
+      final List<N> all = new ArrayList<>(objects.values());
+      Collections.sort(all);
+      sortedValues = Collections.unmodifiableList(all);
+    }
+    return sortedValues;
+  }
+
+  private Map<LookupKey, N> index()
   {
-    final List<N> all = new ArrayList<>(objects.values());
-    Collections.sort(all);
-    return all;
+    if (index == null)
+    {
+      index = new HashMap<>(objects.size() * 2);
+      for (final Map.Entry<String, N> entry: objects.entrySet())
+      {
+        index.put(new LookupKey(entry.getKey()), entry.getValue());
+      }
+    }
+    return index;
   }
 
-  private Optional<N> internalGet(final String key)
+  private synchronized Optional<N> internalGet(final LookupKey key)
   {
-    return Optional.ofNullable(objects.get(key));
+    return Optional.ofNullable(index().get(key));
+  }
+
+  private N internalRemove(final LookupKey key)
+  {
+    final N removedObject = index().remove(key);
+    if (removedObject != null)
+    {
+      objects.remove(key.toString());
+      sortedValues = null;
+    }
+    return removedObject;
+  }
+
+  private LookupKey probe()
+  {
+    if (probe == null)
+    {
+      probe = new LookupKey();
+    }
+    return probe;
+  }
+
+  private LookupKey probe(final Object object)
+  {
+    final String key;
+    if (object instanceof NamedObject)
+    {
+      key = ((NamedObject) object).getLookupKey();
+    }
+    else
+    {
+      key = null;
+    }
+    return probe().set(null, null, key);
   }
 
 }
@@ -0,0 +1,355 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import sf.util.StringFormat;
+
+/**
+ * Chooses a metadata retrieval strategy for a retrieval phase, such as
+ * table columns or indexes, when the adaptive strategy is requested. A
+ * metadata call for a single table and for a single schema are timed,
+ * and extrapolated to the number of tables and schemas in the catalog,
+ * to decide whether to retrieve table by table, or in bulk. Choices
+ * are remembered per JDBC URL for the life of the JVM, and optionally
+ * saved to a file, so that later crawls do not need to probe again.
+ * The JDBC URL is hashed, so that credentials or host names in the URL
+ * are not saved to the file.
+ *
+ * @author Sualeh Fatehi
+ */
+final class RetrievalStrategyPlanner
+{
+
+  /**
+   * Makes a metadata call for a single table or schema.
+   */
+  @FunctionalInterface
+  interface MetadataProbe<T>
+  {
+
+    ResultSet query(T shard, DatabaseMetaData metaData)
+      throws SQLException;
+
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(RetrievalStrategyPlanner.class.getName());
+
+  private static final Properties learnedStrategies = new Properties();
+
+  /**
+   * Hashes a JDBC URL, for use in learned strategy keys.
+   *
+   * @return Hash of the JDBC URL, or null if it cannot be hashed
+   */
+  private static String hashJdbcUrl(final String jdbcUrl)
+  {
+    if (jdbcUrl == null)
+    {
+      return null;
+    }
+
+    final byte[] hash;
+    try
+    {
+      hash = MessageDigest.getInstance("SHA-256")
+        .digest(jdbcUrl.getBytes(UTF_8));
+    }
+    catch (final NoSuchAlgorithmException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 "Could not hash JDBC URL, so retrieval strategies will not be learned",
+                 e);
+      return null;
+    }
+
+    final StringBuilder buffer = new StringBuilder(hash.length * 2);
+    for (final byte b: hash)
+    {
+      buffer.append(String.format("%02x", b));
+    }
+    return buffer.toString();
+  }
+
+  private final DatabaseMetaData metaData;
+  private final String jdbcUrlHash;
+  private final Optional<Path> learnedStrategiesFile;
+  private boolean isLearnedStrategiesFileLoaded;
+
+  RetrievalStrategyPlanner(final DatabaseMetaData metaData,
+                           final Optional<Path> learnedStrategiesFile)
+    throws SQLException
+  {
+    this.metaData = requireNonNull(metaData, "No database metadata provided");
+    this.learnedStrategiesFile = requireNonNull(learnedStrategiesFile);
+    jdbcUrlHash = hashJdbcUrl(metaData.getURL());
+  }
+
+  /**
+   * Chooses a retrieval strategy for a retrieval phase. Data dictionary
+   * SQL is always preferred if it is provided, since it retrieves
+   * everything in a single query.
+   *
+   * @param phase
+   *        Description of the metadata being retrieved
+   * @param hasDataDictionarySql
+   *        Whether data dictionary SQL is provided for this phase
+   * @param tables
+   *        All tables in the catalog
+   * @param schemaCount
+   *        Number of schemas in the catalog
+   * @param perTableProbe
+   *        Metadata call for a single table
+   * @param perSchemaProbe
+   *        Metadata call for all tables in a single schema
+   * @return Retrieval strategy to use
+   */
+  <T extends Table> MetadataRetrievalStrategy plan(final String phase,
+                                                   final boolean hasDataDictionarySql,
+                                                   final Collection<T> tables,
+                                                   final int schemaCount,
+                                                   final MetadataProbe<? super T> perTableProbe,
+                                                   final MetadataProbe<Schema> perSchemaProbe)
+  {
+    if (hasDataDictionarySql)
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Retrieving %s using data dictionary SQL",
+                                  phase));
+      return MetadataRetrievalStrategy.data_dictionary_all;
+    }
+
+    final String key = jdbcUrlHash + "#" + phase;
+    final Optional<MetadataRetrievalStrategy> learnedStrategy = lookupLearnedStrategy(key);
+    if (learnedStrategy.isPresent())
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Retrieving %s using learned strategy <%s>",
+                                  phase,
+                                  learnedStrategy.get()));
+      return learnedStrategy.get();
+    }
+
+    if (tables.isEmpty())
+    {
+      return MetadataRetrievalStrategy.metadata;
+    }
+
+    final T table = tables.iterator().next();
+    final long perTableNanos;
+    try
+    {
+      perTableNanos = time(perTableProbe, table);
+    }
+    catch (final SQLException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e,
+                 new StringFormat("Could not probe retrieval of %s, retrieving for each table",
+                                  phase));
+      return MetadataRetrievalStrategy.metadata;
+    }
+
+    final long perSchemaNanos;
+    try
+    {
+      perSchemaNanos = time(perSchemaProbe, table.getSchema());
+    }
+    catch (final SQLException e)
+    {
+      // Bulk retrieval is not supported by the JDBC driver, so there is
+      // no need to probe again
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Retrieving %s for each table, since bulk retrieval is not supported: %s",
+                                  phase,
+                                  e.getMessage()));
+      learnStrategy(key, MetadataRetrievalStrategy.metadata);
+      return MetadataRetrievalStrategy.metadata;
+    }
+
+    final long perTableEstimate = perTableNanos * tables.size();
+    final long bulkEstimate = perSchemaNanos * Math.max(1, schemaCount);
+    final MetadataRetrievalStrategy strategy;
+    if (bulkEstimate < perTableEstimate)
+    {
+      strategy = MetadataRetrievalStrategy.metadata_all;
+    }
+    else
+    {
+      strategy = MetadataRetrievalStrategy.metadata;
+    }
+    LOGGER.log(Level.INFO,
+               new StringFormat("Retrieving %s using strategy <%s>, with an estimated %d ms table by table, and %d ms in bulk",
+                                phase,
+                                strategy,
+                                TimeUnit.NANOSECONDS
+                                  .toMillis(perTableEstimate),
+                                TimeUnit.NANOSECONDS.toMillis(bulkEstimate)));
+
+    learnStrategy(key, strategy);
+    return strategy;
+  }
+
+  private void learnStrategy(final String key,
+                             final MetadataRetrievalStrategy strategy)
+  {
+    if (jdbcUrlHash == null)
+    {
+      return;
+    }
+
+    synchronized (learnedStrategies)
+    {
+      learnedStrategies.setProperty(key, strategy.name());
+      if (!learnedStrategiesFile.isPresent())
+      {
+        return;
+      }
+
+      // Re-read the file, in case other crawls have learned strategies
+      // in the meantime
+      final Path file = learnedStrategiesFile.get();
+      final Properties fileStrategies = loadLearnedStrategies(file);
+      fileStrategies.setProperty(key, strategy.name());
+      try (final Writer writer = Files.newBufferedWriter(file);)
+      {
+        fileStrategies.store(writer, "SchemaCrawler learned retrieval strategies");
+      }
+      catch (final IOException e)
+      {
+        LOGGER.log(Level.WARNING,
+                   e,
+                   new StringFormat("Could not save learned retrieval strategies to <%s>",
+                                    file));
+      }
+    }
+  }
+
+  private Properties loadLearnedStrategies(final Path file)
+  {
+    final Properties fileStrategies = new Properties();
+    if (!Files.isReadable(file))
+    {
+      return fileStrategies;
+    }
+    try (final Reader reader = Files.newBufferedReader(file);)
+    {
+      fileStrategies.load(reader);
+    }
+    catch (final IOException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e,
+                 new StringFormat("Could not load learned retrieval strategies from <%s>",
+                                  file));
+    }
+    return fileStrategies;
+  }
+
+  private Optional<MetadataRetrievalStrategy> lookupLearnedStrategy(final String key)
+  {
+    if (jdbcUrlHash == null)
+    {
+      return Optional.empty();
+    }
+
+    final String strategyName;
+    synchronized (learnedStrategies)
+    {
+      // Strategies learned by other crawls are read from the file once
+      // for each crawl, not for every retrieval phase
+      if (learnedStrategiesFile.isPresent() && !isLearnedStrategiesFileLoaded)
+      {
+        learnedStrategies
+          .putAll(loadLearnedStrategies(learnedStrategiesFile.get()));
+        isLearnedStrategiesFileLoaded = true;
+      }
+      strategyName = learnedStrategies.getProperty(key);
+    }
+
+    if (strategyName == null)
+    {
+      return Optional.empty();
+    }
+    try
+    {
+      final MetadataRetrievalStrategy strategy = MetadataRetrievalStrategy
+        .valueOf(strategyName);
+      if (strategy == MetadataRetrievalStrategy.adaptive)
+      {
+        return Optional.empty();
+      }
+      return Optional.of(strategy);
+    }
+    catch (final IllegalArgumentException e)
+    {
+      LOGGER.log(Level.CONFIG,
+                 new StringFormat("Ignoring unknown learned retrieval strategy <%s>",
+                                  strategyName));
+      return Optional.empty();
+    }
+  }
+
+  private <S> long time(final MetadataProbe<S> probe, final S shard)
+    throws SQLException
+  {
+    final long start = System.nanoTime();
+    try (final ResultSet results = probe.query(shard, metaData);)
+    {
+      while (results.next())
+      {
+        // Read all rows, to include fetch time
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+}
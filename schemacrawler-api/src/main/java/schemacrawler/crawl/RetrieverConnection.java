@@ -36,9 +36,15 @@ import static sf.util.Utility.isBlank;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
@@ -119,10 +125,18 @@ final class RetrieverConnection
   }
 
   private final Connection connection;
+  private final DataSource dataSource;
+  private final Semaphore connectionPermits;
   private final DatabaseMetaData metaData;
   private final boolean supportsCatalogs;
   private final boolean supportsSchemas;
   private final MetadataRetrievalStrategy tableColumnRetrievalStrategy;
+  private final MetadataRetrievalStrategy indexRetrievalStrategy;
+  private final MetadataRetrievalStrategy primaryKeyRetrievalStrategy;
+  private final MetadataRetrievalStrategy foreignKeyRetrievalStrategy;
+  private final RetrievalStrategyPlanner retrievalStrategyPlanner;
+  private final FetchSizePolicy fetchSizePolicy;
+  private final ConcurrentMap<String, String> names;
   private final Identifiers identifiers;
   private final InformationSchemaViews informationSchemaViews;
   private final TableTypes tableTypes;
@@ -132,6 +146,21 @@ final class RetrieverConnection
   RetrieverConnection(final Connection connection,
                       final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions)
     throws SQLException
+  {
+    this(connection, null, null, databaseSpecificOverrideOptions);
+  }
+
+  /**
+   * Wraps a live database connection, along with the data source it
+   * came from. Additional connections can be obtained from the data
+   * source to retrieve metadata in parallel, each with a permit, so
+   * that the connections opened during a crawl are limited.
+   */
+  RetrieverConnection(final Connection connection,
+                      final DataSource dataSource,
+                      final Semaphore connectionPermits,
+                      final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions)
+    throws SQLException
   {
     try
     {
@@ -142,6 +171,8 @@ final class RetrieverConnection
       throw new SQLException("Bad database connection", e);
     }
     this.connection = connection;
+    this.dataSource = dataSource;
+    this.connectionPermits = connectionPermits;
     metaData = connection.getMetaData();
 
     requireNonNull(databaseSpecificOverrideOptions,
@@ -166,6 +197,27 @@ final class RetrieverConnection
 
     tableColumnRetrievalStrategy = databaseSpecificOverrideOptions
       .getTableColumnRetrievalStrategy();
+    indexRetrievalStrategy = databaseSpecificOverrideOptions
+      .getIndexRetrievalStrategy();
+    primaryKeyRetrievalStrategy = databaseSpecificOverrideOptions
+      .getPrimaryKeyRetrievalStrategy();
+    foreignKeyRetrievalStrategy = databaseSpecificOverrideOptions
+      .getForeignKeyRetrievalStrategy();
+    retrievalStrategyPlanner = new RetrievalStrategyPlanner(metaData,
+                                                            databaseSpecificOverrideOptions
+                                                              .getLearnedRetrievalStrategiesFile());
+
+    fetchSizePolicy = new FetchSizePolicy(databaseSpecificOverrideOptions
+      .getMetadataFetchSize(),
+                                          databaseSpecificOverrideOptions
+                                            .getMetadataFetchSizes(),
+                                          databaseSpecificOverrideOptions
+                                            .isAdaptiveMetadataFetchSize());
+    LOGGER.log(Level.CONFIG,
+               new StringFormat("Metadata fetch size is %d%s",
+                                fetchSizePolicy.getFetchSize(null),
+                                fetchSizePolicy.isAdaptive()? ", adaptive"
+                                                            : ""));
 
     final String identifierQuoteString = lookupIdentifierQuoteString(databaseSpecificOverrideOptions,
                                                                      metaData);
@@ -181,6 +233,8 @@ final class RetrieverConnection
 
     typeMap = new TypeMap(connection);
     javaSqlTypes = new JavaSqlTypes();
+
+    names = new ConcurrentHashMap<>();
   }
 
   Connection getConnection()
@@ -188,11 +242,54 @@ final class RetrieverConnection
     return connection;
   }
 
+  /**
+   * Gets the permits for additional connections, which are shared by
+   * all retrievers in a crawl, if connections are limited.
+   *
+   * @return Permits for additional connections
+   */
+  Optional<Semaphore> getConnectionPermits()
+  {
+    return Optional.ofNullable(connectionPermits);
+  }
+
+  /**
+   * Gets the data source that additional connections can be obtained
+   * from, if there is one.
+   *
+   * @return Data source
+   */
+  Optional<DataSource> getDataSource()
+  {
+    return Optional.ofNullable(dataSource);
+  }
+
+  /**
+   * Gets the fetch size policy for metadata result sets, which also
+   * keeps fetch statistics for this connection.
+   *
+   * @return Fetch size policy
+   */
+  FetchSizePolicy getFetchSizePolicy()
+  {
+    return fetchSizePolicy;
+  }
+
+  MetadataRetrievalStrategy getForeignKeyRetrievalStrategy()
+  {
+    return foreignKeyRetrievalStrategy;
+  }
+
   Identifiers getIdentifiers()
   {
     return identifiers;
   }
 
+  MetadataRetrievalStrategy getIndexRetrievalStrategy()
+  {
+    return indexRetrievalStrategy;
+  }
+
   /**
    * Gets the INFORMATION_SCHEMA views select SQL statements.
    *
@@ -213,6 +310,16 @@ final class RetrieverConnection
     return metaData;
   }
 
+  MetadataRetrievalStrategy getPrimaryKeyRetrievalStrategy()
+  {
+    return primaryKeyRetrievalStrategy;
+  }
+
+  RetrievalStrategyPlanner getRetrievalStrategyPlanner()
+  {
+    return retrievalStrategyPlanner;
+  }
+
   MetadataRetrievalStrategy getTableColumnRetrievalStrategy()
   {
     return tableColumnRetrievalStrategy;
@@ -228,6 +335,30 @@ final class RetrieverConnection
     return typeMap;
   }
 
+  /**
+   * Gets a shared instance of a name, such as a catalog, schema, table
+   * or column name. Names are repeated on every row of metadata result
+   * sets, so sharing instances reduces the memory held by the catalog,
+   * and makes lookups faster, since string hash codes are cached.
+   *
+   * @param name
+   *        Name
+   * @return Shared instance of the name
+   */
+  String internName(final String name)
+  {
+    if (name == null)
+    {
+      return null;
+    }
+    final String internedName = names.putIfAbsent(name, name);
+    if (internedName == null)
+    {
+      return name;
+    }
+    return internedName;
+  }
+
   boolean isSupportsCatalogs()
   {
     return supportsCatalogs;
@@ -94,7 +94,8 @@ final class RoutineRetriever
       .getFunctionColumns(unquotedName(function.getSchema().getCatalogName()),
                           unquotedName(function.getSchema().getName()),
                           unquotedName(function.getName()),
-                          null));)
+                          null),
+                                                                 getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -196,7 +197,8 @@ final class RoutineRetriever
     final String schemaName = schema.getName();
 
     try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
-      .getFunctions(unquotedName(catalogName), unquotedName(schemaName), "%"));)
+      .getFunctions(unquotedName(catalogName), unquotedName(schemaName), "%"),
+                                                                 getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -261,7 +263,8 @@ final class RoutineRetriever
       .getProcedureColumns(unquotedName(procedure.getSchema().getCatalogName()),
                            unquotedName(procedure.getSchema().getName()),
                            unquotedName(procedure.getName()),
-                           null));)
+                           null),
+                                                                 getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -360,7 +363,8 @@ final class RoutineRetriever
     try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
       .getProcedures(unquotedName(catalogName),
                      unquotedName(schemaName),
-                     "%"));)
+                     "%"),
+                                                                 getFetchSizePolicy());)
     {
       results.setDescription("retrieveProcedures");
       while (results.next())
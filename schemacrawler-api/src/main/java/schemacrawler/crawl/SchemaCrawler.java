@@ -33,15 +33,41 @@ import static java.util.Objects.requireNonNull;
 import static schemacrawler.filter.FilterFactory.routineFilter;
 import static schemacrawler.filter.FilterFactory.tableFilter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.ForeignKeyColumnReference;
+import schemacrawler.schema.PartialDatabaseObject;
 import schemacrawler.schema.Reducible;
 import schemacrawler.schema.ResultsColumns;
 import schemacrawler.schema.Routine;
@@ -50,6 +76,7 @@ import schemacrawler.schema.Schema;
 import schemacrawler.schema.Sequence;
 import schemacrawler.schema.Synonym;
 import schemacrawler.schema.Table;
+import schemacrawler.schema.TableRelationshipType;
 import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -67,9 +94,29 @@ import sf.util.StringFormat;
 public final class SchemaCrawler
 {
 
+  /**
+   * A single phase of the crawl, such as crawling tables, or routines.
+   */
+  @FunctionalInterface
+  private interface CrawlPhase
+  {
+
+    void crawl(MutableCatalog catalog,
+               RetrieverConnection retrieverConnection,
+               SchemaCrawlerOptions options)
+      throws SchemaCrawlerException;
+
+  }
+
   private static final Logger LOGGER = Logger
     .getLogger(SchemaCrawler.class.getName());
 
+  /**
+   * Number of crawl phases that can run at the same time - database
+   * information, sequences, tables and routines.
+   */
+  private static final int MAX_CONCURRENT_PHASES = 4;
+
   /**
    * Gets the result set columns metadata.
    *
@@ -93,6 +140,77 @@ public final class SchemaCrawler
     return resultColumns;
   }
 
+  /**
+   * Copies tables from a previous catalog, so that the previous catalog
+   * is not changed when the copies are added to a new catalog. The
+   * copies refer to the schemas and column data types of the new
+   * catalog, rather than those of the previous catalog.
+   */
+  private static List<MutableTable> copyTables(final MutableCatalog catalog,
+                                               final List<MutableTable> tables)
+    throws SchemaCrawlerException
+  {
+    if (tables.isEmpty())
+    {
+      return tables;
+    }
+
+    try
+    {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (final ObjectOutputStream out = new ObjectOutputStream(bytes);)
+      {
+        out.writeObject(new ArrayList<>(tables));
+      }
+      try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes
+        .toByteArray()))
+      {
+
+        {
+          enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj)
+        {
+          if (obj instanceof Schema)
+          {
+            final Schema schema = (Schema) obj;
+            final Optional<Schema> catalogSchema = catalog
+              .lookupSchema(schema.getFullName());
+            return catalogSchema.isPresent()? catalogSchema.get()
+                                            : catalog.addSchema(schema);
+          }
+          else if (obj instanceof MutableColumnDataType)
+          {
+            final MutableColumnDataType columnDataType = (MutableColumnDataType) obj;
+            final Optional<MutableColumnDataType> catalogColumnDataType = catalog
+              .lookupColumnDataType(columnDataType.getSchema(),
+                                    columnDataType.getName());
+            if (catalogColumnDataType.isPresent())
+            {
+              return catalogColumnDataType.get();
+            }
+            catalog.addColumnDataType(columnDataType);
+            return columnDataType;
+          }
+          else
+          {
+            return obj;
+          }
+        }
+      };)
+      {
+        return (List<MutableTable>) in.readObject();
+      }
+    }
+    catch (final IOException | ClassNotFoundException e)
+    {
+      throw new SchemaCrawlerException("Could not copy tables from previous catalog",
+                                       e);
+    }
+  }
+
   private static void crawlColumnDataTypes(final MutableCatalog catalog,
                                            final RetrieverConnection retrieverConnection,
                                            final SchemaCrawlerOptions options)
@@ -537,6 +655,56 @@ public final class SchemaCrawler
     }
   }
 
+  /**
+   * Gets the full names of tables that have not been crawled again,
+   * but are referenced by foreign keys of tables that have.
+   */
+  private static Set<String> getReferencedTables(final Catalog catalog)
+  {
+    final Set<String> referencedTables = new HashSet<>();
+    for (final Table table: catalog.getTables())
+    {
+      for (final ForeignKey foreignKey: table.getForeignKeys())
+      {
+        for (final ForeignKeyColumnReference columnReference: foreignKey)
+        {
+          for (final Table referencedTable: Arrays
+            .asList(columnReference.getForeignKeyColumn().getParent(),
+                    columnReference.getPrimaryKeyColumn().getParent()))
+          {
+            if (referencedTable instanceof PartialDatabaseObject)
+            {
+              referencedTables.add(referencedTable.getFullName());
+            }
+          }
+        }
+      }
+    }
+    return referencedTables;
+  }
+
+  static Map<String, String> retrieveTableChangeMarkers(final RetrieverConnection retrieverConnection,
+                                                                final SchemaCrawlerOptions options)
+    throws SchemaCrawlerException
+  {
+    final MutableCatalog catalog = new MutableCatalog("catalog");
+    crawlSchemas(catalog, retrieverConnection, options);
+    try
+    {
+      final TableChangeRetriever retriever = new TableChangeRetriever(retrieverConnection,
+                                                                      catalog,
+                                                                      options);
+      return retriever.retrieveTableChangeMarkers(options.getTableTypes(),
+                                                  options
+                                                    .getTableInclusionRule());
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Exception retrieving table changes",
+                                       e);
+    }
+  }
+
   private static void crawlTables(final MutableCatalog catalog,
                                   final RetrieverConnection retrieverConnection,
                                   final SchemaCrawlerOptions options)
@@ -578,13 +746,10 @@ public final class SchemaCrawler
                                                                      options);
 
       stopWatch.time("retrieveTables", () -> {
-        for (final Schema schema: retriever.getSchemas())
-        {
-          retriever.retrieveTables(schema,
-                                   options.getTableNamePattern(),
-                                   options.getTableTypes(),
-                                   options.getTableInclusionRule());
-        }
+        retriever.retrieveTables(retriever.getSchemas(),
+                                 options.getTableNamePattern(),
+                                 options.getTableTypes(),
+                                 options.getTableInclusionRule());
         return null;
       });
 
@@ -762,6 +927,7 @@ public final class SchemaCrawler
   }
 
   private final Connection connection;
+  private final DataSource dataSource;
   private final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions;
 
   /**
@@ -779,6 +945,31 @@ public final class SchemaCrawler
     throws SchemaCrawlerException
   {
     this.connection = requireNonNull(connection, "No connection specified");
+    dataSource = null;
+    this.databaseSpecificOverrideOptions = requireNonNull(databaseSpecificOverrideOptions,
+                                                          "No database specific overrides provided");
+  }
+
+  /**
+   * Constructs a SchemaCrawler object, from a data source. Independent
+   * phases of the crawl are run concurrently, each on its own
+   * connection obtained from the data source. Tables and routines are
+   * crawled at the same time as sequences and database information, and
+   * synonyms are crawled once both tables and routines are available.
+   *
+   * @param dataSource
+   *        A source of database connections.
+   * @param databaseSpecificOverrideOptions
+   *        Database specific overrides
+   * @throws SchemaCrawlerException
+   *         On a SchemaCrawler exception
+   */
+  public SchemaCrawler(final DataSource dataSource,
+                       final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions)
+    throws SchemaCrawlerException
+  {
+    connection = null;
+    this.dataSource = requireNonNull(dataSource, "No data source specified");
     this.databaseSpecificOverrideOptions = requireNonNull(databaseSpecificOverrideOptions,
                                                           "No database specific overrides provided");
   }
@@ -807,16 +998,29 @@ public final class SchemaCrawler
       {
         schemaCrawlerOptions = options;
       }
-      final RetrieverConnection retrieverConnection = new RetrieverConnection(connection,
-                                                                              databaseSpecificOverrideOptions);
 
-      crawlSchemas(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlDatabaseInfo(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlColumnDataTypes(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlTables(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlRoutines(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlSynonyms(catalog, retrieverConnection, schemaCrawlerOptions);
-      crawlSequences(catalog, retrieverConnection, schemaCrawlerOptions);
+      if (dataSource == null)
+      {
+        final RetrieverConnection retrieverConnection = new RetrieverConnection(connection,
+                                                                                databaseSpecificOverrideOptions);
+
+        crawlSchemas(catalog, retrieverConnection, schemaCrawlerOptions);
+        crawlDatabaseInfo(catalog, retrieverConnection, schemaCrawlerOptions);
+        crawlColumnDataTypes(catalog,
+                             retrieverConnection,
+                             schemaCrawlerOptions);
+        crawlTables(catalog, retrieverConnection, schemaCrawlerOptions);
+        crawlRoutines(catalog, retrieverConnection, schemaCrawlerOptions);
+        crawlSynonyms(catalog, retrieverConnection, schemaCrawlerOptions);
+        crawlSequences(catalog, retrieverConnection, schemaCrawlerOptions);
+
+        LOGGER.log(Level.INFO,
+                   retrieverConnection.getFetchSizePolicy().getStatistics());
+      }
+      else
+      {
+        crawlConcurrently(catalog, schemaCrawlerOptions);
+      }
 
       return catalog;
     }
@@ -826,4 +1030,365 @@ public final class SchemaCrawler
     }
   }
 
+  /**
+   * Crawls the database incrementally, starting from a catalog from a
+   * previous crawl with the same options. Only tables that have changed
+   * since the previous crawl, or that are related to them by foreign
+   * keys, are crawled again, and the rest are taken from the previous
+   * catalog. Changes are detected from the time of the last change to
+   * each table, if the database plugin provides a query for it, or
+   * otherwise from a fingerprint of table and column metadata.
+   * Everything other than tables is crawled again. Tables that are
+   * reused are copied, so the previous catalog is not changed.
+   *
+   * @param options
+   *        SchemaCrawler options that control what metadata is returned
+   * @param previousCatalog
+   *        Catalog from a previous crawl, with tables that are reused
+   *        if they have not changed
+   * @return Database metadata
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  public Catalog crawl(final SchemaCrawlerOptions options,
+                       final Catalog previousCatalog)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(previousCatalog, "No previous catalog provided");
+    final SchemaCrawlerOptions schemaCrawlerOptions;
+    if (options == null)
+    {
+      schemaCrawlerOptions = new SchemaCrawlerOptions();
+    }
+    else
+    {
+      schemaCrawlerOptions = options;
+    }
+
+    if (!schemaCrawlerOptions.getSchemaInfoLevel().isRetrieveTables()
+        || schemaCrawlerOptions.getChildTableFilterDepth() > 0
+        || schemaCrawlerOptions.getParentTableFilterDepth() > 0)
+    {
+      LOGGER
+        .log(Level.INFO,
+             "Crawling all tables, since tables are not retrieved, or related tables are included");
+      return crawl(schemaCrawlerOptions);
+    }
+
+    final Map<String, String> changeMarkers;
+    try
+    {
+      if (dataSource == null)
+      {
+        changeMarkers = retrieveTableChangeMarkers(new RetrieverConnection(connection,
+                                                                           databaseSpecificOverrideOptions),
+                                                   schemaCrawlerOptions);
+      }
+      else
+      {
+        try (final Connection markersConnection = dataSource.getConnection();)
+        {
+          // The markers connection takes one of the allowed connections
+          final Semaphore connectionPermits = new Semaphore(schemaCrawlerOptions
+            .getMaxCrawlConnections() - 1);
+          changeMarkers = retrieveTableChangeMarkers(new RetrieverConnection(markersConnection,
+                                                                             dataSource,
+                                                                             connectionPermits,
+                                                                             databaseSpecificOverrideOptions),
+                                                     schemaCrawlerOptions);
+        }
+      }
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Database access exception", e);
+    }
+
+    final Map<String, MutableTable> previousTables = new HashMap<>();
+    for (final Table table: previousCatalog.getTables())
+    {
+      if (table instanceof MutableTable)
+      {
+        previousTables.put(table.getFullName(), (MutableTable) table);
+      }
+    }
+
+    // Crawl tables that are new or changed, and tables that had
+    // foreign keys to tables that changed or were dropped
+    final Set<String> changedTables = new HashSet<>();
+    for (final Map.Entry<String, String> entry: changeMarkers.entrySet())
+    {
+      final MutableTable previousTable = previousTables.get(entry.getKey());
+      if (previousTable == null || !entry.getValue().equals(previousTable
+        .getAttribute(TableChangeRetriever.TABLE_CHANGE_MARKER)))
+      {
+        changedTables.add(entry.getKey());
+      }
+    }
+    final Set<String> crawlTables = new HashSet<>(changedTables);
+    for (final MutableTable previousTable: previousTables.values())
+    {
+      final String tableName = previousTable.getFullName();
+      if (!changeMarkers.containsKey(tableName)
+          || changedTables.contains(tableName))
+      {
+        for (final TableRelationshipType relationshipType: Arrays
+          .asList(TableRelationshipType.child, TableRelationshipType.parent))
+        {
+          for (final Table relatedTable: previousTable
+            .getRelatedTables(relationshipType))
+          {
+            crawlTables.add(relatedTable.getFullName());
+          }
+        }
+      }
+    }
+    crawlTables.retainAll(changeMarkers.keySet());
+
+    LOGGER.log(Level.INFO,
+               new StringFormat("Crawling %d of %d tables, of which %d have changed",
+                                crawlTables.size(),
+                                changeMarkers.size(),
+                                changedTables.size()));
+
+    // Crawl again if the crawled tables have new foreign keys to tables
+    // that were not crawled, so that foreign keys are complete at both
+    // ends
+    final SchemaCrawlerOptions crawlOptions = new SchemaCrawlerOptions(schemaCrawlerOptions);
+    MutableCatalog catalog;
+    while (true)
+    {
+      final Set<String> crawlTableNames = new HashSet<>(crawlTables);
+      crawlOptions.setTableInclusionRule(crawlTableNames::contains);
+      catalog = (MutableCatalog) crawl(crawlOptions);
+
+      final Set<String> referencedTables = getReferencedTables(catalog);
+      referencedTables.retainAll(previousTables.keySet());
+      referencedTables.retainAll(changeMarkers.keySet());
+      referencedTables.removeAll(crawlTables);
+      if (referencedTables.isEmpty())
+      {
+        break;
+      }
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Crawling again, with %d more related tables",
+                                  referencedTables.size()));
+      crawlTables.addAll(referencedTables);
+    }
+
+    final List<MutableTable> reusedTables = new ArrayList<>();
+    for (final MutableTable previousTable: previousTables.values())
+    {
+      final String tableName = previousTable.getFullName();
+      if (changeMarkers.containsKey(tableName)
+          && !crawlTables.contains(tableName))
+      {
+        reusedTables.add(previousTable);
+      }
+    }
+    for (final MutableTable reusedTable: copyTables(catalog, reusedTables))
+    {
+      catalog.addTable(reusedTable);
+    }
+    // Sort tables again, starting from the same order as a full crawl
+    final NamedObjectList<MutableTable> allTables = catalog.getAllTables();
+    for (final MutableTable table: allTables)
+    {
+      table.setSortIndex(0);
+      final String changeMarker = changeMarkers.get(table.getFullName());
+      if (changeMarker != null && crawlTables.contains(table.getFullName()))
+      {
+        table.setAttribute(TableChangeRetriever.TABLE_CHANGE_MARKER,
+                           changeMarker);
+      }
+    }
+    allTables.sortOrderChanged();
+    final TablesGraph tablesGraph = new TablesGraph(allTables);
+    tablesGraph.setTablesSortIndexes();
+
+    return catalog;
+  }
+
+  /**
+   * Runs the crawl phases on a pool of threads, honoring the
+   * dependencies between phases. Schemas are crawled first, since every
+   * other phase needs them. Column data types need to be known before
+   * tables and routines are crawled, so that columns can reference
+   * system data types. Synonyms refer to tables and routines, so they
+   * are crawled last. Each phase, and each additional connection that
+   * a phase opens, takes a permit, so that no more than the maximum
+   * number of crawl connections are open at the same time.
+   */
+  private void crawlConcurrently(final MutableCatalog catalog,
+                                 final SchemaCrawlerOptions options)
+    throws SchemaCrawlerException, SQLException
+  {
+    final Instant start = Instant.now();
+    final AtomicLong phasesNanos = new AtomicLong();
+    final Semaphore connectionPermits = new Semaphore(options
+      .getMaxCrawlConnections());
+
+    runCrawlPhase("crawlSchemas",
+                  SchemaCrawler::crawlSchemas,
+                  catalog,
+                  options,
+                  connectionPermits,
+                  phasesNanos);
+
+    final ExecutorService executorService = Executors
+      .newFixedThreadPool(MAX_CONCURRENT_PHASES);
+    try
+    {
+      final CompletableFuture<Void> databaseInfo = runCrawlPhaseAsync("crawlDatabaseInfo",
+                                                                      SchemaCrawler::crawlDatabaseInfo,
+                                                                      catalog,
+                                                                      options,
+                                                                      connectionPermits,
+                                                                      phasesNanos,
+                                                                      executorService);
+      final CompletableFuture<Void> sequences = runCrawlPhaseAsync("crawlSequences",
+                                                                   SchemaCrawler::crawlSequences,
+                                                                   catalog,
+                                                                   options,
+                                                                   connectionPermits,
+                                                                   phasesNanos,
+                                                                   executorService);
+      final CompletableFuture<Void> columnDataTypes = runCrawlPhaseAsync("crawlColumnDataTypes",
+                                                                         SchemaCrawler::crawlColumnDataTypes,
+                                                                         catalog,
+                                                                         options,
+                                                                         connectionPermits,
+                                                                         phasesNanos,
+                                                                         executorService);
+      final CompletableFuture<Void> tables = columnDataTypes
+        .thenCompose(ignore -> runCrawlPhaseAsync("crawlTables",
+                                                  SchemaCrawler::crawlTables,
+                                                  catalog,
+                                                  options,
+                                                  connectionPermits,
+                                                  phasesNanos,
+                                                  executorService));
+      final CompletableFuture<Void> routines = columnDataTypes
+        .thenCompose(ignore -> runCrawlPhaseAsync("crawlRoutines",
+                                                  SchemaCrawler::crawlRoutines,
+                                                  catalog,
+                                                  options,
+                                                  connectionPermits,
+                                                  phasesNanos,
+                                                  executorService));
+      final CompletableFuture<Void> synonyms = CompletableFuture
+        .allOf(tables, routines)
+        .thenCompose(ignore -> runCrawlPhaseAsync("crawlSynonyms",
+                                                  SchemaCrawler::crawlSynonyms,
+                                                  catalog,
+                                                  options,
+                                                  connectionPermits,
+                                                  phasesNanos,
+                                                  executorService));
+
+      CompletableFuture.allOf(databaseInfo, sequences, synonyms).join();
+    }
+    catch (final CompletionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SchemaCrawlerException)
+      {
+        throw (SchemaCrawlerException) cause;
+      }
+      else if (cause instanceof SQLException)
+      {
+        throw (SQLException) cause;
+      }
+      else
+      {
+        throw new SchemaCrawlerException("Exception crawling database", cause);
+      }
+    }
+    finally
+    {
+      executorService.shutdownNow();
+    }
+
+    final Duration wallTime = Duration.between(start, Instant.now());
+    final Duration phasesTime = Duration.ofNanos(phasesNanos.get());
+    LOGGER
+      .log(Level.INFO,
+           new StringFormat("Crawled concurrently in %d ms elapsed time, with %d ms total time spent in crawl phases",
+                            wallTime.toMillis(),
+                            phasesTime.toMillis()));
+  }
+
+  private void runCrawlPhase(final String phaseName,
+                             final CrawlPhase crawlPhase,
+                             final MutableCatalog catalog,
+                             final SchemaCrawlerOptions options,
+                             final Semaphore connectionPermits,
+                             final AtomicLong phasesNanos)
+    throws SchemaCrawlerException, SQLException
+  {
+    try
+    {
+      connectionPermits.acquire();
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new SchemaCrawlerException("Interrupted before crawl phase "
+                                       + phaseName,
+                                       e);
+    }
+
+    final Instant start = Instant.now();
+    try (final Connection phaseConnection = dataSource.getConnection();)
+    {
+      final RetrieverConnection retrieverConnection = new RetrieverConnection(phaseConnection,
+                                                                              dataSource,
+                                                                              connectionPermits,
+                                                                              databaseSpecificOverrideOptions);
+      crawlPhase.crawl(catalog, retrieverConnection, options);
+
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Crawl phase <%s>: %s",
+                                  phaseName,
+                                  retrieverConnection.getFetchSizePolicy()
+                                    .getStatistics()));
+    }
+    finally
+    {
+      connectionPermits.release();
+      final Duration phaseTime = Duration.between(start, Instant.now());
+      phasesNanos.addAndGet(phaseTime.toNanos());
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Crawl phase <%s> took %d ms on thread <%s>",
+                                  phaseName,
+                                  phaseTime.toMillis(),
+                                  Thread.currentThread().getName()));
+    }
+  }
+
+  private CompletableFuture<Void> runCrawlPhaseAsync(final String phaseName,
+                                                     final CrawlPhase crawlPhase,
+                                                     final MutableCatalog catalog,
+                                                     final SchemaCrawlerOptions options,
+                                                     final Semaphore connectionPermits,
+                                                     final AtomicLong phasesNanos,
+                                                     final ExecutorService executorService)
+  {
+    return CompletableFuture.runAsync(() -> {
+      try
+      {
+        runCrawlPhase(phaseName,
+                      crawlPhase,
+                      catalog,
+                      options,
+                      connectionPermits,
+                      phasesNanos);
+      }
+      catch (final SchemaCrawlerException | SQLException e)
+      {
+        throw new CompletionException(e);
+      }
+    }, executorService);
+  }
+
 }
@@ -172,7 +172,8 @@ final class SchemaRetriever
     if (supportsSchemas)
     {
       try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
-        .getSchemas());)
+        .getSchemas(),
+                                                                   getFetchSizePolicy());)
       {
         results.setDescription("retrieveAllSchemas");
         while (results.next())
@@ -247,7 +248,8 @@ final class SchemaRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(schemataSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrieveAllSchemasFromInformationSchemaViews");
       while (results.next())
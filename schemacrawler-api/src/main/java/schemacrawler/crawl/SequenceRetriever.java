@@ -107,7 +107,8 @@ final class SequenceRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(sequencesDefinitionSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -0,0 +1,229 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import sf.util.StringFormat;
+
+/**
+ * Retrieves metadata for a collection of shards - such as schemas, or
+ * tables - using a pool of worker threads, each with its own database
+ * connection. The calling thread works on shards too, using the
+ * connection of the retriever, so retrieval degrades to serial
+ * retrieval if no additional connections can be obtained. Workers only
+ * open a connection if they get a permit for it, so that a crawl never
+ * has more connections open than allowed, across all of its phases.
+ *
+ * @author Sualeh Fatehi
+ */
+final class ShardedRetrieval
+{
+
+  /**
+   * Retrieves metadata for a single shard, using the provided database
+   * metadata.
+   */
+  @FunctionalInterface
+  interface ShardRetriever<S>
+  {
+
+    void retrieve(S shard, DatabaseMetaData metaData)
+      throws SQLException;
+
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(ShardedRetrieval.class.getName());
+
+  private final RetrieverConnection retrieverConnection;
+  private final int parallelism;
+
+  ShardedRetrieval(final RetrieverConnection retrieverConnection,
+                   final int parallelism)
+  {
+    this.retrieverConnection = requireNonNull(retrieverConnection,
+                                              "No retriever connection provided");
+    this.parallelism = parallelism;
+  }
+
+  <S> void retrieve(final String description,
+                    final Collection<S> shards,
+                    final ShardRetriever<S> shardRetriever)
+    throws SQLException
+  {
+    requireNonNull(shards, "No shards provided");
+    requireNonNull(shardRetriever, "No shard retriever provided");
+
+    final Optional<DataSource> dataSource = retrieverConnection
+      .getDataSource();
+    final Optional<Semaphore> connectionPermits = retrieverConnection
+      .getConnectionPermits();
+    final int additionalWorkers = Math.min(parallelism, shards.size()) - 1;
+    if (!dataSource.isPresent() || additionalWorkers < 1)
+    {
+      final DatabaseMetaData metaData = retrieverConnection.getMetaData();
+      for (final S shard: shards)
+      {
+        shardRetriever.retrieve(shard, metaData);
+      }
+      return;
+    }
+
+    LOGGER.log(Level.INFO,
+               new StringFormat("Retrieving %s for %d shards, using %d threads",
+                                description,
+                                shards.size(),
+                                additionalWorkers + 1));
+
+    final Queue<S> pendingShards = new ConcurrentLinkedQueue<>(shards);
+    final AtomicReference<SQLException> failure = new AtomicReference<>();
+
+    final ExecutorService executorService = Executors
+      .newFixedThreadPool(additionalWorkers);
+    try
+    {
+      final List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < additionalWorkers; i++)
+      {
+        workers.add(executorService.submit(() -> {
+          if (connectionPermits.isPresent()
+              && !connectionPermits.get().tryAcquire())
+          {
+            LOGGER.log(Level.FINE,
+                       new StringFormat("No more connections allowed to retrieve %s",
+                                        description));
+            return;
+          }
+          try (final Connection connection = dataSource.get().getConnection();)
+          {
+            work(pendingShards,
+                 shardRetriever,
+                 connection.getMetaData(),
+                 failure);
+          }
+          catch (final SQLException e)
+          {
+            LOGGER.log(Level.WARNING,
+                       e,
+                       new StringFormat("Could not obtain an additional connection to retrieve %s",
+                                        description));
+          }
+          finally
+          {
+            connectionPermits.ifPresent(Semaphore::release);
+          }
+        }));
+      }
+
+      work(pendingShards,
+           shardRetriever,
+           retrieverConnection.getMetaData(),
+           failure);
+
+      for (final Future<?> worker: workers)
+      {
+        worker.get();
+      }
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while retrieving " + description,
+                             e);
+    }
+    catch (final ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SQLException)
+      {
+        throw (SQLException) cause;
+      }
+      else if (cause instanceof RuntimeException)
+      {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error)
+      {
+        throw (Error) cause;
+      }
+      throw new SQLException("Could not retrieve " + description, cause);
+    }
+    finally
+    {
+      executorService.shutdownNow();
+    }
+
+    if (failure.get() != null)
+    {
+      throw failure.get();
+    }
+  }
+
+  private <S> void work(final Queue<S> pendingShards,
+                        final ShardRetriever<S> shardRetriever,
+                        final DatabaseMetaData metaData,
+                        final AtomicReference<SQLException> failure)
+  {
+    S shard;
+    while (failure.get() == null && (shard = pendingShards.poll()) != null)
+    {
+      try
+      {
+        shardRetriever.retrieve(shard, metaData);
+      }
+      catch (final SQLException e)
+      {
+        failure.compareAndSet(null, e);
+      }
+    }
+  }
+
+}
@@ -109,7 +109,8 @@ final class SynonymRetriever
     try (final Statement statement = connection.createStatement();
         MetadataResultSet results = new MetadataResultSet(synonymsDefinitionSql,
                                                           statement,
-                                                          getSchemaInclusionRule());)
+                                                          getSchemaInclusionRule(),
+                                                          getFetchSizePolicy());)
     {
       while (results.next())
       {
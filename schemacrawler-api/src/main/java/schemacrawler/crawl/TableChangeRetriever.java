@@ -0,0 +1,337 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.filter.InclusionRuleFilter;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.utility.Query;
+import sf.util.StringFormat;
+
+/**
+ * A retriever that gets a change marker for each table, which changes
+ * whenever the definition of the table changes. The change marker is
+ * the time of the last change to the table, from a database specific
+ * query, if one is available. Otherwise, it is a fingerprint of the
+ * table and column metadata, which takes one metadata call for the
+ * tables and one for the columns in each schema.
+ *
+ * @author Sualeh Fatehi
+ */
+final class TableChangeRetriever
+  extends AbstractRetriever
+{
+
+  /**
+   * Table attribute with the change marker of the table, when it was
+   * crawled.
+   */
+  static final String TABLE_CHANGE_MARKER = "schemacrawler.table.change_marker";
+
+  private static final Logger LOGGER = Logger
+    .getLogger(TableChangeRetriever.class.getName());
+
+  TableChangeRetriever(final RetrieverConnection retrieverConnection,
+                       final MutableCatalog catalog,
+                       final SchemaCrawlerOptions options)
+    throws SQLException
+  {
+    super(retrieverConnection, catalog, options);
+  }
+
+  /**
+   * Gets change markers for tables in the schemas of the catalog.
+   *
+   * @param tableTypes
+   *        Table types to get change markers for
+   * @param tableInclusionRule
+   *        Tables to get change markers for
+   * @return Change markers, by table full name
+   * @throws SQLException
+   *         On a SQL exception
+   */
+  Map<String, String> retrieveTableChangeMarkers(final Collection<String> tableTypes,
+                                                 final InclusionRule tableInclusionRule)
+    throws SQLException
+  {
+    final InclusionRuleFilter<Table> tableFilter = new InclusionRuleFilter<>(tableInclusionRule,
+                                                                             false);
+    final String[] filteredTableTypes = getRetrieverConnection()
+      .getTableTypes().filterUnknown(tableTypes);
+    final InformationSchemaViews informationSchemaViews = getRetrieverConnection()
+      .getInformationSchemaViews();
+    if (informationSchemaViews.hasExtTableChangesSql())
+    {
+      try
+      {
+        final Map<String, String> changeMarkers = retrieveTableChangeTimes(informationSchemaViews
+          .getExtTableChangesSql(), tableFilter);
+        if (filteredTableTypes != null)
+        {
+          // The query does not return table types, so keep only the
+          // tables of the requested types
+          changeMarkers.keySet()
+            .retainAll(retrieveTableNames(filteredTableTypes, tableFilter));
+        }
+        return changeMarkers;
+      }
+      catch (final SQLException e)
+      {
+        LOGGER.log(Level.WARNING,
+                   "Could not retrieve table change times, so using table fingerprints",
+                   e);
+      }
+    }
+
+    LOGGER.log(Level.INFO, "Retrieving table fingerprints");
+    final Map<String, String> changeMarkers = new ConcurrentHashMap<>();
+    retrieveSharded("table fingerprints",
+                    getSchemas(),
+                    (schema, metaData) -> retrieveTableFingerprints(schema,
+                                                                    filteredTableTypes,
+                                                                    tableFilter,
+                                                                    metaData,
+                                                                    changeMarkers));
+    return changeMarkers;
+  }
+
+  private Optional<Schema> lookupSchema(final String catalogName,
+                                        final String schemaName)
+  {
+    final boolean supportsCatalogs = getRetrieverConnection()
+      .isSupportsCatalogs();
+    for (final Schema schema: getSchemas())
+    {
+      // Data dictionary queries may not return a catalog name
+      final boolean belongsToCatalog = !supportsCatalogs || catalogName == null
+                                       || unquotedName(catalogName)
+                                         .equals(unquotedName(schema
+                                           .getCatalogName()));
+      final boolean belongsToSchema = schemaName == null
+                                      || unquotedName(schemaName)
+                                        .equals(unquotedName(schema
+                                          .getName()));
+      if (belongsToCatalog && belongsToSchema)
+      {
+        return Optional.of(schema);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the time of the last change to each table, using a database
+   * specific query. The query returns TABLE_CATALOG, TABLE_SCHEMA,
+   * TABLE_NAME and LAST_DDL_TIME columns.
+   */
+  private Map<String, String> retrieveTableChangeTimes(final Query tableChangesSql,
+                                                       final InclusionRuleFilter<Table> tableFilter)
+    throws SQLException
+  {
+    LOGGER.log(Level.INFO, "Retrieving table change times");
+
+    final Map<String, String> changeMarkers = new HashMap<>();
+    final Connection connection = getDatabaseConnection();
+    try (final Statement statement = connection.createStatement();
+        final MetadataResultSet results = new MetadataResultSet(tableChangesSql,
+                                                                statement,
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
+    {
+      while (results.next())
+      {
+        final String catalogName = quotedName(results
+          .getString("TABLE_CATALOG"));
+        final String schemaName = quotedName(results.getString("TABLE_SCHEMA"));
+        final String tableName = quotedName(results.getString("TABLE_NAME"));
+        final String lastDdlTime = results.getString("LAST_DDL_TIME");
+
+        final Optional<Schema> schemaOptional = lookupSchema(catalogName,
+                                                             schemaName);
+        if (!schemaOptional.isPresent() || lastDdlTime == null)
+        {
+          continue;
+        }
+        final Table table = new MutableTable(schemaOptional.get(), tableName);
+        if (tableFilter.test(table))
+        {
+          changeMarkers.put(table.getFullName(), lastDdlTime);
+        }
+      }
+    }
+    return changeMarkers;
+  }
+
+  private void retrieveTableFingerprints(final Schema schema,
+                                         final String[] filteredTableTypes,
+                                         final InclusionRuleFilter<Table> tableFilter,
+                                         final DatabaseMetaData metaData,
+                                         final Map<String, String> changeMarkers)
+    throws SQLException
+  {
+    requireNonNull(schema, "No schema provided");
+
+    final String catalogName = unquotedName(schema.getCatalogName());
+    final String schemaName = unquotedName(schema.getName());
+
+    final Map<String, StringBuilder> fingerprints = new HashMap<>();
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
+      .getTables(catalogName, schemaName, "%", filteredTableTypes),
+                                                                 getFetchSizePolicy());)
+    {
+      results.setDescription("retrieveTableFingerprints");
+      while (results.next())
+      {
+        final String tableName = quotedName(results.getString("TABLE_NAME"));
+        final Table table = new MutableTable(schema, tableName);
+        if (tableFilter.test(table))
+        {
+          fingerprints.put(table.getFullName(),
+                           new StringBuilder(1024)
+                             .append(results.getString("TABLE_TYPE"))
+                             .append('\t')
+                             .append(results.getString("REMARKS"))
+                             .append('\n'));
+        }
+      }
+    }
+
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
+      .getColumns(catalogName, schemaName, "%", "%"), getFetchSizePolicy());)
+    {
+      results.setDescription("retrieveColumnFingerprints");
+      while (results.next())
+      {
+        final String tableName = quotedName(results.getString("TABLE_NAME"));
+        final StringBuilder fingerprint = fingerprints
+          .get(new MutableTable(schema, tableName).getFullName());
+        if (fingerprint == null)
+        {
+          continue;
+        }
+        for (final String columnName: new String[] {
+                                                     "COLUMN_NAME",
+                                                     "DATA_TYPE",
+                                                     "TYPE_NAME",
+                                                     "COLUMN_SIZE",
+                                                     "DECIMAL_DIGITS",
+                                                     "NULLABLE",
+                                                     "COLUMN_DEF",
+                                                     "ORDINAL_POSITION",
+                                                     "REMARKS" })
+        {
+          fingerprint.append(results.getString(columnName)).append('\t');
+        }
+        fingerprint.append('\n');
+      }
+    }
+
+    for (final Map.Entry<String, StringBuilder> entry: fingerprints.entrySet())
+    {
+      final UUID fingerprint = UUID
+        .nameUUIDFromBytes(entry.getValue().toString().getBytes(UTF_8));
+      changeMarkers.put(entry.getKey(), "fingerprint:" + fingerprint);
+    }
+    LOGGER.log(Level.FINE,
+               new StringFormat("Retrieved fingerprints for %d tables in schema <%s>",
+                                fingerprints.size(),
+                                schema));
+  }
+
+  /**
+   * Gets the full names of tables of the requested types, with one
+   * metadata call for each schema.
+   */
+  private Set<String> retrieveTableNames(final String[] filteredTableTypes,
+                                         final InclusionRuleFilter<Table> tableFilter)
+    throws SQLException
+  {
+    final Set<String> tableNames = Collections
+      .newSetFromMap(new ConcurrentHashMap<>());
+    retrieveSharded("table names",
+                    getSchemas(),
+                    (schema, metaData) -> retrieveTableNames(schema,
+                                                             filteredTableTypes,
+                                                             tableFilter,
+                                                             metaData,
+                                                             tableNames));
+    return tableNames;
+  }
+
+  private void retrieveTableNames(final Schema schema,
+                                  final String[] filteredTableTypes,
+                                  final InclusionRuleFilter<Table> tableFilter,
+                                  final DatabaseMetaData metaData,
+                                  final Set<String> tableNames)
+    throws SQLException
+  {
+    requireNonNull(schema, "No schema provided");
+
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
+      .getTables(unquotedName(schema.getCatalogName()),
+                 unquotedName(schema.getName()),
+                 "%",
+                 filteredTableTypes),
+                                                                 getFetchSizePolicy());)
+    {
+      results.setDescription("retrieveTableNames");
+      while (results.next())
+      {
+        final String tableName = quotedName(results.getString("TABLE_NAME"));
+        final Table table = new MutableTable(schema, tableName);
+        if (tableFilter.test(table))
+        {
+          tableNames.add(table.getFullName());
+        }
+      }
+    }
+  }
+
+}
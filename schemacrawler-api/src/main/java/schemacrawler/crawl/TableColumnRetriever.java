@@ -39,9 +39,10 @@ import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.crawl.RetrievalStrategyPlanner.MetadataProbe;
 import schemacrawler.filter.InclusionRuleFilter;
 import schemacrawler.schema.Column;
-import schemacrawler.schema.SchemaReference;
+import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InclusionRule;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -85,8 +86,7 @@ final class TableColumnRetriever
       return;
     }
 
-    final MetadataRetrievalStrategy tableColumnRetrievalStrategy = getRetrieverConnection()
-      .getTableColumnRetrievalStrategy();
+    final MetadataRetrievalStrategy tableColumnRetrievalStrategy = resolveTableColumnRetrievalStrategy(allTables);
     switch (tableColumnRetrievalStrategy)
     {
       case data_dictionary_all:
@@ -141,7 +141,8 @@ final class TableColumnRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(hiddenColumnsSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrieveHiddenColumns");
       while (results.next())
@@ -183,7 +184,7 @@ final class TableColumnRetriever
                                 columnName));
 
     final Optional<MutableTable> optionalTable = allTables
-      .lookup(new SchemaReference(columnCatalogName, schemaName), tableName);
+      .lookup(columnCatalogName, schemaName, tableName);
     if (!optionalTable.isPresent())
     {
       return null;
@@ -262,6 +263,31 @@ final class TableColumnRetriever
     return column;
   }
 
+  private MetadataRetrievalStrategy resolveTableColumnRetrievalStrategy(final NamedObjectList<MutableTable> allTables)
+  {
+    final MetadataProbe<MutableTable> perTableProbe = (table, metaData) -> {
+      final Schema schema = table.getSchema();
+      return metaData.getColumns(unquotedName(schema.getCatalogName()),
+                                 unquotedName(schema.getName()),
+                                 unquotedName(table.getName()),
+                                 null);
+    };
+    final MetadataProbe<Schema> perSchemaProbe = (schema, metaData) -> metaData
+      .getColumns(unquotedName(schema.getCatalogName()),
+                  unquotedName(schema.getName()),
+                  "%",
+                  "%");
+    return resolveRetrievalStrategy("table columns",
+                                    getRetrieverConnection()
+                                      .getTableColumnRetrievalStrategy(),
+                                    getRetrieverConnection()
+                                      .getInformationSchemaViews()
+                                      .hasTableColumnsSql(),
+                                    allTables,
+                                    perTableProbe,
+                                    perSchemaProbe);
+  }
+
   private void retrieveColumnsFromDataDictionary(final NamedObjectList<MutableTable> allTables,
                                                  final InclusionRuleFilter<Column> columnFilter)
     throws SchemaCrawlerSQLException, SQLException
@@ -278,7 +304,8 @@ final class TableColumnRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(tableColumnsSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
       results.setDescription("retrieveColumnsFromDataDictionary");
       while (results.next())
@@ -290,29 +317,46 @@ final class TableColumnRetriever
 
   private void retrieveColumnsFromMetadata(final NamedObjectList<MutableTable> allTables,
                                            final InclusionRuleFilter<Column> columnFilter)
+    throws SQLException
+  {
+    retrieveSharded("table columns",
+                    allTables,
+                    (table, metaData) -> retrieveColumnsFromMetadata(table,
+                                                                     metaData,
+                                                                     allTables,
+                                                                     columnFilter));
+  }
+
+  private void retrieveColumnsFromMetadata(final MutableTable table,
+                                           final DatabaseMetaData metaData,
+                                           final NamedObjectList<MutableTable> allTables,
+                                           final InclusionRuleFilter<Column> columnFilter)
     throws SchemaCrawlerSQLException
   {
-    for (final MutableTable table: allTables)
+    LOGGER.log(Level.FINE, "Retrieving columns for " + table);
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
+      .getColumns(unquotedName(table.getSchema().getCatalogName()),
+                  unquotedName(table.getSchema().getName()),
+                  unquotedName(table.getName()),
+                  null),
+                                                                 getFetchSizePolicy());)
     {
-      LOGGER.log(Level.FINE, "Retrieving columns for " + table);
-      try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
-        .getColumns(unquotedName(table.getSchema().getCatalogName()),
-                    unquotedName(table.getSchema().getName()),
-                    unquotedName(table.getName()),
-                    null));)
+      while (results.next())
       {
-        while (results.next())
+        // Rows may be fetched on worker threads, but are added to
+        // the catalog one at a time
+        synchronized (catalog)
         {
           createTableColumn(results, allTables, columnFilter, false);
         }
       }
-      catch (final SQLException e)
-      {
-        throw new SchemaCrawlerSQLException(String
-          .format("Could not retrieve columns for %s <%s>",
-                  table.getTableType(),
-                  table), e);
-      }
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerSQLException(String
+        .format("Could not retrieve columns for %s <%s>",
+                table.getTableType(),
+                table), e);
     }
   }
 
@@ -324,7 +368,8 @@ final class TableColumnRetriever
       .getColumns(null,
                   null,
                   "%",
-                  "%"));)
+                  "%"),
+                                                                 getFetchSizePolicy());)
     {
       while (results.next())
       {
@@ -95,7 +95,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(columnAttributesSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -177,7 +178,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(tableAttributesSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -246,7 +248,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(extIndexColumnsInformationSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -353,7 +356,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(extIndexesInformationSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -417,7 +421,8 @@ final class TableExtRetriever
       .getColumnPrivileges(null,
                            null,
                            "%",
-                           "%"));)
+                           "%"),
+                                                                 getFetchSizePolicy());)
     {
       createPrivileges(results, true);
     }
@@ -460,7 +465,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(tableDefinitionsInformationSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -508,7 +514,8 @@ final class TableExtRetriever
     try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
       .getTablePrivileges(null,
                           null,
-                          "%"));)
+                          "%"),
+                                                                 getFetchSizePolicy());)
     {
       createPrivileges(results, false);
     }
@@ -547,7 +554,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(triggerInformationSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -645,7 +653,8 @@ final class TableExtRetriever
     try (final Statement statement = connection.createStatement();
         final MetadataResultSet results = new MetadataResultSet(viewInformationSql,
                                                                 statement,
-                                                                getSchemaInclusionRule());)
+                                                                getSchemaInclusionRule(),
+                                                                getFetchSizePolicy());)
     {
 
       while (results.next())
@@ -31,6 +31,7 @@ package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
 
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -68,13 +69,13 @@ final class TableRetriever
     super(retrieverConnection, catalog, options);
   }
 
-  void retrieveTables(final Schema schema,
+  void retrieveTables(final Collection<Schema> schemas,
                       final String tableNamePattern,
                       final Collection<String> tableTypes,
                       final InclusionRule tableInclusionRule)
     throws SQLException
   {
-    requireNonNull(schema, "No schema provided");
+    requireNonNull(schemas, "No schemas provided");
 
     final InclusionRuleFilter<Table> tableFilter = new InclusionRuleFilter<>(tableInclusionRule,
                                                                              false);
@@ -85,6 +86,33 @@ final class TableRetriever
       return;
     }
 
+    final TableTypes supportedTableTypes = getRetrieverConnection()
+      .getTableTypes();
+    final String[] filteredTableTypes = supportedTableTypes
+      .filterUnknown(tableTypes);
+    LOGGER.log(Level.FINER,
+               new StringFormat("Retrieving table types: %s",
+                                filteredTableTypes == null? "<<all>>": Arrays
+                                  .asList(filteredTableTypes)));
+
+    retrieveSharded("tables",
+                    schemas,
+                    (schema, metaData) -> retrieveTables(schema,
+                                                         tableNamePattern,
+                                                         filteredTableTypes,
+                                                         tableFilter,
+                                                         metaData));
+  }
+
+  private void retrieveTables(final Schema schema,
+                              final String tableNamePattern,
+                              final String[] filteredTableTypes,
+                              final InclusionRuleFilter<Table> tableFilter,
+                              final DatabaseMetaData metaData)
+    throws SQLException
+  {
+    requireNonNull(schema, "No schema provided");
+
     final Optional<Schema> schemaOptional = catalog
       .lookupSchema(schema.getFullName());
     if (!schemaOptional.isPresent())
@@ -100,21 +128,16 @@ final class TableRetriever
 
     final TableTypes supportedTableTypes = getRetrieverConnection()
       .getTableTypes();
-    final String[] filteredTableTypes = supportedTableTypes
-      .filterUnknown(tableTypes);
-    LOGGER.log(Level.FINER,
-               new StringFormat("Retrieving table types: %s",
-                                filteredTableTypes == null? "<<all>>": Arrays
-                                  .asList(filteredTableTypes)));
 
     final String catalogName = schema.getCatalogName();
     final String schemaName = schema.getName();
 
-    try (final MetadataResultSet results = new MetadataResultSet(getMetaData()
+    try (final MetadataResultSet results = new MetadataResultSet(metaData
       .getTables(unquotedName(catalogName),
                  unquotedName(schemaName),
                  tableNamePattern,
-                 filteredTableTypes));)
+                 filteredTableTypes),
+                                                                 getFetchSizePolicy());)
     {
       results.setDescription("retrieveTables");
       while (results.next())
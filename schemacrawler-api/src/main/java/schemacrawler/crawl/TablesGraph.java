@@ -48,10 +48,14 @@ final class TablesGraph
   private static final Logger LOGGER = Logger
     .getLogger(TablesGraph.class.getName());
 
+  private final NamedObjectList<MutableTable> tables;
+
   TablesGraph(final NamedObjectList<MutableTable> tables)
   {
     super("catalog");
 
+    this.tables = tables;
+
     if (tables == null)
     {
       return;
@@ -102,6 +106,10 @@ final class TablesGraph
           sortIndex++;
         }
       }
+      if (tables != null)
+      {
+        tables.sortOrderChanged();
+      }
     }
     catch (final GraphException e)
     {
@@ -44,6 +44,9 @@ public final class SchemaReference
   private final String catalogName;
   private final String schemaName;
   private final Map<String, Object> attributeMap = new HashMap<>();
+  // Cached, since the full name is used as a lookup key, and the names
+  // it is built from do not change
+  private transient String fullName;
 
   public SchemaReference()
   {
@@ -168,6 +171,22 @@ public final class SchemaReference
 
   @Override
   public String getFullName()
+  {
+    if (fullName != null)
+    {
+      return fullName;
+    }
+    // Schema references can be read from a snapshot before their names
+    // are read, so the full name is only cached once there is a name
+    final String builtFullName = buildFullName();
+    if (catalogName != null || schemaName != null)
+    {
+      fullName = builtFullName;
+    }
+    return builtFullName;
+  }
+
+  private String buildFullName()
   {
     final StringBuilder buffer = new StringBuilder(64);
 
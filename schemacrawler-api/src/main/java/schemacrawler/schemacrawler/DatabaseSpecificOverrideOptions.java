@@ -30,6 +30,10 @@ package schemacrawler.schemacrawler;
 
 import static sf.util.Utility.isBlank;
 
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 import schemacrawler.crawl.MetadataRetrievalStrategy;
@@ -40,9 +44,18 @@ public final class DatabaseSpecificOverrideOptions
 
   private static final long serialVersionUID = -5593417085363698921L;
 
+  public static final int DEFAULT_METADATA_FETCH_SIZE = 20;
+
   private final Optional<Boolean> supportsSchemas;
   private final Optional<Boolean> supportsCatalogs;
   private final MetadataRetrievalStrategy tableColumnRetrievalStrategy;
+  private final MetadataRetrievalStrategy indexRetrievalStrategy;
+  private final MetadataRetrievalStrategy primaryKeyRetrievalStrategy;
+  private final MetadataRetrievalStrategy foreignKeyRetrievalStrategy;
+  private final Optional<Path> learnedRetrievalStrategiesFile;
+  private final int metadataFetchSize;
+  private final EnumMap<InformationSchemaKey, Integer> metadataFetchSizes;
+  private final boolean adaptiveMetadataFetchSize;
   private final String identifierQuoteString;
   private final InformationSchemaViews informationSchemaViews;
 
@@ -58,6 +71,13 @@ public final class DatabaseSpecificOverrideOptions
       supportsSchemas = Optional.empty();
       supportsCatalogs = Optional.empty();
       tableColumnRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+      indexRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+      primaryKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+      foreignKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+      learnedRetrievalStrategiesFile = Optional.empty();
+      metadataFetchSize = DEFAULT_METADATA_FETCH_SIZE;
+      metadataFetchSizes = new EnumMap<>(InformationSchemaKey.class);
+      adaptiveMetadataFetchSize = false;
       identifierQuoteString = "";
       informationSchemaViews = new InformationSchemaViews();
     }
@@ -66,6 +86,14 @@ public final class DatabaseSpecificOverrideOptions
       supportsSchemas = builder.getSupportsSchemas();
       supportsCatalogs = builder.getSupportsCatalogs();
       tableColumnRetrievalStrategy = builder.getTableColumnRetrievalStrategy();
+      indexRetrievalStrategy = builder.getIndexRetrievalStrategy();
+      primaryKeyRetrievalStrategy = builder.getPrimaryKeyRetrievalStrategy();
+      foreignKeyRetrievalStrategy = builder.getForeignKeyRetrievalStrategy();
+      learnedRetrievalStrategiesFile = builder
+        .getLearnedRetrievalStrategiesFile();
+      metadataFetchSize = builder.getMetadataFetchSize();
+      metadataFetchSizes = new EnumMap<>(builder.getMetadataFetchSizes());
+      adaptiveMetadataFetchSize = builder.isAdaptiveMetadataFetchSize();
       identifierQuoteString = builder.getIdentifierQuoteString();
       informationSchemaViews = builder.getInformationSchemaViewsBuilder()
         .toOptions();
@@ -73,6 +101,11 @@ public final class DatabaseSpecificOverrideOptions
 
   }
 
+  public MetadataRetrievalStrategy getForeignKeyRetrievalStrategy()
+  {
+    return foreignKeyRetrievalStrategy;
+  }
+
   public String getIdentifierQuoteString()
   {
     if (!hasOverrideForIdentifierQuoteString())
@@ -82,11 +115,53 @@ public final class DatabaseSpecificOverrideOptions
     return identifierQuoteString;
   }
 
+  public MetadataRetrievalStrategy getIndexRetrievalStrategy()
+  {
+    return indexRetrievalStrategy;
+  }
+
   public InformationSchemaViews getInformationSchemaViews()
   {
     return informationSchemaViews;
   }
 
+  /**
+   * Gets the file that adaptive retrieval strategy choices are saved
+   * to, so that they can be reused by later crawls.
+   *
+   * @return File for learned retrieval strategies, if any
+   */
+  public Optional<Path> getLearnedRetrievalStrategiesFile()
+  {
+    return learnedRetrievalStrategiesFile;
+  }
+
+  /**
+   * Gets the default fetch size for metadata result sets.
+   *
+   * @return Fetch size for metadata result sets
+   */
+  public int getMetadataFetchSize()
+  {
+    return metadataFetchSize;
+  }
+
+  /**
+   * Gets fetch sizes for the results of information schema view
+   * queries, which override the default metadata fetch size.
+   *
+   * @return Fetch sizes by information schema view
+   */
+  public Map<InformationSchemaKey, Integer> getMetadataFetchSizes()
+  {
+    return Collections.unmodifiableMap(metadataFetchSizes);
+  }
+
+  public MetadataRetrievalStrategy getPrimaryKeyRetrievalStrategy()
+  {
+    return primaryKeyRetrievalStrategy;
+  }
+
   public MetadataRetrievalStrategy getTableColumnRetrievalStrategy()
   {
     return tableColumnRetrievalStrategy;
@@ -107,6 +182,17 @@ public final class DatabaseSpecificOverrideOptions
     return supportsSchemas.isPresent();
   }
 
+  /**
+   * Whether the fetch size of metadata result sets grows as rows are
+   * read.
+   *
+   * @return Whether fetch sizes are adaptive
+   */
+  public boolean isAdaptiveMetadataFetchSize()
+  {
+    return adaptiveMetadataFetchSize;
+  }
+
   public boolean isSupportsCatalogs()
   {
     return supportsCatalogs.orElse(true);
@@ -28,6 +28,11 @@ http://www.gnu.org/licenses/
 package schemacrawler.schemacrawler;
 
 
+import static schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions.DEFAULT_METADATA_FETCH_SIZE;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 import schemacrawler.crawl.MetadataRetrievalStrategy;
@@ -36,9 +41,19 @@ public class DatabaseSpecificOverrideOptionsBuilder
   implements OptionsBuilder<DatabaseSpecificOverrideOptions>
 {
 
+  private static final String METADATA_FETCH_SIZE = "schemacrawler.metadata.fetch_size";
+  private static final String ADAPTIVE_METADATA_FETCH_SIZE = "schemacrawler.metadata.fetch_size.adaptive";
+
   private Optional<Boolean> supportsSchemas;
   private Optional<Boolean> supportsCatalogs;
   private MetadataRetrievalStrategy tableColumnRetrievalStrategy;
+  private MetadataRetrievalStrategy indexRetrievalStrategy;
+  private MetadataRetrievalStrategy primaryKeyRetrievalStrategy;
+  private MetadataRetrievalStrategy foreignKeyRetrievalStrategy;
+  private Optional<Path> learnedRetrievalStrategiesFile;
+  private int metadataFetchSize;
+  private final Map<InformationSchemaKey, Integer> metadataFetchSizes;
+  private boolean adaptiveMetadataFetchSize;
   private String identifierQuoteString;
   private final InformationSchemaViewsBuilder informationSchemaViewsBuilder;
 
@@ -49,6 +64,13 @@ public class DatabaseSpecificOverrideOptionsBuilder
     supportsCatalogs = Optional.empty();
     identifierQuoteString = "";
     tableColumnRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    indexRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    primaryKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    foreignKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    learnedRetrievalStrategiesFile = Optional.empty();
+    metadataFetchSize = DEFAULT_METADATA_FETCH_SIZE;
+    metadataFetchSizes = new EnumMap<>(InformationSchemaKey.class);
+    adaptiveMetadataFetchSize = false;
   }
 
   public DatabaseSpecificOverrideOptionsBuilder(final Config map)
@@ -81,19 +103,67 @@ public class DatabaseSpecificOverrideOptionsBuilder
   public DatabaseSpecificOverrideOptionsBuilder fromConfig(final Config map)
   {
     informationSchemaViewsBuilder.fromConfig(map);
+    if (map == null)
+    {
+      return this;
+    }
+
+    withMetadataFetchSize(map.getIntegerValue(METADATA_FETCH_SIZE,
+                                              metadataFetchSize));
+    adaptiveMetadataFetchSize = map
+      .getBooleanValue(ADAPTIVE_METADATA_FETCH_SIZE, adaptiveMetadataFetchSize);
+    for (final InformationSchemaKey key: InformationSchemaKey.values())
+    {
+      final String fetchSizeKey = key.getLookupKey() + ".fetch_size";
+      if (map.hasValue(fetchSizeKey))
+      {
+        withMetadataFetchSize(key, map.getIntegerValue(fetchSizeKey, 0));
+      }
+    }
+
     return this;
   }
 
+  public MetadataRetrievalStrategy getForeignKeyRetrievalStrategy()
+  {
+    return foreignKeyRetrievalStrategy;
+  }
+
   public String getIdentifierQuoteString()
   {
     return identifierQuoteString;
   }
 
+  public MetadataRetrievalStrategy getIndexRetrievalStrategy()
+  {
+    return indexRetrievalStrategy;
+  }
+
+  public Optional<Path> getLearnedRetrievalStrategiesFile()
+  {
+    return learnedRetrievalStrategiesFile;
+  }
+
   public InformationSchemaViewsBuilder getInformationSchemaViewsBuilder()
   {
     return informationSchemaViewsBuilder;
   }
 
+  public int getMetadataFetchSize()
+  {
+    return metadataFetchSize;
+  }
+
+  public Map<InformationSchemaKey, Integer> getMetadataFetchSizes()
+  {
+    return metadataFetchSizes;
+  }
+
+  public MetadataRetrievalStrategy getPrimaryKeyRetrievalStrategy()
+  {
+    return primaryKeyRetrievalStrategy;
+  }
+
   public Optional<Boolean> getSupportsCatalogs()
   {
     return supportsCatalogs;
@@ -109,6 +179,11 @@ public class DatabaseSpecificOverrideOptionsBuilder
     return tableColumnRetrievalStrategy;
   }
 
+  public boolean isAdaptiveMetadataFetchSize()
+  {
+    return adaptiveMetadataFetchSize;
+  }
+
   /**
    * Overrides the JDBC driver provided information about the identifier
    * quote string.
@@ -154,11 +229,165 @@ public class DatabaseSpecificOverrideOptionsBuilder
     return new DatabaseSpecificOverrideOptions(this);
   }
 
+  /**
+   * Grows the fetch size of metadata result sets as rows are read, so
+   * that large result sets need fewer network round trips.
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withAdaptiveMetadataFetchSize()
+  {
+    adaptiveMetadataFetchSize = true;
+    return this;
+  }
+
+  /**
+   * Chooses retrieval strategies for table columns, indexes, primary keys
+   * and foreign keys at crawl time, based on how long probe metadata
+   * calls take. Choices are remembered for each JDBC URL.
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withAdaptiveRetrievalStrategies()
+  {
+    tableColumnRetrievalStrategy = MetadataRetrievalStrategy.adaptive;
+    indexRetrievalStrategy = MetadataRetrievalStrategy.adaptive;
+    primaryKeyRetrievalStrategy = MetadataRetrievalStrategy.adaptive;
+    foreignKeyRetrievalStrategy = MetadataRetrievalStrategy.adaptive;
+    return this;
+  }
+
+  /**
+   * Sets the strategy used to retrieve foreign keys. The metadata strategy
+   * uses foreign keys SQL if it is provided, and otherwise makes metadata
+   * calls for each table.
+   *
+   * @param foreignKeyRetrievalStrategy
+   *        Retrieval strategy, or null to use the default
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withForeignKeyRetrievalStrategy(final MetadataRetrievalStrategy foreignKeyRetrievalStrategy)
+  {
+    if (foreignKeyRetrievalStrategy == null)
+    {
+      this.foreignKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    }
+    else
+    {
+      this.foreignKeyRetrievalStrategy = foreignKeyRetrievalStrategy;
+    }
+    return this;
+  }
+
+  /**
+   * Sets the strategy used to retrieve indexes. The metadata strategy
+   * uses indexes SQL if it is provided, and otherwise makes one metadata
+   * call per table.
+   *
+   * @param indexRetrievalStrategy
+   *        Retrieval strategy, or null to use the default
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withIndexRetrievalStrategy(final MetadataRetrievalStrategy indexRetrievalStrategy)
+  {
+    if (indexRetrievalStrategy == null)
+    {
+      this.indexRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    }
+    else
+    {
+      this.indexRetrievalStrategy = indexRetrievalStrategy;
+    }
+    return this;
+  }
+
   public InformationSchemaViewsBuilder withInformationSchemaViews()
   {
     return informationSchemaViewsBuilder;
   }
 
+  /**
+   * Sets the strategy used to retrieve primary keys. The metadata strategy
+   * uses primary keys SQL if it is provided, and otherwise makes one metadata
+   * call per table.
+   *
+   * @param primaryKeyRetrievalStrategy
+   *        Retrieval strategy, or null to use the default
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withPrimaryKeyRetrievalStrategy(final MetadataRetrievalStrategy primaryKeyRetrievalStrategy)
+  {
+    if (primaryKeyRetrievalStrategy == null)
+    {
+      this.primaryKeyRetrievalStrategy = MetadataRetrievalStrategy.metadata;
+    }
+    else
+    {
+      this.primaryKeyRetrievalStrategy = primaryKeyRetrievalStrategy;
+    }
+    return this;
+  }
+
+  /**
+   * Saves adaptive retrieval strategy choices to a file, so that later
+   * crawls of the same database can reuse them without probing.
+   *
+   * @param learnedRetrievalStrategiesFile
+   *        Properties file for learned strategies, or null to only
+   *        remember choices in memory
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withLearnedRetrievalStrategiesFile(final Path learnedRetrievalStrategiesFile)
+  {
+    this.learnedRetrievalStrategiesFile = Optional
+      .ofNullable(learnedRetrievalStrategiesFile);
+    return this;
+  }
+
+  /**
+   * Sets the fetch size for the results of an information schema view
+   * query, overriding the default metadata fetch size.
+   *
+   * @param key
+   *        Information schema view
+   * @param fetchSize
+   *        Fetch size, or zero or less to use the default
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withMetadataFetchSize(final InformationSchemaKey key,
+                                                                      final int fetchSize)
+  {
+    if (key == null)
+    {
+      return this;
+    }
+    if (fetchSize > 0)
+    {
+      metadataFetchSizes.put(key, fetchSize);
+    }
+    else
+    {
+      metadataFetchSizes.remove(key);
+    }
+    return this;
+  }
+
+  /**
+   * Sets the default fetch size for metadata result sets.
+   *
+   * @param fetchSize
+   *        Fetch size, or zero or less to use the default
+   */
+  public DatabaseSpecificOverrideOptionsBuilder withMetadataFetchSize(final int fetchSize)
+  {
+    if (fetchSize > 0)
+    {
+      metadataFetchSize = fetchSize;
+    }
+    else
+    {
+      metadataFetchSize = DEFAULT_METADATA_FETCH_SIZE;
+    }
+    return this;
+  }
+
+  public DatabaseSpecificOverrideOptionsBuilder withoutAdaptiveMetadataFetchSize()
+  {
+    adaptiveMetadataFetchSize = false;
+    return this;
+  }
+
   public DatabaseSpecificOverrideOptionsBuilder withoutIdentifierQuoteString()
   {
     identifierQuoteString = null;
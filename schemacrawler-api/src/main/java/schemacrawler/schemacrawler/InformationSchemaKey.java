@@ -41,7 +41,9 @@ public enum InformationSchemaKey
  EXT_PRIMARY_KEYS("select.INFORMATION_SCHEMA.EXT_PRIMARY_KEYS"),
  EXT_SYNONYMS("select.INFORMATION_SCHEMA.EXT_SYNONYMS"),
  EXT_TABLES("select.INFORMATION_SCHEMA.EXT_TABLES"),
+ EXT_TABLE_CHANGES("select.INFORMATION_SCHEMA.EXT_TABLE_CHANGES"),
  EXT_TABLE_CONSTRAINTS("select.INFORMATION_SCHEMA.EXT_TABLE_CONSTRAINTS"),
+ EXT_TABLE_ROW_COUNTS("select.INFORMATION_SCHEMA.EXT_TABLE_ROW_COUNTS"),
  FOREIGN_KEYS("select.DATABASE_METADATA.FOREIGN_KEYS"),
  INDEXES("select.DATABASE_METADATA.INDEXES"),
  OVERRIDE_TYPE_INFO("select.OVERRIDE_TYPE_INFO"),
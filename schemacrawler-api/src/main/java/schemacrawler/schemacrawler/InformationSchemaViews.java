@@ -39,7 +39,9 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_INDEX_COLUMNS
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_PRIMARY_KEYS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SYNONYMS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_CHANGES;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_CONSTRAINTS;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_ROW_COUNTS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.FOREIGN_KEYS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.INDEXES;
 import static schemacrawler.schemacrawler.InformationSchemaKey.OVERRIDE_TYPE_INFO;
@@ -179,6 +181,18 @@ public final class InformationSchemaViews
                      informationSchemaQueries.get(EXT_PRIMARY_KEYS));
   }
 
+  /**
+   * Gets the SQL for the time of the last change to the definition of
+   * each table, from the additional configuration.
+   *
+   * @return Table changes SQL.
+   */
+  public Query getExtTableChangesSql()
+  {
+    return new Query(EXT_TABLE_CHANGES.name(),
+                     informationSchemaQueries.get(EXT_TABLE_CHANGES));
+  }
+
   /**
    * Gets the table check constraints SQL from the additional
    * configuration.
@@ -191,6 +205,18 @@ public final class InformationSchemaViews
                      informationSchemaQueries.get(EXT_TABLE_CONSTRAINTS));
   }
 
+  /**
+   * Gets the SQL for estimated table row counts, from database
+   * statistics, from the additional configuration.
+   *
+   * @return Estimated table row counts SQL.
+   */
+  public Query getExtTableRowCountsSql()
+  {
+    return new Query(EXT_TABLE_ROW_COUNTS.name(),
+                     informationSchemaQueries.get(EXT_TABLE_ROW_COUNTS));
+  }
+
   /**
    * Gets the table definitions SQL from the additional configuration.
    *
@@ -381,11 +407,21 @@ public final class InformationSchemaViews
     return informationSchemaQueries.containsKey(EXT_PRIMARY_KEYS);
   }
 
+  public boolean hasExtTableChangesSql()
+  {
+    return informationSchemaQueries.containsKey(EXT_TABLE_CHANGES);
+  }
+
   public boolean hasExtTableConstraintsSql()
   {
     return informationSchemaQueries.containsKey(EXT_TABLE_CONSTRAINTS);
   }
 
+  public boolean hasExtTableRowCountsSql()
+  {
+    return informationSchemaQueries.containsKey(EXT_TABLE_ROW_COUNTS);
+  }
+
   public boolean hasExtTablesSql()
   {
     return informationSchemaQueries.containsKey(EXT_TABLES);
@@ -39,6 +39,7 @@ import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_INDEX_COLUMNS
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_PRIMARY_KEYS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SYNONYMS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_CHANGES;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_TABLE_CONSTRAINTS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.FOREIGN_KEYS;
 import static schemacrawler.schemacrawler.InformationSchemaKey.INDEXES;
@@ -241,6 +242,19 @@ public final class InformationSchemaViewsBuilder
     return this;
   }
 
+  /**
+   * Sets the SQL for the time of the last change to the definition of
+   * each table.
+   *
+   * @param sql
+   *        Table changes SQL.
+   */
+  public InformationSchemaViewsBuilder withExtTableChangesSql(final String sql)
+  {
+    informationSchemaQueries.put(EXT_TABLE_CHANGES, sql);
+    return this;
+  }
+
   /**
    * Sets the table check constraints SQL.
    *
@@ -88,6 +88,9 @@ public final class SchemaCrawlerOptions
   private int childTableFilterDepth;
   private int parentTableFilterDepth;
 
+  private int crawlParallelism;
+  private int maxCrawlConnections;
+
   /**
    * Default options.
    */
@@ -109,6 +112,43 @@ public final class SchemaCrawlerOptions
     routineInclusionRule = new IncludeAll();
     routineColumnInclusionRule = new IncludeAll();
 
+    crawlParallelism = 1;
+    maxCrawlConnections = 8;
+  }
+
+  /**
+   * Copies options, so that the copy can be changed without changing
+   * the original options.
+   *
+   * @param options
+   *        Options to copy
+   */
+  public SchemaCrawlerOptions(final SchemaCrawlerOptions options)
+  {
+    requireNonNull(options, "No options provided");
+
+    schemaInfoLevel = options.schemaInfoLevel;
+    title = options.title;
+    schemaInclusionRule = options.schemaInclusionRule;
+    synonymInclusionRule = options.synonymInclusionRule;
+    sequenceInclusionRule = options.sequenceInclusionRule;
+    tableTypes = options.tableTypes;
+    tableNamePattern = options.tableNamePattern;
+    tableInclusionRule = options.tableInclusionRule;
+    columnInclusionRule = options.columnInclusionRule;
+    routineTypes = options.routineTypes;
+    routineInclusionRule = options.routineInclusionRule;
+    routineColumnInclusionRule = options.routineColumnInclusionRule;
+    grepColumnInclusionRule = options.grepColumnInclusionRule;
+    grepRoutineColumnInclusionRule = options.grepRoutineColumnInclusionRule;
+    grepDefinitionInclusionRule = options.grepDefinitionInclusionRule;
+    grepInvertMatch = options.grepInvertMatch;
+    grepOnlyMatching = options.grepOnlyMatching;
+    hideEmptyTables = options.hideEmptyTables;
+    childTableFilterDepth = options.childTableFilterDepth;
+    parentTableFilterDepth = options.parentTableFilterDepth;
+    crawlParallelism = options.crawlParallelism;
+    maxCrawlConnections = options.maxCrawlConnections;
   }
 
   public int getChildTableFilterDepth()
@@ -156,6 +196,31 @@ public final class SchemaCrawlerOptions
     return grepRoutineColumnInclusionRule;
   }
 
+  /**
+   * Number of worker threads used to retrieve table, column, index and
+   * foreign key metadata, when crawling from a data source.
+   *
+   * @return Degree of parallelism, 1 if metadata is retrieved serially
+   */
+  public int getCrawlParallelism()
+  {
+    return crawlParallelism;
+  }
+
+  /**
+   * Maximum number of database connections that may be open at the
+   * same time during a crawl from a data source. This includes the
+   * connection of each crawl phase that runs concurrently, and the
+   * connections of worker threads retrieving metadata, so it caps the
+   * degree of parallelism across the whole crawl.
+   *
+   * @return Maximum number of connections
+   */
+  public int getMaxCrawlConnections()
+  {
+    return maxCrawlConnections;
+  }
+
   public int getParentTableFilterDepth()
   {
     return parentTableFilterDepth;
@@ -390,6 +455,22 @@ public final class SchemaCrawlerOptions
     this.grepRoutineColumnInclusionRule = grepRoutineColumnInclusionRule;
   }
 
+  /**
+   * Sets the number of worker threads used to retrieve table, column,
+   * index and foreign key metadata, when crawling from a data source.
+   *
+   * @param crawlParallelism
+   *        Degree of parallelism, at least 1
+   */
+  public void setCrawlParallelism(final int crawlParallelism)
+  {
+    if (crawlParallelism < 1)
+    {
+      throw new IllegalArgumentException("Crawl parallelism needs to be at least 1");
+    }
+    this.crawlParallelism = crawlParallelism;
+  }
+
   /**
    * If infolevel=maximum, this option will remove empty tables (that
    * is, tables with no rows of data) from the catalog.
@@ -402,6 +483,15 @@ public final class SchemaCrawlerOptions
     this.hideEmptyTables = hideEmptyTables;
   }
 
+  public void setMaxCrawlConnections(final int maxCrawlConnections)
+  {
+    if (maxCrawlConnections < 1)
+    {
+      throw new IllegalArgumentException("Maximum crawl connections needs to be at least 1");
+    }
+    this.maxCrawlConnections = maxCrawlConnections;
+  }
+
   public void setParentTableFilterDepth(final int parentTableFilterDepth)
   {
     this.parentTableFilterDepth = parentTableFilterDepth;
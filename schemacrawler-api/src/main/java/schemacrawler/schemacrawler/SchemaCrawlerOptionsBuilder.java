@@ -70,6 +70,9 @@ public class SchemaCrawlerOptionsBuilder
   private static final String SC_GREP_DEFINITION_PATTERN_EXCLUDE = "schemacrawler.grep.definition.pattern.exclude";
   private static final String SC_GREP_DEFINITION_PATTERN_INCLUDE = "schemacrawler.grep.definition.pattern.include";
 
+  private static final String SC_CRAWL_PARALLELISM = "schemacrawler.crawl.parallelism";
+  private static final String SC_CRAWL_MAX_CONNECTIONS = "schemacrawler.crawl.max_connections";
+
   private final SchemaCrawlerOptions options;
 
   public SchemaCrawlerOptionsBuilder()
@@ -88,6 +91,19 @@ public class SchemaCrawlerOptionsBuilder
     return this;
   }
 
+  /**
+   * Sets the number of worker threads used to retrieve table, column,
+   * index and foreign key metadata, when crawling from a data source.
+   *
+   * @param crawlParallelism
+   *        Degree of parallelism
+   */
+  public SchemaCrawlerOptionsBuilder crawlParallelism(final int crawlParallelism)
+  {
+    options.setCrawlParallelism(crawlParallelism);
+    return this;
+  }
+
   /**
    * Options from properties.
    *
@@ -138,6 +154,12 @@ public class SchemaCrawlerOptionsBuilder
       .getInclusionRuleOrNull(SC_GREP_DEFINITION_PATTERN_INCLUDE,
                               SC_GREP_DEFINITION_PATTERN_EXCLUDE));
 
+    options.setCrawlParallelism(Math.max(1, configProperties
+      .getIntegerValue(SC_CRAWL_PARALLELISM, options.getCrawlParallelism())));
+    options.setMaxCrawlConnections(Math.max(1, configProperties
+      .getIntegerValue(SC_CRAWL_MAX_CONNECTIONS,
+                       options.getMaxCrawlConnections())));
+
     return this;
   }
 
@@ -219,6 +241,12 @@ public class SchemaCrawlerOptionsBuilder
     return this;
   }
 
+  public SchemaCrawlerOptionsBuilder maxCrawlConnections(final int maxCrawlConnections)
+  {
+    options.setMaxCrawlConnections(maxCrawlConnections);
+    return this;
+  }
+
   public SchemaCrawlerOptionsBuilder parentTableFilterDepth(final int parentTableFilterDepth)
   {
     options.setParentTableFilterDepth(parentTableFilterDepth);
@@ -36,6 +36,7 @@ import static sf.util.TemplatingUtility.expandTemplate;
 import static sf.util.Utility.isBlank;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -88,6 +89,54 @@ public final class QueryUtility
     return executeSql(statement, sql);
   }
 
+  /**
+   * Executes a query against several tables with a single statement,
+   * as a UNION ALL of the query for each table. The query can use the
+   * ${tableindex} template parameter, which is the position of the
+   * table in the list, to tell apart the results for each table.
+   *
+   * @param query
+   *        Query against a table
+   * @param statement
+   *        Statement to execute the query on
+   * @param tables
+   *        Tables to query
+   * @param isAlphabeticalSortForTableColumns
+   *        Whether to sort table columns alphabetically
+   * @return Results for all of the tables
+   * @throws SQLException
+   *         On an exception
+   */
+  public static ResultSet executeAgainstTables(final Query query,
+                                               final Statement statement,
+                                               final List<? extends Table> tables,
+                                               final boolean isAlphabeticalSortForTableColumns)
+    throws SQLException
+  {
+    requireNonNull(query, "No query provided");
+    requireNonNull(tables, "No tables provided");
+    final StringBuilder buffer = new StringBuilder(1024);
+    for (int i = 0; i < tables.size(); i++)
+    {
+      if (i > 0)
+      {
+        buffer.append(System.lineSeparator()).append("UNION ALL")
+          .append(System.lineSeparator());
+      }
+      buffer.append(getQuery(query,
+                             tables.get(i),
+                             isAlphabeticalSortForTableColumns,
+                             i));
+    }
+    final String sql = buffer.toString();
+    LOGGER.log(Level.FINE,
+               new StringFormat("Executing %s for %d tables: %n%s",
+                                query.getName(),
+                                tables.size(),
+                                sql));
+    return executeSql(statement, sql);
+  }
+
   public static long executeForLong(final Query query,
                                     final Connection connection,
                                     final Table table)
@@ -123,6 +172,66 @@ public final class QueryUtility
     return executeSqlForScalar(connection, sql);
   }
 
+  /**
+   * Executes a query against a table, for a single value, on a
+   * statement that can be reused for other tables.
+   *
+   * @param query
+   *        Query against a table
+   * @param statement
+   *        Statement to execute the query on
+   * @param table
+   *        Table to query
+   * @return Single value result, or null if there are no results
+   * @throws SchemaCrawlerException
+   *         On an exception, or if there is more than a single value
+   */
+  public static Object executeForScalar(final Query query,
+                                        final Statement statement,
+                                        final Table table)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(query, "No query provided");
+    final String sql = getQuery(query, table, true);
+    LOGGER.log(Level.FINE,
+               new StringFormat("Executing %s: %n%s", query.getName(), sql));
+    return executeSqlForScalar(statement, sql);
+  }
+
+  /**
+   * Prepares a statement for a query against a table, so that it can
+   * be executed more than once with different parameters. The query
+   * may have JDBC parameter markers, in addition to the table
+   * template parameters.
+   *
+   * @param query
+   *        Query against a table
+   * @param connection
+   *        Connection to prepare the statement on
+   * @param table
+   *        Table to query
+   * @param isAlphabeticalSortForTableColumns
+   *        Whether to sort table columns alphabetically
+   * @return Prepared statement
+   * @throws SQLException
+   *         On an exception
+   */
+  public static PreparedStatement prepareAgainstTable(final Query query,
+                                                      final Connection connection,
+                                                      final Table table,
+                                                      final boolean isAlphabeticalSortForTableColumns)
+    throws SQLException
+  {
+    requireNonNull(query, "No query provided");
+    requireNonNull(connection, "No connection provided");
+    final String sql = getQuery(query,
+                                table,
+                                isAlphabeticalSortForTableColumns);
+    LOGGER.log(Level.FINE,
+               new StringFormat("Preparing %s: %n%s", query.getName(), sql));
+    return connection.prepareStatement(sql);
+  }
+
   private static String getColumnsListAsString(final List<Column> columns,
                                                final boolean omitLargeObjectColumns)
   {
@@ -181,8 +290,20 @@ public final class QueryUtility
   private static String getQuery(final Query query,
                                  final Table table,
                                  final boolean isAlphabeticalSortForTableColumns)
+  {
+    return getQuery(query, table, isAlphabeticalSortForTableColumns, -1);
+  }
+
+  private static String getQuery(final Query query,
+                                 final Table table,
+                                 final boolean isAlphabeticalSortForTableColumns,
+                                 final int tableIndex)
   {
     final Map<String, String> tableProperties = new HashMap<>();
+    if (tableIndex >= 0)
+    {
+      tableProperties.put("tableindex", String.valueOf(tableIndex));
+    }
     if (table != null)
     {
       final NamedObjectSort columnsSort = NamedObjectSort
@@ -28,24 +28,38 @@ http://www.gnu.org/licenses/
 package sf.util.graph;
 
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Directed graph, with edges indexed by the vertices at either end, so
+ * that the edges of a vertex can be found without scanning all edges.
+ *
+ * @param <T>
+ *        Any comparable class
+ */
 public class DirectedGraph<T extends Comparable<? super T>>
 {
 
   private final String name;
   private final Map<T, Vertex<T>> verticesMap;
   private final Set<DirectedEdge<T>> edges;
+  private final Map<Vertex<T>, Set<DirectedEdge<T>>> incomingEdges;
+  private final Map<Vertex<T>, Set<DirectedEdge<T>>> outgoingEdges;
 
   public DirectedGraph(final String name)
   {
     this.name = name;
     verticesMap = new HashMap<>();
     edges = new HashSet<>();
+    incomingEdges = new HashMap<>();
+    outgoingEdges = new HashMap<>();
   }
 
   /**
@@ -62,7 +76,13 @@ public class DirectedGraph<T extends Comparable<? super T>>
   {
     if (!from.equals(to))
     {
-      edges.add(new DirectedEdge<>(addVertex(from), addVertex(to)));
+      final DirectedEdge<T> edge = new DirectedEdge<>(addVertex(from),
+                                                      addVertex(to));
+      if (edges.add(edge))
+      {
+        outgoingEdges.get(edge.getFrom()).add(edge);
+        incomingEdges.get(edge.getTo()).add(edge);
+      }
     }
   }
 
@@ -84,6 +104,8 @@ public class DirectedGraph<T extends Comparable<? super T>>
     {
       vertex = new Vertex<>(value);
       verticesMap.put(value, vertex);
+      incomingEdges.put(vertex, new LinkedHashSet<>());
+      outgoingEdges.put(vertex, new LinkedHashSet<>());
     }
     return vertex;
   }
@@ -97,15 +119,7 @@ public class DirectedGraph<T extends Comparable<? super T>>
   {
     Objects.requireNonNull(vertexTo);
 
-    final Set<DirectedEdge<T>> incomingEdges = new HashSet<>();
-    for (final DirectedEdge<T> edge: edges)
-    {
-      if (edge.getTo().equals(vertexTo))
-      {
-        incomingEdges.add(edge);
-      }
-    }
-    return incomingEdges;
+    return new HashSet<>(incomingEdges(vertexTo));
   }
 
   /**
@@ -120,15 +134,7 @@ public class DirectedGraph<T extends Comparable<? super T>>
   {
     Objects.requireNonNull(vertexFrom);
 
-    final Set<DirectedEdge<T>> outgoingEdges = new HashSet<>();
-    for (final DirectedEdge<T> edge: edges)
-    {
-      if (edge.getFrom().equals(vertexFrom))
-      {
-        outgoingEdges.add(edge);
-      }
-    }
-    return outgoingEdges;
+    return new HashSet<>(outgoingEdges(vertexFrom));
   }
 
   @Override
@@ -164,4 +170,51 @@ public class DirectedGraph<T extends Comparable<? super T>>
     return new HashSet<>(verticesMap.values());
   }
 
+  /**
+   * Gets the edges to a vertex, without copying them. Used by graph
+   * algorithms, which do not modify the graph.
+   *
+   * @param vertexTo
+   *        Vertex at the end of the edges
+   * @return Read-only view of incoming edges
+   */
+  Collection<DirectedEdge<T>> incomingEdges(final Vertex<T> vertexTo)
+  {
+    final Set<DirectedEdge<T>> vertexEdges = incomingEdges.get(vertexTo);
+    if (vertexEdges == null)
+    {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(vertexEdges);
+  }
+
+  /**
+   * Gets the edges from a vertex, without copying them. Used by graph
+   * algorithms, which do not modify the graph.
+   *
+   * @param vertexFrom
+   *        Vertex at the start of the edges
+   * @return Read-only view of outgoing edges
+   */
+  Collection<DirectedEdge<T>> outgoingEdges(final Vertex<T> vertexFrom)
+  {
+    final Set<DirectedEdge<T>> vertexEdges = outgoingEdges.get(vertexFrom);
+    if (vertexEdges == null)
+    {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(vertexEdges);
+  }
+
+  /**
+   * Gets all vertices, without copying them. Used by graph algorithms,
+   * which do not modify the graph.
+   *
+   * @return Read-only view of vertices
+   */
+  Collection<Vertex<T>> vertices()
+  {
+    return Collections.unmodifiableCollection(verticesMap.values());
+  }
+
 }
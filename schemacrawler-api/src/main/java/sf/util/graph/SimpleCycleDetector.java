@@ -28,7 +28,10 @@ http://www.gnu.org/licenses/
 package sf.util.graph;
 
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Objects;
 
 public class SimpleCycleDetector<T extends Comparable<? super T>>
@@ -87,7 +90,7 @@ public class SimpleCycleDetector<T extends Comparable<? super T>>
 
   private Collection<Vertex<T>> clearTraversalStates()
   {
-    final Collection<Vertex<T>> vertices = graph.vertexSet();
+    final Collection<Vertex<T>> vertices = graph.vertices();
     for (final Vertex<T> vertex: vertices)
     {
       vertex.putAttribute("traversalstate", TraversalState.notStarted);
@@ -95,15 +98,26 @@ public class SimpleCycleDetector<T extends Comparable<? super T>>
     return vertices;
   }
 
+  /**
+   * Depth-first search from a vertex, keeping the path on an explicit
+   * stack, so that long chains of edges do not overflow the call
+   * stack.
+   */
   private boolean visitForCyles(final Vertex<T> vertex)
   {
+    final Deque<Iterator<DirectedEdge<T>>> path = new ArrayDeque<>();
+    final Deque<Vertex<T>> pathVertices = new ArrayDeque<>();
+
     vertex.putAttribute("traversalstate", TraversalState.inProgress);
+    path.push(graph.outgoingEdges(vertex).iterator());
+    pathVertices.push(vertex);
 
-    for (final DirectedEdge<T> edge: graph.edgeSet())
+    while (!path.isEmpty())
     {
-      if (edge.isFrom(vertex))
+      final Iterator<DirectedEdge<T>> edges = path.peek();
+      if (edges.hasNext())
       {
-        final Vertex<T> to = edge.getTo();
+        final Vertex<T> to = edges.next().getTo();
         if (to.getAttribute("traversalstate") == TraversalState.inProgress)
         {
           to.putAttribute("traversalstate", TraversalState.marked);
@@ -111,16 +125,19 @@ public class SimpleCycleDetector<T extends Comparable<? super T>>
         }
         else if (to.getAttribute("traversalstate") == TraversalState.notStarted)
         {
-          if (visitForCyles(to))
-          {
-            return true;
-          }
+          to.putAttribute("traversalstate", TraversalState.inProgress);
+          path.push(graph.outgoingEdges(to).iterator());
+          pathVertices.push(to);
         }
       }
+      else
+      {
+        path.pop();
+        pathVertices.pop()
+          .putAttribute("traversalstate", TraversalState.complete);
+      }
     }
 
-    vertex.putAttribute("traversalstate", TraversalState.complete);
-
     return false;
   }
 
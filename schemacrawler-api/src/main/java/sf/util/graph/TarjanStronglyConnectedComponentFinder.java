@@ -28,17 +28,22 @@ http://www.gnu.org/licenses/
 package sf.util.graph;
 
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Stack;
+import java.util.Set;
 
 /**
  * Implementation of <a href=
  * "https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">
- * Tarjan's algorithm</a>
+ * Tarjan's algorithm</a>. The depth-first search keeps its path on an
+ * explicit stack, so that long chains of edges do not overflow the call
+ * stack.
  *
  * @author Sualeh Fatehi
  * @param <T>
@@ -49,14 +54,17 @@ public class TarjanStronglyConnectedComponentFinder<T extends Comparable<? super
 
   private final DirectedGraph<T> graph;
   private final Collection<List<T>> stronglyConnectedComponents;
-  private final Stack<Vertex<T>> stack;
+  private final Deque<Vertex<T>> stack;
+  private final Set<Vertex<T>> onStack;
+  private int index;
 
   public TarjanStronglyConnectedComponentFinder(final DirectedGraph<T> graph)
   {
     this.graph = Objects.requireNonNull(graph);
 
     stronglyConnectedComponents = new HashSet<>();
-    stack = new Stack<>();
+    stack = new ArrayDeque<>();
+    onStack = new HashSet<>();
   }
 
   /**
@@ -72,53 +80,91 @@ public class TarjanStronglyConnectedComponentFinder<T extends Comparable<? super
     {
       if (!vertex.hasAttribute("index"))
       {
-        strongConnect(vertex, 0);
+        strongConnect(vertex);
       }
     }
     return stronglyConnectedComponents;
   }
 
-  private void strongConnect(final Vertex<T> vertexFrom, final int index)
+  private int getIndex(final Vertex<T> vertex)
   {
-    vertexFrom.putAttribute("index", index);
-    vertexFrom.putAttribute("lowlink", index);
-    stack.push(vertexFrom);
+    return vertex.<Integer> getAttribute("index");
+  }
+
+  private int getLowlink(final Vertex<T> vertex)
+  {
+    return vertex.<Integer> getAttribute("lowlink");
+  }
+
+  private void strongConnect(final Vertex<T> vertex)
+  {
+    final Deque<Iterator<DirectedEdge<T>>> path = new ArrayDeque<>();
+    final Deque<Vertex<T>> pathVertices = new ArrayDeque<>();
+
+    visit(vertex);
+    path.push(graph.outgoingEdges(vertex).iterator());
+    pathVertices.push(vertex);
 
-    for (final DirectedEdge<T> edge: graph.getOutgoingEdges(vertexFrom))
+    while (!path.isEmpty())
     {
-      final Vertex<T> vertexTo = edge.getTo();
-      if (!vertexTo.hasAttribute("index"))
+      final Iterator<DirectedEdge<T>> edges = path.peek();
+      final Vertex<T> vertexFrom = pathVertices.peek();
+      if (edges.hasNext())
       {
-        // Successor vertex has not yet been visited; recurse on it
-        strongConnect(vertexTo, index + 1);
-        vertexFrom.putAttribute("lowlink",
-                                Math.min(vertexFrom.getAttribute("lowlink"),
-                                         vertexTo.getAttribute("lowlink")));
+        final Vertex<T> vertexTo = edges.next().getTo();
+        if (!vertexTo.hasAttribute("index"))
+        {
+          // Successor vertex has not yet been visited; descend into it
+          visit(vertexTo);
+          path.push(graph.outgoingEdges(vertexTo).iterator());
+          pathVertices.push(vertexTo);
+        }
+        else if (onStack.contains(vertexTo))
+        {
+          // Successor vertex is on stack, hence in the current SCC
+          vertexFrom.putAttribute("lowlink",
+                                  Math.min(getLowlink(vertexFrom),
+                                           getIndex(vertexTo)));
+        }
+        continue;
       }
-      else if (stack.contains(vertexTo))
+
+      // All successors have been visited
+      path.pop();
+      pathVertices.pop();
+      if (!pathVertices.isEmpty())
       {
-        // Successor vertex is on stack, hence in the current SCC
-        vertexFrom.putAttribute("lowlink",
-                                Math.min(vertexFrom.getAttribute("lowlink"),
-                                         vertexTo.getAttribute("index")));
+        final Vertex<T> parent = pathVertices.peek();
+        parent.putAttribute("lowlink",
+                            Math.min(getLowlink(parent),
+                                     getLowlink(vertexFrom)));
       }
-    }
 
-    if (vertexFrom.getAttribute("lowlink") == vertexFrom.getAttribute("index"))
-    {
-      final LinkedList<T> scc = new LinkedList<>();
-      Vertex<T> sccVertex;
-      do
+      if (getLowlink(vertexFrom) == getIndex(vertexFrom))
       {
-        sccVertex = stack.pop();
-        scc.addFirst(sccVertex.getValue());
-      } while (!vertexFrom.equals(sccVertex));
-      if (scc.size() > 1)
-      {
-        stronglyConnectedComponents.add(scc);
+        final LinkedList<T> scc = new LinkedList<>();
+        Vertex<T> sccVertex;
+        do
+        {
+          sccVertex = stack.pop();
+          onStack.remove(sccVertex);
+          scc.addFirst(sccVertex.getValue());
+        } while (!vertexFrom.equals(sccVertex));
+        if (scc.size() > 1)
+        {
+          stronglyConnectedComponents.add(scc);
+        }
       }
     }
+  }
 
+  private void visit(final Vertex<T> vertex)
+  {
+    vertex.putAttribute("index", index);
+    vertex.putAttribute("lowlink", index);
+    index++;
+    stack.push(vertex);
+    onStack.add(vertex);
   }
 
 }
@@ -0,0 +1,163 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class MetadataResultSetTest
+  extends BaseDatabaseTest
+{
+
+  private static FetchSizePolicy fetchSizePolicy(final int fetchSize,
+                                                 final boolean adaptive)
+  {
+    return new FetchSizePolicy(fetchSize,
+                               new EnumMap<>(InformationSchemaKey.class),
+                               adaptive);
+  }
+
+  @Test
+  public void adaptiveFetchSize()
+    throws Exception
+  {
+    final FetchSizePolicy fetchSizePolicy = fetchSizePolicy(1, true);
+    assertEquals(2, fetchSizePolicy.getNextFetchSize(1));
+    assertEquals(FetchSizePolicy.MAX_ADAPTIVE_FETCH_SIZE,
+                 fetchSizePolicy
+                   .getNextFetchSize(FetchSizePolicy.MAX_ADAPTIVE_FETCH_SIZE));
+
+    final int rowCount = readAllColumns(fetchSizePolicy);
+    assertEquals(rowCount, fetchSizePolicy.getRowCount());
+    // Batches of 1, 2, 4, 8 and so on
+    final long roundTrips = fetchSizePolicy.getRoundTrips();
+    assertTrue(roundTrips < rowCount);
+    assertTrue((1L << roundTrips) > rowCount);
+  }
+
+  @Test
+  public void fetchSizeForInformationSchemaView()
+  {
+    final Map<InformationSchemaKey, Integer> fetchSizes = new EnumMap<>(InformationSchemaKey.class);
+    fetchSizes.put(InformationSchemaKey.TABLE_COLUMNS, 500);
+    final FetchSizePolicy fetchSizePolicy = new FetchSizePolicy(0,
+                                                                fetchSizes,
+                                                                false);
+    assertEquals(500, fetchSizePolicy.getFetchSize("TABLE_COLUMNS"));
+    assertEquals(20, fetchSizePolicy.getFetchSize("INDEXES"));
+    assertEquals(20, fetchSizePolicy.getFetchSize(null));
+    assertEquals(20, fetchSizePolicy.getNextFetchSize(20));
+  }
+
+  @Test
+  public void fixedFetchSize()
+    throws Exception
+  {
+    final FetchSizePolicy fetchSizePolicy = fetchSizePolicy(2, false);
+    final int rowCount = readAllColumns(fetchSizePolicy);
+    assertEquals(rowCount, fetchSizePolicy.getRowCount());
+    assertEquals((rowCount + 1) / 2, fetchSizePolicy.getRoundTrips());
+  }
+
+  @Test
+  public void readColumnsAreNotAttributes()
+    throws Exception
+  {
+    final Connection connection = getConnection();
+    try (final MetadataResultSet results = new MetadataResultSet(connection
+      .getMetaData().getColumns(null, "BOOKS", "AUTHORS", null),
+                                                                 fetchSizePolicy(20,
+                                                                                 false));)
+    {
+      int rowCount = 0;
+      while (results.next())
+      {
+        rowCount++;
+        assertEquals("AUTHORS", results.getString("TABLE_NAME"));
+        assertTrue(results.getInt("ORDINAL_POSITION", 0) > 0);
+        assertNull(results.getString("NOT_A_COLUMN"));
+        assertEquals(-1, results.getInt("NOT_A_COLUMN", -1));
+
+        final Map<String, Object> attributes = results.getAttributes();
+        assertFalse(attributes.containsKey("TABLE_NAME"));
+        assertFalse(attributes.containsKey("ORDINAL_POSITION"));
+        assertTrue(attributes.containsKey("COLUMN_NAME"));
+      }
+      assertTrue(rowCount > 0);
+    }
+  }
+
+  @Test
+  public void readColumnsAreResetForEachRow()
+    throws Exception
+  {
+    final Connection connection = getConnection();
+    try (final MetadataResultSet results = new MetadataResultSet(connection
+      .getMetaData().getColumns(null, "BOOKS", "AUTHORS", null),
+                                                                 fetchSizePolicy(20,
+                                                                                 false));)
+    {
+      assertTrue(results.next());
+      results.getString("COLUMN_NAME");
+      assertFalse(results.getAttributes().containsKey("COLUMN_NAME"));
+
+      assertTrue(results.next());
+      assertTrue(results.getAttributes().containsKey("COLUMN_NAME"));
+    }
+  }
+
+  private int readAllColumns(final FetchSizePolicy fetchSizePolicy)
+    throws Exception
+  {
+    final Connection connection = getConnection();
+    int rowCount = 0;
+    try (final MetadataResultSet results = new MetadataResultSet(connection
+      .getMetaData().getColumns(null, "BOOKS", null, null), fetchSizePolicy);)
+    {
+      while (results.next())
+      {
+        rowCount++;
+      }
+    }
+    assertTrue(rowCount > 10);
+    return rowCount;
+  }
+
+}
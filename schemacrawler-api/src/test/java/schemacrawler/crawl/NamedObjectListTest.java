@@ -0,0 +1,226 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+
+public class NamedObjectListTest
+{
+
+  private static List<String> names(final NamedObjectList<? extends Table> tables)
+  {
+    final List<String> names = new ArrayList<>();
+    for (final Table table: tables)
+    {
+      names.add(table.getName());
+    }
+    return names;
+  }
+
+  @Test
+  public void lookupKeys()
+  {
+    final LookupKey key = new LookupKey("CATALOG.PUBLIC.ITEM");
+    final LookupKey parts = new LookupKey().set("CATALOG", "PUBLIC", "ITEM");
+    assertEquals(key, parts);
+    assertEquals("CATALOG.PUBLIC.ITEM".hashCode(), parts.hashCode());
+    assertEquals("CATALOG.PUBLIC.ITEM", parts.toString());
+
+    assertEquals(new LookupKey("PUBLIC.ITEM"),
+                 parts.set(null, "PUBLIC", "ITEM"));
+    assertEquals(new LookupKey("PUBLIC.ITEM"), parts.set("", "PUBLIC", "ITEM"));
+    assertFalse(new LookupKey("PUBLIC.ITEMS")
+      .equals(parts.set(null, "PUBLIC", "ITEM")));
+    assertFalse(new LookupKey("PUBLICITEM")
+      .equals(parts.set(null, "PUBLIC", "ITEM")));
+    assertTrue(new LookupKey().isEmpty());
+
+    // Keys are only equal to keys, so that equality is symmetric
+    assertFalse(parts.set(null, "PUBLIC", "ITEM").equals("PUBLIC.ITEM"));
+    assertFalse("PUBLIC.ITEM".equals(parts));
+  }
+
+  @Test
+  public void lookupByNameParts()
+  {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final Schema noCatalogSchema = catalog.addSchema(null, "PUBLIC");
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+
+    final MutableTable item = new MutableTable(schema, "ITEM");
+    item.setTableType(NamedObjectTest.TABLE);
+    tables.add(item);
+    final MutableTable noCatalogItem = new MutableTable(noCatalogSchema,
+                                                        "ITEM");
+    noCatalogItem.setTableType(NamedObjectTest.TABLE);
+    tables.add(noCatalogItem);
+
+    assertSame(item, tables.lookup("CATALOG", "PUBLIC", "ITEM").get());
+    assertSame(item, tables.lookup(schema, "ITEM").get());
+    assertSame(item, tables.lookup("CATALOG.PUBLIC.ITEM").get());
+    assertSame(noCatalogItem, tables.lookup(null, "PUBLIC", "ITEM").get());
+    assertSame(noCatalogItem, tables.lookup(" ", "PUBLIC", "ITEM").get());
+    assertFalse(tables.lookup("CATALOG", "PUBLIC", "ITEMS").isPresent());
+    assertFalse(tables.lookup("CATALOG", "PUBLIC", null).isPresent());
+    assertTrue(tables.contains(item));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void lookupAfterSerialization()
+    throws Exception
+  {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+    for (final String tableName: new String[] { "CUSTOMER", "ITEM" })
+    {
+      final MutableTable table = new MutableTable(schema, tableName);
+      table.setTableType(NamedObjectTest.TABLE);
+      tables.add(table);
+    }
+    assertTrue(tables.lookup("CATALOG", "PUBLIC", "ITEM").isPresent());
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes);)
+    {
+      out.writeObject(tables);
+    }
+    final NamedObjectList<MutableTable> deserialized;
+    try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes
+      .toByteArray()));)
+    {
+      deserialized = (NamedObjectList<MutableTable>) in.readObject();
+    }
+
+    assertEquals("ITEM",
+                 deserialized.lookup("CATALOG", "PUBLIC", "ITEM").get()
+                   .getName());
+    assertEquals("CUSTOMER",
+                 deserialized.lookup("CATALOG.PUBLIC.CUSTOMER").get()
+                   .getName());
+    assertEquals("ITEM", deserialized.remove("CATALOG.PUBLIC.ITEM").getName());
+    assertFalse(deserialized.lookup("CATALOG", "PUBLIC", "ITEM").isPresent());
+    assertEquals(1, deserialized.size());
+  }
+
+  @Test
+  public void sortedValuesAfterSortOrderChanged()
+  {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+
+    final List<MutableTable> added = new ArrayList<>();
+    for (final String tableName: new String[] { "CUSTOMER", "ITEM", "SUPPLIER" })
+    {
+      final MutableTable table = new MutableTable(schema, tableName);
+      table.setTableType(NamedObjectTest.TABLE);
+      tables.add(table);
+      added.add(table);
+    }
+    final List<MutableTable> values = tables.values();
+
+    added.get(0).setSortIndex(2);
+    added.get(2).setSortIndex(1);
+    // Sorted view is not checked on every access
+    assertSame(values, tables.values());
+
+    tables.sortOrderChanged();
+    assertNotSame(values, tables.values());
+    assertEquals(Arrays.asList("ITEM", "SUPPLIER", "CUSTOMER"),
+                 names(tables));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void sortedValuesCannotBeModified()
+  {
+    final NamedObjectList<Table> tables = new NamedObjectList<>();
+    tables.values().clear();
+  }
+
+  @Test
+  public void sortedValuesFollowModifications()
+  {
+    final MutableCatalog catalog = new MutableCatalog("DATABASE");
+    final Schema schema = catalog.addSchema("CATALOG", "PUBLIC");
+    final NamedObjectList<Table> tables = new NamedObjectList<>();
+
+    final MutableTable item = new MutableTable(schema, "ITEM");
+    item.setTableType(NamedObjectTest.TABLE);
+    tables.add(item);
+    for (final String tableName: new String[] { "SUPPLIER", "CUSTOMER" })
+    {
+      final MutableTable table = new MutableTable(schema, tableName);
+      table.setTableType(NamedObjectTest.TABLE);
+      tables.add(table);
+    }
+    assertEquals(Arrays.asList("CUSTOMER", "ITEM", "SUPPLIER"),
+                 names(tables));
+
+    // Sorted view is reused until the list is modified
+    final List<Table> values = tables.values();
+    assertSame(values, tables.values());
+
+    final MutableTable invoice = new MutableTable(schema, "INVOICE");
+    invoice.setTableType(NamedObjectTest.TABLE);
+    tables.add(invoice);
+    assertNotSame(values, tables.values());
+    assertEquals(Arrays.asList("CUSTOMER", "INVOICE", "ITEM", "SUPPLIER"),
+                 names(tables));
+    // Earlier snapshot is not affected
+    assertEquals(3, values.size());
+
+    tables.remove(item);
+    assertEquals(Arrays.asList("CUSTOMER", "INVOICE", "SUPPLIER"),
+                 names(tables));
+
+    tables.clear();
+    assertEquals(0, tables.values().size());
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class ShardedRetrievalTest
+  extends BaseDatabaseTest
+{
+
+  @Test(timeout = 30_000)
+  public void connectionLimit()
+    throws Exception
+  {
+    final Thread callingThread = Thread.currentThread();
+    final List<Thread> threads = new CopyOnWriteArrayList<>();
+    final Semaphore connectionPermits = new Semaphore(0);
+    new ShardedRetrieval(newRetrieverConnection(connectionPermits), 4)
+      .retrieve("test shards",
+                Arrays.asList(1, 2, 3, 4),
+                (shard, metaData) -> threads.add(Thread.currentThread()));
+
+    // No permits for additional connections, so all shards are
+    // retrieved on the calling thread
+    assertEquals(Arrays.asList(callingThread,
+                               callingThread,
+                               callingThread,
+                               callingThread),
+                 threads);
+    assertEquals(0, connectionPermits.availablePermits());
+  }
+
+  @Test(timeout = 30_000)
+  public void interrupted()
+    throws Exception
+  {
+    final Thread callingThread = Thread.currentThread();
+    final CountDownLatch workerStarted = new CountDownLatch(1);
+    try
+    {
+      newShardedRetrieval().retrieve("test shards",
+                                     Arrays.asList(1, 2),
+                                     (shard, metaData) -> {
+                                       if (Thread
+                                         .currentThread() == callingThread)
+                                       {
+                                         await(workerStarted);
+                                         callingThread.interrupt();
+                                       }
+                                       else
+                                       {
+                                         // Runs until the retrieval is
+                                         // shut down
+                                         workerStarted.countDown();
+                                         await(new CountDownLatch(1));
+                                       }
+                                     });
+      fail("Retrieval was not interrupted");
+    }
+    catch (final SQLException e)
+    {
+      assertTrue(e.getCause() instanceof InterruptedException);
+    }
+    assertTrue("Interrupt was not restored", Thread.interrupted());
+  }
+
+  @Test(timeout = 30_000)
+  public void workerFailure()
+    throws Exception
+  {
+    final Thread callingThread = Thread.currentThread();
+    final CountDownLatch workerFailed = new CountDownLatch(1);
+    try
+    {
+      newShardedRetrieval().retrieve("test shards",
+                                     Arrays.asList(1, 2),
+                                     (shard, metaData) -> {
+                                       if (Thread
+                                         .currentThread() == callingThread)
+                                       {
+                                         await(workerFailed);
+                                       }
+                                       else
+                                       {
+                                         workerFailed.countDown();
+                                         throw new IllegalStateException("Worker failed");
+                                       }
+                                     });
+      fail("Worker failure was not reported");
+    }
+    catch (final IllegalStateException e)
+    {
+      assertEquals("Worker failed", e.getMessage());
+    }
+  }
+
+  private void await(final CountDownLatch latch)
+  {
+    try
+    {
+      latch.await(10, TimeUnit.SECONDS);
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private RetrieverConnection newRetrieverConnection(final Semaphore connectionPermits)
+    throws Exception
+  {
+    return new RetrieverConnection(getConnection(),
+                                   getDatabaseConnectionOptions(),
+                                   connectionPermits,
+                                   new DatabaseSpecificOverrideOptions());
+  }
+
+  private ShardedRetrieval newShardedRetrieval()
+    throws Exception
+  {
+    return new ShardedRetrieval(newRetrieverConnection(null), 2);
+  }
+
+}
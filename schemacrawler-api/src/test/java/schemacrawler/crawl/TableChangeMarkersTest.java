@@ -0,0 +1,81 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.crawl;
+
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class TableChangeMarkersTest
+  extends BaseDatabaseTest
+{
+
+  @Test
+  public void tableTypesFromFingerprints()
+    throws Exception
+  {
+    assertTableTypes(new DatabaseSpecificOverrideOptions());
+  }
+
+  @Test
+  public void tableTypesFromLastChangeTimes()
+    throws Exception
+  {
+    final DatabaseSpecificOverrideOptionsBuilder databaseSpecificOverrideOptionsBuilder = new DatabaseSpecificOverrideOptionsBuilder();
+    databaseSpecificOverrideOptionsBuilder.withInformationSchemaViews()
+      .withExtTableChangesSql("SELECT TABLE_CAT AS TABLE_CATALOG, TABLE_SCHEM AS TABLE_SCHEMA, TABLE_NAME, 'unchanged' AS LAST_DDL_TIME FROM INFORMATION_SCHEMA.SYSTEM_TABLES");
+    assertTableTypes(databaseSpecificOverrideOptionsBuilder.toOptions());
+  }
+
+  private void assertTableTypes(final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions)
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setTableTypes(Arrays.asList("TABLE"));
+
+    final Map<String, String> changeMarkers = SchemaCrawler
+      .retrieveTableChangeMarkers(new RetrieverConnection(getConnection(),
+                                                          databaseSpecificOverrideOptions),
+                                  schemaCrawlerOptions);
+    assertTrue("Table has no change marker",
+               changeMarkers.containsKey("PUBLIC.BOOKS.AUTHORS"));
+    assertFalse("View has a change marker",
+                changeMarkers.containsKey("PUBLIC.BOOKS.AUTHORSLIST"));
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.Routine;
+import schemacrawler.schema.Sequence;
+import schemacrawler.schema.Synonym;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptionsBuilder;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class ConcurrentCrawlTest
+  extends BaseDatabaseTest
+{
+
+  private static List<String> describe(final Catalog catalog)
+  {
+    final List<String> description = new ArrayList<>();
+    for (final Table table: catalog.getTables())
+    {
+      description.add("table: " + table.getFullName() + " "
+                      + table.getTableType());
+      for (final Column column: table.getColumns())
+      {
+        description.add("  column: " + column.getFullName() + " "
+                        + column.getColumnDataType().getFullName());
+      }
+      for (final Index index: table.getIndexes())
+      {
+        description.add("  index: " + index.getFullName());
+      }
+      for (final ForeignKey foreignKey: table.getForeignKeys())
+      {
+        description.add("  foreign key: " + foreignKey.getFullName());
+      }
+    }
+    for (final Routine routine: catalog.getRoutines())
+    {
+      description.add("routine: " + routine.getFullName() + " "
+                      + routine.getColumns().size());
+    }
+    for (final Synonym synonym: catalog.getSynonyms())
+    {
+      description.add("synonym: " + synonym.getFullName() + " -> "
+                      + synonym.getReferencedObject().getFullName());
+    }
+    for (final Sequence sequence: catalog.getSequences())
+    {
+      description.add("sequence: " + sequence.getFullName());
+    }
+    return description;
+  }
+
+  @Test
+  public void concurrentCrawlMatchesSerialCrawl()
+    throws Exception
+  {
+    assertConcurrentCrawlMatchesSerialCrawl(1);
+  }
+
+  @Test
+  public void shardedCrawlMatchesSerialCrawl()
+    throws Exception
+  {
+    assertConcurrentCrawlMatchesSerialCrawl(4);
+  }
+
+  private void assertConcurrentCrawlMatchesSerialCrawl(final int crawlParallelism)
+    throws Exception
+  {
+    final Config config = Config
+      .loadResource("/hsqldb.INFORMATION_SCHEMA.config.properties");
+    final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions = new DatabaseSpecificOverrideOptionsBuilder()
+      .fromConfig(config).toOptions();
+
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+    schemaCrawlerOptions.setSynonymInclusionRule(new IncludeAll());
+    schemaCrawlerOptions.setSequenceInclusionRule(new IncludeAll());
+
+    final Catalog serialCatalog = getCatalog(databaseSpecificOverrideOptions,
+                                             schemaCrawlerOptions);
+
+    schemaCrawlerOptions.setCrawlParallelism(crawlParallelism);
+    final SchemaCrawler schemaCrawler = new SchemaCrawler(getDatabaseConnectionOptions(),
+                                                          databaseSpecificOverrideOptions);
+    final Catalog concurrentCatalog = schemaCrawler
+      .crawl(schemaCrawlerOptions);
+
+    final List<String> serialDescription = describe(serialCatalog);
+    assertFalse("No tables crawled", serialCatalog.getTables().isEmpty());
+    assertFalse("No synonyms crawled", serialCatalog.getSynonyms().isEmpty());
+    assertEquals(serialDescription, describe(concurrentCatalog));
+    assertEquals(serialCatalog.getColumnDataTypes().size(),
+                 concurrentCatalog.getColumnDataTypes().size());
+  }
+
+}
@@ -0,0 +1,225 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ColumnDataType;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptionsBuilder;
+import schemacrawler.schemacrawler.ExcludeAll;
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class IncrementalCrawlTest
+  extends BaseDatabaseTest
+{
+
+  private static final String TABLE_CHANGE_MARKER = "schemacrawler.table.change_marker";
+  private static final String REUSED = "test.reused";
+
+  private static void assertReused(final Table previousTable,
+                                   final Catalog catalog)
+  {
+    final Table table = lookupTable(catalog, previousTable.getFullName());
+    assertNotSame("Reused table was not copied, " + previousTable,
+                  previousTable,
+                  table);
+    assertTrue("Unchanged table was crawled again, " + previousTable,
+               table.hasAttribute(REUSED));
+    assertSame("Reused table has a schema from the previous catalog, "
+               + previousTable,
+               catalog.lookupSchema(table.getSchema().getFullName()).get(),
+               table.getSchema());
+    for (final Column column: table.getColumns())
+    {
+      boolean found = false;
+      for (final ColumnDataType columnDataType: catalog
+        .getColumnDataTypes())
+      {
+        found = found || columnDataType == column.getColumnDataType();
+      }
+      assertTrue("Reused column has a data type from the previous catalog, "
+                 + column, found);
+    }
+  }
+
+  private static List<String> describe(final Catalog catalog)
+  {
+    final List<String> description = new ArrayList<>();
+    for (final Table table: catalog.getTables())
+    {
+      description.add("table: " + table.getFullName() + " "
+                      + table.getTableType());
+      for (final Column column: table.getColumns())
+      {
+        description.add("  column: " + column.getFullName() + " "
+                        + column.getColumnDataType().getFullName());
+      }
+      for (final Index index: table.getIndexes())
+      {
+        description.add("  index: " + index.getFullName());
+      }
+      for (final ForeignKey foreignKey: table.getForeignKeys())
+      {
+        description.add("  foreign key: " + foreignKey.getFullName());
+      }
+    }
+    return description;
+  }
+
+  private static Table lookupTable(final Catalog catalog,
+                                   final String fullName)
+  {
+    for (final Table table: catalog.getTables())
+    {
+      if (table.getFullName().equals(fullName))
+      {
+        return table;
+      }
+    }
+    throw new AssertionError("Table not found, " + fullName);
+  }
+
+  @Test
+  public void incrementalCrawlWithChangedTables()
+    throws Exception
+  {
+    assertIncrementalCrawlWithChangedTables(new DatabaseSpecificOverrideOptions());
+  }
+
+  @Test
+  public void incrementalCrawlWithChangedTablesFromLastChangeTimes()
+    throws Exception
+  {
+    final DatabaseSpecificOverrideOptionsBuilder databaseSpecificOverrideOptionsBuilder = new DatabaseSpecificOverrideOptionsBuilder();
+    databaseSpecificOverrideOptionsBuilder.withInformationSchemaViews()
+      .withExtTableChangesSql("SELECT TABLE_CAT AS TABLE_CATALOG, TABLE_SCHEM AS TABLE_SCHEMA, TABLE_NAME, 'unchanged' AS LAST_DDL_TIME FROM INFORMATION_SCHEMA.SYSTEM_TABLES");
+    assertIncrementalCrawlWithChangedTables(databaseSpecificOverrideOptionsBuilder
+      .toOptions());
+  }
+
+  @Test
+  public void incrementalCrawlWithoutChanges()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = newSchemaCrawlerOptions();
+    final Catalog fullCatalog = getCatalog(schemaCrawlerOptions);
+
+    final SchemaCrawler schemaCrawler = new SchemaCrawler(getConnection(),
+                                                          new DatabaseSpecificOverrideOptions());
+    final Catalog incrementalCatalog1 = schemaCrawler
+      .crawl(schemaCrawlerOptions, fullCatalog);
+    for (final Table table: incrementalCatalog1.getTables())
+    {
+      table.setAttribute(REUSED, Boolean.TRUE);
+    }
+    final InclusionRule tableInclusionRule = schemaCrawlerOptions
+      .getTableInclusionRule();
+    final Catalog incrementalCatalog2 = schemaCrawler
+      .crawl(schemaCrawlerOptions, incrementalCatalog1);
+
+    assertSame("Options were changed",
+               tableInclusionRule,
+               schemaCrawlerOptions.getTableInclusionRule());
+    assertFalse("No tables crawled", fullCatalog.getTables().isEmpty());
+    assertEquals(describe(fullCatalog), describe(incrementalCatalog1));
+    assertEquals(describe(fullCatalog), describe(incrementalCatalog2));
+    for (final Table table: incrementalCatalog1.getTables())
+    {
+      assertReused(table, incrementalCatalog2);
+    }
+  }
+
+  private void assertIncrementalCrawlWithChangedTables(final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions)
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = newSchemaCrawlerOptions();
+    final Catalog fullCatalog = getCatalog(databaseSpecificOverrideOptions,
+                                           schemaCrawlerOptions);
+
+    final SchemaCrawler schemaCrawler = new SchemaCrawler(getConnection(),
+                                                          databaseSpecificOverrideOptions);
+
+    // Start from a crawl without tables, so that all tables are new
+    final SchemaCrawlerOptions noTablesSchemaCrawlerOptions = newSchemaCrawlerOptions();
+    noTablesSchemaCrawlerOptions.setTableInclusionRule(new ExcludeAll());
+    final Catalog previousCatalog = schemaCrawler
+      .crawl(schemaCrawlerOptions,
+             schemaCrawler.crawl(noTablesSchemaCrawlerOptions));
+    assertEquals(describe(fullCatalog), describe(previousCatalog));
+
+    final Table changedTable = lookupTable(previousCatalog,
+                                           "PUBLIC.BOOKS.AUTHORS");
+    changedTable.setAttribute(TABLE_CHANGE_MARKER, "changed");
+    final Table unrelatedTable = lookupTable(previousCatalog,
+                                             "PUBLIC.BOOKS.PUBLISHERS");
+    unrelatedTable.setAttribute(REUSED, Boolean.TRUE);
+
+    final Catalog incrementalCatalog = schemaCrawler
+      .crawl(schemaCrawlerOptions, previousCatalog);
+    assertEquals(describe(fullCatalog), describe(incrementalCatalog));
+
+    assertNotSame("Changed table was not crawled again",
+                  changedTable,
+                  lookupTable(incrementalCatalog, "PUBLIC.BOOKS.AUTHORS"));
+    assertNotSame("Related table was not crawled again",
+                  lookupTable(previousCatalog, "PUBLIC.BOOKS.BOOKAUTHORS"),
+                  lookupTable(incrementalCatalog, "PUBLIC.BOOKS.BOOKAUTHORS"));
+    assertReused(unrelatedTable, incrementalCatalog);
+    // Previous catalog is not changed by the incremental crawl
+    assertEquals(describe(fullCatalog), describe(previousCatalog));
+  }
+
+  private SchemaCrawlerOptions newSchemaCrawlerOptions()
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+    return schemaCrawlerOptions;
+  }
+
+}
@@ -0,0 +1,176 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static schemacrawler.test.utility.TestUtility.createTempFile;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import schemacrawler.crawl.MetadataRetrievalStrategy;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.ForeignKeyColumnReference;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.IndexColumn;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class MetadataRetrievalStrategyTest
+  extends BaseDatabaseTest
+{
+
+  private static List<String> describeKeys(final Catalog catalog)
+  {
+    final List<String> description = new ArrayList<>();
+    for (final Table table: catalog.getTables())
+    {
+      description.add("table: " + table.getFullName());
+      if (table.getPrimaryKey() != null)
+      {
+        description.add("  primary key: " + table.getPrimaryKey().getColumns());
+      }
+      for (final Index index: table.getIndexes())
+      {
+        final List<String> indexColumns = new ArrayList<>();
+        for (final IndexColumn indexColumn: index.getColumns())
+        {
+          indexColumns.add(indexColumn.getFullName() + " "
+                           + indexColumn.getSortSequence());
+        }
+        description.add("  index: " + index.getFullName() + " "
+                        + index.isUnique() + " " + indexColumns);
+      }
+      for (final ForeignKey foreignKey: table.getForeignKeys())
+      {
+        description.add("  foreign key: " + foreignKey.getFullName() + " "
+                        + foreignKey.getUpdateRule() + " "
+                        + foreignKey.getDeleteRule());
+        for (final ForeignKeyColumnReference columnReference: foreignKey
+          .getColumnReferences())
+        {
+          description.add("    " + columnReference);
+        }
+      }
+    }
+    return description;
+  }
+
+  @Test
+  public void metadataAllMatchesMetadata()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    final Catalog metadataCatalog = getCatalog(new DatabaseSpecificOverrideOptions(),
+                                               schemaCrawlerOptions);
+
+    final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions = new DatabaseSpecificOverrideOptionsBuilder()
+      .withIndexRetrievalStrategy(MetadataRetrievalStrategy.metadata_all)
+      .withPrimaryKeyRetrievalStrategy(MetadataRetrievalStrategy.metadata_all)
+      .withForeignKeyRetrievalStrategy(MetadataRetrievalStrategy.metadata_all)
+      .toOptions();
+    final Catalog metadataAllCatalog = getCatalog(databaseSpecificOverrideOptions,
+                                                  schemaCrawlerOptions);
+
+    final List<String> metadataDescription = describeKeys(metadataCatalog);
+    assertFalse("No tables crawled", metadataCatalog.getTables().isEmpty());
+    assertEquals(metadataDescription, describeKeys(metadataAllCatalog));
+  }
+
+  @Test
+  public void adaptiveMatchesMetadata()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    final Catalog metadataCatalog = getCatalog(new DatabaseSpecificOverrideOptions(),
+                                               schemaCrawlerOptions);
+
+    final Path learnedStrategiesFile = createTempFile("strategies",
+                                                      "properties");
+    final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions = new DatabaseSpecificOverrideOptionsBuilder()
+      .withAdaptiveRetrievalStrategies()
+      .withLearnedRetrievalStrategiesFile(learnedStrategiesFile).toOptions();
+    final List<String> metadataDescription = describeKeys(metadataCatalog);
+    assertEquals(metadataDescription,
+                 describeKeys(getCatalog(databaseSpecificOverrideOptions,
+                                         schemaCrawlerOptions)));
+
+    assertTrue("Learned strategies were not saved",
+               Files.exists(learnedStrategiesFile));
+    final Properties learnedStrategies = new Properties();
+    try (final Reader reader = Files
+      .newBufferedReader(learnedStrategiesFile);)
+    {
+      learnedStrategies.load(reader);
+    }
+    assertEquals(4, learnedStrategies.size());
+    for (final String key: learnedStrategies.stringPropertyNames())
+    {
+      assertFalse("JDBC URL was saved, " + key, key.contains("jdbc:"));
+    }
+
+    // Second crawl uses the learned strategies
+    assertEquals(metadataDescription,
+                 describeKeys(getCatalog(databaseSpecificOverrideOptions,
+                                         schemaCrawlerOptions)));
+  }
+
+  @Test(expected = SchemaCrawlerException.class)
+  public void dataDictionaryAllWithoutSql()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    final DatabaseSpecificOverrideOptions databaseSpecificOverrideOptions = new DatabaseSpecificOverrideOptionsBuilder()
+      .withForeignKeyRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all)
+      .toOptions();
+    getCatalog(databaseSpecificOverrideOptions, schemaCrawlerOptions);
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test.graph;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import sf.util.graph.DirectedEdge;
+import sf.util.graph.DirectedGraph;
+import sf.util.graph.GraphException;
+
+/**
+ * Graph algorithms on a synthetic foreign key graph, with 100,000
+ * tables, each referencing up to three earlier tables. The timeouts
+ * guard against regressions to algorithms that scan all edges for
+ * every vertex.
+ */
+public class DirectedGraphLargeTest
+  extends GraphTestBase
+{
+
+  private static final int VERTEX_COUNT = 100_000;
+
+  private static DirectedGraph<Integer> makeForeignKeyGraph()
+  {
+    final Random random = new Random(VERTEX_COUNT);
+    final DirectedGraph<Integer> graph = new DirectedGraph<>("large");
+    graph.addVertex(0);
+    for (int i = 1; i < VERTEX_COUNT; i++)
+    {
+      graph.addVertex(i);
+      final int foreignKeyCount = random.nextInt(4);
+      for (int j = 0; j < foreignKeyCount; j++)
+      {
+        // Primary key table first, as in the tables graph
+        graph.addEdge(random.nextInt(i), i);
+      }
+    }
+    return graph;
+  }
+
+  @Test(timeout = 60_000)
+  public void cycles()
+    throws Exception
+  {
+    final DirectedGraph<Integer> graph = makeForeignKeyGraph();
+    graph.addEdge(VERTEX_COUNT - 1, 0);
+    graph.addEdge(0, VERTEX_COUNT - 1);
+
+    assertTrue(containsCycleSimple(graph));
+    assertTrue(containsCycleTarjan(graph));
+  }
+
+  @Test(timeout = 60_000)
+  public void noCycles()
+    throws Exception
+  {
+    final DirectedGraph<Integer> graph = makeForeignKeyGraph();
+
+    assertFalse(containsCycleSimple(graph));
+    assertFalse(containsCycleTarjan(graph));
+  }
+
+  @Test(timeout = 60_000)
+  public void topologicalSortOrder()
+    throws Exception
+  {
+    final DirectedGraph<Integer> graph = makeForeignKeyGraph();
+
+    final List<Integer> sorted = topologicalSort(graph);
+    assertEquals(VERTEX_COUNT, sorted.size());
+
+    final Map<Integer, Integer> positions = new HashMap<>();
+    for (int i = 0; i < sorted.size(); i++)
+    {
+      positions.put(sorted.get(i), i);
+    }
+    assertEquals(VERTEX_COUNT, positions.size());
+    for (final DirectedEdge<Integer> edge: graph.edgeSet())
+    {
+      assertTrue(positions.get(edge.getFrom().getValue()) < positions
+        .get(edge.getTo().getValue()));
+    }
+  }
+
+  @Test(timeout = 60_000, expected = GraphException.class)
+  public void topologicalSortWithCycle()
+    throws Exception
+  {
+    final DirectedGraph<Integer> graph = makeForeignKeyGraph();
+    graph.addEdge(VERTEX_COUNT - 1, 0);
+    graph.addEdge(0, VERTEX_COUNT - 1);
+
+    topologicalSort(graph);
+  }
+
+}
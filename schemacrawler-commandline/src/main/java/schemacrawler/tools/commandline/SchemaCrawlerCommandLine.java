@@ -29,6 +29,7 @@ package schemacrawler.tools.commandline;
 
 
 import java.sql.Connection;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,7 +41,10 @@ import schemacrawler.schemacrawler.SchemaCrawlerCommandLineException;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.tools.databaseconnector.DatabaseConnector;
+import schemacrawler.tools.executable.BaseStagedExecutable;
+import schemacrawler.tools.executable.CatalogCache;
 import schemacrawler.tools.executable.Executable;
+import schemacrawler.tools.executable.SchemaCrawlerExecutable;
 import schemacrawler.tools.options.OutputOptions;
 import sf.util.StringFormat;
 
@@ -123,6 +127,22 @@ public final class SchemaCrawlerCommandLine
     executable.setOutputOptions(outputOptions);
     executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
     executable.setAdditionalConfiguration(config);
+    if (executable instanceof SchemaCrawlerExecutable)
+    {
+      // Allow commands to open additional connections
+      ((SchemaCrawlerExecutable) executable).setDataSource(connectionOptions);
+    }
+    if (executable instanceof BaseStagedExecutable)
+    {
+      // Use catalogs cached by earlier runs, if configured
+      final Optional<CatalogCache> catalogCache = CatalogCache
+        .newCatalogCache(config);
+      if (catalogCache.isPresent())
+      {
+        ((BaseStagedExecutable) executable)
+          .setCatalogCache(catalogCache.get());
+      }
+    }
     // Execute
     try (final Connection connection = connectionOptions.getConnection();)
     {
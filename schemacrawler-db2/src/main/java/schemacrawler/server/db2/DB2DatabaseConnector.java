@@ -53,7 +53,8 @@ public final class DB2DatabaseConnector
   {
     final DatabaseSpecificOverrideOptionsBuilder databaseSpecificOverrideOptionsBuilder = super.getDatabaseSpecificOverrideOptionsBuilder();
     databaseSpecificOverrideOptionsBuilder
-      .withTableColumnRetrievalStrategy(MetadataRetrievalStrategy.metadata_all);
+      .withTableColumnRetrievalStrategy(MetadataRetrievalStrategy.metadata_all)
+      .withMetadataFetchSize(100).withAdaptiveMetadataFetchSize();
     return databaseSpecificOverrideOptionsBuilder;
   }
 
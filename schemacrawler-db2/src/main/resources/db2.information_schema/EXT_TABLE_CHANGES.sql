@@ -0,0 +1,17 @@
+SELECT
+  NULLIF(1, 1)
+    AS TABLE_CATALOG,
+  STRIP(SYSCAT.TABLES.TABSCHEMA)
+    AS TABLE_SCHEMA,
+  STRIP(SYSCAT.TABLES.TABNAME)
+    AS TABLE_NAME,
+  VARCHAR(SYSCAT.TABLES.ALTER_TIME)
+    AS LAST_DDL_TIME
+FROM
+  SYSCAT.TABLES
+WHERE
+  SYSCAT.TABLES.TYPE IN ('T', 'S', 'V')
+ORDER BY
+  SYSCAT.TABLES.TABSCHEMA,
+  SYSCAT.TABLES.TABNAME
+WITH UR
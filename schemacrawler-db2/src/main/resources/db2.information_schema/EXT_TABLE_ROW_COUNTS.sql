@@ -0,0 +1,17 @@
+SELECT
+  NULLIF(1, 1)
+    AS TABLE_CATALOG,
+  STRIP(SYSCAT.TABLES.TABSCHEMA)
+    AS TABLE_SCHEMA,
+  STRIP(SYSCAT.TABLES.TABNAME)
+    AS TABLE_NAME,
+  CASE WHEN SYSCAT.TABLES.CARD < 0 THEN NULL ELSE SYSCAT.TABLES.CARD END
+    AS ROW_COUNT
+FROM
+  SYSCAT.TABLES
+WHERE
+  SYSCAT.TABLES.TYPE IN ('T', 'S')
+ORDER BY
+  SYSCAT.TABLES.TABSCHEMA,
+  SYSCAT.TABLES.TABNAME
+WITH UR
@@ -0,0 +1,226 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.integration.serialization;
+
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.BaseCatalogDecorator;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+
+/**
+ * Decorates a database to allow for serialization to and from a
+ * compact binary snapshot. A binary snapshot is much smaller, and much
+ * faster to write and load than an XML snapshot, since strings are
+ * stored only once, and objects refer to each other by number. A
+ * binary snapshot file can be memory mapped, and only the tables that
+ * are needed loaded from it.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class BinarySerializedCatalog
+  extends BaseCatalogDecorator
+{
+
+  private static final long serialVersionUID = -2386094622916637380L;
+
+  /**
+   * Checks whether a file is a binary snapshot, from the header.
+   *
+   * @param snapshotFile
+   *        Snapshot file
+   * @return Whether the file is a binary snapshot
+   * @throws IOException
+   *         On an exception reading the file
+   */
+  public static boolean isBinarySnapshot(final Path snapshotFile)
+    throws IOException
+  {
+    requireNonNull(snapshotFile, "No snapshot file provided");
+    try (final InputStream in = Files.newInputStream(snapshotFile);)
+    {
+      final byte[] magic = new byte[BinarySnapshotFormat.MAGIC.length];
+      int read = 0;
+      while (read < magic.length)
+      {
+        final int count = in.read(magic, read, magic.length - read);
+        if (count < 0)
+        {
+          return false;
+        }
+        read = read + count;
+      }
+      return Arrays.equals(magic, BinarySnapshotFormat.MAGIC);
+    }
+  }
+
+  private static Catalog readCatalog(final ByteBuffer buffer,
+                                     final InclusionRule schemaInclusionRule,
+                                     final InclusionRule tableInclusionRule)
+    throws SchemaCrawlerException
+  {
+    final Object catalog = new BinarySnapshotReader(buffer)
+      .read(schemaInclusionRule, tableInclusionRule);
+    if (!(catalog instanceof Catalog))
+    {
+      throw new SchemaCrawlerException("Binary snapshot does not contain a catalog");
+    }
+    return (Catalog) catalog;
+  }
+
+  private static ByteBuffer readFully(final InputStream in)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(in, "No input stream provided");
+    try
+    {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] chunk = new byte[64 * 1024];
+      int count;
+      while ((count = in.read(chunk)) != -1)
+      {
+        bytes.write(chunk, 0, count);
+      }
+      return ByteBuffer.wrap(bytes.toByteArray());
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not read binary snapshot", e);
+    }
+  }
+
+  /**
+   * Memory maps a snapshot file. The mapping remains valid after the
+   * channel is closed.
+   */
+  private static ByteBuffer map(final Path snapshotFile)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(snapshotFile, "No snapshot file provided");
+    try (final FileChannel channel = FileChannel.open(snapshotFile, READ);)
+    {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE)
+      {
+        throw new SchemaCrawlerException("Binary snapshot is too large, "
+                                         + snapshotFile);
+      }
+      return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not read binary snapshot, "
+                                       + snapshotFile, e);
+    }
+  }
+
+  public BinarySerializedCatalog(final Catalog catalog)
+  {
+    super(catalog);
+  }
+
+  /**
+   * Reads a complete binary snapshot from an input stream. The input
+   * stream is not closed.
+   *
+   * @param in
+   *        Input stream to read from
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  public BinarySerializedCatalog(final InputStream in)
+    throws SchemaCrawlerException
+  {
+    this(readCatalog(readFully(in), new IncludeAll(), new IncludeAll()));
+  }
+
+  /**
+   * Reads a binary snapshot file, which is memory mapped, so that only
+   * the parts of the snapshot that are needed are read. Tables that are
+   * not selected by the inclusion rules are not loaded, and references
+   * to them from the tables that are loaded are partial tables, as they
+   * are when tables are filtered out during a crawl.
+   *
+   * @param snapshotFile
+   *        Binary snapshot file
+   * @param schemaInclusionRule
+   *        Inclusion rule for schemas of tables to load
+   * @param tableInclusionRule
+   *        Inclusion rule for tables to load
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  public BinarySerializedCatalog(final Path snapshotFile,
+                                 final InclusionRule schemaInclusionRule,
+                                 final InclusionRule tableInclusionRule)
+    throws SchemaCrawlerException
+  {
+    this(readCatalog(map(snapshotFile),
+                     schemaInclusionRule,
+                     tableInclusionRule));
+  }
+
+  /**
+   * Serializes the database to the output stream, as a binary
+   * snapshot. The output stream is not closed.
+   *
+   * @param out
+   *        Output stream to save to
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  public void save(final OutputStream out)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(out, "Output stream not provided");
+    try
+    {
+      new BinarySnapshotWriter().write(catalog, catalog.getTables(), out);
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not write binary snapshot", e);
+    }
+  }
+
+}
@@ -0,0 +1,391 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.integration.serialization;
+
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.sql.JDBCType;
+import java.sql.RowIdLifetime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import sf.util.UtilityMarker;
+
+/**
+ * Constants and helpers shared by the binary snapshot writer and
+ * reader. A binary snapshot has the following sections, in order:
+ * <ol>
+ * <li>a header, with the {@link #MAGIC} bytes and the format
+ * {@link #VERSION}</li>
+ * <li>every distinct string in the snapshot, including class and field
+ * names</li>
+ * <li>a class table, with the kind of each class, and the fields of
+ * each object class</li>
+ * <li>the contents of each object, with references to strings, classes
+ * and other objects as integer indexes, and the length of each
+ * array</li>
+ * <li>the offset of each string</li>
+ * <li>the class and the offset of the contents of each object</li>
+ * <li>a table index, with the full name, schema full name and object
+ * index of each table, sorted by full name</li>
+ * <li>the root object</li>
+ * <li>a footer, with the offsets of the sections, and the number of
+ * strings, objects and tables</li>
+ * </ol>
+ * Offsets, and the entries in the string offset, object and table
+ * index sections, are written as 4 byte integers, so that they can be
+ * looked up directly in a memory mapped file. All other integers are
+ * written as variable length quantities.
+ *
+ * @author Sualeh Fatehi
+ */
+@UtilityMarker
+final class BinarySnapshotFormat
+{
+
+  /**
+   * How objects of a class are written. The ordinal is written to the
+   * class table, so new kinds need to be added at the end.
+   */
+  enum ClassKind
+  {
+   object,
+   array,
+   list,
+   set,
+   map,
+   enumeration;
+  }
+
+  static final byte[] MAGIC = new byte[] { 'S', 'C', 'B', 'S' };
+  static final int VERSION = 2;
+  /**
+   * Number of 4 byte integers in the footer.
+   */
+  static final int FOOTER_LENGTH = 8;
+
+  static final int NULL = 0;
+  static final int REFERENCE = 1;
+  static final int STRING = 2;
+  static final int TRUE = 3;
+  static final int FALSE = 4;
+  static final int INTEGER = 5;
+  static final int LONG = 6;
+  static final int SHORT = 7;
+  static final int BYTE = 8;
+  static final int CHARACTER = 9;
+  static final int FLOAT = 10;
+  static final int DOUBLE = 11;
+  static final int ENUM = 12;
+  static final int LOCAL_DATE_TIME = 13;
+  static final int BIG_DECIMAL = 14;
+  static final int BIG_INTEGER = 15;
+  static final int STRING_BUILDER = 16;
+  static final int SOFT_REFERENCE = 17;
+  static final int CLASS = 18;
+
+  /**
+   * Collection and map classes that are recreated as they are. Other
+   * collections and maps, such as unmodifiable views, are recreated as
+   * the nearest class in this list.
+   */
+  private static final Set<Class<?>> containerClasses = new HashSet<>(Arrays
+    .asList(ArrayList.class,
+            LinkedList.class,
+            HashSet.class,
+            LinkedHashSet.class,
+            TreeSet.class,
+            HashMap.class,
+            LinkedHashMap.class,
+            TreeMap.class,
+            Hashtable.class,
+            Properties.class));
+  /**
+   * JDK enums that are used in the catalog model.
+   */
+  private static final Set<Class<?>> jdkEnumClasses = new HashSet<>(Arrays
+    .asList(JDBCType.class, RowIdLifetime.class));
+  private static final String SNAPSHOT_PACKAGE_PREFIX = "schemacrawler.";
+
+  static ClassKind getClassKind(final Class<?> type)
+  {
+    if (type.isArray())
+    {
+      return ClassKind.array;
+    }
+    else if (type.isEnum())
+    {
+      return ClassKind.enumeration;
+    }
+    else if (isJdkClass(type) && List.class.isAssignableFrom(type))
+    {
+      return ClassKind.list;
+    }
+    else if (isJdkClass(type) && Set.class.isAssignableFrom(type))
+    {
+      return ClassKind.set;
+    }
+    else if (isJdkClass(type) && Map.class.isAssignableFrom(type))
+    {
+      return ClassKind.map;
+    }
+    else
+    {
+      return ClassKind.object;
+    }
+  }
+
+  /**
+   * Gets the class that a collection or map is recreated as.
+   *
+   * @param container
+   *        Collection or map
+   * @return Class to recreate the collection or map as
+   * @throws SchemaCrawlerException
+   *         If the collection or map cannot be recreated
+   */
+  static Class<?> getContainerClass(final Object container)
+    throws SchemaCrawlerException
+  {
+    final Class<?> type = container.getClass();
+    if (container instanceof TreeSet
+        && ((TreeSet<?>) container).comparator() != null
+        || container instanceof TreeMap
+           && ((TreeMap<?, ?>) container).comparator() != null)
+    {
+      throw new SchemaCrawlerException("Cannot serialize sorted collection with a comparator, "
+                                       + type.getName());
+    }
+
+    if (containerClasses.contains(type))
+    {
+      return type;
+    }
+    else if (container instanceof SortedSet || container instanceof SortedMap)
+    {
+      throw new SchemaCrawlerException("Cannot serialize sorted collection, "
+                                       + type.getName());
+    }
+    else if (container instanceof List)
+    {
+      return ArrayList.class;
+    }
+    else if (container instanceof Set)
+    {
+      return LinkedHashSet.class;
+    }
+    else if (container instanceof Map)
+    {
+      return LinkedHashMap.class;
+    }
+    else
+    {
+      throw new SchemaCrawlerException("Cannot serialize collection, "
+                                       + type.getName());
+    }
+  }
+
+  /**
+   * Gets the fields of an object class that are written to a snapshot,
+   * which are all instance fields that are not transient, including
+   * inherited fields.
+   *
+   * @param type
+   *        Object class
+   * @return Fields, in a fixed order
+   * @throws SchemaCrawlerException
+   *         If the class cannot be serialized
+   */
+  static List<Field> getSerializableFields(final Class<?> type)
+    throws SchemaCrawlerException
+  {
+    final List<Field> fields = new ArrayList<>();
+    for (Class<?> current = type; current != Object.class; current = current
+      .getSuperclass())
+    {
+      if (isJdkClass(current) || current.isSynthetic()
+          || current.isAnonymousClass())
+      {
+        throw new SchemaCrawlerException("Cannot serialize class, "
+                                         + type.getName());
+      }
+      for (final Field field: current.getDeclaredFields())
+      {
+        final int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+        {
+          continue;
+        }
+        field.setAccessible(true);
+        fields.add(field);
+      }
+    }
+    return fields;
+  }
+
+  static boolean isJdkClass(final Class<?> type)
+  {
+    final String className = type.getName();
+    return className.startsWith("java.") || className.startsWith("javax.")
+           || className.startsWith("sun.") || className.startsWith("jdk.");
+  }
+
+  /**
+   * Checks whether objects of a class can be in a snapshot. Only
+   * SchemaCrawler classes, the JDK collections, maps and enums that are
+   * written, and arrays of these, are read from a snapshot, so that a
+   * snapshot cannot create objects of any other class.
+   *
+   * @param type
+   *        Class
+   * @return Whether the class can be in a snapshot
+   */
+  static boolean isSnapshotClass(final Class<?> type)
+  {
+    if (type.isArray())
+    {
+      final Class<?> componentType = type.getComponentType();
+      return componentType.isPrimitive() || componentType == String.class
+             || componentType == Object.class
+             || isSnapshotClass(componentType);
+    }
+    else if (containerClasses.contains(type) || jdkEnumClasses.contains(type))
+    {
+      return true;
+    }
+    else
+    {
+      return !isJdkClass(type)
+             && type.getName().startsWith(SNAPSHOT_PACKAGE_PREFIX);
+    }
+  }
+
+  /**
+   * Checks whether a class name can be in a snapshot, before the class
+   * is loaded. Array classes are checked once they are loaded.
+   *
+   * @param className
+   *        Class name
+   * @return Whether the class can be loaded from a snapshot
+   */
+  static boolean isSnapshotClassName(final String className)
+  {
+    if (className.startsWith("[")
+        || className.startsWith(SNAPSHOT_PACKAGE_PREFIX))
+    {
+      return true;
+    }
+    for (final Class<?> type: containerClasses)
+    {
+      if (type.getName().equals(className))
+      {
+        return true;
+      }
+    }
+    for (final Class<?> type: jdkEnumClasses)
+    {
+      if (type.getName().equals(className))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static long readVarLong(final ByteBuffer buffer)
+    throws IOException
+  {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift = shift + 7)
+    {
+      final byte b = buffer.get();
+      value = value | (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+      {
+        return value;
+      }
+    }
+    throw new IOException("Bad variable length number in snapshot");
+  }
+
+  static int readVarInt(final ByteBuffer buffer)
+    throws IOException
+  {
+    return (int) readVarLong(buffer);
+  }
+
+  static long readZigZag(final ByteBuffer buffer)
+    throws IOException
+  {
+    final long value = readVarLong(buffer);
+    return value >>> 1 ^ -(value & 1);
+  }
+
+  static void writeVarLong(final DataOutput out, final long value)
+    throws IOException
+  {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0)
+    {
+      out.writeByte((int) (remaining & 0x7F | 0x80));
+      remaining = remaining >>> 7;
+    }
+    out.writeByte((int) remaining);
+  }
+
+  static void writeZigZag(final DataOutput out, final long value)
+    throws IOException
+  {
+    writeVarLong(out, value << 1 ^ value >> 63);
+  }
+
+  private BinarySnapshotFormat()
+  {
+    // Prevent instantiation
+  }
+
+}
@@ -0,0 +1,645 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.integration.serialization;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.getClassKind;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.isSnapshotClass;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.isSnapshotClassName;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.readVarInt;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.readZigZag;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.tools.integration.serialization.BinarySnapshotFormat.ClassKind;
+import sf.util.StringFormat;
+
+/**
+ * Reads a binary snapshot, and recreates the object graph directly,
+ * without calling constructors. Fields that are in the snapshot, but
+ * no longer in a class are ignored, and fields that are not in the
+ * snapshot keep their default values.
+ * <p>
+ * The snapshot is read from a buffer, which is usually a memory mapped
+ * file, and only objects that are reachable from the root, without
+ * going through tables that are not selected, are recreated. Strings
+ * are decoded when they are first used.
+ *
+ * @author Sualeh Fatehi
+ */
+final class BinarySnapshotReader
+{
+
+  private static final class ClassEntry
+  {
+
+    private final Class<?> type;
+    private final ClassKind classKind;
+    private final Field[] fields;
+
+    ClassEntry(final Class<?> type,
+               final ClassKind classKind,
+               final Field[] fields)
+    {
+      this.type = type;
+      this.classKind = classKind;
+      this.fields = fields;
+    }
+
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(BinarySnapshotReader.class.getName());
+
+  /**
+   * Marks a reference to a table that is not selected, in a collection
+   * or map.
+   */
+  private static final Object NOT_SELECTED = new Object();
+
+  private final ByteBuffer buffer;
+  private final Object unsafe;
+  private final Method allocateInstance;
+  private final int stringTableOffset;
+  private final String[] strings;
+  private final int objectTableOffset;
+  private final Object[] objects;
+  private final int tableIndexOffset;
+  private final int tableCount;
+  private final int rootOffset;
+  private final ClassEntry[] classes;
+  private final BitSet tablesNotSelected;
+  private final Deque<Integer> pending;
+  private final TreeMap<Integer, Object[]> deferred;
+
+  /**
+   * Opens a binary snapshot, and reads the class table. Objects are not
+   * read until {@link #read(InclusionRule, InclusionRule)} is called.
+   *
+   * @param buffer
+   *        Buffer with the complete snapshot
+   * @throws SchemaCrawlerException
+   *         If the snapshot is not valid, or a class cannot be loaded
+   */
+  BinarySnapshotReader(final ByteBuffer buffer)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(buffer, "No buffer provided");
+    this.buffer = buffer.duplicate();
+
+    Object unsafe;
+    Method allocateInstance;
+    try
+    {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+      allocateInstance = unsafeClass.getMethod("allocateInstance",
+                                               Class.class);
+    }
+    catch (final Exception e)
+    {
+      LOGGER.log(Level.CONFIG,
+                 "Objects will be created with no-argument constructors",
+                 e);
+      unsafe = null;
+      allocateInstance = null;
+    }
+    this.unsafe = unsafe;
+    this.allocateInstance = allocateInstance;
+
+    try
+    {
+      final byte[] magic = new byte[BinarySnapshotFormat.MAGIC.length];
+      this.buffer.position(0);
+      this.buffer.get(magic);
+      if (!Arrays.equals(magic, BinarySnapshotFormat.MAGIC))
+      {
+        throw new SchemaCrawlerException("Not a binary snapshot");
+      }
+      final int version = this.buffer.getInt();
+      if (version != BinarySnapshotFormat.VERSION)
+      {
+        throw new SchemaCrawlerException(String
+          .format("Cannot read binary snapshot version %d, only version %d is supported",
+                  version,
+                  BinarySnapshotFormat.VERSION));
+      }
+
+      final int footerOffset = this.buffer.limit()
+                               - BinarySnapshotFormat.FOOTER_LENGTH * 4;
+      this.buffer.position(footerOffset);
+      stringTableOffset = this.buffer.getInt();
+      strings = new String[this.buffer.getInt()];
+      final int classTableOffset = this.buffer.getInt();
+      objectTableOffset = this.buffer.getInt();
+      objects = new Object[this.buffer.getInt()];
+      tableIndexOffset = this.buffer.getInt();
+      tableCount = this.buffer.getInt();
+      rootOffset = this.buffer.getInt();
+
+      this.buffer.position(classTableOffset);
+      classes = new ClassEntry[readVarInt(this.buffer)];
+      for (int i = 0; i < classes.length; i++)
+      {
+        classes[i] = readClass();
+      }
+    }
+    catch (final IOException | RuntimeException e)
+    {
+      throw new SchemaCrawlerException("Bad binary snapshot", e);
+    }
+
+    tablesNotSelected = new BitSet(objects.length);
+    pending = new ArrayDeque<>();
+    deferred = new TreeMap<>();
+  }
+
+  /**
+   * Reads the object graph in the snapshot. Tables that are not
+   * selected by the inclusion rules are left out of collections and
+   * maps, and soft references to them are cleared, so that they are
+   * not recreated unless another object refers to them directly.
+   *
+   * @param schemaInclusionRule
+   *        Inclusion rule for schemas of tables, by full name
+   * @param tableInclusionRule
+   *        Inclusion rule for tables, by full name
+   * @return Root of the object graph
+   * @throws SchemaCrawlerException
+   *         If the snapshot is not valid, or an object cannot be
+   *         recreated
+   */
+  Object read(final InclusionRule schemaInclusionRule,
+              final InclusionRule tableInclusionRule)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(schemaInclusionRule, "No schema inclusion rule provided");
+    requireNonNull(tableInclusionRule, "No table inclusion rule provided");
+
+    try
+    {
+      for (int i = 0; i < tableCount; i++)
+      {
+        final int entryOffset = tableIndexOffset + i * 12;
+        final String tableFullName = getString(buffer.getInt(entryOffset));
+        final String schemaFullName = getString(buffer
+          .getInt(entryOffset + 4));
+        if (!schemaInclusionRule.test(schemaFullName)
+            || !tableInclusionRule.test(tableFullName))
+        {
+          tablesNotSelected.set(buffer.getInt(entryOffset + 8));
+        }
+      }
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Loading %d of %d tables from binary snapshot",
+                                  tableCount - tablesNotSelected.cardinality(),
+                                  tableCount));
+
+      buffer.position(rootOffset);
+      final Object root = readValue(true);
+
+      while (!pending.isEmpty())
+      {
+        readObject(pending.poll());
+      }
+
+      // Sets and maps are filled in last, once the objects they contain
+      // are complete, since hash codes and sort order depend on the
+      // contents of the objects. Objects are numbered before the
+      // objects they refer to, so sets and maps are filled in reverse
+      // order, to fill nested sets and maps first.
+      for (final Map.Entry<Integer, Object[]> entry: deferred.descendingMap()
+        .entrySet())
+      {
+        final Object object = objects[entry.getKey()];
+        final Object[] values = entry.getValue();
+        if (object instanceof Map)
+        {
+          final Map<Object, Object> map = asMap(object);
+          for (int j = 0; j < values.length; j = j + 2)
+          {
+            if (values[j] != NOT_SELECTED && values[j + 1] != NOT_SELECTED)
+            {
+              map.put(values[j], values[j + 1]);
+            }
+          }
+        }
+        else
+        {
+          final Collection<Object> collection = asCollection(object);
+          for (final Object value: values)
+          {
+            if (value != NOT_SELECTED)
+            {
+              collection.add(value);
+            }
+          }
+        }
+      }
+      deferred.clear();
+
+      return root;
+    }
+    catch (final IOException | BufferUnderflowException
+        | IndexOutOfBoundsException e)
+    {
+      throw new SchemaCrawlerException("Bad binary snapshot", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<Object> asCollection(final Object object)
+  {
+    return (Collection<Object>) object;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Object, Object> asMap(final Object object)
+  {
+    return (Map<Object, Object>) object;
+  }
+
+  private ClassLoader getClassLoader()
+  {
+    return BinarySnapshotReader.class.getClassLoader();
+  }
+
+  /**
+   * Gets an object, creating it if it has not been created yet. The
+   * contents of a new object are read later.
+   */
+  private Object getObject(final int objectId)
+    throws IOException, SchemaCrawlerException
+  {
+    if (objects[objectId] == null)
+    {
+      final ClassEntry classEntry = classes[buffer
+        .getInt(objectTableOffset + objectId * 8)];
+      final Object object;
+      if (classEntry.classKind == ClassKind.array)
+      {
+        final int position = buffer.position();
+        buffer.position(getPayloadOffset(objectId));
+        object = Array.newInstance(classEntry.type.getComponentType(),
+                                   readVarInt(buffer));
+        buffer.position(position);
+      }
+      else
+      {
+        object = newInstance(classEntry);
+      }
+      objects[objectId] = object;
+      pending.add(objectId);
+    }
+    return objects[objectId];
+  }
+
+  private int getPayloadOffset(final int objectId)
+  {
+    return buffer.getInt(objectTableOffset + objectId * 8 + 4);
+  }
+
+  private String getString(final int stringId)
+    throws IOException
+  {
+    if (strings[stringId] == null)
+    {
+      final int position = buffer.position();
+      buffer.position(buffer.getInt(stringTableOffset + stringId * 4));
+      final byte[] bytes = new byte[readVarInt(buffer)];
+      buffer.get(bytes);
+      buffer.position(position);
+      strings[stringId] = new String(bytes, UTF_8);
+    }
+    return strings[stringId];
+  }
+
+  /**
+   * Loads a class in the class table, without initializing it. Classes
+   * that cannot be written to a snapshot are rejected, since objects
+   * are created without calling their constructors.
+   */
+  private Class<?> loadClass(final String className,
+                             final ClassKind classKind)
+    throws SchemaCrawlerException
+  {
+    if (!isSnapshotClassName(className))
+    {
+      throw new SchemaCrawlerException("Class is not allowed in a binary snapshot, "
+                                       + className);
+    }
+
+    final Class<?> type;
+    try
+    {
+      type = Class.forName(className, false, getClassLoader());
+    }
+    catch (final ClassNotFoundException e)
+    {
+      throw new SchemaCrawlerException("Cannot load class, " + className, e);
+    }
+    if (!isSnapshotClass(type) || getClassKind(type) != classKind)
+    {
+      throw new SchemaCrawlerException("Class is not allowed in a binary snapshot, "
+                                       + className);
+    }
+    return type;
+  }
+
+  private Field lookupField(final Class<?> type,
+                            final String declaringClassName,
+                            final String fieldName)
+  {
+    for (Class<?> current = type; current != null; current = current
+      .getSuperclass())
+    {
+      if (current.getName().equals(declaringClassName))
+      {
+        try
+        {
+          final Field field = current.getDeclaredField(fieldName);
+          if (Modifier.isStatic(field.getModifiers()))
+          {
+            break;
+          }
+          field.setAccessible(true);
+          return field;
+        }
+        catch (final NoSuchFieldException e)
+        {
+          break;
+        }
+      }
+    }
+    LOGGER.log(Level.CONFIG,
+               new StringFormat("Ignoring field <%s.%s>, which is no longer in <%s>",
+                                declaringClassName,
+                                fieldName,
+                                type.getName()));
+    return null;
+  }
+
+  private Object newInstance(final ClassEntry classEntry)
+    throws SchemaCrawlerException
+  {
+    final Class<?> type = classEntry.type;
+    try
+    {
+      if (classEntry.classKind == ClassKind.object && unsafe != null)
+      {
+        return allocateInstance.invoke(unsafe, type);
+      }
+      else
+      {
+        return type.getConstructor().newInstance();
+      }
+    }
+    catch (final Exception e)
+    {
+      throw new SchemaCrawlerException("Cannot create object, "
+                                       + type.getName(), e);
+    }
+  }
+
+  private ClassEntry readClass()
+    throws IOException, SchemaCrawlerException
+  {
+    final String className = getString(readVarInt(buffer));
+    final ClassKind classKind = ClassKind.values()[buffer.get()];
+    final Class<?> type = loadClass(className, classKind);
+    final Field[] fields;
+    if (classKind == ClassKind.object)
+    {
+      fields = new Field[readVarInt(buffer)];
+      for (int i = 0; i < fields.length; i++)
+      {
+        final String declaringClassName = getString(readVarInt(buffer));
+        final String fieldName = getString(readVarInt(buffer));
+        fields[i] = lookupField(type, declaringClassName, fieldName);
+      }
+    }
+    else
+    {
+      fields = new Field[0];
+    }
+    return new ClassEntry(type, classKind, fields);
+  }
+
+  /**
+   * Reads the contents of an object that has been created.
+   */
+  private void readObject(final int objectId)
+    throws IOException, SchemaCrawlerException
+  {
+    final ClassEntry classEntry = classes[buffer
+      .getInt(objectTableOffset + objectId * 8)];
+    final Object object = objects[objectId];
+    buffer.position(getPayloadOffset(objectId));
+    switch (classEntry.classKind)
+    {
+      case array:
+        final int length = readVarInt(buffer);
+        for (int i = 0; i < length; i++)
+        {
+          Array.set(object, i, readValue(true));
+        }
+        break;
+      case list:
+        final Collection<Object> list = asCollection(object);
+        final int listSize = readVarInt(buffer);
+        for (int i = 0; i < listSize; i++)
+        {
+          final Object value = readValue(false);
+          if (value != NOT_SELECTED)
+          {
+            list.add(value);
+          }
+        }
+        break;
+      case set:
+        deferred.put(objectId, readValues(readVarInt(buffer)));
+        break;
+      case map:
+        deferred.put(objectId, readValues(readVarInt(buffer) * 2));
+        break;
+      default:
+        for (final Field field: classEntry.fields)
+        {
+          final Object value = readValue(true);
+          if (field != null)
+          {
+            setFieldValue(field, object, value);
+          }
+        }
+        break;
+    }
+  }
+
+  /**
+   * Reads a value. A reference to a table that is not selected is
+   * returned as {@link #NOT_SELECTED}, unless the table is required,
+   * as it is for a field.
+   */
+  private Object readValue(final boolean isRequired)
+    throws IOException, SchemaCrawlerException
+  {
+    final int tag = buffer.get();
+    switch (tag)
+    {
+      case BinarySnapshotFormat.NULL:
+        return null;
+      case BinarySnapshotFormat.REFERENCE:
+        final int objectId = readVarInt(buffer);
+        if (!isRequired && tablesNotSelected.get(objectId))
+        {
+          return NOT_SELECTED;
+        }
+        return getObject(objectId);
+      case BinarySnapshotFormat.STRING:
+        return getString(readVarInt(buffer));
+      case BinarySnapshotFormat.TRUE:
+        return Boolean.TRUE;
+      case BinarySnapshotFormat.FALSE:
+        return Boolean.FALSE;
+      case BinarySnapshotFormat.INTEGER:
+        return (int) readZigZag(buffer);
+      case BinarySnapshotFormat.LONG:
+        return readZigZag(buffer);
+      case BinarySnapshotFormat.SHORT:
+        return (short) readZigZag(buffer);
+      case BinarySnapshotFormat.BYTE:
+        return buffer.get();
+      case BinarySnapshotFormat.CHARACTER:
+        return (char) readVarInt(buffer);
+      case BinarySnapshotFormat.FLOAT:
+        return buffer.getFloat();
+      case BinarySnapshotFormat.DOUBLE:
+        return buffer.getDouble();
+      case BinarySnapshotFormat.ENUM:
+        final Class<?> enumClass = classes[readVarInt(buffer)].type;
+        return toEnum(enumClass, getString(readVarInt(buffer)));
+      case BinarySnapshotFormat.LOCAL_DATE_TIME:
+        return LocalDateTime.parse(getString(readVarInt(buffer)));
+      case BinarySnapshotFormat.BIG_DECIMAL:
+        return new BigDecimal(getString(readVarInt(buffer)));
+      case BinarySnapshotFormat.BIG_INTEGER:
+        return new BigInteger(getString(readVarInt(buffer)));
+      case BinarySnapshotFormat.STRING_BUILDER:
+        return new StringBuilder(getString(readVarInt(buffer)));
+      case BinarySnapshotFormat.SOFT_REFERENCE:
+        // A cleared reference falls back to a partial table
+        final Object referent = readValue(false);
+        return new SoftReference<>(referent == NOT_SELECTED? null
+                                                           : referent);
+      case BinarySnapshotFormat.CLASS:
+        return toClass(getString(readVarInt(buffer)));
+      default:
+        throw new SchemaCrawlerException("Bad value in binary snapshot, "
+                                         + tag);
+    }
+  }
+
+  private Object[] readValues(final int count)
+    throws IOException, SchemaCrawlerException
+  {
+    final Object[] values = new Object[count];
+    for (int i = 0; i < count; i++)
+    {
+      values[i] = readValue(false);
+    }
+    return values;
+  }
+
+  private void setFieldValue(final Field field,
+                             final Object object,
+                             final Object value)
+    throws SchemaCrawlerException
+  {
+    try
+    {
+      field.set(object, value);
+    }
+    catch (final IllegalArgumentException | IllegalAccessException e)
+    {
+      throw new SchemaCrawlerException("Cannot set field, " + field, e);
+    }
+  }
+
+  /**
+   * Loads a class that is a value, such as a class that a data type is
+   * mapped to. The class may be from a JDBC driver, which is not
+   * available when the snapshot is read. The class is not initialized,
+   * and no objects of the class are created.
+   */
+  private Class<?> toClass(final String className)
+  {
+    try
+    {
+      return Class.forName(className, false, getClassLoader());
+    }
+    catch (final ClassNotFoundException e)
+    {
+      LOGGER.log(Level.FINE,
+                 e,
+                 new StringFormat("Could not load class <%s>", className));
+      return Object.class;
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Object toEnum(final Class<?> enumClass, final String name)
+  {
+    return Enum.valueOf((Class<Enum>) enumClass, name);
+  }
+
+}
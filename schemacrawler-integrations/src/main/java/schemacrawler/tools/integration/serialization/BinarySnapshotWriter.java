@@ -0,0 +1,548 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.integration.serialization;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.getClassKind;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.getContainerClass;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.getSerializableFields;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.isJdkClass;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.isSnapshotClass;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.writeVarLong;
+import static schemacrawler.tools.integration.serialization.BinarySnapshotFormat.writeZigZag;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.tools.integration.serialization.BinarySnapshotFormat.ClassKind;
+
+/**
+ * Writes an object graph, such as a catalog, as a binary snapshot. The
+ * graph is walked once to build the string, class and object tables,
+ * and a second time to write the contents of each object. Offsets to
+ * each string and object are written after the contents, so that the
+ * snapshot can be read in any order.
+ *
+ * @author Sualeh Fatehi
+ */
+final class BinarySnapshotWriter
+{
+
+  private final Map<Object, Integer> objectIds;
+  private final List<Object> objects;
+  private final Map<Class<?>, Integer> classIds;
+  private final List<Class<?>> classes;
+  private final Map<Class<?>, List<Field>> classFields;
+  private final Map<String, Integer> stringIds;
+  private final List<String> strings;
+
+  BinarySnapshotWriter()
+  {
+    objectIds = new IdentityHashMap<>();
+    objects = new ArrayList<>();
+    classIds = new HashMap<>();
+    classes = new ArrayList<>();
+    classFields = new HashMap<>();
+    stringIds = new HashMap<>();
+    strings = new ArrayList<>();
+  }
+
+  /**
+   * Writes a snapshot of an object graph, with an index of tables by
+   * full name. The output stream is flushed, but not closed.
+   *
+   * @param root
+   *        Root of the object graph
+   * @param tables
+   *        Tables in the object graph, to index
+   * @param out
+   *        Output stream
+   * @throws SchemaCrawlerException
+   *         If an object in the graph cannot be serialized
+   * @throws IOException
+   *         On an exception writing the snapshot
+   */
+  void write(final Object root,
+             final Collection<? extends Table> tables,
+             final OutputStream out)
+    throws SchemaCrawlerException, IOException
+  {
+    requireNonNull(root, "No object provided");
+    requireNonNull(tables, "No tables provided");
+    requireNonNull(out, "No output stream provided");
+
+    collect(root);
+
+    final List<Table> indexedTables = new ArrayList<>();
+    for (final Table table: tables)
+    {
+      if (objectIds.containsKey(table))
+      {
+        indexedTables.add(table);
+        addString(table.getFullName());
+        addString(table.getSchema().getFullName());
+      }
+    }
+    Collections.sort(indexedTables,
+                     (table1, table2) -> table1.getFullName()
+                       .compareTo(table2.getFullName()));
+
+    final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out,
+                                                                                   64 * 1024));
+    dataOut.write(BinarySnapshotFormat.MAGIC);
+    dataOut.writeInt(BinarySnapshotFormat.VERSION);
+
+    final int[] stringOffsets = new int[strings.size()];
+    for (int i = 0; i < strings.size(); i++)
+    {
+      stringOffsets[i] = getOffset(dataOut);
+      final byte[] bytes = strings.get(i).getBytes(UTF_8);
+      writeVarLong(dataOut, bytes.length);
+      dataOut.write(bytes);
+    }
+
+    final int classTableOffset = getOffset(dataOut);
+    writeVarLong(dataOut, classes.size());
+    for (final Class<?> type: classes)
+    {
+      writeClass(dataOut, type);
+    }
+
+    final int[] objectOffsets = new int[objects.size()];
+    for (int i = 0; i < objects.size(); i++)
+    {
+      objectOffsets[i] = getOffset(dataOut);
+      writeObject(dataOut, objects.get(i));
+    }
+
+    final int stringTableOffset = getOffset(dataOut);
+    for (final int stringOffset: stringOffsets)
+    {
+      dataOut.writeInt(stringOffset);
+    }
+
+    final int objectTableOffset = getOffset(dataOut);
+    for (int i = 0; i < objects.size(); i++)
+    {
+      dataOut.writeInt(classIds.get(getSnapshotClass(objects.get(i))));
+      dataOut.writeInt(objectOffsets[i]);
+    }
+
+    final int tableIndexOffset = getOffset(dataOut);
+    for (final Table table: indexedTables)
+    {
+      dataOut.writeInt(stringIds.get(table.getFullName()));
+      dataOut.writeInt(stringIds.get(table.getSchema().getFullName()));
+      dataOut.writeInt(objectIds.get(table));
+    }
+
+    final int rootOffset = getOffset(dataOut);
+    writeValue(dataOut, root);
+
+    dataOut.writeInt(stringTableOffset);
+    dataOut.writeInt(strings.size());
+    dataOut.writeInt(classTableOffset);
+    dataOut.writeInt(objectTableOffset);
+    dataOut.writeInt(objects.size());
+    dataOut.writeInt(tableIndexOffset);
+    dataOut.writeInt(indexedTables.size());
+    dataOut.writeInt(rootOffset);
+    dataOut.flush();
+
+    if (dataOut.size() == Integer.MAX_VALUE)
+    {
+      throw new SchemaCrawlerException("Catalog is too large for a binary snapshot");
+    }
+  }
+
+  private void addClass(final Class<?> type)
+    throws SchemaCrawlerException
+  {
+    if (classIds.containsKey(type))
+    {
+      return;
+    }
+    if (!isSnapshotClass(type))
+    {
+      throw new SchemaCrawlerException("Cannot serialize class, "
+                                       + type.getName());
+    }
+    classIds.put(type, classes.size());
+    classes.add(type);
+    addString(type.getName());
+
+    if (getClassKind(type) == ClassKind.object)
+    {
+      final List<Field> fields = getSerializableFields(type);
+      classFields.put(type, fields);
+      for (final Field field: fields)
+      {
+        addString(field.getDeclaringClass().getName());
+        addString(field.getName());
+      }
+    }
+  }
+
+  private void addString(final String string)
+  {
+    if (!stringIds.containsKey(string))
+    {
+      stringIds.put(string, strings.size());
+      strings.add(string);
+    }
+  }
+
+  /**
+   * Walks the object graph, and assigns an index to every object,
+   * class and string. An object is always numbered before the objects
+   * it refers to, unless they have already been numbered.
+   */
+  private void collect(final Object root)
+    throws SchemaCrawlerException
+  {
+    final Deque<Object> pending = new ArrayDeque<>();
+    collectValue(pending, root);
+    while (!pending.isEmpty())
+    {
+      final Object object = pending.pop();
+      final Class<?> type = object.getClass();
+      if (type.isArray())
+      {
+        final int length = Array.getLength(object);
+        for (int i = 0; i < length; i++)
+        {
+          collectValue(pending, Array.get(object, i));
+        }
+      }
+      else if (isContainer(object) && object instanceof Collection)
+      {
+        for (final Object element: (Collection<?>) object)
+        {
+          collectValue(pending, element);
+        }
+      }
+      else if (isContainer(object))
+      {
+        for (final Map.Entry<?, ?> entry: ((Map<?, ?>) object).entrySet())
+        {
+          collectValue(pending, entry.getKey());
+          collectValue(pending, entry.getValue());
+        }
+      }
+      else
+      {
+        for (final Field field: classFields.get(type))
+        {
+          collectValue(pending, getFieldValue(field, object));
+        }
+      }
+    }
+  }
+
+  private void collectValue(final Deque<Object> pending, final Object value)
+    throws SchemaCrawlerException
+  {
+    if (value == null || value instanceof Boolean || value instanceof Number
+           && !(value instanceof BigDecimal || value instanceof BigInteger)
+        || value instanceof Character)
+    {
+      return;
+    }
+    else if (value instanceof String)
+    {
+      addString((String) value);
+    }
+    else if (value instanceof Enum)
+    {
+      addClass(((Enum<?>) value).getDeclaringClass());
+      addString(((Enum<?>) value).name());
+    }
+    else if (value instanceof LocalDateTime || value instanceof BigDecimal
+             || value instanceof BigInteger || value instanceof StringBuilder)
+    {
+      addString(value.toString());
+    }
+    else if (value instanceof Class)
+    {
+      addString(((Class<?>) value).getName());
+    }
+    else if (value instanceof Reference)
+    {
+      collectValue(pending, ((Reference<?>) value).get());
+    }
+    else if (!objectIds.containsKey(value))
+    {
+      final Class<?> type = value.getClass();
+      if (isJdkClass(type) && !type.isArray() && !isContainer(value))
+      {
+        throw new SchemaCrawlerException("Cannot serialize class, "
+                                         + type.getName());
+      }
+      addClass(getSnapshotClass(value));
+      objectIds.put(value, objects.size());
+      objects.add(value);
+      pending.push(value);
+    }
+  }
+
+  /**
+   * Gets the offset of the next byte to be written. Offsets are
+   * limited to 2 GB, which is the largest file that can be memory
+   * mapped.
+   */
+  private int getOffset(final DataOutputStream dataOut)
+    throws SchemaCrawlerException
+  {
+    final int offset = dataOut.size();
+    if (offset == Integer.MAX_VALUE)
+    {
+      throw new SchemaCrawlerException("Catalog is too large for a binary snapshot");
+    }
+    return offset;
+  }
+
+  private Object getFieldValue(final Field field, final Object object)
+    throws SchemaCrawlerException
+  {
+    try
+    {
+      return field.get(object);
+    }
+    catch (final IllegalAccessException e)
+    {
+      throw new SchemaCrawlerException("Cannot read field, " + field, e);
+    }
+  }
+
+  /**
+   * Gets the class that an object is recreated as, which is the class
+   * of the object, except for collections and maps.
+   */
+  private Class<?> getSnapshotClass(final Object object)
+    throws SchemaCrawlerException
+  {
+    if (isContainer(object))
+    {
+      return getContainerClass(object);
+    }
+    else
+    {
+      return object.getClass();
+    }
+  }
+
+  /**
+   * Checks whether an object is a JDK collection or map. Other
+   * collections are written field by field, like any other object.
+   */
+  private boolean isContainer(final Object object)
+  {
+    return isJdkClass(object.getClass())
+           && (object instanceof Collection || object instanceof Map);
+  }
+
+  private void writeClass(final DataOutputStream dataOut,
+                          final Class<?> type)
+    throws IOException
+  {
+    writeVarLong(dataOut, stringIds.get(type.getName()));
+    final ClassKind classKind = getClassKind(type);
+    dataOut.writeByte(classKind.ordinal());
+    if (classKind == ClassKind.object)
+    {
+      final List<Field> fields = classFields.get(type);
+      writeVarLong(dataOut, fields.size());
+      for (final Field field: fields)
+      {
+        writeVarLong(dataOut,
+                     stringIds.get(field.getDeclaringClass().getName()));
+        writeVarLong(dataOut, stringIds.get(field.getName()));
+      }
+    }
+  }
+
+  private void writeObject(final DataOutputStream dataOut,
+                           final Object object)
+    throws IOException, SchemaCrawlerException
+  {
+    if (object.getClass().isArray())
+    {
+      final int length = Array.getLength(object);
+      writeVarLong(dataOut, length);
+      for (int i = 0; i < length; i++)
+      {
+        writeValue(dataOut, Array.get(object, i));
+      }
+    }
+    else if (isContainer(object) && object instanceof Collection)
+    {
+      final Collection<?> collection = (Collection<?>) object;
+      writeVarLong(dataOut, collection.size());
+      for (final Object element: collection)
+      {
+        writeValue(dataOut, element);
+      }
+    }
+    else if (isContainer(object))
+    {
+      final Map<?, ?> map = (Map<?, ?>) object;
+      writeVarLong(dataOut, map.size());
+      for (final Map.Entry<?, ?> entry: map.entrySet())
+      {
+        writeValue(dataOut, entry.getKey());
+        writeValue(dataOut, entry.getValue());
+      }
+    }
+    else
+    {
+      for (final Field field: classFields.get(object.getClass()))
+      {
+        writeValue(dataOut, getFieldValue(field, object));
+      }
+    }
+  }
+
+  private void writeValue(final DataOutputStream dataOut, final Object value)
+    throws IOException
+  {
+    if (value == null)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.NULL);
+    }
+    else if (value instanceof String)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.STRING);
+      writeVarLong(dataOut, stringIds.get(value));
+    }
+    else if (value instanceof Boolean)
+    {
+      dataOut.writeByte((Boolean) value? BinarySnapshotFormat.TRUE
+                                       : BinarySnapshotFormat.FALSE);
+    }
+    else if (value instanceof Integer)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.INTEGER);
+      writeZigZag(dataOut, (Integer) value);
+    }
+    else if (value instanceof Long)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.LONG);
+      writeZigZag(dataOut, (Long) value);
+    }
+    else if (value instanceof Short)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.SHORT);
+      writeZigZag(dataOut, (Short) value);
+    }
+    else if (value instanceof Byte)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.BYTE);
+      dataOut.writeByte((Byte) value);
+    }
+    else if (value instanceof Character)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.CHARACTER);
+      writeVarLong(dataOut, (Character) value);
+    }
+    else if (value instanceof Float)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.FLOAT);
+      dataOut.writeFloat((Float) value);
+    }
+    else if (value instanceof Double)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.DOUBLE);
+      dataOut.writeDouble((Double) value);
+    }
+    else if (value instanceof Enum)
+    {
+      final Enum<?> enumValue = (Enum<?>) value;
+      dataOut.writeByte(BinarySnapshotFormat.ENUM);
+      writeVarLong(dataOut, classIds.get(enumValue.getDeclaringClass()));
+      writeVarLong(dataOut, stringIds.get(enumValue.name()));
+    }
+    else if (value instanceof LocalDateTime)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.LOCAL_DATE_TIME);
+      writeVarLong(dataOut, stringIds.get(value.toString()));
+    }
+    else if (value instanceof BigDecimal)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.BIG_DECIMAL);
+      writeVarLong(dataOut, stringIds.get(value.toString()));
+    }
+    else if (value instanceof BigInteger)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.BIG_INTEGER);
+      writeVarLong(dataOut, stringIds.get(value.toString()));
+    }
+    else if (value instanceof StringBuilder)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.STRING_BUILDER);
+      writeVarLong(dataOut, stringIds.get(value.toString()));
+    }
+    else if (value instanceof Class)
+    {
+      dataOut.writeByte(BinarySnapshotFormat.CLASS);
+      writeVarLong(dataOut, stringIds.get(((Class<?>) value).getName()));
+    }
+    else if (value instanceof Reference)
+    {
+      // Weak and soft references are read back as soft references
+      dataOut.writeByte(BinarySnapshotFormat.SOFT_REFERENCE);
+      writeValue(dataOut, ((Reference<?>) value).get());
+    }
+    else
+    {
+      dataOut.writeByte(BinarySnapshotFormat.REFERENCE);
+      writeVarLong(dataOut, objectIds.get(value));
+    }
+  }
+
+}
@@ -29,6 +29,9 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.integration.serialization;
 
 
+import static java.nio.file.Files.newOutputStream;
+
+import java.io.OutputStream;
 import java.io.Writer;
 import java.sql.Connection;
 
@@ -45,6 +48,7 @@ public final class SerializationExecutable
 {
 
   static final String COMMAND = "serialize";
+  static final String BINARY_FORMAT = "binary";
 
   public SerializationExecutable()
   {
@@ -63,11 +67,23 @@ public final class SerializationExecutable
   public void executeOn(final Catalog db, final Connection connection)
     throws Exception
   {
-    final SerializableCatalog catalog = new XmlSerializedCatalog(db);
-    outputOptions.forceCompressedOutputFile();
-    try (final Writer writer = outputOptions.openNewOutputWriter();)
+    if (BINARY_FORMAT.equalsIgnoreCase(outputOptions.getOutputFormatValue()))
+    {
+      final BinarySerializedCatalog catalog = new BinarySerializedCatalog(db);
+      try (final OutputStream out = newOutputStream(outputOptions
+        .getOutputFile());)
+      {
+        catalog.save(out);
+      }
+    }
+    else
     {
-      catalog.save(writer);
+      final SerializableCatalog catalog = new XmlSerializedCatalog(db);
+      outputOptions.forceCompressedOutputFile();
+      try (final Writer writer = outputOptions.openNewOutputWriter();)
+      {
+        catalog.save(writer);
+      }
     }
   }
 
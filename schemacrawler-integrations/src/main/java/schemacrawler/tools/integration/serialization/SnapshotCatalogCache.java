@@ -0,0 +1,61 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.integration.serialization;
+
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.tools.executable.CatalogCache;
+
+/**
+ * Catalog cache that saves catalogs as binary snapshots.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class SnapshotCatalogCache
+  extends CatalogCache
+{
+
+  @Override
+  protected Catalog readCatalog(final InputStream in)
+    throws SchemaCrawlerException
+  {
+    return new BinarySerializedCatalog(in);
+  }
+
+  @Override
+  protected void writeCatalog(final Catalog catalog, final OutputStream out)
+    throws SchemaCrawlerException
+  {
+    new BinarySerializedCatalog(catalog).save(out);
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.integration.test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.tools.executable.CatalogCache;
+import schemacrawler.tools.executable.SchemaCrawlerExecutable;
+import schemacrawler.tools.integration.serialization.SnapshotCatalogCache;
+import schemacrawler.tools.options.OutputOptions;
+import schemacrawler.tools.options.TextOutputFormat;
+
+public class CatalogCacheTest
+  extends BaseDatabaseTest
+{
+
+  @Test
+  public void cachedCatalog()
+    throws Exception
+  {
+    final CatalogCache catalogCache = newCatalogCache();
+    final SchemaCrawlerOptions schemaCrawlerOptions = newSchemaCrawlerOptions();
+
+    assertFalse(catalogCache.load(getConnection(), schemaCrawlerOptions)
+      .isPresent());
+    final String crawledOutput = execute(catalogCache, schemaCrawlerOptions);
+    assertEquals(1, countCachedCatalogs(catalogCache));
+
+    final Optional<Catalog> cachedCatalog = catalogCache
+      .load(getConnection(), schemaCrawlerOptions);
+    assertTrue("Catalog was not cached", cachedCatalog.isPresent());
+    assertEquals(getCatalog(schemaCrawlerOptions).getTables().size(),
+                 cachedCatalog.get().getTables().size());
+    assertEquals(crawledOutput, execute(catalogCache, schemaCrawlerOptions));
+
+    // Different options are cached separately
+    final SchemaCrawlerOptions otherSchemaCrawlerOptions = newSchemaCrawlerOptions();
+    otherSchemaCrawlerOptions
+      .setSchemaInfoLevel(SchemaInfoLevelBuilder.minimum());
+    assertFalse(catalogCache.load(getConnection(), otherSchemaCrawlerOptions)
+      .isPresent());
+  }
+
+  @Test
+  public void expiredCatalog()
+    throws Exception
+  {
+    final CatalogCache catalogCache = newCatalogCache();
+    final SchemaCrawlerOptions schemaCrawlerOptions = newSchemaCrawlerOptions();
+    catalogCache.save(getConnection(),
+                      schemaCrawlerOptions,
+                      getCatalog(schemaCrawlerOptions));
+    assertEquals(1, countCachedCatalogs(catalogCache));
+
+    catalogCache.setTimeToLive(Duration.ofMinutes(5));
+    for (final Path catalogFile: Files
+      .newDirectoryStream(catalogCache.getCacheDirectory()))
+    {
+      Files.setLastModifiedTime(catalogFile,
+                                FileTime.from(Instant.now()
+                                  .minus(Duration.ofMinutes(10))));
+    }
+    assertFalse("Expired catalog was loaded",
+                catalogCache.load(getConnection(), schemaCrawlerOptions)
+                  .isPresent());
+    assertEquals(0, countCachedCatalogs(catalogCache));
+  }
+
+  @Test
+  public void invalidatedCatalog()
+    throws Exception
+  {
+    final CatalogCache catalogCache = newCatalogCache();
+    final SchemaCrawlerOptions schemaCrawlerOptions = newSchemaCrawlerOptions();
+    catalogCache.save(getConnection(),
+                      schemaCrawlerOptions,
+                      getCatalog(schemaCrawlerOptions));
+    assertTrue(catalogCache.load(getConnection(), schemaCrawlerOptions)
+      .isPresent());
+
+    catalogCache.invalidate();
+    assertFalse("Invalidated catalog was loaded",
+                catalogCache.load(getConnection(), schemaCrawlerOptions)
+                  .isPresent());
+  }
+
+  private int countCachedCatalogs(final CatalogCache catalogCache)
+    throws Exception
+  {
+    int count = 0;
+    for (final Path catalogFile: Files
+      .newDirectoryStream(catalogCache.getCacheDirectory()))
+    {
+      if (catalogFile.getFileName().toString().endsWith(".catalog"))
+      {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private String execute(final CatalogCache catalogCache,
+                         final SchemaCrawlerOptions schemaCrawlerOptions)
+    throws Exception
+  {
+    final StringWriter writer = new StringWriter();
+    final SchemaCrawlerExecutable executable = new SchemaCrawlerExecutable("details");
+    executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    executable.setOutputOptions(new OutputOptions(TextOutputFormat.text,
+                                                  writer));
+    executable.setCatalogCache(catalogCache);
+    executable.execute(getConnection());
+    return writer.toString();
+  }
+
+  private CatalogCache newCatalogCache()
+    throws Exception
+  {
+    final CatalogCache catalogCache = new SnapshotCatalogCache();
+    catalogCache
+      .setCacheDirectory(Files.createTempDirectory("schemacrawler"));
+    return catalogCache;
+  }
+
+  private SchemaCrawlerOptions newSchemaCrawlerOptions()
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.standard());
+    return schemaCrawlerOptions;
+  }
+
+}
@@ -33,11 +33,18 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.io.IOUtils;
@@ -46,16 +53,133 @@ import org.custommonkey.xmlunit.Diff;
 import org.junit.Test;
 
 import schemacrawler.schema.Catalog;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.ForeignKeyColumnReference;
+import schemacrawler.schema.PartialDatabaseObject;
 import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.RegularExpressionInclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
 import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.tools.executable.SchemaCrawlerExecutable;
+import schemacrawler.tools.integration.serialization.BinarySerializedCatalog;
 import schemacrawler.tools.integration.serialization.XmlSerializedCatalog;
+import schemacrawler.tools.options.OutputOptions;
+import schemacrawler.tools.options.TextOutputFormat;
 
 public class SchemaSerializationTest
   extends BaseDatabaseTest
 {
 
+  @Test
+  public void schemaSerializationWithBinary()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+    schemaCrawlerOptions.setSequenceInclusionRule(new IncludeAll());
+    schemaCrawlerOptions.setSynonymInclusionRule(new IncludeAll());
+
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    assertNotNull("Could not obtain catalog", catalog);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinarySerializedCatalog(catalog).save(out);
+    final byte[] binarySerializedCatalog = out.toByteArray();
+    assertTrue("Catalog was not serialized", binarySerializedCatalog.length > 0);
+
+    final Catalog deserializedCatalog = new BinarySerializedCatalog(new ByteArrayInputStream(binarySerializedCatalog));
+    final Schema deserializedSchema = deserializedCatalog
+      .lookupSchema("PUBLIC.BOOKS").orElse(null);
+    assertNotNull("Could not obtain deserialized schema", deserializedSchema);
+    assertEquals("Unexpected number of tables in the deserialized schema",
+                 6,
+                 deserializedCatalog.getTables(deserializedSchema).size());
+
+    assertEquals("Deserialized catalog does not match",
+                 toText(catalog, schemaCrawlerOptions),
+                 toText(deserializedCatalog, schemaCrawlerOptions));
+  }
+
+  @Test
+  public void schemaSerializationWithBinarySelectedTables()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    assertNotNull("Could not obtain catalog", catalog);
+
+    final Path snapshotFile = Files.createTempFile("schemacrawler", ".dat");
+    try (final OutputStream out = Files.newOutputStream(snapshotFile);)
+    {
+      new BinarySerializedCatalog(catalog).save(out);
+    }
+
+    final Catalog deserializedCatalog = new BinarySerializedCatalog(snapshotFile,
+                                                                    new IncludeAll(),
+                                                                    new RegularExpressionInclusionRule(".*\\.BOOKAUTHORS"));
+    Files.delete(snapshotFile);
+
+    final Collection<Table> tables = deserializedCatalog.getTables();
+    assertEquals("Unexpected number of tables loaded", 1, tables.size());
+    final Table table = tables.iterator().next();
+    assertEquals("PUBLIC.BOOKS.BOOKAUTHORS", table.getFullName());
+    assertEquals("Unexpected number of foreign keys",
+                 2,
+                 table.getImportedForeignKeys().size());
+    for (final ForeignKey foreignKey: table.getImportedForeignKeys())
+    {
+      for (final ForeignKeyColumnReference columnReference: foreignKey)
+      {
+        assertTrue("Referenced table should not be loaded",
+                   columnReference.getPrimaryKeyColumn()
+                     .getParent() instanceof PartialDatabaseObject);
+      }
+    }
+  }
+
+  @Test
+  public void schemaSerializationWithBinaryUnsafeClass()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.standard());
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinarySerializedCatalog(catalog).save(out);
+    final byte[] binarySerializedCatalog = out.toByteArray();
+
+    // Replace a class name in the string table with a class of the
+    // same length, that is not allowed in a snapshot
+    final byte[] className = "java.util.HashSet".getBytes(StandardCharsets.UTF_8);
+    final byte[] unsafeClassName = "java.util.Objects"
+      .getBytes(StandardCharsets.UTF_8);
+    final int index = indexOf(binarySerializedCatalog, className);
+    assertTrue("Class name not found in snapshot", index > 0);
+    System.arraycopy(unsafeClassName,
+                     0,
+                     binarySerializedCatalog,
+                     index,
+                     unsafeClassName.length);
+
+    try
+    {
+      new BinarySerializedCatalog(new ByteArrayInputStream(binarySerializedCatalog));
+      fail("Snapshot with a class that is not allowed was read");
+    }
+    catch (final SchemaCrawlerException e)
+    {
+      assertEquals("Class is not allowed in a binary snapshot, java.util.Objects",
+                   e.getMessage());
+    }
+  }
+
   @Test
   public void schemaSerializationWithXStream()
     throws Exception
@@ -120,4 +244,78 @@ public class SchemaSerializationTest
     assertEquals(xmlDiff.toString(), 0, allDifferences.size());
   }
 
+  @Test
+  public void schemaSerializationWithXStreamFullNames()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    assertNotNull("Could not obtain catalog", catalog);
+
+    final StringWriter writer = new StringWriter();
+    new XmlSerializedCatalog(catalog).save(writer);
+    writer.close();
+    final Catalog deserializedCatalog = new XmlSerializedCatalog(new StringReader(writer
+      .toString()));
+
+    // Full names must not be cached while objects are being read
+    final Table table = deserializedCatalog
+      .lookupTable(deserializedCatalog.lookupSchema("PUBLIC.BOOKS").get(),
+                   "BOOKAUTHORS")
+      .get();
+    boolean foundForeignKey = false;
+    for (final ForeignKey foreignKey: table.getForeignKeys())
+    {
+      if (!foreignKey.getName().equals("FK_Y_BOOK"))
+      {
+        continue;
+      }
+      foundForeignKey = true;
+      for (final ForeignKeyColumnReference columnReference: foreignKey)
+      {
+        assertEquals("PUBLIC.BOOKS.BOOKS.ID",
+                     columnReference.getPrimaryKeyColumn().getFullName());
+        assertEquals("PUBLIC.BOOKS.BOOKAUTHORS.BOOKID",
+                     columnReference.getForeignKeyColumn().getFullName());
+      }
+    }
+    assertTrue("Foreign key not found", foundForeignKey);
+
+    assertEquals("Deserialized catalog does not match",
+                 toText(catalog, schemaCrawlerOptions),
+                 toText(deserializedCatalog, schemaCrawlerOptions));
+  }
+
+  private int indexOf(final byte[] bytes, final byte[] search)
+  {
+    for (int i = 0; i <= bytes.length - search.length; i++)
+    {
+      boolean found = true;
+      for (int j = 0; j < search.length && found; j++)
+      {
+        found = bytes[i + j] == search[j];
+      }
+      if (found)
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String toText(final Catalog catalog,
+                        final SchemaCrawlerOptions schemaCrawlerOptions)
+    throws Exception
+  {
+    final StringWriter writer = new StringWriter();
+    final SchemaCrawlerExecutable executable = new SchemaCrawlerExecutable("details");
+    executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    executable.setOutputOptions(new OutputOptions(TextOutputFormat.text,
+                                                  writer));
+    executable.executeOn(catalog, getConnection());
+    return writer.toString();
+  }
+
 }
@@ -0,0 +1,106 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+import java.sql.Connection;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+
+/**
+ * Evaluates a catalog as a whole, from information that is accumulated
+ * from each table. Information is accumulated from tables
+ * concurrently, if the linter is run with more than one thread, and is
+ * then merged in catalog order, so that lints are the same either way.
+ * Lints for the catalog are created when linting ends.
+ *
+ * @author Sualeh Fatehi
+ * @param <A>
+ *        Type of information accumulated from each table
+ */
+public abstract class BaseAccumulatingLinter<A>
+  extends BaseLinter
+{
+
+  /**
+   * Accumulates information from a table. May be called on several
+   * threads at the same time, so it should not change the state of the
+   * linter.
+   *
+   * @param table
+   *        Table to accumulate information from
+   * @param connection
+   *        Database connection
+   * @return Information accumulated from the table
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  protected abstract A accumulate(Table table, Connection connection)
+    throws SchemaCrawlerException;
+
+  @Override
+  protected final boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
+  @Override
+  protected final void lint(final Table table, final Connection connection)
+    throws SchemaCrawlerException
+  {
+    merge(table, accumulate(table, connection));
+  }
+
+  /**
+   * Merges information accumulated from a table into the state of the
+   * linter. Called on one thread, with tables in catalog order.
+   *
+   * @param table
+   *        Table the information was accumulated from
+   * @param accumulated
+   *        Information accumulated from the table
+   */
+  protected abstract void merge(Table table, A accumulated);
+
+  @SuppressWarnings("unchecked")
+  @Override
+  final void completeTableLint(final Table table,
+                               final Object tableLintResult)
+  {
+    merge(table, (A) tableLintResult);
+  }
+
+  @Override
+  final Object lintTable(final Table table, final Connection connection)
+    throws SchemaCrawlerException
+  {
+    return accumulate(table, connection);
+  }
+
+}
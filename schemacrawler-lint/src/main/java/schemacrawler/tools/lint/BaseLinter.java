@@ -39,6 +39,8 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.filter.TableTypesFilter;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Column;
@@ -63,6 +65,7 @@ public abstract class BaseLinter
     .getLogger(BaseLinter.class.getName());
 
   private Catalog catalog;
+  private DataSource dataSource;
   private InclusionRule tableInclusionRule;
   private InclusionRule columnInclusionRule;
   private TableTypesFilter tableTypesFilter;
@@ -109,7 +112,8 @@ public abstract class BaseLinter
       return Collections.emptyList();
     }
 
-    final List<Column> columns = new ArrayList<>(table.getColumns());
+    final List<Column> columns = new ArrayList<>(getTableMetadata(table)
+      .getColumns());
     for (final Iterator<Column> iterator = columns.iterator(); iterator
       .hasNext();)
     {
@@ -127,6 +131,69 @@ public abstract class BaseLinter
     return catalog.getCrawlInfo();
   }
 
+  /**
+   * Gets the data source for additional connections, which linters can
+   * use to run queries concurrently. There is no data source when the
+   * linter is run on a connection alone.
+   *
+   * @return Data source, or null
+   */
+  protected final DataSource getDataSource()
+  {
+    return dataSource;
+  }
+
+  /**
+   * How lints from this linter can be cached between runs. Linters that
+   * only look at the structure of a table can be cached for each table,
+   * and linters that look at the structure of all tables can be cached
+   * for the catalog. Linters that look at data, or use the connection,
+   * should not be cached. Can be overridden.
+   *
+   * @return Lint cache scope
+   */
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.none;
+  }
+
+  /**
+   * Gets metadata of a table, which is shared with other linters
+   * linting the same table.
+   *
+   * @param table
+   *        Table being linted
+   * @return Table metadata
+   */
+  protected final TableMetadata getTableMetadata(final Table table)
+  {
+    return TableMetadata.getTableMetadata(table);
+  }
+
+  /**
+   * Gets the tables in the catalog that are linted by this linter, so
+   * that queries for several tables can be run before the tables are
+   * linted.
+   *
+   * @return Tables to lint
+   */
+  protected final List<Table> getTablesToLint()
+  {
+    final List<Table> tables = new ArrayList<>();
+    if (catalog != null)
+    {
+      for (final Table table: catalog.getTables())
+      {
+        if (tableInclusionRule.test(table.getFullName())
+            && tableTypesFilter.test(table))
+        {
+          tables.add(table);
+        }
+      }
+    }
+    return tables;
+  }
+
   protected final TableTypesFilter getTableTypesFilter()
   {
     return tableTypesFilter;
@@ -142,6 +209,21 @@ public abstract class BaseLinter
     return table != null && tableInclusionRule.test(table.getFullName());
   }
 
+  /**
+   * Whether tables can be linted concurrently, on several threads at
+   * the same time. Linters that do this should only read the table, the
+   * catalog and their configuration, and should not use the connection.
+   * Linters that collect information across tables can do so
+   * concurrently by extending {@link BaseAccumulatingLinter}. Can be
+   * overridden.
+   *
+   * @return Whether tables can be linted concurrently
+   */
+  protected boolean isLintTablesConcurrently()
+  {
+    return false;
+  }
+
   protected abstract void lint(Table table, Connection connection)
     throws SchemaCrawlerException;
 
@@ -177,26 +259,83 @@ public abstract class BaseLinter
   final void lint(final Catalog catalog, final Connection connection)
     throws SchemaCrawlerException
   {
-    this.catalog = requireNonNull(catalog, "No catalog provided");
-
-    start(connection);
+    startLint(catalog, connection);
     for (final Table table: catalog.getTables())
     {
-      if (tableInclusionRule.test(table.getFullName())
-          && tableTypesFilter.test(table))
-      {
-        lint(table, connection);
-      }
-      else
+      if (isLintTable(table))
       {
-        LOGGER.log(Level.FINE,
-                   String.format("Excluding table %s for lint %s",
-                                 table,
-                                 getLinterId()));
+        completeTableLint(table, lintTable(table, connection));
       }
     }
+    endLint(connection);
+  }
+
+  /**
+   * Completes linting of a table, on the thread that started linting,
+   * with tables in catalog order.
+   *
+   * @param table
+   *        Table that was linted
+   * @param tableLintResult
+   *        Result of {@link #lintTable(Table, Connection)}
+   */
+  void completeTableLint(final Table table, final Object tableLintResult)
+  {
+  }
+
+  final void endLint(final Connection connection)
+    throws SchemaCrawlerException
+  {
     end(connection);
-    this.catalog = null;
+    catalog = null;
+  }
+
+  final boolean isLintTable(final Table table)
+  {
+    if (tableInclusionRule.test(table.getFullName())
+        && tableTypesFilter.test(table))
+    {
+      return true;
+    }
+    else
+    {
+      LOGGER.log(Level.FINE,
+                 String.format("Excluding table %s for lint %s",
+                               table,
+                               getLinterId()));
+      return false;
+    }
+  }
+
+  /**
+   * Lints a table. When tables are linted concurrently, this may be
+   * called on several threads at the same time.
+   *
+   * @param table
+   *        Table to lint
+   * @param connection
+   *        Database connection
+   * @return Result to complete linting of the table with
+   * @throws SchemaCrawlerException
+   *         On an exception
+   */
+  Object lintTable(final Table table, final Connection connection)
+    throws SchemaCrawlerException
+  {
+    lint(table, connection);
+    return null;
+  }
+
+  final void setDataSource(final DataSource dataSource)
+  {
+    this.dataSource = dataSource;
+  }
+
+  final void startLint(final Catalog catalog, final Connection connection)
+    throws SchemaCrawlerException
+  {
+    this.catalog = requireNonNull(catalog, "No catalog provided");
+    start(connection);
   }
 
   private final void setColumnInclusionRule(final InclusionRule columnInclusionRule)
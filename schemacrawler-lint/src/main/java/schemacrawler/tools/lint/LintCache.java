@@ -0,0 +1,720 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.Version;
+import schemacrawler.schema.AttributedObject;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.ForeignKeyColumnReference;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.NamedObject;
+import schemacrawler.schema.PrimaryKey;
+import schemacrawler.schema.Table;
+import sf.util.StringFormat;
+
+/**
+ * Local on-disk cache of lints, so that objects that have not changed
+ * since the last run are not linted again. Lints are cached in a file
+ * for each linter, named with a hash of the linter id and the linter
+ * configuration. Lints of linters with a table {@link LintCacheScope}
+ * are cached for each table, with a fingerprint of the structure of the
+ * table when it was linted. Lints of linters with a catalog scope are
+ * cached for the catalog, with a fingerprint of all of its tables, so
+ * that the linter is run again if any table changes. Lint values that
+ * are schema objects are cached as references, and looked up in the
+ * catalog again. Cached lints that cannot be read are linted again.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class LintCache
+{
+
+  /**
+   * Lints of a linter, read from the cache when linting starts, and the
+   * lints to cache when linting ends.
+   */
+  final class LinterLints
+  {
+
+    private final Linter linter;
+    private final Catalog catalog;
+    private final Map<String, Table> tables;
+    private final Path cacheFile;
+    private final Map<String, CachedLints> cachedLints;
+    private final Map<String, CachedLints> lintsToCache;
+    private final Set<String> lintedKeys;
+
+    private LinterLints(final Linter linter,
+                        final Catalog catalog,
+                        final Path cacheFile,
+                        final Map<String, CachedLints> cachedLints)
+    {
+      this.linter = linter;
+      this.catalog = catalog;
+      this.cacheFile = cacheFile;
+      this.cachedLints = cachedLints;
+      tables = new HashMap<>();
+      for (final Table table: catalog.getTables())
+      {
+        tables.put(table.getFullName(), table);
+      }
+      lintsToCache = new ConcurrentHashMap<>();
+      lintedKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Caches lints for the catalog, for the next run. Lints for objects
+     * other than the catalog and its tables are not cached.
+     *
+     * @param lints
+     *        All lints of the linter
+     */
+    void cacheCatalogLints(final Collection<Lint<?>> lints)
+    {
+      cache(catalog.getFullName(), getFingerprint(catalog), null, lints);
+    }
+
+    /**
+     * Caches lints for a table, for the next run. Lints for objects
+     * other than the table are not cached.
+     *
+     * @param table
+     *        Table that was linted
+     * @param lints
+     *        Lints of the linter for the table
+     */
+    void cacheTableLints(final Table table, final Collection<Lint<?>> lints)
+    {
+      cache(table.getFullName(), getFingerprint(table), table, lints);
+    }
+
+    /**
+     * Adds cached lints for the catalog, if no table has changed since
+     * they were cached.
+     *
+     * @return Whether there were cached lints
+     */
+    boolean lintCatalogFromCache()
+    {
+      return lintFromCache(catalog.getFullName(), getFingerprint(catalog));
+    }
+
+    /**
+     * Adds cached lints for a table, if the table has not changed since
+     * they were cached.
+     *
+     * @param table
+     *        Table to lint
+     * @return Whether there were cached lints
+     */
+    boolean lintTableFromCache(final Table table)
+    {
+      return lintFromCache(table.getFullName(), getFingerprint(table));
+    }
+
+    /**
+     * Saves the lints to cache, merged with the lints in the cache file,
+     * so that lints of tables that were not linted in this run are kept.
+     * Lints of objects that were linted in this run replace lints that
+     * were cached before, or are removed if they could not be cached.
+     * The lints are written to a temporary file first, so that other
+     * processes never read partly written lints. Lints that cannot be
+     * saved are logged, and not cached.
+     */
+    void save()
+    {
+      Path tempFile = null;
+      try
+      {
+        final Map<String, CachedLints> mergedLints = readCachedLints(cacheFile);
+        mergedLints.keySet().removeAll(lintedKeys);
+        mergedLints.putAll(lintsToCache);
+
+        Files.createDirectories(cacheDirectory);
+        tempFile = Files.createTempFile(cacheDirectory, "schemacrawler", ".tmp");
+        try (final OutputStream out = Files.newOutputStream(tempFile);
+            final ObjectOutputStream objectOut = new ObjectOutputStream(out);)
+        {
+          objectOut.writeObject(mergedLints);
+        }
+        Files.move(tempFile,
+                   cacheFile,
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        tempFile = null;
+        LOGGER.log(Level.FINE,
+                   new StringFormat("Saved lints of <%s> to cache <%s>",
+                                    linter.getLinterId(),
+                                    cacheFile));
+      }
+      catch (final IOException | RuntimeException e)
+      {
+        LOGGER.log(Level.WARNING,
+                   e,
+                   new StringFormat("Could not save lints of <%s> to cache <%s>",
+                                    linter.getLinterId(),
+                                    cacheFile));
+      }
+      finally
+      {
+        if (tempFile != null)
+        {
+          try
+          {
+            Files.deleteIfExists(tempFile);
+          }
+          catch (final IOException e)
+          {
+            LOGGER.log(Level.FINE, e.getMessage(), e);
+          }
+        }
+      }
+    }
+
+    private void cache(final String key,
+                       final String fingerprint,
+                       final Table table,
+                       final Collection<Lint<?>> lints)
+    {
+      lintedKeys.add(key);
+      final List<CachedLint> lintList = new ArrayList<>(lints.size());
+      for (final Lint<?> lint: lints)
+      {
+        final String objectName = lint.getObjectName();
+        final Object value = toCachedValue(lint.getValue(), table);
+        if (value == NOT_CACHED || table != null
+                                   && !objectName.equals(table.getFullName()))
+        {
+          LOGGER.log(Level.FINE,
+                     new StringFormat("Not caching lints of <%s> for <%s>",
+                                      linter.getLinterId(),
+                                      key));
+          return;
+        }
+        lintList.add(new CachedLint(objectName,
+                                    lint.getMessage(),
+                                    (Serializable) value));
+      }
+      lintsToCache.put(key, new CachedLints(fingerprint, lintList));
+    }
+
+    private Object fromCachedValue(final Object value)
+    {
+      if (value instanceof CachedReference)
+      {
+        final CachedReference reference = (CachedReference) value;
+        final Table table = tables.get(reference.tableName);
+        final Object referencedObject = lookup(table, reference);
+        return referencedObject == null? NOT_CACHED: referencedObject;
+      }
+      else if (value instanceof CachedReferences)
+      {
+        final ArrayList<Object> list = new ArrayList<>();
+        for (final Object item: ((CachedReferences) value).values)
+        {
+          final Object resolvedItem = fromCachedValue(item);
+          if (resolvedItem == NOT_CACHED)
+          {
+            return NOT_CACHED;
+          }
+          list.add(resolvedItem);
+        }
+        return list;
+      }
+      else
+      {
+        return value;
+      }
+    }
+
+    /**
+     * Adds cached lints, if the object they are for has not changed
+     * since they were cached. Lints are only added if all of them can
+     * be looked up in the catalog.
+     */
+    private boolean lintFromCache(final String key, final String fingerprint)
+    {
+      final CachedLints objectLints = cachedLints.get(key);
+      if (objectLints == null || !objectLints.fingerprint.equals(fingerprint))
+      {
+        return false;
+      }
+
+      final List<AttributedObject> lintedObjects = new ArrayList<>();
+      final List<Serializable> values = new ArrayList<>();
+      for (final CachedLint cachedLint: objectLints.lints)
+      {
+        final AttributedObject lintedObject;
+        if (cachedLint.objectName.equals(catalog.getFullName()))
+        {
+          lintedObject = catalog;
+        }
+        else
+        {
+          lintedObject = tables.get(cachedLint.objectName);
+        }
+        final Object value = fromCachedValue(cachedLint.value);
+        if (lintedObject == null || value == NOT_CACHED)
+        {
+          return false;
+        }
+        lintedObjects.add(lintedObject);
+        values.add((Serializable) value);
+      }
+
+      for (int i = 0; i < objectLints.lints.size(); i++)
+      {
+        final AttributedObject lintedObject = lintedObjects.get(i);
+        final String message = objectLints.lints.get(i).message;
+        if (lintedObject instanceof Table)
+        {
+          linter.addLint((Table) lintedObject, message, values.get(i));
+        }
+        else
+        {
+          linter.addLint(catalog, message, values.get(i));
+        }
+      }
+      lintsToCache.put(key, objectLints);
+      return true;
+    }
+
+  }
+
+  /**
+   * Lint, without the linter instance that created it.
+   */
+  private static final class CachedLint
+    implements Serializable
+  {
+
+    private static final long serialVersionUID = -2410953853367406012L;
+
+    private final String objectName;
+    private final String message;
+    private final Serializable value;
+
+    CachedLint(final String objectName,
+               final String message,
+               final Serializable value)
+    {
+      this.objectName = objectName;
+      this.message = message;
+      this.value = value;
+    }
+
+  }
+
+  /**
+   * Lints for the catalog or a table, with the fingerprint of the
+   * catalog or table when they were cached.
+   */
+  private static final class CachedLints
+    implements Serializable
+  {
+
+    private static final long serialVersionUID = 6385117027351396742L;
+
+    private final String fingerprint;
+    private final List<CachedLint> lints;
+
+    CachedLints(final String fingerprint, final List<CachedLint> lints)
+    {
+      this.fingerprint = fingerprint;
+      this.lints = lints;
+    }
+
+  }
+
+  /**
+   * Reference to a table, or a column, index or foreign key of a table,
+   * which is the value of a lint.
+   */
+  private static final class CachedReference
+    implements Serializable
+  {
+
+    private static final long serialVersionUID = 2754103986455418741L;
+
+    private final ReferenceType referenceType;
+    private final String tableName;
+    private final String name;
+
+    CachedReference(final ReferenceType referenceType,
+                    final String tableName,
+                    final String name)
+    {
+      this.referenceType = referenceType;
+      this.tableName = tableName;
+      this.name = name;
+    }
+
+  }
+
+  /**
+   * List of lint values, some of which are references.
+   */
+  private static final class CachedReferences
+    implements Serializable
+  {
+
+    private static final long serialVersionUID = -8532946406164427315L;
+
+    private final ArrayList<Serializable> values;
+
+    CachedReferences(final ArrayList<Serializable> values)
+    {
+      this.values = values;
+    }
+
+  }
+
+  private enum ReferenceType
+  {
+   table,
+   column,
+   index,
+   foreignKey,;
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(LintCache.class.getName());
+
+  private static final String LINTS_FILE_SUFFIX = ".lints";
+
+  private static final Object NOT_CACHED = new Object();
+
+  private static String fingerprint(final String text)
+  {
+    return UUID.nameUUIDFromBytes(text.getBytes(UTF_8)).toString();
+  }
+
+  private static NamedObject lookup(final Table table,
+                                    final CachedReference reference)
+  {
+    if (table == null)
+    {
+      return null;
+    }
+    switch (reference.referenceType)
+    {
+      case table:
+        return table;
+      case column:
+        return table.lookupColumn(reference.name).orElse(null);
+      case index:
+        return table.lookupIndex(reference.name).orElse(null);
+      case foreignKey:
+        // Foreign keys are shared by tables, so look them up by name
+        for (final ForeignKey foreignKey: table.getForeignKeys())
+        {
+          if (foreignKey.getName().equals(reference.name))
+          {
+            return foreignKey;
+          }
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  private static String toHex(final byte[] bytes)
+  {
+    final StringBuilder buffer = new StringBuilder(bytes.length * 2);
+    for (final byte b: bytes)
+    {
+      buffer.append(String.format("%02x", b));
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Converts a lint value to a value that can be cached. Schema objects
+   * are converted to references, since they cannot be cached on their
+   * own. Foreign keys can only be looked up in the table that was
+   * linted.
+   */
+  private static Object toCachedValue(final Object value, final Table table)
+  {
+    if (value instanceof Table)
+    {
+      return new CachedReference(ReferenceType.table,
+                                 ((Table) value).getFullName(),
+                                 null);
+    }
+    else if (value instanceof Column)
+    {
+      final Column column = (Column) value;
+      return new CachedReference(ReferenceType.column,
+                                 column.getParent().getFullName(),
+                                 column.getName());
+    }
+    else if (value instanceof Index)
+    {
+      final Index index = (Index) value;
+      return new CachedReference(ReferenceType.index,
+                                 index.getParent().getFullName(),
+                                 index.getName());
+    }
+    else if (value instanceof ForeignKey && table != null)
+    {
+      return new CachedReference(ReferenceType.foreignKey,
+                                 table.getFullName(),
+                                 ((ForeignKey) value).getName());
+    }
+    else if (value instanceof NamedObject)
+    {
+      return NOT_CACHED;
+    }
+    else if (value instanceof List)
+    {
+      boolean hasReferences = false;
+      final ArrayList<Serializable> values = new ArrayList<>();
+      for (final Object item: (List<?>) value)
+      {
+        final Object cachedItem = toCachedValue(item, table);
+        if (cachedItem == NOT_CACHED)
+        {
+          return NOT_CACHED;
+        }
+        hasReferences = hasReferences || cachedItem != item;
+        values.add((Serializable) cachedItem);
+      }
+      return hasReferences? new CachedReferences(values): value;
+    }
+    else
+    {
+      return value;
+    }
+  }
+
+  private final Path cacheDirectory;
+  private final Map<Table, String> tableFingerprints;
+
+  public LintCache(final Path cacheDirectory)
+  {
+    this.cacheDirectory = requireNonNull(cacheDirectory,
+                                         "No cache directory provided");
+    tableFingerprints = new ConcurrentHashMap<>();
+  }
+
+  public Path getCacheDirectory()
+  {
+    return cacheDirectory;
+  }
+
+  /**
+   * Gets a fingerprint of the catalog, from the fingerprints of all of
+   * its tables.
+   *
+   * @param catalog
+   *        Catalog
+   * @return Fingerprint of the catalog
+   */
+  String getFingerprint(final Catalog catalog)
+  {
+    final StringBuilder buffer = new StringBuilder(1024);
+    buffer.append(catalog.getFullName()).append('\n');
+    for (final Table table: catalog.getTables())
+    {
+      buffer.append(table.getFullName()).append('\t')
+        .append(getFingerprint(table)).append('\n');
+    }
+    return fingerprint(buffer.toString());
+  }
+
+  /**
+   * Gets a fingerprint of the structure of a table, which changes
+   * whenever anything that linters look at changes. This includes the
+   * columns, primary key, indexes, and foreign keys of the table, with
+   * the types of the columns in other tables that the foreign keys
+   * reference.
+   *
+   * @param table
+   *        Table
+   * @return Fingerprint of the table
+   */
+  String getFingerprint(final Table table)
+  {
+    return tableFingerprints.computeIfAbsent(table, this::fingerprint);
+  }
+
+  /**
+   * Reads cached lints for a linter. Lints that cannot be read are
+   * logged, and linted again.
+   *
+   * @param linter
+   *        Linter
+   * @param catalog
+   *        Catalog to lint
+   * @return Cached lints of the linter
+   */
+  LinterLints open(final Linter linter, final Catalog catalog)
+  {
+    requireNonNull(linter, "No linter provided");
+    requireNonNull(catalog, "No catalog provided");
+    final Path cacheFile = getCacheFile(linter);
+    return new LinterLints(linter,
+                           catalog,
+                           cacheFile,
+                           readCachedLints(cacheFile));
+  }
+
+  private String fingerprint(final Table table)
+  {
+    final StringBuilder buffer = new StringBuilder(1024);
+    buffer.append(table.getFullName()).append('\t')
+      .append(table.getTableType()).append('\t').append(table.getRemarks())
+      .append('\n');
+    for (final Column column: table.getColumns())
+    {
+      buffer.append(column.getName()).append('\t')
+        .append(column.getOrdinalPosition()).append('\t')
+        .append(column.getColumnDataType().getFullName()).append('\t')
+        .append(column.getColumnDataType().getJavaSqlType()).append('\t')
+        .append(column.getSize()).append('\t')
+        .append(column.getDecimalDigits()).append('\t')
+        .append(column.isNullable()).append('\t')
+        .append(column.isAutoIncremented()).append('\t')
+        .append(column.isGenerated()).append('\t')
+        .append(column.isHidden()).append('\t')
+        .append(column.getDefaultValue()).append('\t')
+        .append(column.getRemarks()).append('\n');
+    }
+    final PrimaryKey primaryKey = table.getPrimaryKey();
+    if (primaryKey != null)
+    {
+      buffer.append("PK\t").append(primaryKey.getName()).append('\t')
+        .append(primaryKey.getColumns()).append('\n');
+    }
+    for (final Index index: table.getIndexes())
+    {
+      buffer.append("IX\t").append(index.getName()).append('\t')
+        .append(index.isUnique()).append('\t').append(index.getIndexType())
+        .append('\t').append(index.getColumns()).append('\n');
+    }
+    for (final ForeignKey foreignKey: table.getForeignKeys())
+    {
+      buffer.append("FK\t").append(foreignKey.getName());
+      for (final ForeignKeyColumnReference columnReference: foreignKey)
+      {
+        final Column pkColumn = columnReference.getPrimaryKeyColumn();
+        buffer.append('\t').append(columnReference.getForeignKeyColumn())
+          .append('>').append(pkColumn).append(':')
+          .append(pkColumn.getColumnDataType().getFullName()).append('(')
+          .append(pkColumn.getSize()).append(')');
+      }
+      buffer.append('\n');
+    }
+    return fingerprint(buffer.toString());
+  }
+
+  /**
+   * Gets the cache file for a linter, which is named with a hash of the
+   * linter id, the linter configuration, and the SchemaCrawler version,
+   * since linters may change from version to version.
+   */
+  private Path getCacheFile(final Linter linter)
+  {
+    final LinterConfig linterConfig = linter.getLinterConfig();
+    final String linterKey = String
+      .join("\n",
+            linter.getLinterId(),
+            Version.getVersion(),
+            linterConfig == null? "": linterConfig.getFingerprint());
+    try
+    {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return cacheDirectory
+        .resolve(toHex(digest.digest(linterKey.getBytes(UTF_8)))
+                 + LINTS_FILE_SUFFIX);
+    }
+    catch (final NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Reads cached lints from a cache file. Lints that cannot be read are
+   * logged, and not returned.
+   */
+  private Map<String, CachedLints> readCachedLints(final Path cacheFile)
+  {
+    final Map<String, CachedLints> cachedLints = new HashMap<>();
+    if (Files.isRegularFile(cacheFile))
+    {
+      try (final InputStream in = Files.newInputStream(cacheFile);
+          final ObjectInputStream objectIn = new ObjectInputStream(in);)
+      {
+        @SuppressWarnings("unchecked")
+        final Map<String, CachedLints> readLints = (Map<String, CachedLints>) objectIn
+          .readObject();
+        cachedLints.putAll(readLints);
+      }
+      catch (final IOException | ClassNotFoundException | RuntimeException e)
+      {
+        LOGGER.log(Level.WARNING,
+                   e,
+                   new StringFormat("Could not read cached lints <%s>",
+                                    cacheFile));
+      }
+    }
+    return cachedLints;
+  }
+
+}
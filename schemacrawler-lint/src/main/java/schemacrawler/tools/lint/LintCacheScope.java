@@ -0,0 +1,54 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+/**
+ * How lints from a linter can be cached between runs, so that objects
+ * that have not changed are not linted again.
+ *
+ * @author Sualeh Fatehi
+ */
+public enum LintCacheScope
+{
+ /**
+  * Lints are not cached, since they depend on data in the tables, or
+  * on the database.
+  */
+ none,
+ /**
+  * Lints depend on the structure of all of the tables in the catalog,
+  * and are cached until any table changes.
+  */
+ catalog,
+ /**
+  * Lints for a table depend only on the structure of that table, and
+  * are cached until the table changes.
+  */
+ table,;
+}
@@ -29,21 +29,161 @@ package schemacrawler.tools.lint;
 
 
 import java.io.Serializable;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import schemacrawler.schema.AttributedObject;
 import schemacrawler.schema.NamedObject;
 
+/**
+ * Collects lints, and adds them to the lint attribute of the linted
+ * objects. Lints can be collected from several threads. Lints collected
+ * while a thread has pending lints are held back, and are added when
+ * they are committed, so that they can be added in a deterministic
+ * order. Lints are indexed by the object they are for, and by severity,
+ * and are sorted once, when the collector is frozen after linting.
+ * Lints can then be iterated, for the catalog or for each object,
+ * without copying or sorting them again.
+ *
+ * @author Sualeh Fatehi
+ */
 public final class LintCollector
   implements Iterable<Lint<? extends Serializable>>
 {
 
+  /**
+   * Lints for an object, by severity. Iterates over lints in sorted
+   * order, with the most severe lints first. Lints are sorted when they
+   * are first read after they are added.
+   */
+  static final class ObjectLints
+    extends AbstractCollection<Lint<?>>
+    implements Serializable
+  {
+
+    private static final long serialVersionUID = -3520178435927403161L;
+
+    private final Map<LintSeverity, List<Lint<?>>> lintsBySeverity;
+    private int size;
+    private transient volatile List<Lint<?>> sortedLints;
+
+    ObjectLints()
+    {
+      lintsBySeverity = new EnumMap<>(LintSeverity.class);
+    }
+
+    @Override
+    public Iterator<Lint<?>> iterator()
+    {
+      return getSortedLints().iterator();
+    }
+
+    @Override
+    public synchronized int size()
+    {
+      return size;
+    }
+
+    synchronized void addLint(final Lint<?> lint)
+    {
+      List<Lint<?>> lints = lintsBySeverity.get(lint.getSeverity());
+      if (lints == null)
+      {
+        lints = new ArrayList<>();
+        lintsBySeverity.put(lint.getSeverity(), lints);
+      }
+      lints.add(lint);
+      size++;
+      sortedLints = null;
+    }
+
+    synchronized Collection<Lint<?>> getLints(final LintSeverity severity)
+    {
+      getSortedLints();
+      final List<Lint<?>> lints = lintsBySeverity.get(severity);
+      return lints == null? Collections.emptyList()
+                          : Collections.unmodifiableList(lints);
+    }
+
+    /**
+     * Sorts lints for each severity, which is stable, so lints that
+     * compare the same stay in the order in which they were added.
+     */
+    synchronized List<Lint<?>> getSortedLints()
+    {
+      if (sortedLints == null)
+      {
+        final List<Lint<?>> lints = new ArrayList<>(size);
+        for (final LintSeverity severity: SEVERITIES_DESCENDING)
+        {
+          final List<Lint<?>> severityLints = lintsBySeverity.get(severity);
+          if (severityLints != null)
+          {
+            Collections.sort(severityLints);
+            lints.addAll(severityLints);
+          }
+        }
+        sortedLints = Collections.unmodifiableList(lints);
+      }
+      return sortedLints;
+    }
+
+  }
+
+  /**
+   * Lint held back until it is committed, with the object it is for.
+   */
+  static final class PendingLint
+  {
+
+    private final AttributedObject namedObject;
+    private final Lint<?> lint;
+
+    private PendingLint(final AttributedObject namedObject,
+                        final Lint<?> lint)
+    {
+      this.namedObject = namedObject;
+      this.lint = lint;
+    }
+
+    Lint<?> getLint()
+    {
+      return lint;
+    }
+
+  }
+
   private static final String LINT_KEY = "schemacrawler.lint";
 
+  private static final List<LintSeverity> SEVERITIES_DESCENDING;
+
+  static
+  {
+    final List<LintSeverity> severities = new ArrayList<>(Arrays
+      .asList(LintSeverity.values()));
+    Collections.reverse(severities);
+    SEVERITIES_DESCENDING = Collections.unmodifiableList(severities);
+  }
+
+  /**
+   * Gets lints for an object, sorted with the most severe lints first.
+   * The lints are not copied, so they should only be read once linting
+   * is complete.
+   *
+   * @param namedObject
+   *        Linted object
+   * @return Lints for the object
+   */
   public static Collection<Lint<?>> getLint(final AttributedObject namedObject)
   {
     if (namedObject == null)
@@ -51,17 +191,77 @@ public final class LintCollector
       return null;
     }
 
-    final List<Lint<? extends Serializable>> lints = new ArrayList<>(namedObject
-      .getAttribute(LINT_KEY, new ArrayList<>()));
-    Collections.sort(lints);
-    return lints;
+    final Collection<Lint<?>> lints = namedObject
+      .getAttribute(LINT_KEY, Collections.emptyList());
+    if (lints instanceof ObjectLints)
+    {
+      return lints;
+    }
+    else
+    {
+      final List<Lint<?>> sortedLints = new ArrayList<>(lints);
+      Collections.sort(sortedLints);
+      return sortedLints;
+    }
   }
 
-  private final List<Lint<? extends Serializable>> lints;
+  /**
+   * Gets lints of a severity for an object, sorted by linter.
+   *
+   * @param namedObject
+   *        Linted object
+   * @param severity
+   *        Lint severity
+   * @return Lints for the object with the severity
+   */
+  public static Collection<Lint<?>> getLint(final AttributedObject namedObject,
+                                            final LintSeverity severity)
+  {
+    if (namedObject == null || severity == null)
+    {
+      return null;
+    }
+
+    final Collection<Lint<?>> lints = namedObject
+      .getAttribute(LINT_KEY, Collections.emptyList());
+    if (lints instanceof ObjectLints)
+    {
+      return ((ObjectLints) lints).getLints(severity);
+    }
+    else
+    {
+      final List<Lint<?>> severityLints = new ArrayList<>();
+      for (final Lint<?> lint: getLint(namedObject))
+      {
+        if (lint.getSeverity() == severity)
+        {
+          severityLints.add(lint);
+        }
+      }
+      return severityLints;
+    }
+  }
+
+  /**
+   * Gets the severities of lints, with the most severe first.
+   *
+   * @return Lint severities
+   */
+  public static List<LintSeverity> getSeverities()
+  {
+    return SEVERITIES_DESCENDING;
+  }
+
+  private final ConcurrentNavigableMap<String, ObjectLints> lintsByObject;
+  private final AtomicInteger size;
+  private final ThreadLocal<List<PendingLint>> pendingLints;
+  private volatile boolean frozen;
 
   public LintCollector()
   {
-    lints = new ArrayList<>();
+    lintsByObject = new ConcurrentSkipListMap<>();
+    size = new AtomicInteger();
+    pendingLints = new ThreadLocal<>();
   }
 
   public <N extends NamedObject & AttributedObject> void addLint(final N namedObject,
@@ -70,25 +270,123 @@ public final class LintCollector
     if (namedObject != null && lint != null
         && namedObject.getFullName().equals(lint.getObjectName()))
     {
-      lints.add(lint);
-
-      final Collection<Lint<?>> columnLints = namedObject
-        .getAttribute(LINT_KEY, new ArrayList<Lint<?>>());
-      columnLints.add(lint);
-      namedObject.setAttribute(LINT_KEY, columnLints);
+      final List<PendingLint> pending = pendingLints.get();
+      if (pending != null)
+      {
+        pending.add(new PendingLint(namedObject, lint));
+      }
+      else
+      {
+        collect(namedObject, lint);
+      }
     }
   }
 
+  /**
+   * Iterates over all lints, sorted by the name of the linted object,
+   * and then with the most severe lints first. Lints are not copied, but
+   * read as the iteration proceeds.
+   */
   @Override
   public Iterator<Lint<? extends Serializable>> iterator()
   {
-    Collections.sort(lints);
-    return lints.iterator();
+    final Iterator<ObjectLints> objectLintsIterator = lintsByObject.values()
+      .iterator();
+    return new Iterator<Lint<? extends Serializable>>()
+    {
+
+      private Iterator<Lint<?>> lintsIterator = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext()
+      {
+        while (!lintsIterator.hasNext() && objectLintsIterator.hasNext())
+        {
+          lintsIterator = objectLintsIterator.next().iterator();
+        }
+        return lintsIterator.hasNext();
+      }
+
+      @Override
+      public Lint<? extends Serializable> next()
+      {
+        hasNext();
+        return lintsIterator.next();
+      }
+
+    };
   }
 
   public int size()
   {
-    return lints.size();
+    return size.get();
+  }
+
+  /**
+   * Adds pending lints that were held back.
+   *
+   * @param pending
+   *        Pending lints, in the order in which they were collected
+   */
+  synchronized void commit(final List<PendingLint> pending)
+  {
+    for (final PendingLint pendingLint: pending)
+    {
+      collect(pendingLint.namedObject, pendingLint.lint);
+    }
+  }
+
+  /**
+   * Sorts all lints, once linting is complete, so that they are not
+   * sorted again when they are read. No more lints can be added.
+   */
+  synchronized void freeze()
+  {
+    if (frozen)
+    {
+      return;
+    }
+    for (final ObjectLints objectLints: lintsByObject.values())
+    {
+      objectLints.getSortedLints();
+    }
+    frozen = true;
+  }
+
+  /**
+   * Holds back lints collected on the current thread, until
+   * {@link #stopPending()} is called.
+   */
+  void startPending()
+  {
+    pendingLints.set(new ArrayList<>());
+  }
+
+  /**
+   * Stops holding back lints collected on the current thread.
+   *
+   * @return Lints that were held back, to be committed
+   */
+  List<PendingLint> stopPending()
+  {
+    final List<PendingLint> pending = pendingLints.get();
+    pendingLints.remove();
+    return pending == null? Collections.emptyList(): pending;
+  }
+
+  private synchronized void collect(final AttributedObject namedObject,
+                                    final Lint<?> lint)
+  {
+    if (frozen)
+    {
+      throw new IllegalStateException("Cannot add lints after linting is complete");
+    }
+
+    final ObjectLints objectLints = lintsByObject
+      .computeIfAbsent(lint.getObjectName(), objectName -> new ObjectLints());
+    objectLints.addLint(lint);
+    namedObject.setAttribute(LINT_KEY, objectLints);
+    size.incrementAndGet();
   }
 
 }
@@ -0,0 +1,408 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import sf.util.StringFormat;
+
+/**
+ * Runs linters on a catalog. The tables of the catalog are walked once,
+ * and each table is linted by all linters in turn, which share the
+ * {@link TableMetadata} of the table. Linters that can lint tables
+ * concurrently have each table linted as a separate work item on a
+ * fork-join pool, so that idle threads take work from busy ones. Other
+ * linters, such as those that run SQL on the connection, are run on the
+ * calling thread, while the pool works. Lints from work items are held
+ * back, and committed in table and linter order, so that the lints are
+ * the same as when the linters are run one after another. When there is
+ * a {@link LintCache}, linters add cached lints for tables, or for the
+ * catalog, that have not changed since they were last linted, and are
+ * only run on the rest.
+ *
+ * @author Sualeh Fatehi
+ */
+final class LintExecutor
+{
+
+  private static final class TableLint
+  {
+
+    private final BaseLinter linter;
+    private final Object result;
+    private final List<LintCollector.PendingLint> pendingLints;
+    private final boolean fromCache;
+
+    TableLint(final BaseLinter linter,
+              final Object result,
+              final List<LintCollector.PendingLint> pendingLints,
+              final boolean fromCache)
+    {
+      this.linter = linter;
+      this.result = result;
+      this.pendingLints = pendingLints;
+      this.fromCache = fromCache;
+    }
+
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(LintExecutor.class.getName());
+
+  private static List<Lint<?>> getLints(final List<LintCollector.PendingLint> pendingLints)
+  {
+    final List<Lint<?>> lints = new ArrayList<>(pendingLints.size());
+    for (final LintCollector.PendingLint pendingLint: pendingLints)
+    {
+      lints.add(pendingLint.getLint());
+    }
+    return lints;
+  }
+
+  private final int lintParallelism;
+  private final DataSource dataSource;
+  private final LintCache lintCache;
+  private final Map<Linter, LintCache.LinterLints> linterLints;
+
+  LintExecutor(final int lintParallelism,
+               final DataSource dataSource,
+               final LintCache lintCache)
+  {
+    this.lintParallelism = lintParallelism;
+    this.dataSource = dataSource;
+    this.lintCache = lintCache;
+    linterLints = new IdentityHashMap<>();
+  }
+
+  void lint(final List<Linter> linters,
+            final Catalog catalog,
+            final Connection connection,
+            final LintCollector collector)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(linters, "No linters provided");
+    requireNonNull(catalog, "No catalog provided");
+    requireNonNull(collector, "No lint collector provided");
+
+    final List<BaseLinter> tableLinters = new ArrayList<>();
+    final List<BaseLinter> concurrentLinters = new ArrayList<>();
+    final List<BaseLinter> serialLinters = new ArrayList<>();
+    final List<Linter> otherLinters = new ArrayList<>();
+    final List<BaseLinter> catalogCachedLinters = new ArrayList<>();
+    linterLints.clear();
+    for (final Linter linter: linters)
+    {
+      if (linter instanceof BaseLinter)
+      {
+        final BaseLinter tableLinter = (BaseLinter) linter;
+        final LintCacheScope lintCacheScope = lintCache == null? LintCacheScope.none
+                                                               : tableLinter
+                                                                 .getLintCacheScope();
+        if (lintCacheScope != LintCacheScope.none)
+        {
+          final LintCache.LinterLints cachedLints = lintCache
+            .open(tableLinter, catalog);
+          linterLints.put(tableLinter, cachedLints);
+          if (lintCacheScope == LintCacheScope.catalog)
+          {
+            if (cachedLints.lintCatalogFromCache())
+            {
+              LOGGER.log(Level.FINE,
+                         new StringFormat("Using cached lints for <%s>",
+                                          linter.getLinterInstanceId()));
+              continue;
+            }
+            catalogCachedLinters.add(tableLinter);
+          }
+        }
+        tableLinters.add(tableLinter);
+        if (lintParallelism > 1 && tableLinter.isLintTablesConcurrently())
+        {
+          concurrentLinters.add(tableLinter);
+        }
+        else
+        {
+          serialLinters.add(tableLinter);
+        }
+      }
+      else
+      {
+        otherLinters.add(linter);
+      }
+    }
+
+    final List<Table> tables = new ArrayList<>(catalog.getTables());
+    for (final BaseLinter linter: tableLinters)
+    {
+      LOGGER.log(Level.FINE,
+                 new StringFormat("Linting with <%s>",
+                                  linter.getLinterInstanceId()));
+      linter.setDataSource(dataSource);
+      linter.startLint(catalog, connection);
+    }
+
+    if (concurrentLinters.isEmpty())
+    {
+      for (final Table table: tables)
+      {
+        lintTable(serialLinters, table, connection, collector);
+      }
+    }
+    else
+    {
+      lintConcurrently(concurrentLinters,
+                       serialLinters,
+                       tables,
+                       connection,
+                       collector);
+    }
+
+    for (final BaseLinter linter: tableLinters)
+    {
+      linter.endLint(connection);
+    }
+
+    if (lintCache != null)
+    {
+      for (final BaseLinter linter: catalogCachedLinters)
+      {
+        final List<Lint<?>> lints = new ArrayList<>();
+        for (final Lint<?> lint: collector)
+        {
+          if (lint.getLinterInstanceId().equals(linter.getLinterInstanceId()))
+          {
+            lints.add(lint);
+          }
+        }
+        linterLints.get(linter).cacheCatalogLints(lints);
+      }
+      for (final LintCache.LinterLints cachedLints: linterLints.values())
+      {
+        cachedLints.save();
+      }
+      linterLints.clear();
+    }
+
+    for (final Linter linter: otherLinters)
+    {
+      LOGGER.log(Level.FINE,
+                 new StringFormat("Linting with <%s>",
+                                  linter.getLinterInstanceId()));
+      linter.lint(catalog, connection);
+    }
+  }
+
+  /**
+   * Gets cached lints for a linter that caches lints for each table.
+   */
+  private LintCache.LinterLints getTableLints(final BaseLinter linter)
+  {
+    if (linter.getLintCacheScope() == LintCacheScope.table)
+    {
+      return linterLints.get(linter);
+    }
+    else
+    {
+      return null;
+    }
+  }
+
+  private void lintConcurrently(final List<BaseLinter> concurrentLinters,
+                                final List<BaseLinter> serialLinters,
+                                final List<Table> tables,
+                                final Connection connection,
+                                final LintCollector collector)
+    throws SchemaCrawlerException
+  {
+    LOGGER.log(Level.INFO,
+               new StringFormat("Linting tables with %d linters on %d threads",
+                                concurrentLinters.size(),
+                                lintParallelism));
+    final ForkJoinPool pool = new ForkJoinPool(lintParallelism);
+    try
+    {
+      final List<ForkJoinTask<List<TableLint>>> tableLints = new ArrayList<>();
+      for (final Table table: tables)
+      {
+        tableLints.add(pool.submit(() -> lintTableConcurrently(concurrentLinters,
+                                                               table,
+                                                               connection,
+                                                               collector)));
+      }
+
+      for (final Table table: tables)
+      {
+        lintTable(serialLinters, table, connection, collector);
+      }
+
+      for (int i = 0; i < tables.size(); i++)
+      {
+        final Table table = tables.get(i);
+        for (final TableLint tableLint: tableLints.get(i).get())
+        {
+          collector.commit(tableLint.pendingLints);
+          if (!tableLint.fromCache)
+          {
+            tableLint.linter.completeTableLint(table, tableLint.result);
+          }
+        }
+      }
+    }
+    catch (final ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SchemaCrawlerException)
+      {
+        throw (SchemaCrawlerException) cause;
+      }
+      throw new SchemaCrawlerException("Could not lint tables", cause);
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new SchemaCrawlerException("Interrupted while linting tables", e);
+    }
+    finally
+    {
+      pool.shutdownNow();
+    }
+  }
+
+  private void lintTable(final List<BaseLinter> linters,
+                         final Table table,
+                         final Connection connection,
+                         final LintCollector collector)
+    throws SchemaCrawlerException
+  {
+    TableMetadata.share(table);
+    try
+    {
+      for (final BaseLinter linter: linters)
+      {
+        if (!linter.isLintTable(table))
+        {
+          continue;
+        }
+
+        final LintCache.LinterLints cachedLints = getTableLints(linter);
+        if (cachedLints == null)
+        {
+          linter.completeTableLint(table, linter.lintTable(table, connection));
+        }
+        else if (!cachedLints.lintTableFromCache(table))
+        {
+          collector.startPending();
+          final Object result;
+          final List<LintCollector.PendingLint> pendingLints;
+          try
+          {
+            result = linter.lintTable(table, connection);
+          }
+          finally
+          {
+            pendingLints = collector.stopPending();
+          }
+          collector.commit(pendingLints);
+          linter.completeTableLint(table, result);
+          cachedLints.cacheTableLints(table, getLints(pendingLints));
+        }
+      }
+    }
+    finally
+    {
+      TableMetadata.unshare();
+    }
+  }
+
+  private List<TableLint> lintTableConcurrently(final List<BaseLinter> linters,
+                                                final Table table,
+                                                final Connection connection,
+                                                final LintCollector collector)
+    throws SchemaCrawlerException
+  {
+    final List<TableLint> tableLints = new ArrayList<>();
+    TableMetadata.share(table);
+    try
+    {
+      for (final BaseLinter linter: linters)
+      {
+        if (!linter.isLintTable(table))
+        {
+          continue;
+        }
+
+        final LintCache.LinterLints cachedLints = getTableLints(linter);
+        collector.startPending();
+        final boolean fromCache;
+        Object result = null;
+        final List<LintCollector.PendingLint> pendingLints;
+        try
+        {
+          fromCache = cachedLints != null
+                      && cachedLints.lintTableFromCache(table);
+          if (!fromCache)
+          {
+            result = linter.lintTable(table, connection);
+          }
+        }
+        finally
+        {
+          pendingLints = collector.stopPending();
+        }
+        if (cachedLints != null && !fromCache)
+        {
+          cachedLints.cacheTableLints(table, getLints(pendingLints));
+        }
+        tableLints.add(new TableLint(linter, result, pendingLints, fromCache));
+      }
+    }
+    finally
+    {
+      TableMetadata.unshare();
+    }
+    return tableLints;
+  }
+
+}
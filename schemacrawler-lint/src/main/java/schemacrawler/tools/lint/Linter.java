@@ -32,6 +32,7 @@ import static sf.util.IOUtility.readResourceFully;
 
 import java.io.Serializable;
 import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -55,19 +56,21 @@ public abstract class Linter
   private static final Logger LOGGER = Logger.getLogger(Linter.class.getName());
 
   private LintCollector collector;
+  private LinterConfig linterConfig;
   private LintSeverity severity;
   private int threshold;
-  private int lintCount;
+  private final AtomicInteger lintCount;
 
   protected Linter()
   {
     severity = LintSeverity.medium; // default value
     threshold = Integer.MAX_VALUE; // default value
+    lintCount = new AtomicInteger();
   }
 
   public final boolean exceedsThreshold()
   {
-    return lintCount > threshold;
+    return lintCount.get() > threshold;
   }
 
   /**
@@ -101,7 +104,7 @@ public abstract class Linter
    */
   public final int getLintCount()
   {
-    return lintCount;
+    return lintCount.get();
   }
 
   /**
@@ -168,7 +171,7 @@ public abstract class Linter
                                       message,
                                       value);
       collector.addLint(namedObject, lint);
-      lintCount = lintCount + 1;
+      lintCount.incrementAndGet();
     }
   }
 
@@ -201,6 +204,7 @@ public abstract class Linter
 
   void configure(final LinterConfig linterConfig)
   {
+    this.linterConfig = linterConfig;
     if (linterConfig != null)
     {
       setSeverity(linterConfig.getSeverity());
@@ -209,6 +213,16 @@ public abstract class Linter
     }
   }
 
+  /**
+   * Gets the configuration of the linter, if it was configured.
+   *
+   * @return Linter configuration, or null
+   */
+  LinterConfig getLinterConfig()
+  {
+    return linterConfig;
+  }
+
   abstract void lint(Catalog catalog, Connection connection)
     throws SchemaCrawlerException;
 
@@ -31,6 +31,7 @@ package schemacrawler.tools.lint;
 import static sf.util.Utility.isBlank;
 
 import java.io.Serializable;
+import java.util.TreeMap;
 
 import schemacrawler.schemacrawler.Config;
 import schemacrawler.schemacrawler.InclusionRule;
@@ -177,4 +178,23 @@ public class LinterConfig
     return ObjectToString.toString(this);
   }
 
+  /**
+   * Gets a fingerprint of the linter configuration, which is the same
+   * for configurations that produce the same lints.
+   *
+   * @return Fingerprint of the linter configuration
+   */
+  String getFingerprint()
+  {
+    return String.join("\n",
+                       linterId,
+                       String.valueOf(severity),
+                       String.valueOf(threshold),
+                       String.valueOf(tableInclusionPattern),
+                       String.valueOf(tableExclusionPattern),
+                       String.valueOf(columnInclusionPattern),
+                       String.valueOf(columnExclusionPattern),
+                       new TreeMap<>(config).toString());
+  }
+
 }
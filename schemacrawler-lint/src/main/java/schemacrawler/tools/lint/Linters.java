@@ -40,6 +40,8 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.schema.Catalog;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import sf.util.StringFormat;
@@ -54,6 +56,9 @@ public final class Linters
   private final List<Linter> linters = new ArrayList<>();
   private final LintCollector collector = new LintCollector();
   private final LinterRegistry registry = new LinterRegistry();
+  private int lintParallelism = 1;
+  private DataSource dataSource;
+  private LintCache lintCache;
 
   public Linters(final LinterConfigs linterConfigs)
     throws SchemaCrawlerException
@@ -177,13 +182,51 @@ public final class Linters
   public void lint(final Catalog catalog, final Connection connection)
     throws SchemaCrawlerException
   {
-    for (final Linter linter: linters)
+    new LintExecutor(lintParallelism, dataSource, lintCache).lint(linters,
+                                                                  catalog,
+                                                                  connection,
+                                                                  collector);
+    collector.freeze();
+  }
+
+  /**
+   * Sets the data source for additional connections, which linters can
+   * use to run queries concurrently.
+   *
+   * @param dataSource
+   *        Data source, or null to lint on the connection alone
+   */
+  public void setDataSource(final DataSource dataSource)
+  {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Sets the cache of lints from earlier runs, so that tables that have
+   * not changed are not linted again.
+   *
+   * @param lintCache
+   *        Lint cache, or null to lint all tables
+   */
+  public void setLintCache(final LintCache lintCache)
+  {
+    this.lintCache = lintCache;
+  }
+
+  /**
+   * Sets the number of threads to lint tables on. Tables are linted on
+   * the calling thread if this is 1, which is the default.
+   *
+   * @param lintParallelism
+   *        Number of threads to lint tables on
+   */
+  public void setLintParallelism(final int lintParallelism)
+  {
+    if (lintParallelism < 1)
     {
-      LOGGER.log(Level.FINE,
-                 new StringFormat("Linting with <%s>",
-                                  linter.getLinterInstanceId()));
-      linter.lint(catalog, connection);
+      throw new IllegalArgumentException("Lint parallelism must be at least 1");
     }
+    this.lintParallelism = lintParallelism;
   }
 
   @Override
@@ -0,0 +1,196 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.Index;
+import schemacrawler.schema.PartialDatabaseObject;
+import schemacrawler.schema.Table;
+import schemacrawler.utility.MetaDataUtility;
+
+/**
+ * Metadata of a table, read once when it is first needed, and shared by
+ * all linters that lint the table. Tables and their lists of columns,
+ * indexes and foreign keys are copied and sorted every time they are
+ * read, so linters should use this rather than reading the table.
+ * Instances are used on one thread at a time.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class TableMetadata
+{
+
+  private static final ThreadLocal<TableMetadata> currentTableMetadata = new ThreadLocal<>();
+
+  /**
+   * Gets metadata for a table, which is shared if the table is being
+   * linted by all linters on the current thread.
+   */
+  static TableMetadata getTableMetadata(final Table table)
+  {
+    final TableMetadata tableMetadata = currentTableMetadata.get();
+    if (tableMetadata != null && tableMetadata.table == table)
+    {
+      return tableMetadata;
+    }
+    else
+    {
+      return new TableMetadata(table);
+    }
+  }
+
+  /**
+   * Shares metadata for a table on the current thread, until
+   * {@link #unshare()} is called.
+   */
+  static TableMetadata share(final Table table)
+  {
+    final TableMetadata tableMetadata = new TableMetadata(table);
+    currentTableMetadata.set(tableMetadata);
+    return tableMetadata;
+  }
+
+  static void unshare()
+  {
+    currentTableMetadata.remove();
+  }
+
+  private final Table table;
+  private List<Column> columns;
+  private Collection<Index> indexes;
+  private Collection<ForeignKey> foreignKeys;
+  private Collection<ForeignKey> importedForeignKeys;
+  private Map<Index, List<String>> indexColumnNames;
+  private Collection<List<String>> allIndexColumnNames;
+
+  private TableMetadata(final Table table)
+  {
+    this.table = requireNonNull(table, "No table provided");
+  }
+
+  /**
+   * Gets column names for the primary key of the table, and each of its
+   * indexes, as with {@link MetaDataUtility#allIndexCoumnNames(Table)}.
+   *
+   * @return Column names of indexes
+   */
+  public Collection<List<String>> getAllIndexColumnNames()
+  {
+    if (allIndexColumnNames == null)
+    {
+      final List<List<String>> columnNames = new ArrayList<>();
+      if (!(table instanceof PartialDatabaseObject))
+      {
+        columnNames.add(getIndexColumnNames(table.getPrimaryKey()));
+        for (final Index index: getIndexes())
+        {
+          columnNames.add(getIndexColumnNames(index));
+        }
+      }
+      allIndexColumnNames = Collections.unmodifiableList(columnNames);
+    }
+    return allIndexColumnNames;
+  }
+
+  public List<Column> getColumns()
+  {
+    if (columns == null)
+    {
+      columns = Collections.unmodifiableList(table.getColumns());
+    }
+    return columns;
+  }
+
+  public Collection<ForeignKey> getForeignKeys()
+  {
+    if (foreignKeys == null)
+    {
+      foreignKeys = Collections.unmodifiableCollection(table.getForeignKeys());
+    }
+    return foreignKeys;
+  }
+
+  public Collection<ForeignKey> getImportedForeignKeys()
+  {
+    if (importedForeignKeys == null)
+    {
+      importedForeignKeys = Collections
+        .unmodifiableCollection(table.getImportedForeignKeys());
+    }
+    return importedForeignKeys;
+  }
+
+  /**
+   * Gets column names of an index of the table.
+   *
+   * @param index
+   *        Index or primary key of the table
+   * @return Full names of the columns of the index, in index order
+   */
+  public List<String> getIndexColumnNames(final Index index)
+  {
+    if (indexColumnNames == null)
+    {
+      indexColumnNames = new HashMap<>();
+    }
+    List<String> columnNames = indexColumnNames.get(index);
+    if (columnNames == null)
+    {
+      columnNames = Collections
+        .unmodifiableList(new ArrayList<>(MetaDataUtility.columnNames(index)));
+      indexColumnNames.put(index, columnNames);
+    }
+    return columnNames;
+  }
+
+  public Collection<Index> getIndexes()
+  {
+    if (indexes == null)
+    {
+      indexes = Collections.unmodifiableCollection(table.getIndexes());
+    }
+    return indexes;
+  }
+
+  public Table getTable()
+  {
+    return table;
+  }
+
+}
@@ -29,7 +29,9 @@ package schemacrawler.tools.lint.executable;
 
 
 import static schemacrawler.tools.lint.LintUtility.readLinterConfigs;
+import static sf.util.Utility.isBlank;
 
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -40,6 +42,7 @@ import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.executable.BaseStagedExecutable;
+import schemacrawler.tools.lint.LintCache;
 import schemacrawler.tools.lint.LintDispatch;
 import schemacrawler.tools.lint.LintedCatalog;
 import schemacrawler.tools.lint.LinterConfigs;
@@ -70,6 +73,13 @@ public class LintExecutable
     final LinterConfigs linterConfigs = readLinterConfigs(lintOptions,
                                                           getAdditionalConfiguration());
     final Linters linters = new Linters(linterConfigs);
+    linters.setLintParallelism(lintOptions.getLintParallelism());
+    linters.setDataSource(getDataSource());
+    if (!isBlank(lintOptions.getLintCacheDirectory()))
+    {
+      linters.setLintCache(new LintCache(Paths
+        .get(lintOptions.getLintCacheDirectory())));
+    }
 
     final LintedCatalog catalog = new LintedCatalog(db, connection, linters);
 
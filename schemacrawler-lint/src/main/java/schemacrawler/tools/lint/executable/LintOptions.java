@@ -37,6 +37,18 @@ public class LintOptions
   private static final long serialVersionUID = -5917925090616219096L;
 
   private String linterConfigs;
+  private int lintParallelism = 1;
+  private String lintCacheDirectory;
+
+  /**
+   * Gets the directory to cache lints in, between runs.
+   *
+   * @return Lint cache directory, or null if lints are not cached
+   */
+  public String getLintCacheDirectory()
+  {
+    return lintCacheDirectory;
+  }
 
   /**
    * Gets the path to the linter configs file.
@@ -48,6 +60,28 @@ public class LintOptions
     return linterConfigs;
   }
 
+  /**
+   * Gets the number of threads to lint tables on.
+   *
+   * @return Number of threads to lint tables on
+   */
+  public int getLintParallelism()
+  {
+    return lintParallelism;
+  }
+
+  /**
+   * Sets the directory to cache lints in, between runs, so that tables
+   * that have not changed are not linted again.
+   *
+   * @param lintCacheDirectory
+   *        Lint cache directory, or null to not cache lints
+   */
+  public void setLintCacheDirectory(final String lintCacheDirectory)
+  {
+    this.lintCacheDirectory = lintCacheDirectory;
+  }
+
   /**
    * Sets the path to the linter configs file.
    *
@@ -59,4 +93,16 @@ public class LintOptions
     this.linterConfigs = linterConfigs;
   }
 
+  /**
+   * Sets the number of threads to lint tables on. Linters that run SQL
+   * on the connection always run on one thread.
+   *
+   * @param lintParallelism
+   *        Number of threads to lint tables on
+   */
+  public void setLintParallelism(final int lintParallelism)
+  {
+    this.lintParallelism = Math.max(1, lintParallelism);
+  }
+
 }
@@ -38,6 +38,10 @@ public class LintOptionsBuilder
   private static final String CLI_LINTER_CONFIGS = "linterconfigs";
   private static final String LINTER_CONFIGS = SCHEMACRAWLER_FORMAT_PREFIX
                                                + CLI_LINTER_CONFIGS;
+  private static final String LINT_PARALLELISM = SCHEMACRAWLER_FORMAT_PREFIX
+                                                 + "lint.parallelism";
+  private static final String LINT_CACHE_DIRECTORY = SCHEMACRAWLER_FORMAT_PREFIX
+                                                     + "lint.cache.directory";
 
   public LintOptionsBuilder()
   {
@@ -64,6 +68,10 @@ public class LintOptionsBuilder
       // Otherwise, take option from SchemaCrawler configuration file
       options.setLinterConfigs(config.getStringValue(LINTER_CONFIGS, ""));
     }
+    options.setLintParallelism(config
+      .getIntegerValue(LINT_PARALLELISM, options.getLintParallelism()));
+    options.setLintCacheDirectory(config
+      .getStringValue(LINT_CACHE_DIRECTORY, options.getLintCacheDirectory()));
 
     return this;
   }
@@ -73,9 +81,31 @@ public class LintOptionsBuilder
   {
     final Config config = super.toConfig();
     config.setStringValue(LINTER_CONFIGS, options.getLinterConfigs());
+    config.setStringValue(LINT_PARALLELISM,
+                          String.valueOf(options.getLintParallelism()));
+    config.setStringValue(LINT_CACHE_DIRECTORY,
+                          options.getLintCacheDirectory());
     return config;
   }
 
+  /**
+   * Directory to cache lints in, between runs.
+   */
+  public LintOptionsBuilder withLintCacheDirectory(final String lintCacheDirectory)
+  {
+    options.setLintCacheDirectory(lintCacheDirectory);
+    return this;
+  }
+
+  /**
+   * Number of threads to lint tables on.
+   */
+  public LintOptionsBuilder withLintParallelism(final int lintParallelism)
+  {
+    options.setLintParallelism(lintParallelism);
+    return this;
+  }
+
   /**
    * Whether to show LOBs.
    */
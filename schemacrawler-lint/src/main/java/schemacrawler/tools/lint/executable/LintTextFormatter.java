@@ -28,12 +28,9 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.lint.executable;
 
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
+import schemacrawler.schema.AttributedObject;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.lint.Lint;
@@ -44,7 +41,6 @@ import schemacrawler.tools.options.OutputOptions;
 import schemacrawler.tools.text.base.BaseTabularFormatter;
 import schemacrawler.tools.text.utility.TextFormattingHelper.DocumentHeaderType;
 import sf.util.Color;
-import sf.util.Multimap;
 
 final class LintTextFormatter
   extends BaseTabularFormatter<LintOptions>
@@ -70,7 +66,7 @@ final class LintTextFormatter
       formattingHelper
         .writeObjectNameRow("", "Database", "[database]", Color.white);
 
-      printLints(lints);
+      printLints(catalog);
       formattingHelper.writeObjectEnd();
     }
   }
@@ -91,7 +87,7 @@ final class LintTextFormatter
                                           table.getFullName(),
                                           tableType,
                                           colorMap.getColor(table));
-      printLints(lints);
+      printLints(table);
       formattingHelper.writeObjectEnd();
     }
   }
@@ -117,27 +113,21 @@ final class LintTextFormatter
     formattingHelper.writeHeader(DocumentHeaderType.subTitle, "Lints");
   }
 
-  private void printLints(final Collection<Lint<?>> lints)
+  private void printLints(final AttributedObject lintedObject)
   {
     formattingHelper.writeEmptyRow();
 
-    final Multimap<LintSeverity, Lint<?>> multiMap = new Multimap<>();
-    for (final Lint<?> lint: lints)
+    for (final LintSeverity severity: LintCollector.getSeverities())
     {
-      multiMap.add(lint.getSeverity(), lint);
-    }
-    final List<LintSeverity> severities = Arrays.asList(LintSeverity.values());
-    Collections.reverse(severities);
-    for (final LintSeverity severity: severities)
-    {
-      if (!multiMap.containsKey(severity))
+      final Collection<Lint<?>> lints = LintCollector.getLint(lintedObject,
+                                                              severity);
+      if (lints.isEmpty())
       {
         continue;
       }
 
       formattingHelper.writeNameRow("", String.format("[lint, %s]", severity));
-      final List<Lint<?>> lintsById = new ArrayList<>(multiMap.get(severity));
-      for (final Lint<?> lint: lintsById)
+      for (final Lint<?> lint: lints)
       {
         final Object lintValue = lint.getValue();
         if (lintValue instanceof Boolean)
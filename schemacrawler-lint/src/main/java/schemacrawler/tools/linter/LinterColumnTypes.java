@@ -40,11 +40,12 @@ import schemacrawler.schema.Column;
 import schemacrawler.schema.ColumnDataType;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
-import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.BaseAccumulatingLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import sf.util.Multimap;
 
 public class LinterColumnTypes
-  extends BaseLinter
+  extends BaseAccumulatingLinter<List<Column>>
 {
 
   private Multimap<String, ColumnDataType> columnTypes;
@@ -78,12 +79,25 @@ public class LinterColumnTypes
   }
 
   @Override
-  protected void lint(final Table table, final Connection connection)
+  protected List<Column> accumulate(final Table table,
+                                    final Connection connection)
   {
     requireNonNull(table, "No table provided");
+    return getColumns(table);
+  }
+
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.catalog;
+  }
+
+  @Override
+  protected void merge(final Table table, final List<Column> columns)
+  {
     requireNonNull(columnTypes, "Not initialized");
 
-    for (final Column column: getColumns(table))
+    for (final Column column: columns)
     {
       columnTypes.add(column.getName(), column.getColumnDataType());
     }
@@ -40,6 +40,7 @@ import schemacrawler.schema.ForeignKeyColumnReference;
 import schemacrawler.schema.Table;
 import schemacrawler.schema.View;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import schemacrawler.tools.lint.LintSeverity;
 
 public class LinterForeignKeyMismatch
@@ -57,6 +58,18 @@ public class LinterForeignKeyMismatch
     return "foreign key data type different from primary key";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connections)
   {
@@ -74,7 +87,8 @@ public class LinterForeignKeyMismatch
     final List<ForeignKey> mismatchedForeignKeys = new ArrayList<>();
     if (table != null && !(table instanceof View))
     {
-      for (final ForeignKey foreignKey: table.getImportedForeignKeys())
+      for (final ForeignKey foreignKey: getTableMetadata(table)
+        .getImportedForeignKeys())
       {
         for (final ForeignKeyColumnReference columnReference: foreignKey)
         {
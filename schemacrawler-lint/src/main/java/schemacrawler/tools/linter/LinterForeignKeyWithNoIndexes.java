@@ -30,7 +30,6 @@ package schemacrawler.tools.linter;
 
 import static java.util.Objects.requireNonNull;
 import static schemacrawler.tools.lint.LintUtility.listStartsWith;
-import static schemacrawler.utility.MetaDataUtility.allIndexCoumnNames;
 import static schemacrawler.utility.MetaDataUtility.foreignKeyColumnNames;
 
 import java.sql.Connection;
@@ -42,7 +41,9 @@ import schemacrawler.schema.ForeignKey;
 import schemacrawler.schema.Table;
 import schemacrawler.schema.View;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import schemacrawler.tools.lint.LintSeverity;
+import schemacrawler.tools.lint.TableMetadata;
 
 public class LinterForeignKeyWithNoIndexes
   extends BaseLinter
@@ -59,6 +60,18 @@ public class LinterForeignKeyWithNoIndexes
     return "foreign key with no index";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
@@ -76,8 +89,11 @@ public class LinterForeignKeyWithNoIndexes
     final List<ForeignKey> foreignKeysWithoutIndexes = new ArrayList<>();
     if (!(table instanceof View))
     {
-      final Collection<List<String>> allIndexCoumns = allIndexCoumnNames(table);
-      for (final ForeignKey foreignKey: table.getImportedForeignKeys())
+      final TableMetadata tableMetadata = getTableMetadata(table);
+      final Collection<List<String>> allIndexCoumns = tableMetadata
+        .getAllIndexColumnNames();
+      for (final ForeignKey foreignKey: tableMetadata
+        .getImportedForeignKeys())
       {
         final List<String> foreignKeyColumns = foreignKeyColumnNames(foreignKey);
         boolean hasIndex = false;
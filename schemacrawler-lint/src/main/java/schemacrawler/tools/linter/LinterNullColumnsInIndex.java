@@ -40,6 +40,7 @@ import schemacrawler.schema.Index;
 import schemacrawler.schema.IndexColumn;
 import schemacrawler.schema.Table;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 
 public class LinterNullColumnsInIndex
   extends BaseLinter
@@ -51,6 +52,18 @@ public class LinterNullColumnsInIndex
     return "unique index with nullable columns";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
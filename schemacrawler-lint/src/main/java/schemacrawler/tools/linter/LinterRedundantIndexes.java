@@ -44,8 +44,9 @@ import schemacrawler.filter.TableTypesFilter;
 import schemacrawler.schema.Index;
 import schemacrawler.schema.Table;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import schemacrawler.tools.lint.LintSeverity;
-import schemacrawler.utility.MetaDataUtility;
+import schemacrawler.tools.lint.TableMetadata;
 
 public class LinterRedundantIndexes
   extends BaseLinter
@@ -63,21 +64,33 @@ public class LinterRedundantIndexes
     return "redundant index";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
     requireNonNull(table, "No table provided");
 
-    final Set<Index> redundantIndexes = findRedundantIndexes(table
-      .getIndexes());
+    final Set<Index> redundantIndexes = findRedundantIndexes(getTableMetadata(table));
     for (final Index index: redundantIndexes)
     {
       addTableLint(table, getSummary(), index);
     }
   }
 
-  private Set<Index> findRedundantIndexes(final Collection<Index> indexes)
+  private Set<Index> findRedundantIndexes(final TableMetadata tableMetadata)
   {
+    final Collection<Index> indexes = tableMetadata.getIndexes();
     final Set<Index> redundantIndexes = new HashSet<>();
 
     if (indexes == null || indexes.isEmpty())
@@ -88,7 +101,7 @@ public class LinterRedundantIndexes
     final Map<Index, List<String>> indexColumns = new HashMap<>(indexes.size());
     for (final Index index: indexes)
     {
-      indexColumns.put(index, MetaDataUtility.columnNames(index));
+      indexColumns.put(index, tableMetadata.getIndexColumnNames(index));
     }
 
     for (final Entry<Index, List<String>> indexColumnEntry1: indexColumns
@@ -39,12 +39,13 @@ import schemacrawler.schema.ForeignKey;
 import schemacrawler.schema.ForeignKeyColumnReference;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
-import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.BaseAccumulatingLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import sf.util.graph.DirectedGraph;
 import sf.util.graph.TarjanStronglyConnectedComponentFinder;
 
 public class LinterTableCycles
-  extends BaseLinter
+  extends BaseAccumulatingLinter<Collection<ForeignKey>>
 {
 
   private DirectedGraph<Table> tablesGraph;
@@ -77,13 +78,27 @@ public class LinterTableCycles
   }
 
   @Override
-  protected void lint(final Table table, final Connection connection)
+  protected Collection<ForeignKey> accumulate(final Table table,
+                                              final Connection connection)
   {
     requireNonNull(table, "No table provided");
+    return getTableMetadata(table).getForeignKeys();
+  }
+
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.catalog;
+  }
+
+  @Override
+  protected void merge(final Table table,
+                       final Collection<ForeignKey> foreignKeys)
+  {
     requireNonNull(tablesGraph, "Not initialized");
 
     tablesGraph.addVertex(table);
-    for (final ForeignKey foreignKey: table.getForeignKeys())
+    for (final ForeignKey foreignKey: foreignKeys)
     {
       for (final ForeignKeyColumnReference columnReference: foreignKey)
       {
@@ -91,7 +106,6 @@ public class LinterTableCycles
                             columnReference.getForeignKeyColumn().getParent());
       }
     }
-
   }
 
   @Override
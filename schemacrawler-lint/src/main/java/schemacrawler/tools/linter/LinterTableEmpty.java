@@ -29,26 +29,30 @@ package schemacrawler.tools.linter;
 
 
 import static java.util.Objects.requireNonNull;
-import static schemacrawler.utility.QueryUtility.executeForLong;
+import static schemacrawler.tools.analysis.counts.CountsUtility.newRowCountProvider;
 
 import java.sql.Connection;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import schemacrawler.filter.TableTypesFilter;
 import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.IncludeAll;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.tools.analysis.counts.RowCountOptions;
+import schemacrawler.tools.analysis.counts.RowCountProvider;
 import schemacrawler.tools.lint.BaseLinter;
 import schemacrawler.tools.lint.LintSeverity;
-import schemacrawler.utility.Query;
-import sf.util.StringFormat;
 
 public class LinterTableEmpty
   extends BaseLinter
 {
 
-  private static final Logger LOGGER = Logger
-    .getLogger(LinterTableEmpty.class.getName());
+  private final RowCountOptions rowCountOptions = new RowCountOptions();
+  private Map<Table, Long> rowCounts;
 
   public LinterTableEmpty()
   {
@@ -62,26 +66,99 @@ public class LinterTableEmpty
     return "empty table";
   }
 
+  /**
+   * Row counts are estimated from database statistics where possible,
+   * unless the "exact" parameter is set. Tables that are estimated to
+   * be empty are counted exactly, since statistics can be out of date. Exact counts that take longer
+   * than "query-timeout" seconds are cancelled. Exact counts are made
+   * for "batch-size" tables with each query, and on "concurrency"
+   * connections at the same time, when there is a data source.
+   */
+  @Override
+  protected void configure(final Config config)
+  {
+    requireNonNull(config, "No configuration provided");
+    rowCountOptions.setExactRowCounts(config.getBooleanValue("exact", false));
+    rowCountOptions
+      .setQueryTimeout(Math.max(0, config.getIntegerValue("query-timeout", 0)));
+    rowCountOptions
+      .setBatchSize(Math.max(1, config.getIntegerValue("batch-size", 1)));
+    rowCountOptions
+      .setConcurrency(Math.max(1, config.getIntegerValue("concurrency", 1)));
+  }
+
+  @Override
+  protected void end(final Connection connection)
+  {
+    rowCounts = null;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
     requireNonNull(table, "No table provided");
     requireNonNull(connection, "No connection provided");
 
-    final Query query = new Query("Count", "SELECT COUNT(*) FROM ${table}");
-    try
+    final Long count = rowCounts.get(table);
+    if (count != null && count == 0)
     {
-      final long count = executeForLong(query, connection, table);
-      if (count == 0)
+      addTableLint(table, getSummary());
+    }
+  }
+
+  @Override
+  protected void start(final Connection connection)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(connection, "No connection provided");
+    final RowCountProvider rowCountProvider = newRowCountProvider(connection,
+                                                                  getDataSource(),
+                                                                  getCrawlInfo(),
+                                                                  new IncludeAll(),
+                                                                  rowCountOptions);
+    rowCounts = new HashMap<>(rowCountProvider
+      .getRowCounts(getTablesToLint()));
+    if (!rowCountProvider.isExact())
+    {
+      confirmEmptyTables(connection);
+    }
+  }
+
+  /**
+   * Counts rows exactly for tables that are estimated to be empty, so
+   * that out of date statistics do not cause lints. Tables that could
+   * not be counted are not linted.
+   */
+  private void confirmEmptyTables(final Connection connection)
+    throws SchemaCrawlerException
+  {
+    final List<Table> emptyTables = new ArrayList<>();
+    for (final Map.Entry<Table, Long> rowCount: rowCounts.entrySet())
+    {
+      if (rowCount.getValue() != null && rowCount.getValue() == 0)
       {
-        addTableLint(table, getSummary());
+        emptyTables.add(rowCount.getKey());
       }
     }
-    catch (final SchemaCrawlerException e)
+    if (emptyTables.isEmpty())
+    {
+      return;
+    }
+
+    final RowCountOptions exactRowCountOptions = new RowCountOptions();
+    exactRowCountOptions.setExactRowCounts(true);
+    exactRowCountOptions.setQueryTimeout(rowCountOptions.getQueryTimeout());
+    exactRowCountOptions.setBatchSize(rowCountOptions.getBatchSize());
+    exactRowCountOptions.setConcurrency(rowCountOptions.getConcurrency());
+    final Map<Table, Long> exactRowCounts = newRowCountProvider(connection,
+                                                                getDataSource(),
+                                                                getCrawlInfo(),
+                                                                new IncludeAll(),
+                                                                exactRowCountOptions)
+                                                                  .getRowCounts(emptyTables);
+    for (final Table table: emptyTables)
     {
-      LOGGER.log(Level.WARNING,
-                 e,
-                 new StringFormat("Could not get count for table, ", table));
+      rowCounts.put(table, exactRowCounts.get(table));
     }
   }
 
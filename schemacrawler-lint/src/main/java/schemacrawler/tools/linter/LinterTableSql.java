@@ -29,23 +29,41 @@ package schemacrawler.tools.linter;
 
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.utility.QueryUtility.executeAgainstTables;
 import static schemacrawler.utility.QueryUtility.executeForScalar;
+import static sf.util.DatabaseUtility.createStatement;
 import static sf.util.Utility.isBlank;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.Config;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.lint.BaseLinter;
 import schemacrawler.utility.Query;
+import sf.util.StringFormat;
 
 public class LinterTableSql
   extends BaseLinter
 {
 
+  private static final Logger LOGGER = Logger
+    .getLogger(LinterTableSql.class.getName());
+
   private String message;
   private String sql;
+  private int batchSize;
+  private int queryTimeout;
+  private Statement statement;
+  private Map<Table, Object> queryResults;
 
   @Override
   public String getSummary()
@@ -53,6 +71,13 @@ public class LinterTableSql
     return message;
   }
 
+  /**
+   * The SQL is run for "batch-size" tables with each query, as a UNION
+   * ALL of the SQL for each table, so it needs to return at most a
+   * single row for each table. Tables in a batch that fails are queried
+   * one at a time. Queries that take longer than "query-timeout"
+   * seconds are cancelled.
+   */
   @Override
   protected void configure(final Config config)
   {
@@ -69,6 +94,31 @@ public class LinterTableSql
     {
       throw new IllegalArgumentException("No SQL provided");
     }
+
+    batchSize = Math.max(1, config.getIntegerValue("batch-size", 1));
+    queryTimeout = Math.max(0, config.getIntegerValue("query-timeout", 0));
+  }
+
+  @Override
+  protected void end(final Connection connection)
+    throws SchemaCrawlerException
+  {
+    queryResults = null;
+    if (statement != null)
+    {
+      try
+      {
+        statement.close();
+      }
+      catch (final SQLException e)
+      {
+        throw new SchemaCrawlerException("Could not close statement", e);
+      }
+      finally
+      {
+        statement = null;
+      }
+    }
   }
 
   @Override
@@ -83,12 +133,100 @@ public class LinterTableSql
     requireNonNull(table, "No table provided");
     requireNonNull(connection, "No connection provided");
 
-    final Query query = new Query(message, sql);
-    final Object queryResult = executeForScalar(query, connection, table);
+    final Object queryResult;
+    if (queryResults.containsKey(table))
+    {
+      queryResult = queryResults.get(table);
+    }
+    else
+    {
+      queryResult = executeForScalar(new Query(message, sql), statement, table);
+    }
     if (queryResult != null)
     {
       addTableLint(table, getSummary() + " " + queryResult);
     }
   }
 
+  @Override
+  protected void start(final Connection connection)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(connection, "No connection provided");
+
+    queryResults = new HashMap<>();
+    try
+    {
+      statement = createStatement(connection);
+      statement.setQueryTimeout(queryTimeout);
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Could not create statement", e);
+    }
+
+    if (batchSize > 1 && !isBlank(sql))
+    {
+      final Query batchQuery = new Query(message,
+                                         "SELECT ${tableindex}, Q.* FROM ("
+                                                  + sql + ") Q");
+      final List<Table> tables = getTablesToLint();
+      for (int i = 0; i < tables.size(); i = i + batchSize)
+      {
+        queryBatch(batchQuery,
+                   tables.subList(i, Math.min(i + batchSize, tables.size())));
+      }
+    }
+  }
+
+  /**
+   * Runs the query for a batch of tables. Results are kept for tables
+   * that returned no more than a single value. If the query fails,
+   * tables are queried one at a time when they are linted, so that
+   * failures are reported for each table.
+   */
+  private void queryBatch(final Query batchQuery, final List<Table> tables)
+  {
+    final Map<Table, Object> batchResults = new HashMap<>();
+    final Map<Table, Integer> rowCounts = new HashMap<>();
+    try (final ResultSet results = executeAgainstTables(batchQuery,
+                                                        statement,
+                                                        tables,
+                                                        true);)
+    {
+      if (results == null || results.getMetaData().getColumnCount() != 2)
+      {
+        return;
+      }
+      while (results.next())
+      {
+        final Table table = tables.get(results.getInt(1));
+        batchResults.put(table, results.getObject(2));
+        rowCounts.merge(table, 1, Integer::sum);
+      }
+    }
+    catch (final SQLException | RuntimeException e)
+    {
+      LOGGER.log(Level.FINE,
+                 e,
+                 new StringFormat("Could not run <%s> for %d tables together",
+                                  message,
+                                  tables.size()));
+      return;
+    }
+
+    for (final Table table: tables)
+    {
+      final Integer rowCount = rowCounts.get(table);
+      if (rowCount == null)
+      {
+        queryResults.put(table, null);
+      }
+      else if (rowCount == 1)
+      {
+        queryResults.put(table, batchResults.get(table));
+      }
+    }
+  }
+
 }
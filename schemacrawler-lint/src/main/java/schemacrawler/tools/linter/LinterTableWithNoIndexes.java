@@ -35,6 +35,7 @@ import schemacrawler.filter.TableTypesFilter;
 import schemacrawler.schema.Index;
 import schemacrawler.schema.Table;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 
 public class LinterTableWithNoIndexes
   extends BaseLinter
@@ -51,12 +52,25 @@ public class LinterTableWithNoIndexes
     return "no indexes";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
     if (table != null)
     {
-      final Collection<Index> indexes = table.getIndexes();
+      final Collection<Index> indexes = getTableMetadata(table)
+        .getIndexes();
       if (table.getPrimaryKey() == null && indexes.isEmpty())
       {
         addTableLint(table, getSummary());
@@ -36,6 +36,7 @@ import schemacrawler.filter.TableTypesFilter;
 import schemacrawler.schema.PrimaryKey;
 import schemacrawler.schema.Table;
 import schemacrawler.tools.lint.BaseLinter;
+import schemacrawler.tools.lint.LintCacheScope;
 import schemacrawler.tools.lint.LintSeverity;
 
 public class LinterTableWithNoSurrogatePrimaryKey
@@ -54,6 +55,18 @@ public class LinterTableWithNoSurrogatePrimaryKey
     return "primary key may not be a surrogate";
   }
 
+  @Override
+  protected LintCacheScope getLintCacheScope()
+  {
+    return LintCacheScope.table;
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
   @Override
   protected void lint(final Table table, final Connection connection)
   {
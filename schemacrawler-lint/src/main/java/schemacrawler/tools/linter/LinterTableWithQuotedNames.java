@@ -45,6 +45,8 @@ public class LinterTableWithQuotedNames
   extends BaseLinter
 {
 
+  private Identifiers identifiers;
+
   @Override
   public String getSummary()
   {
@@ -52,21 +54,25 @@ public class LinterTableWithQuotedNames
   }
 
   @Override
-  protected void lint(final Table table, final Connection connection)
+  protected void end(final Connection connection)
     throws SchemaCrawlerException
   {
-    requireNonNull(table, "No table provided");
+    identifiers = null;
 
-    Identifiers identifiers;
-    try
-    {
-      identifiers = Identifiers.identifiers().withConnection(connection)
-        .build();
-    }
-    catch (final SQLException e)
-    {
-      throw new SchemaCrawlerException(e.getMessage(), e);
-    }
+    super.end(connection);
+  }
+
+  @Override
+  protected boolean isLintTablesConcurrently()
+  {
+    return true;
+  }
+
+  @Override
+  protected void lint(final Table table, final Connection connection)
+  {
+    requireNonNull(table, "No table provided");
+    requireNonNull(identifiers, "Not initialized");
 
     final String tableName = table.getName();
     if (identifiers.isQuotedName(tableName))
@@ -82,6 +88,23 @@ public class LinterTableWithQuotedNames
     }
   }
 
+  @Override
+  protected void start(final Connection connection)
+    throws SchemaCrawlerException
+  {
+    super.start(connection);
+
+    try
+    {
+      identifiers = Identifiers.identifiers().withConnection(connection)
+        .build();
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException(e.getMessage(), e);
+    }
+  }
+
   private List<String> findColumnsWithQuotedNames(final List<Column> columns,
                                                   final Identifiers identifiers)
   {
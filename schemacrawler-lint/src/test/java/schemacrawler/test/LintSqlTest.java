@@ -49,16 +49,28 @@ public class LintSqlTest
   public void executableLintSQLReport()
     throws Exception
   {
-    executeLintExecutable(TextOutputFormat.text, "executableLintSQLReport");
+    executeLintExecutable("/schemacrawler-linter-configs-sql.xml",
+                          TextOutputFormat.text,
+                          "executableLintSQLReport");
   }
 
-  private void executeLintExecutable(final OutputFormat outputFormat,
+  @Test
+  public void executableLintSQLReportBatched()
+    throws Exception
+  {
+    executeLintExecutable("/schemacrawler-linter-configs-sql-batched.xml",
+                          TextOutputFormat.text,
+                          "executableLintSQLReport");
+  }
+
+  private void executeLintExecutable(final String linterConfigsResource,
+                                     final OutputFormat outputFormat,
                                      final String referenceFileName)
     throws Exception
   {
     final SchemaCrawlerExecutable lintExecutable = new SchemaCrawlerExecutable("lint");
 
-    final Path linterConfigsFile = copyResourceToTempFile("/schemacrawler-linter-configs-sql.xml");
+    final Path linterConfigsFile = copyResourceToTempFile(linterConfigsResource);
     final LintOptionsBuilder optionsBuilder = new LintOptionsBuilder();
     optionsBuilder.withLinterConfigs(linterConfigsFile.toString());
 
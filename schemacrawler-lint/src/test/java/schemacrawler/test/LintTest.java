@@ -31,13 +31,20 @@ package schemacrawler.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.Config;
 import schemacrawler.schemacrawler.RegularExpressionExclusionRule;
 import schemacrawler.schemacrawler.RegularExpressionInclusionRule;
@@ -45,7 +52,9 @@ import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.test.utility.BaseDatabaseTest;
 import schemacrawler.test.utility.TestWriter;
 import schemacrawler.tools.lint.Lint;
+import schemacrawler.tools.lint.LintCache;
 import schemacrawler.tools.lint.LintCollector;
+import schemacrawler.tools.lint.LintSeverity;
 import schemacrawler.tools.lint.LintedCatalog;
 import schemacrawler.tools.lint.LinterConfig;
 import schemacrawler.tools.lint.LinterConfigs;
@@ -107,6 +116,154 @@ public class LintTest
     }
   }
 
+  @Test
+  public void lintsInParallel()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions
+      .setTableTypes(Arrays.asList("TABLE", "VIEW", "GLOBAL TEMPORARY"));
+    schemaCrawlerOptions
+      .setSchemaInclusionRule(new RegularExpressionInclusionRule(".*FOR_LINT"));
+
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    assertNotNull(catalog);
+
+    final LinterConfigs linterConfigs = new LinterConfigs(new Config());
+    final LinterConfig linterConfig = new LinterConfig("schemacrawler.tools.linter.LinterTableWithBadlyNamedColumns");
+    linterConfig.setThreshold(0);
+    linterConfig.put("bad-column-names", ".*\\.COUNTRY");
+    linterConfigs.add(linterConfig);
+
+    final Linters linters = new Linters(linterConfigs);
+    linters.setLintParallelism(4);
+
+    final LintedCatalog lintedDatabase = new LintedCatalog(catalog,
+                                                           getConnection(),
+                                                           linters);
+    final LintCollector lintCollector = lintedDatabase.getCollector();
+    assertEquals(56, lintCollector.size());
+
+    try (final TestWriter out = new TestWriter("text");)
+    {
+      for (final Lint<?> lint: lintCollector)
+      {
+        out.println(lint);
+      }
+
+      out.assertEquals(LINTS_OUTPUT + "schemacrawler.lints.txt");
+    }
+
+    try (final TestWriter out = new TestWriter("text");)
+    {
+      out.println(linters.getLintSummary());
+      out.assertEquals(LINTS_OUTPUT + "schemacrawler.lints.summary.txt");
+    }
+  }
+
+  @Test
+  public void lintsForObjects()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions
+      .setTableTypes(Arrays.asList("TABLE", "VIEW", "GLOBAL TEMPORARY"));
+    schemaCrawlerOptions
+      .setSchemaInclusionRule(new RegularExpressionInclusionRule(".*FOR_LINT"));
+
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    assertNotNull(catalog);
+
+    final Linters linters = new Linters(new LinterConfigs(new Config()));
+    final LintedCatalog lintedDatabase = new LintedCatalog(catalog,
+                                                           getConnection(),
+                                                           linters);
+    final LintCollector lintCollector = lintedDatabase.getCollector();
+
+    // Lints for each object are indexed by severity, with the most
+    // severe lints first
+    int lintCount = LintCollector.getLint(lintedDatabase).size();
+    for (final Table table: lintedDatabase.getTables())
+    {
+      final List<Lint<?>> tableLints = new ArrayList<>(LintCollector
+        .getLint(table));
+      final List<Lint<?>> severityLints = new ArrayList<>();
+      for (final LintSeverity severity: LintCollector.getSeverities())
+      {
+        severityLints.addAll(LintCollector.getLint(table, severity));
+      }
+      assertEquals(tableLints, severityLints);
+      lintCount += tableLints.size();
+    }
+    assertEquals(lintCollector.size(), lintCount);
+
+    int iteratedLintCount = 0;
+    for (final Lint<?> lint: lintCollector)
+    {
+      assertNotNull(lint);
+      iteratedLintCount++;
+    }
+    assertEquals(lintCollector.size(), iteratedLintCount);
+  }
+
+  @Test
+  public void lintsWithCache()
+    throws Exception
+  {
+    final Path cacheDirectory = Files.createTempDirectory("schemacrawler");
+
+    // First run lints all tables, and caches the lints, and the second
+    // run adds the same lints from the cache
+    for (int run = 1; run <= 2; run++)
+    {
+      final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+      schemaCrawlerOptions
+        .setTableTypes(Arrays.asList("TABLE", "VIEW", "GLOBAL TEMPORARY"));
+      schemaCrawlerOptions
+        .setSchemaInclusionRule(new RegularExpressionInclusionRule(".*FOR_LINT"));
+
+      final Catalog catalog = getCatalog(schemaCrawlerOptions);
+      assertNotNull(catalog);
+
+      final LinterConfigs linterConfigs = new LinterConfigs(new Config());
+      final LinterConfig linterConfig = new LinterConfig("schemacrawler.tools.linter.LinterTableWithBadlyNamedColumns");
+      linterConfig.setThreshold(0);
+      linterConfig.put("bad-column-names", ".*\\.COUNTRY");
+      linterConfigs.add(linterConfig);
+
+      final Linters linters = new Linters(linterConfigs);
+      linters.setLintCache(new LintCache(cacheDirectory));
+      linters.setLintParallelism(run);
+
+      final LintedCatalog lintedDatabase = new LintedCatalog(catalog,
+                                                             getConnection(),
+                                                             linters);
+      final LintCollector lintCollector = lintedDatabase.getCollector();
+      assertEquals(56, lintCollector.size());
+
+      try (final Stream<Path> cacheFiles = Files.list(cacheDirectory);)
+      {
+        assertTrue("Lints were not cached", cacheFiles.count() > 0);
+      }
+
+      try (final TestWriter out = new TestWriter("text");)
+      {
+        for (final Lint<?> lint: lintCollector)
+        {
+          out.println(lint);
+        }
+
+        out.assertEquals(LINTS_OUTPUT + "schemacrawler.lints.txt");
+      }
+
+      try (final TestWriter out = new TestWriter("text");)
+      {
+        out.println(linters.getLintSummary());
+        out.assertEquals(LINTS_OUTPUT + "schemacrawler.lints.summary.txt");
+      }
+    }
+  }
+
   @Test
   public void lintsWithExcludedColumns()
     throws Exception
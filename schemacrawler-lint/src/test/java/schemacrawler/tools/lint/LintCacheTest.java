@@ -0,0 +1,115 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.lint;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.RegularExpressionInclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.tools.linter.LinterTableWithNoRemarks;
+
+public class LintCacheTest
+  extends BaseDatabaseTest
+{
+
+  @Test
+  public void saveMergesWithCachedLints()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions
+      .setTableTypes(Arrays.asList("TABLE", "VIEW", "GLOBAL TEMPORARY"));
+    schemaCrawlerOptions
+      .setSchemaInclusionRule(new RegularExpressionInclusionRule(".*FOR_LINT"));
+    final Catalog catalog = getCatalog(schemaCrawlerOptions);
+    final List<Table> tables = new ArrayList<>(catalog.getTables());
+    assertTrue("Not enough tables", tables.size() > 2);
+    final Table linted = tables.get(0);
+    final Table notCached = tables.get(1);
+
+    final LintCache lintCache = new LintCache(Files
+      .createTempDirectory("schemacrawler"));
+    final Linter linter = new LinterTableWithNoRemarks();
+
+    // First run caches lints for all tables
+    final LintCache.LinterLints firstRun = lintCache.open(linter, catalog);
+    for (final Table table: tables)
+    {
+      firstRun.cacheTableLints(table, Collections.emptyList());
+    }
+    firstRun.save();
+
+    // Second run lints only some tables, and one of them has lints
+    // that cannot be cached
+    final LintCache.LinterLints secondRun = lintCache.open(linter, catalog);
+    secondRun.cacheTableLints(linted, Collections.emptyList());
+    final Lint<?> lint = new Lint<>(linter.getLinterId(),
+                                    linter.getLinterInstanceId(),
+                                    notCached,
+                                    LintSeverity.medium,
+                                    "not cached",
+                                    notCached.getSchema());
+    secondRun.cacheTableLints(notCached, Collections.singletonList(lint));
+    secondRun.save();
+
+    final LintCache.LinterLints thirdRun = lintCache.open(linter, catalog);
+    assertFalse("Lints that could not be cached were kept, " + notCached,
+                thirdRun.lintTableFromCache(notCached));
+    for (final Table table: tables)
+    {
+      if (table != notCached)
+      {
+        assertTrue("Cached lints were lost, " + table,
+                   thirdRun.lintTableFromCache(table));
+      }
+    }
+
+    try (final Stream<Path> cacheFiles = Files
+      .list(lintCache.getCacheDirectory());)
+    {
+      assertEquals(1, cacheFiles.count());
+    }
+  }
+
+}
@@ -32,9 +32,11 @@ package schemacrawler.tools.offline;
 import static java.util.Objects.requireNonNull;
 import static schemacrawler.filter.FilterFactory.routineFilter;
 import static schemacrawler.filter.FilterFactory.tableFilter;
+import static schemacrawler.tools.integration.serialization.BinarySerializedCatalog.isBinarySnapshot;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -53,10 +55,13 @@ import schemacrawler.schema.Sequence;
 import schemacrawler.schema.Synonym;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.InclusionRule;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.executable.BaseExecutable;
 import schemacrawler.tools.executable.SchemaCrawlerExecutable;
 import schemacrawler.tools.executable.StagedExecutable;
+import schemacrawler.tools.integration.serialization.BinarySerializedCatalog;
 import schemacrawler.tools.integration.serialization.XmlSerializedCatalog;
 import schemacrawler.tools.offline.jdbc.OfflineConnection;
 import schemacrawler.tools.options.OutputOptions;
@@ -88,11 +93,20 @@ public class OfflineSnapshotExecutable
   {
     checkConnection(connection);
 
-    inputOptions = new OutputOptions();
-    inputOptions.setCompressedInputFile(((OfflineConnection) connection)
-      .getOfflineDatabasePath());
+    final Path offlineDatabasePath = ((OfflineConnection) connection)
+      .getOfflineDatabasePath();
+    final Catalog catalog;
+    if (isBinarySnapshot(offlineDatabasePath))
+    {
+      catalog = loadBinaryCatalog(offlineDatabasePath);
+    }
+    else
+    {
+      inputOptions = new OutputOptions();
+      inputOptions.setCompressedInputFile(offlineDatabasePath);
 
-    final Catalog catalog = loadCatalog();
+      catalog = loadCatalog();
+    }
 
     executeOn(catalog, connection);
   }
@@ -143,6 +157,29 @@ public class OfflineSnapshotExecutable
     }
   }
 
+  /**
+   * Loads only the tables that are selected by name from a binary
+   * snapshot, unless related tables are also needed.
+   */
+  private Catalog loadBinaryCatalog(final Path offlineDatabasePath)
+    throws SchemaCrawlerException
+  {
+    final InclusionRule tableInclusionRule;
+    if (schemaCrawlerOptions.getChildTableFilterDepth() > 0
+        || schemaCrawlerOptions.getParentTableFilterDepth() > 0)
+    {
+      tableInclusionRule = new IncludeAll();
+    }
+    else
+    {
+      tableInclusionRule = schemaCrawlerOptions.getTableInclusionRule();
+    }
+    return new BinarySerializedCatalog(offlineDatabasePath,
+                                       schemaCrawlerOptions
+                                         .getSchemaInclusionRule(),
+                                       tableInclusionRule);
+  }
+
   private Catalog loadCatalog()
     throws SchemaCrawlerException
   {
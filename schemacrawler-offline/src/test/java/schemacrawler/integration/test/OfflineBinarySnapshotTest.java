@@ -0,0 +1,135 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.integration.test;
+
+
+import static java.nio.file.Files.size;
+import static org.junit.Assert.assertTrue;
+import static schemacrawler.test.utility.TestUtility.createTempFile;
+import static schemacrawler.test.utility.TestUtility.flattenCommandlineArgs;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import schemacrawler.Main;
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.ExcludeAll;
+import schemacrawler.schemacrawler.RegularExpressionInclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.test.utility.TestWriter;
+import schemacrawler.tools.executable.SchemaCrawlerExecutable;
+import schemacrawler.tools.integration.serialization.BinarySerializedCatalog;
+import schemacrawler.tools.offline.OfflineSnapshotExecutable;
+import schemacrawler.tools.offline.jdbc.OfflineConnection;
+import schemacrawler.tools.options.OutputOptions;
+
+public class OfflineBinarySnapshotTest
+  extends BaseDatabaseTest
+{
+
+  private static final String OFFLINE_EXECUTABLE_OUTPUT = "offline_executable_output/";
+  private Path serializedDatabaseFile;
+
+  @Test
+  public void offlineBinarySnapshotCommandLine()
+    throws Exception
+  {
+    try (final TestWriter out = new TestWriter("text");)
+    {
+      final Map<String, String> argsMap = new HashMap<>();
+      argsMap.put("server", "offline");
+      argsMap.put("database", serializedDatabaseFile.toString());
+
+      argsMap.put("noinfo", "true");
+      argsMap.put("infolevel", "maximum");
+      argsMap.put("command", "details");
+      argsMap.put("outputformat", "text");
+      argsMap.put("routines", "");
+      argsMap.put("tables", ".*SALES");
+      argsMap.put("outputfile", out.toString());
+
+      Main.main(flattenCommandlineArgs(argsMap));
+
+      out.assertEquals(OFFLINE_EXECUTABLE_OUTPUT + "offlineWithFilters.txt");
+    }
+  }
+
+  @Test
+  public void offlineBinarySnapshotExecutable()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+    schemaCrawlerOptions
+      .setTableInclusionRule(new RegularExpressionInclusionRule(".*SALES"));
+    schemaCrawlerOptions.setRoutineInclusionRule(new ExcludeAll());
+
+    final Config config = new Config();
+    config.put("schemacrawler.format.no_info", "true");
+
+    final OfflineSnapshotExecutable executable = new OfflineSnapshotExecutable("details");
+    executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    executable.setAdditionalConfiguration(config);
+
+    try (final TestWriter out = new TestWriter("text");)
+    {
+      executable.setOutputOptions(new OutputOptions("text", out));
+      executable.execute(new OfflineConnection(serializedDatabaseFile));
+
+      out.assertEquals(OFFLINE_EXECUTABLE_OUTPUT + "offlineWithFilters.txt");
+    }
+  }
+
+  @Before
+  public void serializeCatalog()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.maximum());
+
+    serializedDatabaseFile = createTempFile("schemacrawler", "ser");
+
+    final SchemaCrawlerExecutable executable = new SchemaCrawlerExecutable("serialize");
+    executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    executable.setOutputOptions(new OutputOptions("binary",
+                                                  serializedDatabaseFile));
+    executable.execute(getConnection());
+
+    assertTrue("Database was not serialized", size(serializedDatabaseFile) > 0);
+    assertTrue("Database was not serialized to a binary snapshot",
+               BinarySerializedCatalog
+                 .isBinarySnapshot(serializedDatabaseFile));
+  }
+
+}
@@ -57,7 +57,11 @@ public final class OracleDatabaseConnector
   {
     final DatabaseSpecificOverrideOptionsBuilder databaseSpecificOverrideOptionsBuilder = super.getDatabaseSpecificOverrideOptionsBuilder();
     databaseSpecificOverrideOptionsBuilder
-      .withTableColumnRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all);
+      .withTableColumnRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all)
+      .withIndexRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all)
+      .withPrimaryKeyRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all)
+      .withForeignKeyRetrievalStrategy(MetadataRetrievalStrategy.data_dictionary_all)
+      .withMetadataFetchSize(500).withAdaptiveMetadataFetchSize();
     return databaseSpecificOverrideOptionsBuilder;
   }
 
@@ -0,0 +1,14 @@
+SELECT /*+ PARALLEL(AUTO) */
+  NULL AS TABLE_CATALOG,
+  OBJECTS.OWNER AS TABLE_SCHEMA,
+  OBJECTS.OBJECT_NAME AS TABLE_NAME,
+  TO_CHAR(OBJECTS.LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') AS LAST_DDL_TIME
+FROM
+  ALL_OBJECTS OBJECTS
+WHERE
+  REGEXP_LIKE(OBJECTS.OWNER, '${schemas}')
+  AND OBJECTS.OBJECT_TYPE IN ('TABLE', 'VIEW')
+  AND OBJECTS.OBJECT_NAME NOT LIKE 'BIN$%'
+ORDER BY
+  TABLE_SCHEMA,
+  TABLE_NAME
@@ -0,0 +1,14 @@
+SELECT /*+ PARALLEL(AUTO) */
+  NULL AS TABLE_CATALOG,
+  TABLES.OWNER AS TABLE_SCHEMA,
+  TABLES.TABLE_NAME,
+  TABLES.NUM_ROWS AS ROW_COUNT
+FROM
+  ALL_TABLES TABLES
+WHERE
+  REGEXP_LIKE(TABLES.OWNER, '${schemas}')
+  AND TABLES.NUM_ROWS IS NOT NULL
+  AND TABLES.TABLE_NAME NOT LIKE 'BIN$%'
+ORDER BY
+  TABLE_SCHEMA,
+  TABLE_NAME
@@ -0,0 +1,12 @@
+SELECT
+  DB_NAME() AS TABLE_CATALOG,
+  SCHEMA_NAME(OBJECTS.SCHEMA_ID) AS TABLE_SCHEMA,
+  OBJECTS.NAME AS TABLE_NAME,
+  CONVERT(VARCHAR(30), OBJECTS.MODIFY_DATE, 126) AS LAST_DDL_TIME
+FROM
+  SYS.OBJECTS OBJECTS
+WHERE
+  OBJECTS.TYPE IN ('U', 'V')
+ORDER BY
+  TABLE_SCHEMA,
+  TABLE_NAME
@@ -0,0 +1,17 @@
+SELECT
+  DB_NAME() AS TABLE_CATALOG,
+  SCHEMA_NAME(TABLES.SCHEMA_ID) AS TABLE_SCHEMA,
+  TABLES.NAME AS TABLE_NAME,
+  SUM(PARTITIONS.ROWS) AS ROW_COUNT
+FROM
+  SYS.TABLES TABLES
+  INNER JOIN SYS.PARTITIONS PARTITIONS
+    ON PARTITIONS.OBJECT_ID = TABLES.OBJECT_ID
+WHERE
+  PARTITIONS.INDEX_ID IN (0, 1)
+GROUP BY
+  TABLES.SCHEMA_ID,
+  TABLES.NAME
+ORDER BY
+  TABLE_SCHEMA,
+  TABLE_NAME
@@ -30,19 +30,19 @@ package schemacrawler.tools.analysis.associations;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 
+import schemacrawler.schema.Column;
 import schemacrawler.schema.ColumnReference;
 import schemacrawler.schema.ForeignKey;
 import schemacrawler.schema.ForeignKeyColumnReference;
 import schemacrawler.schema.Table;
+import sf.util.Multimap;
 
 final class ForeignKeys
 {
 
-  private final Collection<ColumnReference> foreignKeys;
+  private final Multimap<Column, ColumnReference> foreignKeys;
 
   ForeignKeys(final List<Table> tables)
   {
@@ -56,9 +56,16 @@ final class ForeignKeys
       return false;
     }
 
-    // We have to loop through the collection, since we want to use the
-    // equals from the WeakAssociation
-    for (final ColumnReference foreignKey: foreignKeys)
+    // We have to loop through the column references, since we want to
+    // use the equals from the WeakAssociation, but only references from
+    // the same foreign key column can be equal
+    final List<ColumnReference> columnReferences = foreignKeys
+      .get(columnMap.getForeignKeyColumn());
+    if (columnReferences == null)
+    {
+      return false;
+    }
+    for (final ColumnReference foreignKey: columnReferences)
     {
       final boolean equals = columnMap.equals(foreignKey);
       if (equals)
@@ -75,18 +82,18 @@ final class ForeignKeys
     return foreignKeys.toString();
   }
 
-  private Collection<ColumnReference> mapForeignKeyColumns(final List<Table> tables)
+  private Multimap<Column, ColumnReference> mapForeignKeyColumns(final List<Table> tables)
   {
     requireNonNull(tables);
 
-    final Collection<ColumnReference> fkColumnsMap = new HashSet<>();
+    final Multimap<Column, ColumnReference> fkColumnsMap = new Multimap<>();
     for (final Table table: tables)
     {
       for (final ForeignKey foreignKey: table.getForeignKeys())
       {
         for (final ForeignKeyColumnReference columnRef: foreignKey)
         {
-          fkColumnsMap.add(columnRef);
+          fkColumnsMap.add(columnRef.getForeignKeyColumn(), columnRef);
         }
       }
     }
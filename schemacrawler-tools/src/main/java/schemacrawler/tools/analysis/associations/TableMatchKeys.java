@@ -32,10 +32,12 @@ import static java.util.Objects.requireNonNull;
 import static sf.util.Utility.isBlank;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -45,7 +47,6 @@ import schemacrawler.schema.Table;
 import sf.util.Multimap;
 import sf.util.ObjectToString;
 import sf.util.StringFormat;
-import sf.util.Utility;
 
 final class TableMatchKeys
 {
@@ -83,7 +84,7 @@ final class TableMatchKeys
       return;
     }
 
-    final Collection<String> prefixes = findTableNamePrefixes(tables);
+    final List<String> prefixes = findTableNamePrefixes(tables);
     mapTableNameMatches(tables, prefixes);
     if (LOGGER.isLoggable(Level.FINE))
     {
@@ -96,77 +97,116 @@ final class TableMatchKeys
   }
 
   /**
-   * Finds table prefixes. A prefix ends with "_".
+   * Counts pairs of table names by their longest common prefix, for
+   * common prefixes that end with "_". Each table name is walked once,
+   * counting the tables under every prefix that ends with "_", and the
+   * pairs of tables that continue past the prefix with the same
+   * character, or that have the prefix as their full name. Pairs that
+   * continue together have a longer common prefix, and identical names
+   * have no common prefix, so neither is counted for the prefix.
+   *
+   * @param tables
+   *        Tables
+   * @return Number of pairs of table names for each common prefix
+   */
+  private Map<String, Long> countCommonPrefixPairs(final List<Table> tables)
+  {
+    final Map<String, Integer> tableCounts = new HashMap<>();
+    final Map<String, Long> longerPrefixPairs = new HashMap<>();
+    final Map<String, Integer> extensionCounts = new HashMap<>();
+    final Map<String, Integer> nameCounts = new HashMap<>();
+    for (final Table table: tables)
+    {
+      final String tableName = table.getName();
+      for (int i = 0; i < tableName.length(); i++)
+      {
+        if (tableName.charAt(i) != '_')
+        {
+          continue;
+        }
+
+        final String prefix = tableName.substring(0, i + 1);
+        tableCounts.merge(prefix, 1, Integer::sum);
+
+        final int previousCount;
+        if (i + 1 < tableName.length())
+        {
+          previousCount = extensionCounts
+            .merge(tableName.substring(0, i + 2), 1, Integer::sum) - 1;
+        }
+        else
+        {
+          previousCount = nameCounts.merge(prefix, 1, Integer::sum) - 1;
+        }
+        longerPrefixPairs.merge(prefix, (long) previousCount, Long::sum);
+      }
+    }
+
+    final Map<String, Long> pairCounts = new HashMap<>();
+    for (final Map.Entry<String, Integer> tableCount: tableCounts.entrySet())
+    {
+      final String prefix = tableCount.getKey();
+      final long count = tableCount.getValue();
+      final long pairCount = count * (count - 1) / 2
+                             - longerPrefixPairs.get(prefix);
+      if (pairCount > 0)
+      {
+        pairCounts.put(prefix, pairCount);
+      }
+    }
+    return pairCounts;
+  }
+
+  /**
+   * Finds table prefixes. A prefix ends with "_". Prefixes are counted
+   * once for each pair of tables that share them, but pairs are grouped
+   * by their common prefix, rather than compared one by one.
    *
    * @param tables
    *        Tables
    * @return Table name prefixes
    */
-  private Collection<String> findTableNamePrefixes(final List<Table> tables)
+  private List<String> findTableNamePrefixes(final List<Table> tables)
   {
-    final SortedMap<String, Integer> prefixesMap = new TreeMap<>();
-    for (int i = 0; i < tables.size(); i++)
+    final SortedMap<String, Long> prefixesMap = new TreeMap<>();
+    for (final Map.Entry<String, Long> pairCount: countCommonPrefixPairs(tables)
+      .entrySet())
     {
-      for (int j = i + 1; j < tables.size(); j++)
+      final String commonPrefix = pairCount.getKey().toLowerCase();
+      final List<String> splitCommonPrefixes = new ArrayList<>();
+      final String[] splitPrefix = commonPrefix.split("_");
+      if (splitPrefix != null && splitPrefix.length > 0)
       {
-        final String table1 = tables.get(i).getName();
-        final String table2 = tables.get(j).getName();
-        final String commonPrefix = Utility.commonPrefix(table1, table2);
-        if (!isBlank(commonPrefix) && commonPrefix.endsWith("_"))
+        for (int k = 0; k < splitPrefix.length; k++)
         {
-          final List<String> splitCommonPrefixes = new ArrayList<>();
-          final String[] splitPrefix = commonPrefix.split("_");
-          if (splitPrefix != null && splitPrefix.length > 0)
+          final StringBuilder buffer = new StringBuilder(1024);
+          for (int l = 0; l < k; l++)
           {
-            for (int k = 0; k < splitPrefix.length; k++)
-            {
-              final StringBuilder buffer = new StringBuilder(1024);
-              for (int l = 0; l < k; l++)
-              {
-                buffer.append(splitPrefix[l]).append("_");
-              }
-              if (buffer.length() > 0)
-              {
-                splitCommonPrefixes.add(buffer.toString());
-              }
-            }
+            buffer.append(splitPrefix[l]).append("_");
           }
-          splitCommonPrefixes.add(commonPrefix);
-
-          for (final String splitCommonPrefix: splitCommonPrefixes)
+          if (buffer.length() > 0)
           {
-            final int prevCount;
-            if (prefixesMap.containsKey(splitCommonPrefix))
-            {
-              prevCount = prefixesMap.get(splitCommonPrefix);
-            }
-            else
-            {
-              prevCount = 0;
-            }
-            prefixesMap.put(splitCommonPrefix, prevCount + 1);
+            splitCommonPrefixes.add(buffer.toString());
           }
         }
       }
-    }
+      splitCommonPrefixes.add(commonPrefix);
 
-    // Make sure we have the smallest prefixes
-    final List<String> keySet = new ArrayList<>(prefixesMap.keySet());
-    Collections.sort(keySet, (o1, o2) -> {
-      int comparison = 0;
-      comparison = o2.length() - o1.length();
-      if (comparison == 0)
+      for (final String splitCommonPrefix: splitCommonPrefixes)
       {
-        comparison = o2.compareTo(o1);
+        prefixesMap.merge(splitCommonPrefix, pairCount.getValue(), Long::sum);
       }
-      return comparison;
-    });
-    for (int i = 0; i < keySet.size(); i++)
+    }
+
+    // Make sure we have the smallest prefixes, by removing prefixes
+    // that start with a shorter prefix
+    final Set<String> keySet = new HashSet<>(prefixesMap.keySet());
+    for (final String longPrefix: keySet)
     {
-      for (int j = i + 1; j < keySet.size(); j++)
+      for (int i = 0; i < longPrefix.length() - 1; i++)
       {
-        final String longPrefix = keySet.get(i);
-        if (longPrefix.startsWith(keySet.get(j)))
+        if (longPrefix.charAt(i) == '_'
+            && keySet.contains(longPrefix.substring(0, i + 1)))
         {
           prefixesMap.remove(longPrefix);
           break;
@@ -176,7 +216,7 @@ final class TableMatchKeys
 
     // Sort prefixes by the number of tables using them, in descending
     // order
-    final List<Map.Entry<String, Integer>> prefixesList = new ArrayList<>(prefixesMap
+    final List<Map.Entry<String, Long>> prefixesList = new ArrayList<>(prefixesMap
       .entrySet());
     Collections.sort(prefixesList,
                      (o1, o2) -> o1.getValue().compareTo(o2.getValue()));
@@ -197,24 +237,57 @@ final class TableMatchKeys
     return prefixes;
   }
 
+  /**
+   * Maps tables to match keys, by removing each matching prefix from
+   * the table name. Prefixes are looked up by the positions of "_" in
+   * the table name, rather than compared with every table.
+   *
+   * @param tables
+   *        Tables
+   * @param prefixes
+   *        Table name prefixes, in order of preference
+   */
   private void mapTableNameMatches(final List<Table> tables,
-                                   final Collection<String> prefixes)
+                                   final List<String> prefixes)
   {
+    final Map<String, Integer> prefixIndexes = new HashMap<>();
+    for (final String prefix: prefixes)
+    {
+      prefixIndexes.putIfAbsent(prefix, prefixIndexes.size());
+    }
+    final Map<String, String> singulars = new HashMap<>();
+
     for (final Table table: tables)
     {
-      for (final String prefix: prefixes)
+      final String tableName = table.getName().toLowerCase();
+
+      final List<Integer> matchingPrefixIndexes = new ArrayList<>();
+      matchingPrefixIndexes.add(prefixIndexes.get(""));
+      for (int i = 0; i < tableName.length(); i++)
       {
-        String matchTableName = table.getName().toLowerCase();
-        if (matchTableName.startsWith(prefix))
+        if (tableName.charAt(i) == '_')
         {
-          matchTableName = matchTableName.substring(prefix.length());
-          matchTableName = Inflection.singularize(matchTableName);
-          if (!isBlank(matchTableName))
+          final Integer prefixIndex = prefixIndexes
+            .get(tableName.substring(0, i + 1));
+          if (prefixIndex != null)
           {
-            tableKeys.add(table, matchTableName);
+            matchingPrefixIndexes.add(prefixIndex);
           }
         }
       }
+      Collections.sort(matchingPrefixIndexes);
+
+      for (final int prefixIndex: matchingPrefixIndexes)
+      {
+        final String prefix = prefixes.get(prefixIndex);
+        final String matchTableName = singulars
+          .computeIfAbsent(tableName.substring(prefix.length()),
+                           Inflection::singularize);
+        if (!isBlank(matchTableName))
+        {
+          tableKeys.add(table, matchTableName);
+        }
+      }
     }
   }
 
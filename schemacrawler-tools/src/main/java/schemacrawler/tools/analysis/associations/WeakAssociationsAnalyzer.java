@@ -29,8 +29,10 @@ package schemacrawler.tools.analysis.associations;
 
 
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 import static schemacrawler.tools.analysis.associations.WeakAssociationsUtility.addWeakAssociationToTable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -88,6 +90,12 @@ final class WeakAssociationsAnalyzer
                               weakFk);
   }
 
+  /**
+   * Finds weak associations for all tables. Tables are analyzed in
+   * parallel, since the match keys and foreign keys are only read, but
+   * weak associations are added in table order, so that results do not
+   * depend on the order in which tables are analyzed.
+   */
   private void findWeakAssociations(final List<Table> tables)
   {
     LOGGER.log(Level.INFO, "Finding weak associations");
@@ -102,55 +110,82 @@ final class WeakAssociationsAnalyzer
       LOGGER.log(Level.FINER,
                  new StringFormat("Column match keys <%s>", tableMatchKeys));
     }
-    for (final Table table: tables)
+
+    final List<List<WeakAssociation>> tablesWeakAssociations = tables
+      .parallelStream()
+      .map(table -> findWeakAssociations(table,
+                                         foreignKeys,
+                                         columnMatchKeysMap,
+                                         tableMatchKeys))
+      .collect(toList());
+    for (final List<WeakAssociation> tableWeakAssociations: tablesWeakAssociations)
+    {
+      for (final WeakAssociation weakAssociation: tableWeakAssociations)
+      {
+        addWeakAssociation(weakAssociation);
+      }
+    }
+  }
+
+  private List<WeakAssociation> findWeakAssociations(final Table table,
+                                                     final ForeignKeys foreignKeys,
+                                                     final ColumnMatchKeysMap columnMatchKeysMap,
+                                                     final TableMatchKeys tableMatchKeys)
+  {
+    final List<WeakAssociation> tableWeakAssociations = new ArrayList<>();
+
+    final TableCandidateKeys tableCandidateKeys = new TableCandidateKeys(table);
+    LOGGER
+      .log(Level.FINER,
+           new StringFormat("Table candidate keys <%s>", tableCandidateKeys));
+    for (final Column pkColumn: tableCandidateKeys)
     {
-      final TableCandidateKeys tableCandidateKeys = new TableCandidateKeys(table);
-      LOGGER
-        .log(Level.FINER,
-             new StringFormat("Table candidate keys <%s>", tableCandidateKeys));
-      for (final Column pkColumn: tableCandidateKeys)
+      final Set<String> fkColumnMatchKeys = new HashSet<>();
+      // Look for all columns matching this table match key
+      if (pkColumn.isPartOfPrimaryKey())
       {
-        final Set<String> fkColumnMatchKeys = new HashSet<>();
-        // Look for all columns matching this table match key
-        if (pkColumn.isPartOfPrimaryKey())
+        final List<String> tableKeys = tableMatchKeys.get(table);
+        if (tableKeys != null)
         {
-          fkColumnMatchKeys.addAll(tableMatchKeys.get(table));
+          fkColumnMatchKeys.addAll(tableKeys);
         }
-        // Look for all columns matching this column match key
-        if (columnMatchKeysMap.containsKey(pkColumn))
+      }
+      // Look for all columns matching this column match key
+      if (columnMatchKeysMap.containsKey(pkColumn))
+      {
+        fkColumnMatchKeys.addAll(columnMatchKeysMap.get(pkColumn));
+      }
+
+      final Set<Column> fkColumns = new HashSet<>();
+      for (final String fkColumnMatchKey: fkColumnMatchKeys)
+      {
+        if (columnMatchKeysMap.containsKey(fkColumnMatchKey))
         {
-          fkColumnMatchKeys.addAll(columnMatchKeysMap.get(pkColumn));
+          fkColumns.addAll(columnMatchKeysMap.get(fkColumnMatchKey));
         }
+      }
 
-        final Set<Column> fkColumns = new HashSet<>();
-        for (final String fkColumnMatchKey: fkColumnMatchKeys)
+      for (final Column fkColumn: fkColumns)
+      {
+        if (pkColumn.equals(fkColumn))
         {
-          if (columnMatchKeysMap.containsKey(fkColumnMatchKey))
-          {
-            fkColumns.addAll(columnMatchKeysMap.get(fkColumnMatchKey));
-          }
+          continue;
         }
 
-        for (final Column fkColumn: fkColumns)
+        final WeakAssociation weakAssociation = new WeakAssociation(pkColumn,
+                                                                    fkColumn);
+        if (weakAssociation.isValid()
+            && !foreignKeys.contains(weakAssociation))
         {
-          if (pkColumn.equals(fkColumn))
-          {
-            continue;
-          }
-
-          final WeakAssociation weakAssociation = new WeakAssociation(pkColumn,
-                                                                      fkColumn);
-          if (weakAssociation.isValid()
-              && !foreignKeys.contains(weakAssociation))
-          {
-            LOGGER.log(Level.FINE,
-                       new StringFormat("Found weak association <%s>",
-                                        weakAssociation));
-            addWeakAssociation(weakAssociation);
-          }
+          LOGGER.log(Level.FINE,
+                     new StringFormat("Found weak association <%s>",
+                                      weakAssociation));
+          tableWeakAssociations.add(weakAssociation);
         }
       }
     }
+
+    return tableWeakAssociations;
   }
 
 }
@@ -28,8 +28,9 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.analysis.counts;
 
 
+import static java.util.Objects.requireNonNull;
 import static schemacrawler.tools.analysis.counts.CountsUtility.addRowCountToTable;
-import static schemacrawler.utility.QueryUtility.executeForLong;
+import static schemacrawler.tools.analysis.counts.CountsUtility.newRowCountProvider;
 import static sf.util.DatabaseUtility.checkConnection;
 
 import java.sql.Connection;
@@ -40,15 +41,15 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.crawl.TablesReducer;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.BaseCatalogDecorator;
+import schemacrawler.schemacrawler.InclusionRule;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
-import schemacrawler.tools.text.operation.Operation;
-import schemacrawler.utility.Query;
-import sf.util.StringFormat;
 
 public final class CatalogWithCounts
   extends BaseCatalogDecorator
@@ -59,15 +60,79 @@ public final class CatalogWithCounts
 
   private static final long serialVersionUID = -3953296149824921463L;
 
+  private static RowCountOptions newRowCountOptions(final boolean isExactRowCounts)
+  {
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setExactRowCounts(isExactRowCounts);
+    return rowCountOptions;
+  }
+
   private final Map<Table, Long> counts;
 
   public CatalogWithCounts(final Catalog catalog,
                            final Connection connection,
                            final SchemaCrawlerOptions options)
     throws SchemaCrawlerException
+  {
+    this(catalog, connection, options, false);
+  }
+
+  /**
+   * Adds row counts to the tables in a catalog. Row counts are
+   * estimated from database statistics, where the database plugin
+   * supports it, unless exact counts are requested.
+   *
+   * @param catalog
+   *        Catalog to decorate
+   * @param connection
+   *        Database connection
+   * @param options
+   *        SchemaCrawler options
+   * @param isExactRowCounts
+   *        Whether to count the rows in every table
+   */
+  public CatalogWithCounts(final Catalog catalog,
+                           final Connection connection,
+                           final SchemaCrawlerOptions options,
+                           final boolean isExactRowCounts)
+    throws SchemaCrawlerException
+  {
+    this(catalog,
+         connection,
+         null,
+         options,
+         newRowCountOptions(isExactRowCounts));
+  }
+
+  /**
+   * Adds row counts to the tables in a catalog. Row counts are
+   * estimated from database statistics, where the database plugin
+   * supports it, unless exact counts are requested. Exact counts are
+   * made in batches of tables, and on several connections from the data
+   * source at the same time, if the row count options allow it.
+   *
+   * @param catalog
+   *        Catalog to decorate
+   * @param connection
+   *        Database connection
+   * @param dataSource
+   *        Data source for additional connections, or null to count on
+   *        the database connection only
+   * @param options
+   *        SchemaCrawler options
+   * @param rowCountOptions
+   *        Row count options
+   */
+  public CatalogWithCounts(final Catalog catalog,
+                           final Connection connection,
+                           final DataSource dataSource,
+                           final SchemaCrawlerOptions options,
+                           final RowCountOptions rowCountOptions)
+    throws SchemaCrawlerException
   {
     super(catalog);
 
+    requireNonNull(rowCountOptions, "No row count options provided");
     counts = new HashMap<>();
 
     try
@@ -82,23 +147,22 @@ public final class CatalogWithCounts
       return;
     }
 
-    final Query query = Operation.count.getQuery();
+    final InclusionRule schemaInclusionRule = options
+      .getSchemaInclusionRule();
+    final RowCountProvider rowCountProvider = newRowCountProvider(connection,
+                                                                  dataSource,
+                                                                  catalog
+                                                                    .getCrawlInfo(),
+                                                                  schemaInclusionRule,
+                                                                  rowCountOptions);
     final List<Table> allTables = new ArrayList<>(catalog.getTables());
+    counts.putAll(rowCountProvider.getRowCounts(allTables));
     for (final Table table: allTables)
     {
-      try
-      {
-        final long count = executeForLong(query, connection, table);
-        counts.put(table, count);
-        addRowCountToTable(table, count);
-      }
-      catch (final SchemaCrawlerException e)
-      {
-        LOGGER
-          .log(Level.WARNING,
-               e,
-               new StringFormat("Could not get count for table <%s>", table));
-      }
+      final Long count = counts.get(table);
+      addRowCountToTable(table,
+                         count == null? -1: count,
+                         rowCountProvider.isExact());
     }
 
     reduce(Table.class,
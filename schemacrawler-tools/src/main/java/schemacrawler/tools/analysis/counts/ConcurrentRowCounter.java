@@ -0,0 +1,418 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.tools.analysis.counts.ExactRowCountProvider.countRows;
+import static sf.util.DatabaseUtility.createStatement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import sf.util.StringFormat;
+
+/**
+ * Counts the rows in several tables at the same time, each on its own
+ * connection from the data source. Tables may be counted in batches,
+ * with a single query for each batch. Each count query has a timeout.
+ * Since not every driver enforces query timeouts, counts that are still
+ * running after their timeout are cancelled. Tables that could not be
+ * counted have no row count.
+ *
+ * @author Sualeh Fatehi
+ */
+final class ConcurrentRowCounter
+  implements RowCountProvider
+{
+
+  private final class RowCountTask
+    implements Callable<Map<Table, Long>>
+  {
+
+    private final BlockingQueue<Connection> connections;
+    private final List<Table> tables;
+    private volatile long startTime;
+    private volatile Statement statement;
+
+    RowCountTask(final BlockingQueue<Connection> connections,
+                 final List<Table> tables)
+    {
+      this.connections = connections;
+      this.tables = tables;
+    }
+
+    @Override
+    public Map<Table, Long> call()
+      throws Exception
+    {
+      final Connection connection = connections.take();
+      try (final Statement countStatement = createStatement(connection);)
+      {
+        countStatement.setQueryTimeout(queryTimeout);
+        statement = countStatement;
+        startTime = System.nanoTime();
+        final Map<Table, Long> rowCounts = countRows(countStatement,
+                                                     tables,
+                                                     batchSize);
+        for (final Map.Entry<Table, Long> rowCount: rowCounts.entrySet())
+        {
+          RowCountCache.put(crawlTimestamp,
+                            rowCount.getKey(),
+                            rowCount.getValue());
+        }
+        return rowCounts;
+      }
+      finally
+      {
+        statement = null;
+        // Return the connection without waiting, so that it is returned
+        // even if the task is interrupted when it is cancelled; there is
+        // always room, since the queue can hold every connection
+        connections.offer(connection);
+      }
+    }
+
+    /**
+     * Cancels the count query, if it is running.
+     */
+    void cancel()
+    {
+      final Statement runningStatement = statement;
+      if (runningStatement != null)
+      {
+        try
+        {
+          runningStatement.cancel();
+        }
+        catch (final SQLException e)
+        {
+          LOGGER.log(Level.FINE,
+                     e,
+                     new StringFormat("Could not cancel count for tables %s",
+                                      tables));
+        }
+      }
+    }
+
+    /**
+     * Milliseconds until the count queries time out. The timeout is
+     * counted from when the first query starts, not from when the task
+     * is submitted, so a task waiting for a connection is given the
+     * full timeout. A batch of tables is allowed time for the batch
+     * query, and for counting each table on its own if that fails.
+     */
+    long getRemainingMillis()
+    {
+      final long timeoutMillis = getTimeoutMillis();
+      if (startTime == 0)
+      {
+        return timeoutMillis;
+      }
+      final long elapsedMillis = TimeUnit.NANOSECONDS
+        .toMillis(System.nanoTime() - startTime);
+      return timeoutMillis - elapsedMillis;
+    }
+
+    long getTimeoutMillis()
+    {
+      final int queries = tables.size() == 1? 1: tables.size() + 1;
+      return TimeUnit.SECONDS.toMillis((long) queryTimeout * queries);
+    }
+
+    boolean isStarted()
+    {
+      return startTime != 0;
+    }
+
+  }
+
+  private static final Logger LOGGER = Logger
+    .getLogger(ConcurrentRowCounter.class.getName());
+
+  private final DataSource dataSource;
+  private final int concurrency;
+  private final int queryTimeout;
+  private final int batchSize;
+  private final LocalDateTime crawlTimestamp;
+
+  /**
+   * Counts rows on connections from a data source.
+   *
+   * @param dataSource
+   *        Data source for connections
+   * @param options
+   *        Row count options, for concurrency, query timeout and batch
+   *        size
+   * @param crawlTimestamp
+   *        Crawl timestamp of the catalog, used to cache counts, or null
+   *        if counts are not to be cached
+   */
+  ConcurrentRowCounter(final DataSource dataSource,
+                       final RowCountOptions options,
+                       final LocalDateTime crawlTimestamp)
+  {
+    this.dataSource = requireNonNull(dataSource, "No data source provided");
+    requireNonNull(options, "No row count options provided");
+    concurrency = options.getConcurrency();
+    queryTimeout = options.getQueryTimeout();
+    batchSize = options.getBatchSize();
+    this.crawlTimestamp = crawlTimestamp;
+  }
+
+  @Override
+  public long getRowCount(final Table table)
+    throws SchemaCrawlerException
+  {
+    final Long rowCount = getRowCounts(Collections.singletonList(table))
+      .get(table);
+    return rowCount == null? -1: rowCount;
+  }
+
+  /**
+   * Counts the rows in tables. Counts that are already cached for the
+   * crawl are not repeated. Each call opens its own connections, so
+   * counts may be requested from several threads at the same time.
+   *
+   * @param tables
+   *        Tables to count
+   * @return Row counts for the tables that could be counted
+   * @throws SchemaCrawlerException
+   *         On an exception obtaining connections
+   */
+  @Override
+  public Map<Table, Long> getRowCounts(final List<? extends Table> tables)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(tables, "No tables provided");
+
+    final Map<Table, Long> rowCounts = new HashMap<>();
+    final List<Table> uncountedTables = new ArrayList<>();
+    for (final Table table: tables)
+    {
+      final long cachedRowCount = RowCountCache.get(crawlTimestamp, table);
+      if (cachedRowCount >= 0)
+      {
+        rowCounts.put(table, cachedRowCount);
+      }
+      else
+      {
+        uncountedTables.add(table);
+      }
+    }
+    if (uncountedTables.isEmpty())
+    {
+      return rowCounts;
+    }
+
+    final List<List<Table>> batches = new ArrayList<>();
+    for (int i = 0; i < uncountedTables.size(); i = i + batchSize)
+    {
+      batches.add(uncountedTables
+        .subList(i, Math.min(i + batchSize, uncountedTables.size())));
+    }
+
+    final int poolSize = Math.min(concurrency, batches.size());
+    LOGGER.log(Level.INFO,
+               new StringFormat("Counting rows in %d tables, %d at a time",
+                                uncountedTables.size(),
+                                poolSize));
+
+    final BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(poolSize);
+    final List<Connection> openedConnections = new ArrayList<>(poolSize);
+    final List<RowCountTask> tasks = new ArrayList<>(batches.size());
+    final List<Future<Map<Table, Long>>> futures = new ArrayList<>(batches
+      .size());
+    final ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+    try
+    {
+      for (int i = 0; i < poolSize; i++)
+      {
+        final Connection connection = dataSource.getConnection();
+        openedConnections.add(connection);
+        connections.add(connection);
+      }
+
+      long maxTimeoutMillis = 0;
+      for (final List<Table> batch: batches)
+      {
+        final RowCountTask task = new RowCountTask(connections, batch);
+        tasks.add(task);
+        futures.add(executor.submit(task));
+        maxTimeoutMillis = Math.max(maxTimeoutMillis, task.getTimeoutMillis());
+      }
+      // Tasks that have not started are waiting for a thread, so they
+      // are given until every round of tasks could have timed out, and
+      // one more round
+      final long rounds = (batches.size() + poolSize - 1) / poolSize + 1;
+      final long deadline = System.nanoTime()
+                            + TimeUnit.MILLISECONDS
+                              .toNanos(rounds * maxTimeoutMillis);
+
+      for (int i = 0; i < tasks.size(); i++)
+      {
+        rowCounts
+          .putAll(awaitRowCounts(tasks.get(i), futures.get(i), deadline));
+      }
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new SchemaCrawlerException("Row counts were interrupted", e);
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException(e.getMessage(), e);
+    }
+    finally
+    {
+      executor.shutdownNow();
+      for (final RowCountTask task: tasks)
+      {
+        task.cancel();
+      }
+      closeConnections(openedConnections);
+    }
+
+    return rowCounts;
+  }
+
+  @Override
+  public boolean isExact()
+  {
+    return true;
+  }
+
+  /**
+   * Waits for a batch of tables to be counted. If the count has not
+   * finished within the query timeout, or has not started by the
+   * deadline for all counts, it is cancelled, and the tables have no
+   * row count.
+   */
+  private Map<Table, Long> awaitRowCounts(final RowCountTask task,
+                                          final Future<Map<Table, Long>> future,
+                                          final long deadline)
+    throws InterruptedException
+  {
+    try
+    {
+      if (queryTimeout == 0)
+      {
+        return future.get();
+      }
+
+      while (true)
+      {
+        final long waitMillis;
+        if (task.isStarted())
+        {
+          waitMillis = task.getRemainingMillis();
+        }
+        else
+        {
+          waitMillis = Math.min(task.getRemainingMillis(),
+                                TimeUnit.NANOSECONDS
+                                  .toMillis(deadline - System.nanoTime()));
+        }
+        try
+        {
+          return future.get(Math.max(1, waitMillis), TimeUnit.MILLISECONDS);
+        }
+        catch (final TimeoutException e)
+        {
+          if (task.isStarted() && task.getRemainingMillis() <= 0)
+          {
+            LOGGER.log(Level.WARNING,
+                       new StringFormat("Cancelled count for tables %s, after %d seconds",
+                                        task.tables,
+                                        queryTimeout));
+          }
+          else if (!task.isStarted() && deadline - System.nanoTime() <= 0)
+          {
+            LOGGER.log(Level.WARNING,
+                       new StringFormat("Cancelled count for tables %s, which did not start in time",
+                                        task.tables));
+          }
+          else
+          {
+            continue;
+          }
+          task.cancel();
+          future.cancel(true);
+          return Collections.emptyMap();
+        }
+      }
+    }
+    catch (final ExecutionException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e.getCause(),
+                 new StringFormat("Could not count rows for tables %s",
+                                  task.tables));
+      return Collections.emptyMap();
+    }
+  }
+
+  private void closeConnections(final List<Connection> openedConnections)
+  {
+    for (final Connection connection: openedConnections)
+    {
+      try
+      {
+        connection.close();
+      }
+      catch (final SQLException e)
+      {
+        LOGGER.log(Level.WARNING, "Could not close connection", e);
+      }
+    }
+  }
+
+}
@@ -29,16 +29,32 @@ package schemacrawler.tools.analysis.counts;
 
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.utility.SchemaCrawlerUtility.matchDatabaseSpecificOverrideOptions;
 
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import schemacrawler.schema.CrawlInfo;
 import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
 import sf.util.UtilityMarker;
 
 @UtilityMarker
 public final class CountsUtility
 {
 
+  private static final Logger LOGGER = Logger
+    .getLogger(CountsUtility.class.getName());
+
   private static final int UNKNOWN_TABLE_ROW_COUNT = -1;
   private static final String TABLE_ROW_COUNT_KEY = "schemacrawler.table.count";
+  private static final String TABLE_ROW_COUNT_ESTIMATED_KEY = "schemacrawler.table.count.estimated";
 
   public static final long getRowCount(final Table table)
   {
@@ -75,7 +91,15 @@ public final class CountsUtility
 
   public static final String getRowCountMessage(final Table table)
   {
-    return getRowCountMessage(getRowCount(table));
+    final String rowCountMessage = getRowCountMessage(getRowCount(table));
+    if (isRowCountEstimated(table))
+    {
+      return "about " + rowCountMessage;
+    }
+    else
+    {
+      return rowCountMessage;
+    }
   }
 
   public static final boolean hasRowCount(final Table table)
@@ -83,7 +107,138 @@ public final class CountsUtility
     return table != null && table.hasAttribute(TABLE_ROW_COUNT_KEY);
   }
 
-  static void addRowCountToTable(final Table table, final long rowCount)
+  /**
+   * Whether the row count for the table was estimated from database
+   * statistics, rather than counted.
+   *
+   * @param table
+   *        Table
+   * @return Whether the row count is an estimate
+   */
+  public static final boolean isRowCountEstimated(final Table table)
+  {
+    return hasRowCount(table)
+           && table.getAttribute(TABLE_ROW_COUNT_ESTIMATED_KEY, Boolean.FALSE);
+  }
+
+  /**
+   * Creates a row count provider for a connection. Unless exact counts
+   * are requested, row counts are estimated from database statistics,
+   * if the database plugin has a query for them. Otherwise, rows are
+   * counted for each table.
+   *
+   * @param connection
+   *        Database connection
+   * @param schemaInclusionRule
+   *        Schemas to estimate row counts for
+   * @param isExactRowCounts
+   *        Whether to always count rows
+   * @return Row count provider
+   */
+  public static RowCountProvider newRowCountProvider(final Connection connection,
+                                                     final InclusionRule schemaInclusionRule,
+                                                     final boolean isExactRowCounts)
+  {
+    final RowCountOptions options = new RowCountOptions();
+    options.setExactRowCounts(isExactRowCounts);
+    return newRowCountProvider(connection, null, schemaInclusionRule, options);
+  }
+
+  /**
+   * Creates a row count provider for a connection. Unless exact counts
+   * are requested, row counts are estimated from database statistics,
+   * if the database plugin has a query for them. Otherwise, rows are
+   * counted for each table, and the counts are cached for the crawl.
+   *
+   * @param connection
+   *        Database connection
+   * @param crawlInfo
+   *        Crawl information for the catalog, used to cache exact
+   *        counts, or null if counts are not to be cached
+   * @param schemaInclusionRule
+   *        Schemas to estimate row counts for
+   * @param options
+   *        Row count options
+   * @return Row count provider
+   */
+  public static RowCountProvider newRowCountProvider(final Connection connection,
+                                                     final CrawlInfo crawlInfo,
+                                                     final InclusionRule schemaInclusionRule,
+                                                     final RowCountOptions options)
+  {
+    return newRowCountProvider(connection,
+                               null,
+                               crawlInfo,
+                               schemaInclusionRule,
+                               options);
+  }
+
+  /**
+   * Creates a row count provider for a connection. Unless exact counts
+   * are requested, row counts are estimated from database statistics,
+   * if the database plugin has a query for them. Otherwise, rows are
+   * counted for each table, and the counts are cached for the crawl.
+   * Tables are counted in batches, if the row count options allow it,
+   * and several batches are counted at the same time, each on its own
+   * connection from the data source.
+   *
+   * @param connection
+   *        Database connection
+   * @param dataSource
+   *        Data source for additional connections, or null to count on
+   *        the database connection only
+   * @param crawlInfo
+   *        Crawl information for the catalog, used to cache exact
+   *        counts, or null if counts are not to be cached
+   * @param schemaInclusionRule
+   *        Schemas to estimate row counts for
+   * @param options
+   *        Row count options
+   * @return Row count provider
+   */
+  public static RowCountProvider newRowCountProvider(final Connection connection,
+                                                     final DataSource dataSource,
+                                                     final CrawlInfo crawlInfo,
+                                                     final InclusionRule schemaInclusionRule,
+                                                     final RowCountOptions options)
+  {
+    requireNonNull(connection, "No connection provided");
+    requireNonNull(options, "No row count options provided");
+    if (!options.isExactRowCounts())
+    {
+      try
+      {
+        final InformationSchemaViews informationSchemaViews = matchDatabaseSpecificOverrideOptions(connection)
+          .getInformationSchemaViews();
+        if (informationSchemaViews.hasExtTableRowCountsSql())
+        {
+          return new EstimatedRowCountProvider(connection,
+                                               informationSchemaViews
+                                                 .getExtTableRowCountsSql(),
+                                               schemaInclusionRule);
+        }
+      }
+      catch (final SchemaCrawlerException e)
+      {
+        LOGGER.log(Level.WARNING,
+                   "Could not estimate row counts, so counting rows instead",
+                   e);
+      }
+    }
+    if (dataSource != null && options.getConcurrency() > 1)
+    {
+      return new ConcurrentRowCounter(dataSource,
+                                      options,
+                                      getCrawlTimestamp(crawlInfo));
+    }
+    return new ExactRowCountProvider(connection,
+                                     getCrawlTimestamp(crawlInfo),
+                                     options);
+  }
+
+  static void addRowCountToTable(final Table table,
+                                 final long rowCount,
+                                 final boolean isExact)
   {
     if (table != null)
     {
@@ -95,9 +250,23 @@ public final class CountsUtility
       {
         table.removeAttribute(TABLE_ROW_COUNT_KEY);
       }
+
+      if (rowCount >= 0 && !isExact)
+      {
+        table.setAttribute(TABLE_ROW_COUNT_ESTIMATED_KEY, Boolean.TRUE);
+      }
+      else
+      {
+        table.removeAttribute(TABLE_ROW_COUNT_ESTIMATED_KEY);
+      }
     }
   }
 
+  static LocalDateTime getCrawlTimestamp(final CrawlInfo crawlInfo)
+  {
+    return crawlInfo == null? null: crawlInfo.getCrawlTimestamp();
+  }
+
   private CountsUtility()
   {
     // Prevent instantiation
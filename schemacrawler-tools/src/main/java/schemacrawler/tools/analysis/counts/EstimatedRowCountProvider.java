@@ -0,0 +1,169 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.utility.QueryUtility.executeAgainstSchema;
+import static sf.util.DatabaseUtility.createStatement;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.InclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.utility.Identifiers;
+import schemacrawler.utility.Query;
+import sf.util.StringFormat;
+
+/**
+ * Estimates row counts from database statistics, using a database
+ * specific query. The query returns TABLE_CATALOG, TABLE_SCHEMA,
+ * TABLE_NAME and ROW_COUNT columns, and is run once for all tables.
+ * Tables that have no statistics have an unknown row count. The query
+ * returns names without quotes, so tables are looked up by their
+ * unquoted names.
+ *
+ * @author Sualeh Fatehi
+ */
+final class EstimatedRowCountProvider
+  implements RowCountProvider
+{
+
+  private static final Logger LOGGER = Logger
+    .getLogger(EstimatedRowCountProvider.class.getName());
+
+  private final Map<List<String>, Long> rowCounts;
+  private final Identifiers identifiers;
+
+  EstimatedRowCountProvider(final Connection connection,
+                            final Query query,
+                            final InclusionRule schemaInclusionRule)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(connection, "No connection provided");
+    requireNonNull(query, "No query provided");
+
+    rowCounts = new HashMap<>();
+    try
+    {
+      identifiers = Identifiers.identifiers().withConnection(connection)
+        .build();
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Could not estimate row counts", e);
+    }
+
+    try (final Statement statement = createStatement(connection);
+        final ResultSet results = executeAgainstSchema(query,
+                                                       statement,
+                                                       schemaInclusionRule);)
+    {
+      while (results.next())
+      {
+        final long rowCount = results.getLong("ROW_COUNT");
+        if (results.wasNull() || rowCount < 0)
+        {
+          continue;
+        }
+        rowCounts.put(key(results.getString("TABLE_CATALOG"),
+                          results.getString("TABLE_SCHEMA"),
+                          results.getString("TABLE_NAME")),
+                      rowCount);
+      }
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Could not estimate row counts", e);
+    }
+
+    LOGGER.log(Level.INFO,
+               new StringFormat("Estimated row counts for %d tables",
+                                rowCounts.size()));
+  }
+
+  @Override
+  public long getRowCount(final Table table)
+  {
+    requireNonNull(table, "No table provided");
+    final Schema schema = table.getSchema();
+    final String schemaName = identifiers.unquotedName(schema.getName());
+    final String tableName = identifiers.unquotedName(table.getName());
+    Long rowCount = rowCounts
+      .get(key(identifiers.unquotedName(schema.getCatalogName()),
+               schemaName,
+               tableName));
+    if (rowCount == null)
+    {
+      // Statistics queries may not return a catalog name
+      rowCount = rowCounts.get(key(null, schemaName, tableName));
+    }
+    return rowCount == null? -1: rowCount;
+  }
+
+  @Override
+  public Map<Table, Long> getRowCounts(final List<? extends Table> tables)
+  {
+    requireNonNull(tables, "No tables provided");
+    final Map<Table, Long> tableRowCounts = new HashMap<>();
+    for (final Table table: tables)
+    {
+      final long rowCount = getRowCount(table);
+      if (rowCount >= 0)
+      {
+        tableRowCounts.put(table, rowCount);
+      }
+    }
+    return tableRowCounts;
+  }
+
+  @Override
+  public boolean isExact()
+  {
+    return false;
+  }
+
+  private List<String> key(final String catalogName,
+                           final String schemaName,
+                           final String tableName)
+  {
+    return Arrays.asList(catalogName, schemaName, tableName);
+  }
+
+}
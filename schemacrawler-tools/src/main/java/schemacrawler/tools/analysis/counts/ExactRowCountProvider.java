@@ -0,0 +1,314 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.utility.QueryUtility.executeAgainstTable;
+import static schemacrawler.utility.QueryUtility.executeAgainstTables;
+import static sf.util.DatabaseUtility.createStatement;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.tools.text.operation.Operation;
+import schemacrawler.utility.Query;
+import sf.util.StringFormat;
+
+/**
+ * Counts the rows in each table. Counts are cached for the crawl, so
+ * that a table is only counted once, even if several commands need its
+ * row count. Several tables can be counted with a single query, with
+ * the count for each table in a UNION ALL block.
+ *
+ * @author Sualeh Fatehi
+ */
+final class ExactRowCountProvider
+  implements RowCountProvider
+{
+
+  private static final Logger LOGGER = Logger
+    .getLogger(ExactRowCountProvider.class.getName());
+
+  static final Query COUNT_QUERY = Operation.count.getQuery();
+  private static final Query BATCH_COUNT_QUERY = new Query(COUNT_QUERY
+    .getName(), "SELECT ${tableindex}, COUNT(*) FROM ${table}");
+
+  /**
+   * Counts the rows in tables, in batches of tables that are counted
+   * with a single query. If the query for a batch fails, for example
+   * because one of the tables cannot be read, or the query times out,
+   * each table in the batch is counted on its own. Tables that could
+   * not be counted are logged, and left out of the row counts.
+   *
+   * @param statement
+   *        Statement to run the count queries on
+   * @param tables
+   *        Tables to count
+   * @param batchSize
+   *        Number of tables to count with a single query
+   * @return Number of rows for each table that could be counted
+   */
+  static Map<Table, Long> countRows(final Statement statement,
+                                    final List<? extends Table> tables,
+                                    final int batchSize)
+    throws SQLException
+  {
+    final Map<Table, Long> rowCounts = new HashMap<>();
+    for (int i = 0; i < tables.size(); i = i + batchSize)
+    {
+      final List<? extends Table> batch = tables
+        .subList(i, Math.min(i + batchSize, tables.size()));
+      if (batch.size() > 1)
+      {
+        try
+        {
+          rowCounts.putAll(countRowsInBatch(statement, batch));
+          continue;
+        }
+        catch (final SQLException | SchemaCrawlerException e)
+        {
+          LOGGER.log(Level.FINE,
+                     e,
+                     new StringFormat("Could not count rows for %d tables together, so counting each table",
+                                      batch.size()));
+          checkStatement(statement);
+        }
+      }
+      for (final Table table: batch)
+      {
+        try
+        {
+          rowCounts.put(table, countRows(statement, table));
+        }
+        catch (final SQLException | SchemaCrawlerException e)
+        {
+          LOGGER.log(Level.WARNING,
+                     e,
+                     new StringFormat("Could not count rows for table <%s>",
+                                      table));
+          checkStatement(statement);
+        }
+      }
+    }
+    return rowCounts;
+  }
+
+  /**
+   * Counts the rows in a table.
+   *
+   * @param statement
+   *        Statement to run the count query on
+   * @param table
+   *        Table to count
+   * @return Number of rows in the table
+   */
+  static long countRows(final Statement statement, final Table table)
+    throws SQLException, SchemaCrawlerException
+  {
+    try (final ResultSet results = executeAgainstTable(COUNT_QUERY,
+                                                       statement,
+                                                       table,
+                                                       true);)
+    {
+      if (results == null || !results.next())
+      {
+        throw new SchemaCrawlerException(String
+          .format("No row count returned for table <%s>", table));
+      }
+      final Object rowCount = results.getObject(1);
+      if (!(rowCount instanceof Number))
+      {
+        throw new SchemaCrawlerException(String
+          .format("Cannot get an integer row count for table <%s>", table));
+      }
+      return ((Number) rowCount).longValue();
+    }
+  }
+
+  /**
+   * Throws an exception if the statement can no longer be used, so
+   * that counting stops, rather than every remaining table failing.
+   */
+  private static void checkStatement(final Statement statement)
+    throws SQLException
+  {
+    if (statement.isClosed())
+    {
+      throw new SQLException("Statement was closed while counting rows");
+    }
+  }
+
+  private static Map<Table, Long> countRowsInBatch(final Statement statement,
+                                                   final List<? extends Table> tables)
+    throws SQLException, SchemaCrawlerException
+  {
+    final Map<Table, Long> rowCounts = new HashMap<>();
+    try (final ResultSet results = executeAgainstTables(BATCH_COUNT_QUERY,
+                                                        statement,
+                                                        tables,
+                                                        true);)
+    {
+      while (results != null && results.next())
+      {
+        final int tableIndex = results.getInt(1);
+        final Object rowCount = results.getObject(2);
+        if (tableIndex < 0 || tableIndex >= tables.size()
+            || !(rowCount instanceof Number))
+        {
+          throw new SchemaCrawlerException("Unexpected row counts returned for tables");
+        }
+        rowCounts.put(tables.get(tableIndex), ((Number) rowCount).longValue());
+      }
+    }
+    if (rowCounts.size() != tables.size())
+    {
+      throw new SchemaCrawlerException("No row counts returned for some tables");
+    }
+    return rowCounts;
+  }
+
+  private final Connection connection;
+  private final LocalDateTime crawlTimestamp;
+  private final int queryTimeout;
+  private final int batchSize;
+
+  ExactRowCountProvider(final Connection connection)
+  {
+    this(connection, null, new RowCountOptions());
+  }
+
+  /**
+   * Counts rows on a connection.
+   *
+   * @param connection
+   *        Database connection
+   * @param crawlTimestamp
+   *        Crawl timestamp of the catalog, used to cache counts, or null
+   *        if counts are not to be cached
+   * @param options
+   *        Row count options, for query timeout and batch size
+   */
+  ExactRowCountProvider(final Connection connection,
+                        final LocalDateTime crawlTimestamp,
+                        final RowCountOptions options)
+  {
+    this.connection = requireNonNull(connection, "No connection provided");
+    requireNonNull(options, "No row count options provided");
+    this.crawlTimestamp = crawlTimestamp;
+    queryTimeout = options.getQueryTimeout();
+    batchSize = options.getBatchSize();
+  }
+
+  @Override
+  public long getRowCount(final Table table)
+    throws SchemaCrawlerException
+  {
+    final long cachedRowCount = RowCountCache.get(crawlTimestamp, table);
+    if (cachedRowCount >= 0)
+    {
+      return cachedRowCount;
+    }
+
+    try (final Statement statement = createStatement(connection);)
+    {
+      statement.setQueryTimeout(queryTimeout);
+      final long rowCount = countRows(statement, table);
+      RowCountCache.put(crawlTimestamp, table, rowCount);
+      return rowCount;
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException(String
+        .format("Could not count rows for table <%s>", table), e);
+    }
+  }
+
+  @Override
+  public Map<Table, Long> getRowCounts(final List<? extends Table> tables)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(tables, "No tables provided");
+
+    final Map<Table, Long> rowCounts = new HashMap<>();
+    final List<Table> uncountedTables = new ArrayList<>();
+    for (final Table table: tables)
+    {
+      final long cachedRowCount = RowCountCache.get(crawlTimestamp, table);
+      if (cachedRowCount >= 0)
+      {
+        rowCounts.put(table, cachedRowCount);
+      }
+      else
+      {
+        uncountedTables.add(table);
+      }
+    }
+    if (uncountedTables.isEmpty())
+    {
+      return rowCounts;
+    }
+
+    try (final Statement statement = createStatement(connection);)
+    {
+      statement.setQueryTimeout(queryTimeout);
+      final Map<Table, Long> countedRowCounts = countRows(statement,
+                                                          uncountedTables,
+                                                          batchSize);
+      for (final Map.Entry<Table, Long> rowCount: countedRowCounts
+        .entrySet())
+      {
+        RowCountCache.put(crawlTimestamp, rowCount.getKey(), rowCount.getValue());
+      }
+      rowCounts.putAll(countedRowCounts);
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Could not count rows", e);
+    }
+    return rowCounts;
+  }
+
+  @Override
+  public boolean isExact()
+  {
+    return true;
+  }
+
+}
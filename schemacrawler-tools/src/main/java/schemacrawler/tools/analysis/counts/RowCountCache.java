@@ -0,0 +1,145 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import schemacrawler.schema.Table;
+import sf.util.UtilityMarker;
+
+/**
+ * Exact row counts for tables, keyed by the crawl timestamp of the
+ * catalog and the full name of the table. Commands that are chained in
+ * a single run share a catalog, so each table is counted only once. The
+ * cache keeps only the most recently used counts.
+ *
+ * @author Sualeh Fatehi
+ */
+@UtilityMarker
+final class RowCountCache
+{
+
+  private static final int MAXIMUM_SIZE = 10_000;
+
+  private static final Map<List<Object>, Long> rowCounts = new LinkedHashMap<List<Object>, Long>(16,
+                                                                                                0.75f,
+                                                                                                true)
+  {
+
+    private static final long serialVersionUID = -2853195480261577453L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<List<Object>, Long> eldest)
+    {
+      return size() > MAXIMUM_SIZE;
+    }
+
+  };
+
+  /**
+   * Removes all cached row counts.
+   */
+  static void clear()
+  {
+    synchronized (rowCounts)
+    {
+      rowCounts.clear();
+    }
+  }
+
+  /**
+   * Gets a cached row count.
+   *
+   * @param crawlTimestamp
+   *        Crawl timestamp of the catalog, or null if counts are not
+   *        cached
+   * @param table
+   *        Table
+   * @return Row count, or -1 if the count is not cached
+   */
+  static long get(final LocalDateTime crawlTimestamp, final Table table)
+  {
+    if (crawlTimestamp == null)
+    {
+      return -1;
+    }
+
+    final Long rowCount;
+    synchronized (rowCounts)
+    {
+      rowCount = rowCounts.get(key(crawlTimestamp, table));
+    }
+    return rowCount == null? -1: rowCount;
+  }
+
+  /**
+   * Caches a row count. Unknown row counts are not cached.
+   *
+   * @param crawlTimestamp
+   *        Crawl timestamp of the catalog, or null if counts are not
+   *        cached
+   * @param table
+   *        Table
+   * @param rowCount
+   *        Row count
+   */
+  static void put(final LocalDateTime crawlTimestamp,
+                  final Table table,
+                  final long rowCount)
+  {
+    if (crawlTimestamp == null || rowCount < 0)
+    {
+      return;
+    }
+
+    synchronized (rowCounts)
+    {
+      rowCounts.put(key(crawlTimestamp, table), rowCount);
+    }
+  }
+
+  private static List<Object> key(final LocalDateTime crawlTimestamp,
+                                  final Table table)
+  {
+    requireNonNull(table, "No table provided");
+    return Arrays.asList(crawlTimestamp, table.getFullName());
+  }
+
+  private RowCountCache()
+  {
+    // Prevent instantiation
+  }
+
+}
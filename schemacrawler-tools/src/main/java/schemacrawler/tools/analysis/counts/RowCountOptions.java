@@ -0,0 +1,156 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import schemacrawler.schemacrawler.Options;
+
+/**
+ * Options for counting the rows in tables.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class RowCountOptions
+  implements Options
+{
+
+  private static final long serialVersionUID = 4218471296478412903L;
+
+  private int batchSize = 1;
+  private int concurrency = 1;
+  private boolean isExactRowCounts;
+  private int queryTimeout;
+
+  /**
+   * Number of tables that are counted with a single query, with the
+   * count for each table in a UNION ALL block. A value of 1 counts
+   * each table with its own query.
+   *
+   * @return Number of tables counted with a single query
+   */
+  public int getBatchSize()
+  {
+    return batchSize;
+  }
+
+  /**
+   * Number of tables that are counted concurrently, each on its own
+   * connection. A value of 1 counts tables one after the other.
+   *
+   * @return Number of tables counted concurrently.
+   */
+  public int getConcurrency()
+  {
+    return concurrency;
+  }
+
+  /**
+   * Number of seconds to wait for the rows in a table to be counted,
+   * before the count is cancelled. A value of 0 waits for as long as
+   * it takes.
+   *
+   * @return Query timeout, in seconds
+   */
+  public int getQueryTimeout()
+  {
+    return queryTimeout;
+  }
+
+  /**
+   * Whether row counts are exact, from counting the rows in each table,
+   * rather than estimated from database statistics.
+   *
+   * @return Whether to count rows exactly
+   */
+  public boolean isExactRowCounts()
+  {
+    return isExactRowCounts;
+  }
+
+  /**
+   * Number of tables that are counted with a single query. If a query
+   * for several tables fails, each of those tables is counted on its
+   * own.
+   *
+   * @param batchSize
+   *        Number of tables counted with a single query, at least 1
+   */
+  public void setBatchSize(final int batchSize)
+  {
+    if (batchSize < 1)
+    {
+      throw new IllegalArgumentException("Row count batch size needs to be at least 1");
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Number of tables that are counted concurrently, each on its own
+   * connection.
+   *
+   * @param concurrency
+   *        Number of tables counted concurrently, at least 1
+   */
+  public void setConcurrency(final int concurrency)
+  {
+    if (concurrency < 1)
+    {
+      throw new IllegalArgumentException("Row count concurrency needs to be at least 1");
+    }
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Whether row counts are exact, from counting the rows in each table,
+   * rather than estimated from database statistics.
+   *
+   * @param isExactRowCounts
+   *        Whether to count rows exactly
+   */
+  public void setExactRowCounts(final boolean isExactRowCounts)
+  {
+    this.isExactRowCounts = isExactRowCounts;
+  }
+
+  /**
+   * Number of seconds to wait for the rows in a table to be counted.
+   *
+   * @param queryTimeout
+   *        Query timeout in seconds, or 0 to wait for as long as it
+   *        takes
+   */
+  public void setQueryTimeout(final int queryTimeout)
+  {
+    if (queryTimeout < 0)
+    {
+      throw new IllegalArgumentException("Row count query timeout cannot be negative");
+    }
+    this.queryTimeout = queryTimeout;
+  }
+
+}
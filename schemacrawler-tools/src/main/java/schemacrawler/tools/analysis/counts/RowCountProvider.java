@@ -0,0 +1,79 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import java.util.List;
+import java.util.Map;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+
+/**
+ * Provides row counts for tables, either by counting rows, or as
+ * estimates from database statistics.
+ *
+ * @author Sualeh Fatehi
+ */
+public interface RowCountProvider
+{
+
+  /**
+   * Gets the number of rows in a table.
+   *
+   * @param table
+   *        Table to count
+   * @return Number of rows, or -1 if the count is not known
+   * @throws SchemaCrawlerException
+   *         On an exception counting rows
+   */
+  long getRowCount(Table table)
+    throws SchemaCrawlerException;
+
+  /**
+   * Gets the number of rows in several tables. Tables that could not
+   * be counted are logged, and left out of the row counts.
+   *
+   * @param tables
+   *        Tables to count
+   * @return Number of rows for each table that could be counted
+   * @throws SchemaCrawlerException
+   *         On an exception obtaining connections to count rows on
+   */
+  Map<Table, Long> getRowCounts(List<? extends Table> tables)
+    throws SchemaCrawlerException;
+
+  /**
+   * Whether the row counts are exact, or estimates from database
+   * statistics, which may be out of date.
+   *
+   * @return Whether row counts are exact
+   */
+  boolean isExact();
+
+}
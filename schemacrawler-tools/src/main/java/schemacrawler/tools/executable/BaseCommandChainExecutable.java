@@ -84,7 +84,12 @@ abstract class BaseCommandChainExecutable
     {
       if (executable instanceof BaseStagedExecutable)
       {
-        ((BaseStagedExecutable) executable).executeOn(catalog, connection);
+        final BaseStagedExecutable stagedExecutable = (BaseStagedExecutable) executable;
+        if (stagedExecutable.getDataSource() == null)
+        {
+          stagedExecutable.setDataSource(getDataSource());
+        }
+        stagedExecutable.executeOn(catalog, connection);
       }
     }
   }
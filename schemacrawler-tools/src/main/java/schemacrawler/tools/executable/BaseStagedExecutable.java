@@ -32,9 +32,12 @@ package schemacrawler.tools.executable;
 import static java.util.Objects.requireNonNull;
 
 import java.sql.Connection;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 import schemacrawler.crawl.SchemaCrawler;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
@@ -54,6 +57,9 @@ public abstract class BaseStagedExecutable
   private static final Logger LOGGER = Logger
     .getLogger(BaseStagedExecutable.class.getName());
 
+  private DataSource dataSource;
+  private CatalogCache catalogCache;
+
   protected BaseStagedExecutable(final String command)
   {
     super(command);
@@ -86,11 +92,73 @@ public abstract class BaseStagedExecutable
       LOGGER.log(Level.FINE, ObjectToString.toString(additionalConfiguration));
     }
 
-    final SchemaCrawler schemaCrawler = new SchemaCrawler(connection,
-                                                          databaseSpecificOverrideOptions);
-    final Catalog catalog = schemaCrawler.crawl(schemaCrawlerOptions);
+    final Catalog catalog;
+    final Optional<Catalog> cachedCatalog = catalogCache == null? Optional
+      .empty(): catalogCache.load(connection, schemaCrawlerOptions);
+    if (cachedCatalog.isPresent())
+    {
+      catalog = cachedCatalog.get();
+    }
+    else
+    {
+      final SchemaCrawler schemaCrawler = new SchemaCrawler(connection,
+                                                            databaseSpecificOverrideOptions);
+      catalog = schemaCrawler.crawl(schemaCrawlerOptions);
+      if (catalogCache != null)
+      {
+        catalogCache.save(connection, schemaCrawlerOptions, catalog);
+      }
+    }
 
     executeOn(catalog, connection);
   }
 
+  /**
+   * Cache of catalogs, which is checked before the database is crawled.
+   *
+   * @return Catalog cache, or null if catalogs are not cached
+   */
+  public final CatalogCache getCatalogCache()
+  {
+    return catalogCache;
+  }
+
+  /**
+   * Data source used to open additional connections, for commands that
+   * can work on several connections at the same time, such as
+   * concurrent data exports and row counts.
+   *
+   * @return Data source, or null if none was provided
+   */
+  public final DataSource getDataSource()
+  {
+    return dataSource;
+  }
+
+  /**
+   * Sets the cache of catalogs. A cached catalog for the same database
+   * and SchemaCrawler options is used instead of crawling the database,
+   * and a crawled catalog is saved to the cache.
+   *
+   * @param catalogCache
+   *        Catalog cache, or null to always crawl the database
+   */
+  public final void setCatalogCache(final CatalogCache catalogCache)
+  {
+    this.catalogCache = catalogCache;
+  }
+
+  /**
+   * Sets the data source used to open additional connections. If no
+   * data source is provided, commands only use the connection that the
+   * executable is run on.
+   *
+   * @param dataSource
+   *        Data source for additional connections
+   */
+  public final void setDataSource(final DataSource dataSource)
+  {
+    this.dataSource = dataSource;
+  }
+
 }
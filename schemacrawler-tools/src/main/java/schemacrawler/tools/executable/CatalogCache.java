@@ -0,0 +1,468 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.tools.executable;
+
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import sf.util.StringFormat;
+
+/**
+ * Local on-disk cache of catalogs, so that commands run one after
+ * another, even in separate processes, do not crawl the same database
+ * again. Catalogs are keyed by the JDBC connection URL, the database
+ * user, and a hash of the SchemaCrawler options, including the schema
+ * info level. Cached catalogs expire after a time to live, and can be
+ * invalidated explicitly. The catalog file format is provided by
+ * implementations, which are loaded as services.
+ *
+ * @author Sualeh Fatehi
+ */
+public abstract class CatalogCache
+{
+
+  private static final Logger LOGGER = Logger
+    .getLogger(CatalogCache.class.getName());
+
+  private static final String CATALOG_FILE_SUFFIX = ".catalog";
+
+  private static final String CATALOG_CACHE_DIRECTORY = "schemacrawler.cache.directory";
+  private static final String CATALOG_CACHE_TTL_SECONDS = "schemacrawler.cache.ttl_seconds";
+  private static final String CATALOG_CACHE_INVALIDATE = "schemacrawler.cache.invalidate";
+
+  /**
+   * Creates a catalog cache from configuration, if a cache directory is
+   * configured. The cache is invalidated first if that is configured.
+   *
+   * @param config
+   *        Configuration
+   * @return Catalog cache, or empty if no cache directory is
+   *         configured, or no catalog cache is available
+   * @throws SchemaCrawlerException
+   *         On an exception invalidating the cache
+   */
+  public static Optional<CatalogCache> newCatalogCache(final Config config)
+    throws SchemaCrawlerException
+  {
+    if (config == null || !config.hasValue(CATALOG_CACHE_DIRECTORY))
+    {
+      return Optional.empty();
+    }
+
+    final Iterator<CatalogCache> catalogCaches = ServiceLoader
+      .load(CatalogCache.class).iterator();
+    if (!catalogCaches.hasNext())
+    {
+      LOGGER.log(Level.WARNING,
+                 "No catalog cache is available, so catalogs are not cached");
+      return Optional.empty();
+    }
+    final CatalogCache catalogCache = catalogCaches.next();
+    catalogCache.setCacheDirectory(Paths
+      .get(config.getStringValue(CATALOG_CACHE_DIRECTORY, ".")));
+    catalogCache.setTimeToLive(Duration.ofSeconds(config
+      .getLongValue(CATALOG_CACHE_TTL_SECONDS,
+                    catalogCache.getTimeToLive().getSeconds())));
+    if (config.getBooleanValue(CATALOG_CACHE_INVALIDATE))
+    {
+      catalogCache.invalidate();
+    }
+    return Optional.of(catalogCache);
+  }
+
+  private static String toHex(final byte[] bytes)
+  {
+    final StringBuilder buffer = new StringBuilder(bytes.length * 2);
+    for (final byte b: bytes)
+    {
+      buffer.append(String.format("%02x", b));
+    }
+    return buffer.toString();
+  }
+
+  private Path cacheDirectory;
+  private Duration timeToLive;
+
+  protected CatalogCache()
+  {
+    cacheDirectory = Paths.get(System.getProperty("java.io.tmpdir"),
+                               "schemacrawler-cache");
+    timeToLive = Duration.ofHours(1);
+  }
+
+  public final Path getCacheDirectory()
+  {
+    return cacheDirectory;
+  }
+
+  public final Duration getTimeToLive()
+  {
+    return timeToLive;
+  }
+
+  /**
+   * Removes all cached catalogs.
+   *
+   * @throws SchemaCrawlerException
+   *         On an exception removing cached catalogs
+   */
+  public final void invalidate()
+    throws SchemaCrawlerException
+  {
+    if (!Files.isDirectory(cacheDirectory))
+    {
+      return;
+    }
+    try (final DirectoryStream<Path> catalogFiles = Files
+      .newDirectoryStream(cacheDirectory, "*" + CATALOG_FILE_SUFFIX);)
+    {
+      for (final Path catalogFile: catalogFiles)
+      {
+        Files.deleteIfExists(catalogFile);
+      }
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not invalidate catalog cache, "
+                                       + cacheDirectory,
+                                       e);
+    }
+    LOGGER.log(Level.INFO,
+               new StringFormat("Invalidated catalog cache <%s>",
+                                cacheDirectory));
+  }
+
+  /**
+   * Removes the cached catalog for a database and SchemaCrawler
+   * options.
+   *
+   * @param connection
+   *        Database connection
+   * @param schemaCrawlerOptions
+   *        SchemaCrawler options
+   * @throws SchemaCrawlerException
+   *         On an exception removing the cached catalog
+   */
+  public final void invalidate(final Connection connection,
+                               final SchemaCrawlerOptions schemaCrawlerOptions)
+    throws SchemaCrawlerException
+  {
+    final Optional<Path> catalogFile = getCatalogFile(connection,
+                                                      schemaCrawlerOptions);
+    if (!catalogFile.isPresent())
+    {
+      return;
+    }
+    try
+    {
+      Files.deleteIfExists(catalogFile.get());
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not invalidate cached catalog, "
+                                       + catalogFile.get(),
+                                       e);
+    }
+  }
+
+  /**
+   * Loads the cached catalog for a database and SchemaCrawler options,
+   * if there is one, and it has not expired. A cached catalog that
+   * cannot be read is treated as if it were not cached.
+   *
+   * @param connection
+   *        Database connection
+   * @param schemaCrawlerOptions
+   *        SchemaCrawler options
+   * @return Cached catalog, or empty if there is none
+   * @throws SchemaCrawlerException
+   *         On an exception accessing the database connection
+   */
+  public final Optional<Catalog> load(final Connection connection,
+                                      final SchemaCrawlerOptions schemaCrawlerOptions)
+    throws SchemaCrawlerException
+  {
+    final Optional<Path> catalogFileOptional = getCatalogFile(connection,
+                                                              schemaCrawlerOptions);
+    if (!catalogFileOptional.isPresent())
+    {
+      return Optional.empty();
+    }
+    final Path catalogFile = catalogFileOptional.get();
+    if (!Files.isRegularFile(catalogFile))
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("No cached catalog <%s>", catalogFile));
+      return Optional.empty();
+    }
+
+    try
+    {
+      final Instant cachedAt = Files.getLastModifiedTime(catalogFile)
+        .toInstant();
+      if (Duration.between(cachedAt, Instant.now()).compareTo(timeToLive) > 0)
+      {
+        LOGGER.log(Level.INFO,
+                   new StringFormat("Cached catalog <%s> has expired",
+                                    catalogFile));
+        Files.deleteIfExists(catalogFile);
+        return Optional.empty();
+      }
+
+      try (final InputStream in = Files.newInputStream(catalogFile);)
+      {
+        final Catalog catalog = readCatalog(in);
+        LOGGER.log(Level.INFO,
+                   new StringFormat("Loaded cached catalog <%s>",
+                                    catalogFile));
+        return Optional.of(catalog);
+      }
+    }
+    catch (final IOException | SchemaCrawlerException | RuntimeException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e,
+                 new StringFormat("Could not load cached catalog <%s>",
+                                  catalogFile));
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Saves a catalog to the cache, for a database and SchemaCrawler
+   * options. The catalog is written to a temporary file first, so that
+   * other processes never read a partly written catalog. A catalog that
+   * cannot be saved is logged, and not cached.
+   *
+   * @param connection
+   *        Database connection
+   * @param schemaCrawlerOptions
+   *        SchemaCrawler options
+   * @param catalog
+   *        Catalog to cache
+   * @throws SchemaCrawlerException
+   *         On an exception accessing the database connection
+   */
+  public final void save(final Connection connection,
+                         final SchemaCrawlerOptions schemaCrawlerOptions,
+                         final Catalog catalog)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(catalog, "No catalog provided");
+    final Optional<Path> catalogFileOptional = getCatalogFile(connection,
+                                                              schemaCrawlerOptions);
+    if (!catalogFileOptional.isPresent())
+    {
+      return;
+    }
+    final Path catalogFile = catalogFileOptional.get();
+
+    Path tempFile = null;
+    try
+    {
+      Files.createDirectories(cacheDirectory);
+      tempFile = Files.createTempFile(cacheDirectory, "schemacrawler", ".tmp");
+      try (final OutputStream out = Files.newOutputStream(tempFile);)
+      {
+        writeCatalog(catalog, out);
+      }
+      Files.move(tempFile,
+                 catalogFile,
+                 StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+      tempFile = null;
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Saved catalog to cache <%s>", catalogFile));
+    }
+    catch (final IOException | SchemaCrawlerException | RuntimeException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e,
+                 new StringFormat("Could not save catalog to cache <%s>",
+                                  catalogFile));
+    }
+    finally
+    {
+      if (tempFile != null)
+      {
+        try
+        {
+          Files.deleteIfExists(tempFile);
+        }
+        catch (final IOException e)
+        {
+          LOGGER.log(Level.FINE, e.getMessage(), e);
+        }
+      }
+    }
+  }
+
+  public final void setCacheDirectory(final Path cacheDirectory)
+  {
+    this.cacheDirectory = requireNonNull(cacheDirectory,
+                                         "No cache directory provided");
+  }
+
+  public final void setTimeToLive(final Duration timeToLive)
+  {
+    this.timeToLive = requireNonNull(timeToLive, "No time to live provided");
+  }
+
+  /**
+   * Reads a catalog that was written with
+   * {@link #writeCatalog(Catalog, OutputStream)}.
+   *
+   * @param in
+   *        Input stream to read from
+   * @return Catalog
+   * @throws SchemaCrawlerException
+   *         On an exception reading the catalog
+   */
+  protected abstract Catalog readCatalog(InputStream in)
+    throws SchemaCrawlerException;
+
+  /**
+   * Writes a catalog, in a format that can be read with
+   * {@link #readCatalog(InputStream)}.
+   *
+   * @param catalog
+   *        Catalog to write
+   * @param out
+   *        Output stream to write to
+   * @throws SchemaCrawlerException
+   *         On an exception writing the catalog
+   */
+  protected abstract void writeCatalog(Catalog catalog, OutputStream out)
+    throws SchemaCrawlerException;
+
+  /**
+   * Gets the file for the cached catalog. SchemaCrawler options are
+   * hashed from their serialized form, so options with inclusion rules
+   * that cannot be serialized are not cached.
+   */
+  private Optional<Path> getCatalogFile(final Connection connection,
+                                        final SchemaCrawlerOptions schemaCrawlerOptions)
+    throws SchemaCrawlerException
+  {
+    requireNonNull(connection, "No connection provided");
+    requireNonNull(schemaCrawlerOptions, "No SchemaCrawler options provided");
+
+    final MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e)
+    {
+      throw new SchemaCrawlerException("Could not hash catalog cache key", e);
+    }
+
+    try
+    {
+      final DatabaseMetaData metaData = connection.getMetaData();
+      digest.update(String.valueOf(metaData.getURL()).getBytes(UTF_8));
+      digest.update((byte) 0);
+      digest.update(String.valueOf(metaData.getUserName()).getBytes(UTF_8));
+      digest.update((byte) 0);
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException("Could not get connection URL", e);
+    }
+
+    try (final ObjectOutputStream out = new ObjectOutputStream(new DigestOutputStream(new NullOutputStream(),
+                                                                                      digest));)
+    {
+      out.writeObject(schemaCrawlerOptions);
+      out.writeObject(schemaCrawlerOptions.getSchemaInfoLevel());
+    }
+    catch (final NotSerializableException e)
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Not caching catalog, since SchemaCrawler options cannot be hashed, %s",
+                                  e.getMessage()));
+      return Optional.empty();
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException("Could not hash catalog cache key", e);
+    }
+
+    return Optional.of(cacheDirectory
+      .resolve(toHex(digest.digest()) + CATALOG_FILE_SUFFIX));
+  }
+
+  private static final class NullOutputStream
+    extends OutputStream
+  {
+
+    @Override
+    public void write(final byte[] b, final int off, final int len)
+    {
+      // Discard
+    }
+
+    @Override
+    public void write(final int b)
+    {
+      // Discard
+    }
+
+  }
+
+}
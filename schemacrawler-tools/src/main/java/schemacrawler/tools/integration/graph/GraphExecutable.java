@@ -79,7 +79,9 @@ public final class GraphExecutable
     {
       catalog = new CatalogWithCounts(catalog,
                                       connection,
-                                      schemaCrawlerOptions);
+                                      getDataSource(),
+                                      schemaCrawlerOptions,
+                                      graphOptions.getRowCountOptions());
     }
 
     final GraphOutputFormat graphOutputFormat = GraphOutputFormat
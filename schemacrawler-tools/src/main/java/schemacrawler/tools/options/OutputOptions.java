@@ -269,6 +269,16 @@ public class OutputOptions
     return outputFormatValue;
   }
 
+  /**
+   * Whether output is written to an uncompressed file.
+   *
+   * @return Whether the output is a plain file
+   */
+  public boolean isFileOutput()
+  {
+    return outputResource instanceof FileOutputResource;
+  }
+
   /**
    * Gets the input reader. If the input resource is null, first set it
    * to a value based off the output format value.
@@ -59,12 +59,24 @@ public abstract class BaseFormatter<O extends BaseTextOptions>
   protected final TextFormattingHelper formattingHelper;
   protected final DatabaseObjectColorMap colorMap;
   protected final boolean printVerboseDatabaseInfo;
-  private final PrintWriter out;
+  protected final PrintWriter out;
 
   protected BaseFormatter(final O options,
                           final boolean printVerboseDatabaseInfo,
                           final OutputOptions outputOptions)
     throws SchemaCrawlerException
+  {
+    this(options,
+         printVerboseDatabaseInfo,
+         outputOptions,
+         requireNonNull(options, "Options not provided").isAppendOutput());
+  }
+
+  protected BaseFormatter(final O options,
+                          final boolean printVerboseDatabaseInfo,
+                          final OutputOptions outputOptions,
+                          final boolean appendOutput)
+    throws SchemaCrawlerException
   {
     this.options = requireNonNull(options, "Options not provided");
 
@@ -79,29 +91,14 @@ public abstract class BaseFormatter<O extends BaseTextOptions>
     try
     {
       out = new PrintWriter(outputOptions
-        .openNewOutputWriter(options.isAppendOutput()), true);
+        .openNewOutputWriter(appendOutput), true);
     }
     catch (final IOException e)
     {
       throw new SchemaCrawlerException("Cannot open output writer", e);
     }
 
-    final TextOutputFormat outputFormat = TextOutputFormat
-      .valueOfFromString(outputOptions.getOutputFormatValue());
-    switch (outputFormat)
-    {
-      case html:
-        formattingHelper = new HtmlFormattingHelper(out, outputFormat);
-        break;
-
-      case json:
-        formattingHelper = new JsonFormattingHelper(out, outputFormat);
-        break;
-      case text:
-      default:
-        formattingHelper = new PlainTextFormattingHelper(out, outputFormat);
-        break;
-    }
+    formattingHelper = newFormattingHelper(out);
   }
 
   @Override
@@ -131,6 +128,31 @@ public abstract class BaseFormatter<O extends BaseTextOptions>
                || column.isPartOfForeignKey() || column.isPartOfIndex());
   }
 
+  /**
+   * Creates a formatting helper for the output format, that writes to
+   * the given writer. This allows parts of the output to be formatted
+   * separately, and appended to the main output later.
+   *
+   * @param writer
+   *        Writer to format to
+   * @return Formatting helper for the output format
+   */
+  protected final TextFormattingHelper newFormattingHelper(final PrintWriter writer)
+  {
+    final TextOutputFormat outputFormat = TextOutputFormat
+      .valueOfFromString(outputOptions.getOutputFormatValue());
+    switch (outputFormat)
+    {
+      case html:
+        return new HtmlFormattingHelper(writer, outputFormat);
+      case json:
+        return new JsonFormattingHelper(writer, outputFormat);
+      case text:
+      default:
+        return new PlainTextFormattingHelper(writer, outputFormat);
+    }
+  }
+
   protected String nodeId(final DatabaseObject dbObject)
   {
     if (dbObject == null)
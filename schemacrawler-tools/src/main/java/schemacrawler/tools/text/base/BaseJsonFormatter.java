@@ -42,6 +42,7 @@ import schemacrawler.schema.SchemaCrawlerInfo;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.options.OutputOptions;
 import schemacrawler.tools.text.utility.JsonFormattingHelper;
+import schemacrawler.tools.text.utility.JsonStreamWriter;
 import schemacrawler.tools.text.utility.org.json.JSONArray;
 import schemacrawler.tools.text.utility.org.json.JSONException;
 import schemacrawler.tools.text.utility.org.json.JSONObject;
@@ -59,7 +60,9 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
   protected static final Logger LOGGER = Logger
     .getLogger(BaseJsonFormatter.class.getName());
 
-  protected final JSONObject jsonRoot;
+  private final JSONObject jsonRoot;
+  private final JsonStreamWriter jsonWriter;
+  private String openArrayKey;
 
   protected BaseJsonFormatter(final O options,
                               final boolean printVerboseDatabaseInfo,
@@ -67,7 +70,16 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     throws SchemaCrawlerException
   {
     super(options, printVerboseDatabaseInfo, outputOptions);
-    jsonRoot = new JSONObject();
+    if (options.isStreamJson())
+    {
+      jsonRoot = null;
+      jsonWriter = new JsonStreamWriter(out, 2);
+    }
+    else
+    {
+      jsonRoot = new JSONObject();
+      jsonWriter = null;
+    }
   }
 
   @Override
@@ -78,13 +90,24 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     {
       formattingHelper.append("[").println();
     }
+    if (isStreamJson())
+    {
+      jsonWriter.beginObject();
+    }
   }
 
   @Override
   public void end()
     throws SchemaCrawlerException
   {
-    ((JsonFormattingHelper) formattingHelper).write(jsonRoot);
+    if (isStreamJson())
+    {
+      jsonWriter.close();
+    }
+    else
+    {
+      ((JsonFormattingHelper) formattingHelper).write(jsonRoot);
+    }
 
     if (options.isNoFooter())
     {
@@ -110,11 +133,11 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     try
     {
       final JSONObject jsonSchemaCrawlerHeaderInfo = new JSONObject();
-      jsonRoot.put("schemaCrawlerHeaderInfo", jsonSchemaCrawlerHeaderInfo);
-
       jsonSchemaCrawlerHeaderInfo
         .put("crawlTimestamp", formatTimestamp(crawlInfo.getCrawlTimestamp()));
       jsonSchemaCrawlerHeaderInfo.put("title", crawlInfo.getTitle());
+
+      put("schemaCrawlerHeaderInfo", jsonSchemaCrawlerHeaderInfo);
     }
     catch (final JSONException e)
     {
@@ -136,8 +159,6 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     try
     {
       final JSONObject jsonDbInfo = new JSONObject();
-      jsonRoot.put("databaseInfo", jsonDbInfo);
-
       jsonDbInfo.put("databaseProductName", dbInfo.getProductName());
       jsonDbInfo.put("databaseProductVersion", dbInfo.getProductVersion());
       jsonDbInfo.put("databaseUserName", dbInfo.getUserName());
@@ -156,6 +177,8 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
           jsonDbProperty.put("value", property.getValue());
         }
       }
+
+      put("databaseInfo", jsonDbInfo);
     }
     catch (final JSONException e)
     {
@@ -178,8 +201,6 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     try
     {
       final JSONObject jsonDriverInfo = new JSONObject();
-      jsonRoot.put("jdbcDriverInfo", jsonDriverInfo);
-
       jsonDriverInfo.put("driverName", driverInfo.getDriverName());
       jsonDriverInfo.put("driverVersion", driverInfo.getDriverVersion());
       jsonDriverInfo.put("driverClassName", driverInfo.getDriverClassName());
@@ -198,6 +219,8 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
           jsonJdbcDriverProperties.put(printJdbcDriverProperty(driverProperty));
         }
       }
+
+      put("jdbcDriverInfo", jsonDriverInfo);
     }
     catch (final JSONException e)
     {
@@ -221,12 +244,12 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
     try
     {
       final JSONObject jsonSchemaCrawlerInfo = new JSONObject();
-      jsonRoot.put("schemaCrawlerInfo", jsonSchemaCrawlerInfo);
-
       jsonSchemaCrawlerInfo
         .put("productName", schemaCrawlerInfo.getSchemaCrawlerProductName());
       jsonSchemaCrawlerInfo.put("productVersion",
                                 schemaCrawlerInfo.getSchemaCrawlerVersion());
+
+      put("schemaCrawlerInfo", jsonSchemaCrawlerInfo);
     }
     catch (final JSONException e)
     {
@@ -261,6 +284,127 @@ public abstract class BaseJsonFormatter<O extends BaseTextOptions>
   {
   }
 
+  /**
+   * Adds a value to the array for a key. When JSON is not streamed, the
+   * first value for a key is not in an array, as with
+   * {@link JSONObject#accumulate(String, Object)}. When JSON is
+   * streamed, the value is written to the output straight away, and
+   * values for a key are always in an array.
+   *
+   * @param key
+   *        Key of the array
+   * @param value
+   *        Value to add
+   * @throws JSONException
+   *         On an exception writing the value
+   */
+  protected final void accumulate(final String key, final Object value)
+    throws JSONException
+  {
+    if (isStreamJson())
+    {
+      openArray(key);
+      jsonWriter.value(value);
+    }
+    else
+    {
+      jsonRoot.accumulate(key, value);
+    }
+  }
+
+  /**
+   * Streaming JSON writer, positioned to add a value to the array for a
+   * key. Use this to stream values that are too large to be built in
+   * memory. Only available when JSON is streamed.
+   *
+   * @param key
+   *        Key of the array
+   * @return Streaming JSON writer
+   * @throws JSONException
+   *         On an exception writing the array
+   */
+  protected final JsonStreamWriter appendTo(final String key)
+    throws JSONException
+  {
+    if (!isStreamJson())
+    {
+      throw new IllegalStateException("JSON output is not streamed");
+    }
+    openArray(key);
+    return jsonWriter;
+  }
+
+  /**
+   * Whether JSON is written as the catalog is traversed.
+   *
+   * @return Whether JSON is streamed
+   */
+  protected final boolean isStreamJson()
+  {
+    return jsonWriter != null;
+  }
+
+  /**
+   * Starts an array for a key, so that the key is always present, even
+   * if no values are added to the array.
+   *
+   * @param key
+   *        Key of the array
+   * @throws JSONException
+   *         On an exception writing the array
+   */
+  protected final void openArray(final String key)
+    throws JSONException
+  {
+    if (isStreamJson())
+    {
+      if (!key.equals(openArrayKey))
+      {
+        closeArray();
+        jsonWriter.key(key).beginArray();
+        openArrayKey = key;
+      }
+    }
+    else if (!jsonRoot.has(key))
+    {
+      jsonRoot.put(key, new JSONArray());
+    }
+  }
+
+  /**
+   * Sets the value for a key. When JSON is streamed, the value is
+   * written to the output straight away.
+   *
+   * @param key
+   *        Key
+   * @param value
+   *        Value
+   * @throws JSONException
+   *         On an exception writing the value
+   */
+  protected final void put(final String key, final Object value)
+    throws JSONException
+  {
+    if (isStreamJson())
+    {
+      closeArray();
+      jsonWriter.key(key).value(value);
+    }
+    else
+    {
+      jsonRoot.put(key, value);
+    }
+  }
+
+  private void closeArray()
+  {
+    if (openArrayKey != null)
+    {
+      jsonWriter.endArray();
+      openArrayKey = null;
+    }
+  }
+
   private JSONObject printJdbcDriverProperty(final JdbcDriverProperty driverProperty)
   {
     final JSONObject jsonDriverProperty = new JSONObject();
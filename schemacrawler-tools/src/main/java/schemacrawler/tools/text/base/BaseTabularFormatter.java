@@ -62,6 +62,15 @@ public abstract class BaseTabularFormatter<O extends BaseTextOptions>
     super(options, printVerboseDatabaseInfo, outputOptions);
   }
 
+  protected BaseTabularFormatter(final O options,
+                                 final boolean printVerboseDatabaseInfo,
+                                 final OutputOptions outputOptions,
+                                 final boolean appendOutput)
+    throws SchemaCrawlerException
+  {
+    super(options, printVerboseDatabaseInfo, outputOptions, appendOutput);
+  }
+
   /**
    * {@inheritDoc}
    *
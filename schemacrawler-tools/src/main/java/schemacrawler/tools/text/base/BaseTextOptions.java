@@ -47,6 +47,7 @@ public abstract class BaseTextOptions
   private boolean isNoInfo;
   private boolean isShowUnqualifiedNames;
   private boolean isNoSchemaColors;
+  private boolean isStreamJson;
 
   public boolean isAlphabeticalSortForRoutineColumns()
   {
@@ -98,6 +99,19 @@ public abstract class BaseTextOptions
     return isShowUnqualifiedNames;
   }
 
+  /**
+   * Whether JSON output is written as the catalog is traversed, rather
+   * than built up in memory and written at the end. Streamed JSON has
+   * the same objects, but top level keys are in traversal order, and
+   * repeated objects, such as tables, are always in an array.
+   *
+   * @return Whether to stream JSON output
+   */
+  public boolean isStreamJson()
+  {
+    return isStreamJson;
+  }
+
   public void setAlphabeticalSortForRoutineColumns(final boolean isAlphabeticalSortForRoutineColumns)
   {
     this.isAlphabeticalSortForRoutineColumns = isAlphabeticalSortForRoutineColumns;
@@ -148,4 +162,9 @@ public abstract class BaseTextOptions
     this.isShowUnqualifiedNames = isShowUnqualifiedNames;
   }
 
+  public void setStreamJson(final boolean isStreamJson)
+  {
+    this.isStreamJson = isStreamJson;
+  }
+
 }
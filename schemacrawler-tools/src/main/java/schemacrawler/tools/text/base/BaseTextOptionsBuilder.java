@@ -64,6 +64,9 @@ public abstract class BaseTextOptionsBuilder<O extends BaseTextOptions>
   private static final String NO_SCHEMA_COLORS = SCHEMACRAWLER_FORMAT_PREFIX
                                                  + "no_schema_colors";
 
+  private static final String STREAM_JSON = SCHEMACRAWLER_FORMAT_PREFIX
+                                            + "json.streaming";
+
   protected final O options;
 
   protected BaseTextOptionsBuilder(final O options)
@@ -112,6 +115,8 @@ public abstract class BaseTextOptionsBuilder<O extends BaseTextOptions>
 
     options.setNoSchemaColors(config.getBooleanValue(NO_SCHEMA_COLORS));
 
+    options.setStreamJson(config.getBooleanValue(STREAM_JSON));
+
     return this;
   }
 
@@ -177,6 +182,8 @@ public abstract class BaseTextOptionsBuilder<O extends BaseTextOptions>
 
     config.setBooleanValue(NO_SCHEMA_COLORS, options.isNoSchemaColors());
 
+    config.setBooleanValue(STREAM_JSON, options.isStreamJson());
+
     return config;
   }
 
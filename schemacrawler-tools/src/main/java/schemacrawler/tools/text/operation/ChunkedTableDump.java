@@ -0,0 +1,378 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2016, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.operation;
+
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.utility.QueryUtility.prepareAgainstTable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Column;
+import schemacrawler.schema.IndexColumn;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.utility.NamedObjectSort;
+import schemacrawler.utility.Query;
+import sf.util.StringFormat;
+
+/**
+ * Dumps a table in chunks of rows, using keyset pagination on the
+ * primary key. Each chunk is a query for the rows that follow the last
+ * key of the previous chunk, in primary key order, so the database can
+ * read each chunk from the primary key index, instead of sorting the
+ * whole table. The chunks are presented as a single result set, so
+ * data can be formatted as if it were read with a single query.
+ *
+ * @author Sualeh Fatehi
+ */
+final class ChunkedTableDump
+  implements InvocationHandler
+{
+
+  private static final Logger LOGGER = Logger
+    .getLogger(ChunkedTableDump.class.getName());
+
+  /**
+   * Executes the first chunk of the dump, and returns a result set that
+   * fetches the following chunks as rows are read.
+   *
+   * @param connection
+   *        Connection to query on
+   * @param table
+   *        Table with a primary key
+   * @param chunkSize
+   *        Number of rows in each chunk
+   * @param isAlphabeticalSortForTableColumns
+   *        Whether to sort table columns alphabetically
+   * @param checkpoint
+   *        Checkpoint to save progress to after every chunk, and to
+   *        resume from, or null
+   * @return Result set over all chunks
+   */
+  static ResultSet executeInChunks(final Connection connection,
+                                   final Table table,
+                                   final int chunkSize,
+                                   final boolean isAlphabeticalSortForTableColumns,
+                                   final DumpCheckpoint checkpoint)
+    throws SQLException
+  {
+    final ChunkedTableDump tableDump = new ChunkedTableDump(connection,
+                                                            table,
+                                                            chunkSize,
+                                                            isAlphabeticalSortForTableColumns,
+                                                            checkpoint);
+    return (ResultSet) Proxy.newProxyInstance(ChunkedTableDump.class
+      .getClassLoader(), new Class<?>[] { ResultSet.class }, tableDump);
+  }
+
+  private final Table table;
+  private final int chunkSize;
+  private final DumpCheckpoint checkpoint;
+  private final List<IndexColumn> keyColumns;
+  private final int[] keyColumnIndexes;
+  private final Object[] lastKey;
+  private final PreparedStatement firstChunkStatement;
+  private final PreparedStatement nextChunkStatement;
+  private ResultSet chunk;
+  private int chunkRowCount;
+  private int chunkCount;
+  private boolean isClosed;
+
+  private ChunkedTableDump(final Connection connection,
+                           final Table table,
+                           final int chunkSize,
+                           final boolean isAlphabeticalSortForTableColumns,
+                           final DumpCheckpoint checkpoint)
+    throws SQLException
+  {
+    requireNonNull(connection, "No connection provided");
+    this.table = requireNonNull(table, "No table provided");
+    if (!table.hasPrimaryKey())
+    {
+      throw new IllegalArgumentException(String
+        .format("Table <%s> has no primary key", table.getFullName()));
+    }
+    if (chunkSize < 1)
+    {
+      throw new IllegalArgumentException("Chunk size needs to be at least 1");
+    }
+    this.chunkSize = chunkSize;
+    this.checkpoint = checkpoint;
+
+    keyColumns = table.getPrimaryKey().getColumns();
+    keyColumnIndexes = new int[keyColumns.size()];
+    lastKey = new Object[keyColumns.size()];
+
+    // Key columns are found by their position in the columns of the
+    // query, since their names may be quoted, and result set labels are
+    // not
+    final List<Column> columns = new ArrayList<>(table.getColumns());
+    Collections.sort(columns,
+                     NamedObjectSort
+                       .getNamedObjectSort(isAlphabeticalSortForTableColumns));
+    for (int i = 0; i < keyColumns.size(); i++)
+    {
+      keyColumnIndexes[i] = getColumnIndex(columns, keyColumns.get(i));
+    }
+
+    final String orderBy = " ORDER BY " + getKeyColumnsList();
+    final Query firstChunkQuery = new Query(Operation.dump.name(),
+                                            "SELECT ${columns} FROM ${table}"
+                                                                   + orderBy);
+    final Query nextChunkQuery = new Query(Operation.dump.name(),
+                                           "SELECT ${columns} FROM ${table} WHERE "
+                                                                  + getAfterKeyCondition()
+                                                                  + orderBy);
+    firstChunkStatement = prepareAgainstTable(firstChunkQuery,
+                                              connection,
+                                              table,
+                                              isAlphabeticalSortForTableColumns);
+    nextChunkStatement = prepareAgainstTable(nextChunkQuery,
+                                             connection,
+                                             table,
+                                             isAlphabeticalSortForTableColumns);
+    firstChunkStatement.setMaxRows(chunkSize);
+    nextChunkStatement.setMaxRows(chunkSize);
+
+    final Object[] resumeKey = checkpoint == null? null
+                                                 : checkpoint.getLastKey(table);
+    if (resumeKey != null && resumeKey.length == keyColumns.size())
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Resuming dump of <%s> after key %s",
+                                  table.getFullName(),
+                                  Arrays.deepToString(resumeKey)));
+      setAfterKey(resumeKey);
+      chunk = nextChunkStatement.executeQuery();
+    }
+    else
+    {
+      chunk = firstChunkStatement.executeQuery();
+    }
+    chunkCount = 1;
+  }
+
+  @Override
+  public Object invoke(final Object proxy,
+                       final Method method,
+                       final Object[] args)
+    throws Throwable
+  {
+    switch (method.getName())
+    {
+      case "next":
+        return next();
+      case "close":
+        close();
+        return null;
+      case "isClosed":
+        return isClosed;
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return String.format("Chunked dump of <%s>", table.getFullName());
+      default:
+        try
+        {
+          return method.invoke(chunk, args);
+        }
+        catch (final InvocationTargetException e)
+        {
+          throw e.getCause();
+        }
+    }
+  }
+
+  private void close()
+    throws SQLException
+  {
+    if (isClosed)
+    {
+      return;
+    }
+    isClosed = true;
+
+    LOGGER.log(Level.FINE,
+               new StringFormat("Dumped <%s> in %d chunks",
+                                table.getFullName(),
+                                chunkCount));
+    try
+    {
+      chunk.close();
+    }
+    finally
+    {
+      firstChunkStatement.close();
+      nextChunkStatement.close();
+    }
+  }
+
+  /**
+   * Condition for rows that follow the last key, in primary key order,
+   * written out column by column, since not all databases support row
+   * value comparisons. For a key (A, B), this is "A > ? OR (A = ? AND B
+   * > ?)".
+   */
+  private String getAfterKeyCondition()
+  {
+    final StringBuilder buffer = new StringBuilder(256);
+    for (int i = 0; i < keyColumns.size(); i++)
+    {
+      if (i > 0)
+      {
+        buffer.append(" OR ");
+      }
+      buffer.append("(");
+      for (int j = 0; j < i; j++)
+      {
+        buffer.append(keyColumns.get(j).getName()).append(" = ? AND ");
+      }
+      buffer.append(keyColumns.get(i).getName()).append(" > ?)");
+    }
+    return buffer.toString();
+  }
+
+  private int getColumnIndex(final List<Column> columns,
+                             final IndexColumn keyColumn)
+    throws SQLException
+  {
+    for (int i = 0; i < columns.size(); i++)
+    {
+      if (columns.get(i).getName().equals(keyColumn.getName()))
+      {
+        return i + 1;
+      }
+    }
+    throw new SQLException(String
+      .format("Primary key column <%s> is not dumped", keyColumn));
+  }
+
+  private String getKeyColumnsList()
+  {
+    final StringBuilder buffer = new StringBuilder(256);
+    for (int i = 0; i < keyColumns.size(); i++)
+    {
+      if (i > 0)
+      {
+        buffer.append(", ");
+      }
+      buffer.append(keyColumns.get(i).getName());
+    }
+    return buffer.toString();
+  }
+
+  private boolean next()
+    throws SQLException
+  {
+    if (isClosed)
+    {
+      return false;
+    }
+
+    while (true)
+    {
+      if (chunk.next())
+      {
+        chunkRowCount++;
+        for (int i = 0; i < keyColumnIndexes.length; i++)
+        {
+          lastKey[i] = chunk.getObject(keyColumnIndexes[i]);
+        }
+        return true;
+      }
+
+      if (chunkRowCount < chunkSize)
+      {
+        // A chunk that is not full is the last chunk
+        return false;
+      }
+
+      // The chunk has been read completely, so save progress, and move
+      // on to the rows after the last key
+      chunk.close();
+      saveCheckpoint();
+
+      setAfterKey(lastKey);
+      chunk = nextChunkStatement.executeQuery();
+      chunkRowCount = 0;
+      chunkCount++;
+    }
+  }
+
+  private void saveCheckpoint()
+    throws SQLException
+  {
+    if (checkpoint == null)
+    {
+      return;
+    }
+    try
+    {
+      checkpoint.saveLastKey(table, lastKey);
+    }
+    catch (final SchemaCrawlerException e)
+    {
+      throw new SQLException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Sets the parameters of the query for the next chunk to the key
+   * values, which are bound with the types they were read with, so
+   * that they compare the same way as the keys in the table.
+   */
+  private void setAfterKey(final Object[] key)
+    throws SQLException
+  {
+    int parameterIndex = 1;
+    for (int i = 0; i < key.length; i++)
+    {
+      for (int j = 0; j <= i; j++)
+      {
+        nextChunkStatement.setObject(parameterIndex++, key[j]);
+      }
+    }
+  }
+
+}
@@ -37,6 +37,7 @@ import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.options.OutputOptions;
 import schemacrawler.tools.text.base.BaseJsonFormatter;
+import schemacrawler.tools.text.utility.JsonStreamWriter;
 import schemacrawler.tools.text.utility.org.json.JSONArray;
 import schemacrawler.tools.text.utility.org.json.JSONException;
 import schemacrawler.tools.text.utility.org.json.JSONObject;
@@ -54,7 +55,6 @@ final class DataJsonFormatter
 {
 
   private final Operation operation;
-  private final JSONArray jsonDataArray;
 
   /**
    * Text formatting of data.
@@ -73,15 +73,21 @@ final class DataJsonFormatter
   {
     super(options, /* printVerboseDatabaseInfo */false, outputOptions);
     this.operation = operation;
+  }
+
+  @Override
+  public void begin()
+    throws SchemaCrawlerException
+  {
+    super.begin();
 
-    jsonDataArray = new JSONArray();
     try
     {
       if (operation != null)
       {
-        jsonRoot.put("description", operation.getDescription());
+        put("description", operation.getDescription());
       }
-      jsonRoot.put("data", jsonDataArray);
+      openArray("data");
     }
     catch (final JSONException e)
     {
@@ -179,13 +185,13 @@ final class DataJsonFormatter
 
     try
     {
-      final JSONObject jsonData = new JSONObject();
-      jsonData.put("title", title);
-
       if (operation == Operation.count)
       {
+        final JSONObject jsonData = new JSONObject();
+        jsonData.put("title", title);
         final long aggregate = handleAggregateOperationForTable(title, rows);
         jsonData.put("value", aggregate);
+        accumulate("data", jsonData);
       }
       else
       {
@@ -194,19 +200,28 @@ final class DataJsonFormatter
           final DataResultSet dataRows = new DataResultSet(rows,
                                                            options
                                                              .isShowLobs());
+          final JSONArray jsonColumnNames = new JSONArray(dataRows
+            .getColumnNames());
+          if (isStreamJson())
+          {
+            streamRows(title, jsonColumnNames, dataRows);
+          }
+          else
+          {
+            final JSONObject jsonData = new JSONObject();
+            jsonData.put("title", title);
+            jsonData.put("columnNames", jsonColumnNames);
 
-          jsonData.put("columnNames", new JSONArray(dataRows.getColumnNames()));
-
-          final JSONArray jsonRows = iterateRows(dataRows);
-          jsonData.put("rows", jsonRows);
+            final JSONArray jsonRows = iterateRows(dataRows);
+            jsonData.put("rows", jsonRows);
+            accumulate("data", jsonData);
+          }
         }
         catch (final SQLException e)
         {
           throw new SchemaCrawlerException(e.getMessage(), e);
         }
       }
-
-      jsonDataArray.put(jsonData);
     }
     catch (final JSONException e)
     {
@@ -226,4 +241,27 @@ final class DataJsonFormatter
     }
     return jsonRows;
   }
+
+  /**
+   * Writes rows to the output as they are read, so that large tables
+   * do not need to be held in memory.
+   */
+  private void streamRows(final String title,
+                          final JSONArray jsonColumnNames,
+                          final DataResultSet dataRows)
+    throws JSONException, SQLException
+  {
+    final JsonStreamWriter jsonWriter = appendTo("data");
+    jsonWriter.beginObject();
+    jsonWriter.key("title").value(title);
+    jsonWriter.key("columnNames").value(jsonColumnNames);
+    jsonWriter.key("rows").beginArray();
+    while (dataRows.next())
+    {
+      jsonWriter.value(new JSONArray(dataRows.row()));
+    }
+    jsonWriter.endArray();
+    jsonWriter.endObject();
+  }
+
 }
@@ -52,6 +52,7 @@ import schemacrawler.crawl.SchemaCrawler;
 import schemacrawler.schema.ResultsColumn;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.text.utility.BinaryData;
+import schemacrawler.tools.text.utility.DataRowWriter;
 
 /**
  * Text formatting of data.
@@ -66,6 +67,7 @@ final class DataResultSet
 
   private final ResultSet rows;
   private final List<ResultsColumn> resultsColumns;
+  private final int[] javaSqlTypes;
   private final boolean showLobs;
 
   public DataResultSet(final ResultSet rows, final boolean showLobs)
@@ -74,6 +76,13 @@ final class DataResultSet
     this.rows = requireNonNull(rows, "Cannot use null results");
     this.showLobs = showLobs;
     resultsColumns = SchemaCrawler.getResultColumns(rows).getColumns();
+
+    javaSqlTypes = new int[resultsColumns.size()];
+    for (int i = 0; i < javaSqlTypes.length; i++)
+    {
+      javaSqlTypes[i] = resultsColumns.get(i).getColumnDataType()
+        .getJavaSqlType().getJavaSqlType();
+    }
   }
 
   public String[] getColumnNames()
@@ -111,11 +120,62 @@ final class DataResultSet
     return resultsColumns.size();
   }
 
+  /**
+   * Writes the current row, without creating a list of values. Integer
+   * and character columns are read with type-specific getters, and
+   * other columns are read as objects.
+   *
+   * @param rowWriter
+   *        Writer for rows of data
+   * @throws SQLException
+   *         On an exception reading the row
+   */
+  public void writeRow(final DataRowWriter rowWriter)
+    throws SQLException
+  {
+    rowWriter.startRow();
+    for (int i = 0; i < javaSqlTypes.length; i++)
+    {
+      switch (javaSqlTypes[i])
+      {
+        case Types.SMALLINT:
+        case Types.INTEGER:
+          final long number = rows.getLong(i + 1);
+          if (rows.wasNull())
+          {
+            rowWriter.writeNull();
+          }
+          else
+          {
+            rowWriter.writeNumber(number);
+          }
+          break;
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+          final String text = rows.getString(i + 1);
+          if (rows.wasNull())
+          {
+            rowWriter.writeNull();
+          }
+          else
+          {
+            rowWriter.writeText(text);
+          }
+          break;
+        default:
+          rowWriter.writeValue(getColumnData(i));
+          break;
+      }
+    }
+    rowWriter.endRow();
+  }
+
   private Object getColumnData(final int i)
     throws SQLException
   {
-    final int javaSqlType = resultsColumns.get(i).getColumnDataType()
-      .getJavaSqlType().getJavaSqlType();
+    final int javaSqlType = javaSqlTypes[i];
     Object columnData;
     if (javaSqlType == Types.CLOB)
     {
@@ -31,14 +31,20 @@ package schemacrawler.tools.text.operation;
 
 import static schemacrawler.tools.analysis.counts.CountsUtility.getRowCountMessage;
 
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
 
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
 import schemacrawler.tools.options.OutputOptions;
 import schemacrawler.tools.text.base.BaseTabularFormatter;
+import schemacrawler.tools.text.utility.DataRowWriter;
+import schemacrawler.tools.text.utility.TextFormattingHelper;
 import schemacrawler.tools.text.utility.TextFormattingHelper.DocumentHeaderType;
 import schemacrawler.tools.text.utility.html.Alignment;
 import schemacrawler.tools.traversal.DataTraversalHandler;
@@ -52,7 +58,7 @@ import sf.util.Color;
  */
 final class DataTextFormatter
   extends BaseTabularFormatter<OperationOptions>
-  implements DataTraversalHandler
+  implements DataTraversalHandler, Flushable
 {
 
   private int dataBlockCount;
@@ -67,14 +73,27 @@ final class DataTextFormatter
    *        Options for text formatting of data
    * @param outputOptions
    *        Options for text formatting of data
+   * @param isResumed
+   *        Whether an interrupted export is being resumed, in which
+   *        case output is appended after the data that was already
+   *        written, without writing the header again
    */
   DataTextFormatter(final Operation operation,
                     final OperationOptions options,
-                    final OutputOptions outputOptions)
+                    final OutputOptions outputOptions,
+                    final boolean isResumed)
     throws SchemaCrawlerException
   {
-    super(options, /* printVerboseDatabaseInfo */false, outputOptions);
+    super(options,
+          /* printVerboseDatabaseInfo */false,
+          outputOptions,
+          isResumed || options.isAppendOutput());
     this.operation = operation;
+    if (isResumed)
+    {
+      // The header was written before the export was interrupted
+      dataBlockCount = 1;
+    }
   }
 
   /**
@@ -95,6 +114,16 @@ final class DataTextFormatter
     super.end();
   }
 
+  /**
+   * Flushes formatted data to the output, so that progress can be
+   * checkpointed.
+   */
+  @Override
+  public void flush()
+  {
+    out.flush();
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -128,24 +157,93 @@ final class DataTextFormatter
   public void handleData(final Table table, final ResultSet rows)
     throws SchemaCrawlerException
   {
-    final String tableName;
-    if (table != null)
+    handleData(getTableTitle(table), rows);
+  }
+
+  /**
+   * Appends a segment of formatted table data, produced by
+   * {@link #writeDataSegment(Table, ResultSet, Writer)}, to the output.
+   * Segments need to be appended in the order in which the tables are
+   * to be shown.
+   *
+   * @param segment
+   *        Formatted table data
+   * @throws IOException
+   *         On an exception reading the segment
+   */
+  void handleDataSegment(final Reader segment)
+    throws IOException
+  {
+    if (dataBlockCount == 0)
     {
-      if (options.isShowUnqualifiedNames())
-      {
-        tableName = table.getName();
-      }
-      else
-      {
-        tableName = table.getFullName();
-      }
+      printHeader();
     }
-    else
+
+    final char[] buffer = new char[8192];
+    int read;
+    while ((read = segment.read(buffer)) != -1)
+    {
+      out.write(buffer, 0, read);
+    }
+
+    dataBlockCount++;
+  }
+
+  /**
+   * Continues the data for a table that was partially written before
+   * an export was interrupted, so the title and column headers are not
+   * written again.
+   *
+   * @param rows
+   *        Remaining table data
+   */
+  void handleResumedData(final ResultSet rows)
+    throws SchemaCrawlerException
+  {
+    if (rows == null)
     {
-      tableName = "";
+      return;
     }
 
-    handleData(tableName, rows);
+    try
+    {
+      iterateRows(formattingHelper,
+                  new DataResultSet(rows, options.isShowLobs()));
+    }
+    catch (final SQLException e)
+    {
+      throw new SchemaCrawlerException(e.getMessage(), e);
+    }
+    formattingHelper.writeObjectEnd();
+
+    dataBlockCount++;
+  }
+
+  /**
+   * Formats the data for a table into a separate segment. This does not
+   * change the state of the formatter, so segments for different tables
+   * can be written concurrently.
+   *
+   * @param table
+   *        Table
+   * @param rows
+   *        Table data
+   * @param segment
+   *        Writer for the formatted table data
+   */
+  void writeDataSegment(final Table table,
+                        final ResultSet rows,
+                        final Writer segment)
+    throws SchemaCrawlerException
+  {
+    if (rows == null)
+    {
+      return;
+    }
+
+    final PrintWriter segmentWriter = new PrintWriter(segment);
+    writeData(newFormattingHelper(segmentWriter), getTableTitle(table), rows);
+    segmentWriter.flush();
   }
 
   private String getMessage(final double aggregate)
@@ -163,15 +261,34 @@ final class DataTextFormatter
     return message;
   }
 
+  private String getTableTitle(final Table table)
+  {
+    if (table == null)
+    {
+      return "";
+    }
+    else if (options.isShowUnqualifiedNames())
+    {
+      return table.getName();
+    }
+    else
+    {
+      return table.getFullName();
+    }
+  }
+
   /**
    * Handles an aggregate operation, such as a count, for a given table.
    *
+   * @param formattingHelper
+   *        Formatting helper to write to
    * @param title
    *        Title
    * @param results
    *        Results
    */
-  private void handleAggregateOperationForTable(final String title,
+  private void handleAggregateOperationForTable(final TextFormattingHelper formattingHelper,
+                                                final String title,
                                                 final ResultSet results)
     throws SchemaCrawlerException
   {
@@ -205,44 +322,19 @@ final class DataTextFormatter
       printHeader();
     }
 
-    if (operation == Operation.count)
-    {
-      handleAggregateOperationForTable(title, rows);
-    }
-    else
-    {
-      formattingHelper.println();
-      formattingHelper.println();
-      formattingHelper.writeObjectStart();
-      formattingHelper.writeObjectNameRow("", title, "", Color.white);
-      try
-      {
-        final DataResultSet dataRows = new DataResultSet(rows,
-                                                         options.isShowLobs());
-
-        formattingHelper.writeRowHeader(dataRows.getColumnNames());
-
-        iterateRows(dataRows);
-      }
-      catch (final SQLException e)
-      {
-        throw new SchemaCrawlerException(e.getMessage(), e);
-      }
-      formattingHelper.writeObjectEnd();
-    }
+    writeData(formattingHelper, title, rows);
 
     dataBlockCount++;
   }
 
-  private void iterateRows(final DataResultSet dataRows)
+  private void iterateRows(final TextFormattingHelper formattingHelper,
+                           final DataResultSet dataRows)
     throws SQLException
   {
+    final DataRowWriter rowWriter = formattingHelper.newDataRowWriter();
     while (dataRows.next())
     {
-      final List<Object> currentRow = dataRows.row();
-      final Object[] columnData = currentRow
-        .toArray(new Object[currentRow.size()]);
-      formattingHelper.writeRow(columnData);
+      dataRows.writeRow(rowWriter);
     }
   }
 
@@ -265,4 +357,37 @@ final class DataTextFormatter
         .writeObjectNameRow("", operation.getDescription(), "", Color.white);
     }
   }
+
+  private void writeData(final TextFormattingHelper formattingHelper,
+                         final String title,
+                         final ResultSet rows)
+    throws SchemaCrawlerException
+  {
+    if (operation == Operation.count)
+    {
+      handleAggregateOperationForTable(formattingHelper, title, rows);
+    }
+    else
+    {
+      formattingHelper.println();
+      formattingHelper.println();
+      formattingHelper.writeObjectStart();
+      formattingHelper.writeObjectNameRow("", title, "", Color.white);
+      try
+      {
+        final DataResultSet dataRows = new DataResultSet(rows,
+                                                         options.isShowLobs());
+
+        formattingHelper.writeRowHeader(dataRows.getColumnNames());
+
+        iterateRows(formattingHelper, dataRows);
+      }
+      catch (final SQLException e)
+      {
+        throw new SchemaCrawlerException(e.getMessage(), e);
+      }
+      formattingHelper.writeObjectEnd();
+    }
+  }
+
 }
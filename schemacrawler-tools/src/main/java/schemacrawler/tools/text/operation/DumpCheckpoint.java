@@ -0,0 +1,486 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2016, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.operation;
+
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import sf.util.StringFormat;
+
+/**
+ * Progress of a data export, saved to a file after every table, and
+ * after every chunk of a table that is dumped in chunks. An interrupted
+ * export can be resumed from the checkpoint, skipping tables that were
+ * completed, and continuing a partially dumped table after the last key
+ * that was written. The length of the output file is saved with the
+ * progress, so that output that was written after the last checkpoint
+ * can be discarded on resume. Key values are saved with their type, as
+ * text that can be read back without losing precision, so that the
+ * resumed dump continues after exactly the same key. Progress within a
+ * table is not saved if its key values cannot be saved that way.
+ *
+ * @author Sualeh Fatehi
+ */
+final class DumpCheckpoint
+{
+
+  private static final Logger LOGGER = Logger
+    .getLogger(DumpCheckpoint.class.getName());
+
+  private static final String COMPLETED = ".completed";
+  private static final String LAST_KEY = ".last_key.";
+  private static final String OUTPUT_OFFSET = "output.offset";
+
+  /**
+   * Reads a key value that was saved with its type, or returns null if
+   * the value cannot be read.
+   */
+  private static Object fromKeyText(final String keyText)
+  {
+    if (keyText == null)
+    {
+      return null;
+    }
+    final int separator = keyText.indexOf(':');
+    if (separator < 0)
+    {
+      return null;
+    }
+    final String type = keyText.substring(0, separator);
+    final String text = keyText.substring(separator + 1);
+    try
+    {
+      switch (type)
+      {
+        case "string":
+          return text;
+        case "byte":
+          return Byte.valueOf(text);
+        case "short":
+          return Short.valueOf(text);
+        case "int":
+          return Integer.valueOf(text);
+        case "long":
+          return Long.valueOf(text);
+        case "big_integer":
+          return new BigInteger(text);
+        case "decimal":
+          return new BigDecimal(text);
+        case "float":
+          return Float.valueOf(text);
+        case "double":
+          return Double.valueOf(text);
+        case "boolean":
+          return Boolean.valueOf(text);
+        case "date":
+          return Date.valueOf(LocalDate.parse(text));
+        case "timestamp":
+          return Timestamp.valueOf(LocalDateTime.parse(text));
+        case "binary":
+          return Base64.getDecoder().decode(text);
+        case "uuid":
+          return UUID.fromString(text);
+        default:
+          return null;
+      }
+    }
+    catch (final RuntimeException e)
+    {
+      LOGGER.log(Level.FINE, e.getMessage(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Saves a key value with its type, as text that can be read back
+   * without losing precision, or returns null if the value cannot be
+   * saved that way.
+   */
+  private static String toKeyText(final Object value)
+  {
+    if (value instanceof String)
+    {
+      return "string:" + value;
+    }
+    else if (value instanceof Byte)
+    {
+      return "byte:" + value;
+    }
+    else if (value instanceof Short)
+    {
+      return "short:" + value;
+    }
+    else if (value instanceof Integer)
+    {
+      return "int:" + value;
+    }
+    else if (value instanceof Long)
+    {
+      return "long:" + value;
+    }
+    else if (value instanceof BigInteger)
+    {
+      return "big_integer:" + value;
+    }
+    else if (value instanceof BigDecimal)
+    {
+      return "decimal:" + ((BigDecimal) value).toString();
+    }
+    else if (value instanceof Float)
+    {
+      return "float:" + value;
+    }
+    else if (value instanceof Double)
+    {
+      return "double:" + value;
+    }
+    else if (value instanceof Boolean)
+    {
+      return "boolean:" + value;
+    }
+    else if (value instanceof Date)
+    {
+      return "date:" + ((Date) value).toLocalDate();
+    }
+    else if (value instanceof Timestamp)
+    {
+      return "timestamp:" + ((Timestamp) value).toLocalDateTime();
+    }
+    else if (value instanceof byte[])
+    {
+      return "binary:" + Base64.getEncoder().encodeToString((byte[]) value);
+    }
+    else if (value instanceof UUID)
+    {
+      return "uuid:" + value;
+    }
+    else
+    {
+      return null;
+    }
+  }
+
+  private final Path checkpointFile;
+  private final Properties checkpoint;
+  private Path outputFile;
+  private Flushable output;
+
+  DumpCheckpoint(final Path checkpointFile)
+    throws SchemaCrawlerException
+  {
+    this.checkpointFile = requireNonNull(checkpointFile,
+                                         "No checkpoint file provided");
+    checkpoint = new Properties();
+    if (Files.isRegularFile(checkpointFile))
+    {
+      try (final Reader reader = Files.newBufferedReader(checkpointFile);)
+      {
+        checkpoint.load(reader);
+      }
+      catch (final IOException e)
+      {
+        throw new SchemaCrawlerException(String
+          .format("Could not read checkpoint file <%s>", checkpointFile), e);
+      }
+      if (isLastKeysReadable())
+      {
+        LOGGER.log(Level.INFO,
+                   new StringFormat("Resuming data export from checkpoint <%s>",
+                                    checkpointFile));
+      }
+      else
+      {
+        LOGGER
+          .log(Level.WARNING,
+               new StringFormat("Cannot read keys in checkpoint <%s>, so exporting all tables again",
+                                checkpointFile));
+        checkpoint.clear();
+      }
+    }
+  }
+
+  /**
+   * Discards saved progress, so that the export starts over.
+   */
+  synchronized void clear()
+  {
+    checkpoint.clear();
+  }
+
+  /**
+   * Removes the checkpoint file, once the export has completed.
+   */
+  synchronized void delete()
+  {
+    try
+    {
+      Files.deleteIfExists(checkpointFile);
+    }
+    catch (final IOException e)
+    {
+      LOGGER.log(Level.WARNING,
+                 e,
+                 new StringFormat("Could not delete checkpoint file <%s>",
+                                  checkpointFile));
+    }
+  }
+
+  /**
+   * Key values of the last row that was written for a partially dumped
+   * table, in primary key column order, with the same types as they
+   * were read from the database.
+   *
+   * @param table
+   *        Table
+   * @return Last key values, or null if the table was not started
+   */
+  synchronized Object[] getLastKey(final Table table)
+  {
+    final String tableKey = table.getFullName();
+    final int keyLength = countLastKeyValues(tableKey);
+    if (keyLength == 0)
+    {
+      return null;
+    }
+
+    final Object[] lastKey = new Object[keyLength];
+    for (int i = 0; i < keyLength; i++)
+    {
+      lastKey[i] = fromKeyText(checkpoint
+        .getProperty(tableKey + LAST_KEY + i));
+      if (lastKey[i] == null)
+      {
+        return null;
+      }
+    }
+    return lastKey;
+  }
+
+  /**
+   * Length of the output file when progress was last saved, or -1 if
+   * the output was not tracked.
+   *
+   * @return Output file length in bytes, or -1
+   */
+  synchronized long getOutputOffset()
+  {
+    final String outputOffset = checkpoint.getProperty(OUTPUT_OFFSET);
+    if (outputOffset == null)
+    {
+      return -1;
+    }
+    try
+    {
+      return Long.parseLong(outputOffset);
+    }
+    catch (final NumberFormatException e)
+    {
+      return -1;
+    }
+  }
+
+  synchronized boolean hasProgress()
+  {
+    return !checkpoint.isEmpty();
+  }
+
+  synchronized boolean isCompleted(final Table table)
+  {
+    return Boolean
+      .parseBoolean(checkpoint.getProperty(table.getFullName() + COMPLETED));
+  }
+
+  /**
+   * Whether a table was partially dumped in chunks, and needs to be
+   * continued after its last key.
+   *
+   * @return Whether any table has a last key
+   */
+  synchronized boolean isPartiallyDumped()
+  {
+    for (final Object key: checkpoint.keySet())
+    {
+      if (((String) key).contains(LAST_KEY))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  synchronized void saveCompleted(final Table table)
+    throws SchemaCrawlerException
+  {
+    final String tableKey = table.getFullName();
+    clearLastKey(tableKey);
+    checkpoint.setProperty(tableKey + COMPLETED, Boolean.TRUE.toString());
+    save();
+  }
+
+  /**
+   * Saves the key values of the last row that was written for a table.
+   * Progress is not saved if any key value cannot be read back exactly,
+   * so the table is dumped again from the start on resume.
+   *
+   * @param table
+   *        Table
+   * @param lastKey
+   *        Last key values, in primary key column order
+   */
+  synchronized void saveLastKey(final Table table, final Object[] lastKey)
+    throws SchemaCrawlerException
+  {
+    final String tableKey = table.getFullName();
+    final String[] lastKeyText = new String[lastKey.length];
+    for (int i = 0; i < lastKey.length; i++)
+    {
+      lastKeyText[i] = toKeyText(lastKey[i]);
+      if (lastKeyText[i] == null)
+      {
+        LOGGER.log(Level.FINE,
+                   new StringFormat("Not saving progress of <%s>, since its key cannot be saved",
+                                    tableKey));
+        return;
+      }
+    }
+
+    clearLastKey(tableKey);
+    for (int i = 0; i < lastKeyText.length; i++)
+    {
+      checkpoint.setProperty(tableKey + LAST_KEY + i, lastKeyText[i]);
+    }
+    save();
+  }
+
+  /**
+   * Saves the length of the output file with every checkpoint, after
+   * flushing the output.
+   *
+   * @param outputFile
+   *        Output file
+   * @param output
+   *        Output to flush to the file before saving progress
+   */
+  synchronized void trackOutput(final Path outputFile, final Flushable output)
+  {
+    this.outputFile = requireNonNull(outputFile, "No output file provided");
+    this.output = requireNonNull(output, "No output provided");
+  }
+
+  private void clearLastKey(final String tableKey)
+  {
+    final int keyLength = countLastKeyValues(tableKey);
+    for (int i = 0; i < keyLength; i++)
+    {
+      checkpoint.remove(tableKey + LAST_KEY + i);
+    }
+  }
+
+  private int countLastKeyValues(final String tableKey)
+  {
+    int count = 0;
+    while (checkpoint.containsKey(tableKey + LAST_KEY + count))
+    {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Checks that all saved key values can be read, since a partially
+   * dumped table cannot be continued otherwise.
+   */
+  private boolean isLastKeysReadable()
+  {
+    for (final String key: checkpoint.stringPropertyNames())
+    {
+      if (key.contains(LAST_KEY)
+          && fromKeyText(checkpoint.getProperty(key)) == null)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the checkpoint to a temporary file first, so that an
+   * interruption while saving does not leave a corrupt checkpoint.
+   */
+  private void save()
+    throws SchemaCrawlerException
+  {
+    try
+    {
+      if (output != null)
+      {
+        output.flush();
+        checkpoint.setProperty(OUTPUT_OFFSET,
+                               String.valueOf(Files.size(outputFile)));
+      }
+
+      final Path parent = checkpointFile.toAbsolutePath().getParent();
+      final Path tempFile = Files.createTempFile(parent,
+                                                 "schemacrawler",
+                                                 ".checkpoint");
+      try (final Writer writer = Files.newBufferedWriter(tempFile);)
+      {
+        checkpoint.store(writer, "SchemaCrawler data export checkpoint");
+      }
+      Files.move(tempFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException(String
+        .format("Could not save checkpoint file <%s>", checkpointFile), e);
+    }
+  }
+
+}
@@ -29,20 +29,38 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.text.operation;
 
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static schemacrawler.utility.QueryUtility.executeAgainstTable;
 import static sf.util.DatabaseUtility.createStatement;
 import static sf.util.DatabaseUtility.executeSql;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Table;
 import schemacrawler.schemacrawler.SchemaCrawlerException;
@@ -86,34 +104,51 @@ public final class OperationExecutable
       return;
     }
 
-    final DataTraversalHandler handler = getDataTraversalHandler();
     final Query query = getQuery();
+    // The checkpoint is read before the output is opened, since output
+    // written after the last checkpoint is discarded on resume
+    final DumpCheckpoint checkpoint = query.isQueryOver()? newDumpCheckpoint()
+                                                         : null;
+    final boolean isResumed = resumeOutput(checkpoint);
+    final DataTraversalHandler handler = getDataTraversalHandler(isResumed);
+    if (checkpoint != null && handler instanceof DataTextFormatter
+        && outputOptions.isFileOutput())
+    {
+      checkpoint.trackOutput(outputOptions.getOutputFile(),
+                             (DataTextFormatter) handler);
+    }
 
     try (final Statement statement = createStatement(connection);)
     {
 
-      handler.begin();
+      if (!isResumed)
+      {
+        handler.begin();
 
-      handler.handleInfoStart();
-      handler.handle(catalog.getSchemaCrawlerInfo());
-      handler.handle(catalog.getDatabaseInfo());
-      handler.handle(catalog.getJdbcDriverInfo());
-      handler.handleInfoEnd();
+        handler.handleInfoStart();
+        handler.handle(catalog.getSchemaCrawlerInfo());
+        handler.handle(catalog.getDatabaseInfo());
+        handler.handle(catalog.getJdbcDriverInfo());
+        handler.handleInfoEnd();
+      }
 
       if (query.isQueryOver())
       {
-        for (final Table table: getSortedTables(catalog))
+        final List<? extends Table> tables = getSortedTables(catalog);
+        if (isExportConcurrently(handler, checkpoint))
         {
-          final boolean isAlphabeticalSortForTableColumns = operationOptions
-            .isAlphabeticalSortForTableColumns();
-          try (
-              final ResultSet results = executeAgainstTable(query,
-                                                            statement,
-                                                            table,
-                                                            isAlphabeticalSortForTableColumns);)
-          {
-            handler.handleData(table, results);
-          }
+          exportTablesConcurrently((DataTextFormatter) handler,
+                                   query,
+                                   tables,
+                                   checkpoint);
+        }
+        else
+        {
+          exportTables(handler, statement, query, tables, checkpoint);
+        }
+        if (checkpoint != null)
+        {
+          checkpoint.delete();
         }
       }
       else
@@ -155,7 +190,241 @@ public final class OperationExecutable
     this.operationOptions = operationOptions;
   }
 
-  private DataTraversalHandler getDataTraversalHandler()
+  private void closeConnections(final Collection<Connection> connections)
+  {
+    for (final Connection connection: connections)
+    {
+      try
+      {
+        connection.close();
+      }
+      catch (final SQLException e)
+      {
+        LOGGER.log(Level.WARNING, "Could not close export connection", e);
+      }
+    }
+  }
+
+  private void deleteSegment(final Path segment)
+  {
+    try
+    {
+      Files.deleteIfExists(segment);
+    }
+    catch (final IOException e)
+    {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not delete <%s>",
+                                                    segment));
+    }
+  }
+
+  /**
+   * Runs the query for a table. Dumps of tables with a primary key are
+   * run in chunks of primary key ranges, if a chunk size is set.
+   */
+  private ResultSet executeTableQuery(final Query query,
+                                      final Statement statement,
+                                      final Table table,
+                                      final DumpCheckpoint checkpoint)
+    throws SQLException
+  {
+    final boolean isAlphabeticalSortForTableColumns = operationOptions
+      .isAlphabeticalSortForTableColumns();
+    final int dumpChunkSize = operationOptions.getDumpChunkSize();
+    if (getOperation() == Operation.dump && dumpChunkSize > 0
+        && table.hasPrimaryKey())
+    {
+      return ChunkedTableDump
+        .executeInChunks(statement.getConnection(),
+                         table,
+                         dumpChunkSize,
+                         isAlphabeticalSortForTableColumns,
+                         checkpoint);
+    }
+    else
+    {
+      return executeAgainstTable(query,
+                                 statement,
+                                 table,
+                                 isAlphabeticalSortForTableColumns);
+    }
+  }
+
+  /**
+   * Exports the data for each table in turn, on a single statement.
+   * Progress is checkpointed after every table, and after every chunk
+   * of a table that is dumped in chunks.
+   */
+  private void exportTables(final DataTraversalHandler handler,
+                            final Statement statement,
+                            final Query query,
+                            final List<? extends Table> tables,
+                            final DumpCheckpoint checkpoint)
+    throws SQLException, SchemaCrawlerException
+  {
+    final Duration[] timings = new Duration[tables.size()];
+    for (int i = 0; i < tables.size(); i++)
+    {
+      final Table table = tables.get(i);
+      if (checkpoint != null && checkpoint.isCompleted(table))
+      {
+        continue;
+      }
+
+      final boolean isPartiallyDumped = checkpoint != null
+                                        && checkpoint.getLastKey(table) != null
+                                        && handler instanceof DataTextFormatter;
+
+      final Instant start = Instant.now();
+      try (final ResultSet results = executeTableQuery(query,
+                                                       statement,
+                                                       table,
+                                                       checkpoint);)
+      {
+        if (isPartiallyDumped)
+        {
+          ((DataTextFormatter) handler).handleResumedData(results);
+        }
+        else
+        {
+          handler.handleData(table, results);
+        }
+      }
+      if (checkpoint != null)
+      {
+        checkpoint.saveCompleted(table);
+      }
+      timings[i] = Duration.between(start, Instant.now());
+    }
+    logTableTimings(tables, timings);
+  }
+
+  /**
+   * Exports the data for several tables at the same time, each on its
+   * own connection from the data source. Each table is formatted into
+   * a temporary segment, and segments are appended to the output in
+   * table sort order, so the output is the same as for a sequential
+   * export. Since segments are only appended once a table has been
+   * fully exported, progress is checkpointed table by table.
+   */
+  private void exportTablesConcurrently(final DataTextFormatter handler,
+                                        final Query query,
+                                        final List<? extends Table> allTables,
+                                        final DumpCheckpoint checkpoint)
+    throws SchemaCrawlerException
+  {
+    final List<Table> tables = new ArrayList<>(allTables.size());
+    for (final Table table: allTables)
+    {
+      if (checkpoint == null || !checkpoint.isCompleted(table))
+      {
+        tables.add(table);
+      }
+    }
+
+    final int concurrency = Math.min(operationOptions.getExportConcurrency(),
+                                     tables.size());
+    LOGGER.log(Level.INFO,
+               new StringFormat("Exporting %d tables, %d at a time",
+                                tables.size(),
+                                concurrency));
+
+    final Duration[] timings = new Duration[tables.size()];
+    final BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(concurrency);
+    final List<Connection> openedConnections = new ArrayList<>(concurrency);
+    final List<Future<Path>> segments = new ArrayList<>(tables.size());
+    final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try
+    {
+      for (int i = 0; i < concurrency; i++)
+      {
+        final Connection connection = getDataSource().getConnection();
+        openedConnections.add(connection);
+        connections.add(connection);
+      }
+
+      for (int i = 0; i < tables.size(); i++)
+      {
+        final Table table = tables.get(i);
+        final int tableIndex = i;
+        segments.add(executor.submit(() -> {
+          final Connection connection = connections.take();
+          final Instant start = Instant.now();
+          try (final Statement statement = createStatement(connection);
+              final ResultSet results = executeTableQuery(query,
+                                                          statement,
+                                                          table,
+                                                          null);)
+          {
+            if (results == null)
+            {
+              return null;
+            }
+            final Path segment = Files.createTempFile("schemacrawler", ".data");
+            try (final Writer writer = Files.newBufferedWriter(segment,
+                                                               UTF_8);)
+            {
+              handler.writeDataSegment(table, results, writer);
+            }
+            return segment;
+          }
+          finally
+          {
+            timings[tableIndex] = Duration.between(start, Instant.now());
+            connections.put(connection);
+          }
+        }));
+      }
+
+      for (int i = 0; i < segments.size(); i++)
+      {
+        final Path segment = segments.get(i).get();
+        if (segment != null)
+        {
+          try (final Reader reader = Files.newBufferedReader(segment,
+                                                             UTF_8);)
+          {
+            handler.handleDataSegment(reader);
+          }
+          finally
+          {
+            deleteSegment(segment);
+          }
+        }
+        if (checkpoint != null)
+        {
+          checkpoint.saveCompleted(tables.get(i));
+        }
+      }
+    }
+    catch (final ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      throw new SchemaCrawlerException(cause.getMessage(), cause);
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new SchemaCrawlerException("Data export was interrupted", e);
+    }
+    catch (final IOException | SQLException e)
+    {
+      throw new SchemaCrawlerException(e.getMessage(), e);
+    }
+    finally
+    {
+      executor.shutdownNow();
+      for (final Future<Path> future: segments)
+      {
+        removeUnusedSegment(future);
+      }
+      closeConnections(openedConnections);
+    }
+
+    logTableTimings(tables, timings);
+  }
+
+  private DataTraversalHandler getDataTraversalHandler(final boolean isResumed)
     throws SchemaCrawlerException
   {
     final Operation operation = getOperation();
@@ -174,7 +443,8 @@ public final class OperationExecutable
     {
       formatter = new DataTextFormatter(operation,
                                         operationOptions,
-                                        outputOptions);
+                                        outputOptions,
+                                        isResumed);
     }
     return formatter;
   }
@@ -231,6 +501,42 @@ public final class OperationExecutable
     return tables;
   }
 
+  /**
+   * Tables can be exported concurrently for per-table operations with
+   * text output, if more than one table is to be exported at a time,
+   * and there is a data source to open connections. A resumed export
+   * that needs to continue a partially dumped table is run one table at
+   * a time.
+   */
+  private boolean isExportConcurrently(final DataTraversalHandler handler,
+                                       final DumpCheckpoint checkpoint)
+  {
+    if (operationOptions.getExportConcurrency() <= 1)
+    {
+      return false;
+    }
+    if (getDataSource() == null)
+    {
+      LOGGER.log(Level.INFO,
+                 "No data source provided, so exporting tables one at a time");
+      return false;
+    }
+    if (!(handler instanceof DataTextFormatter))
+    {
+      LOGGER.log(Level.INFO,
+                 new StringFormat("Output format <%s> is exported one table at a time",
+                                  outputOptions.getOutputFormatValue()));
+      return false;
+    }
+    if (checkpoint != null && checkpoint.isPartiallyDumped())
+    {
+      LOGGER.log(Level.INFO,
+                 "Resuming a partially dumped table, so exporting tables one at a time");
+      return false;
+    }
+    return true;
+  }
+
   private void loadOperationOptions()
   {
     if (operationOptions == null)
@@ -240,4 +546,118 @@ public final class OperationExecutable
     }
   }
 
+  private void logTableTimings(final List<? extends Table> tables,
+                               final Duration[] timings)
+  {
+    if (!operationOptions.isLogTableTimings()
+        || !LOGGER.isLoggable(Level.INFO))
+    {
+      return;
+    }
+
+    final StringBuilder buffer = new StringBuilder(1024);
+    buffer.append(String.format("Time taken to export data for <%s>%n",
+                                getCommand()));
+    for (int i = 0; i < tables.size(); i++)
+    {
+      final Duration timing = timings[i];
+      buffer.append(String.format("- %,10d ms - <%s>%n",
+                                  timing == null? 0: timing.toMillis(),
+                                  tables.get(i).getFullName()));
+    }
+    LOGGER.log(Level.INFO, buffer.toString());
+  }
+
+  private DumpCheckpoint newDumpCheckpoint()
+    throws SchemaCrawlerException
+  {
+    final Path dumpCheckpointFile = operationOptions.getDumpCheckpointFile();
+    if (dumpCheckpointFile == null)
+    {
+      return null;
+    }
+    else
+    {
+      return new DumpCheckpoint(dumpCheckpointFile);
+    }
+  }
+
+  /**
+   * Deletes segments that were not appended to the output, after a
+   * failed export.
+   */
+  private void removeUnusedSegment(final Future<Path> future)
+  {
+    if (!future.isDone() || future.isCancelled())
+    {
+      return;
+    }
+    try
+    {
+      final Path segment = future.get();
+      if (segment != null)
+      {
+        deleteSegment(segment);
+      }
+    }
+    catch (final InterruptedException | ExecutionException e)
+    {
+      // Segment was not created
+    }
+  }
+
+  /**
+   * Prepares the output to resume an interrupted export, by discarding
+   * output that was written after the last checkpoint. Output is
+   * appended to after that. If the output cannot be resumed, saved
+   * progress is discarded, and all tables are exported again.
+   *
+   * @return Whether the export is resumed
+   */
+  private boolean resumeOutput(final DumpCheckpoint checkpoint)
+    throws SchemaCrawlerException
+  {
+    if (checkpoint == null || !checkpoint.hasProgress())
+    {
+      return false;
+    }
+
+    final long outputOffset = checkpoint.getOutputOffset();
+    if (outputOffset < 0 || !outputOptions.isFileOutput())
+    {
+      LOGGER.log(Level.WARNING,
+                 "Output of the interrupted export was not saved to a file, so exporting all tables again");
+      checkpoint.clear();
+      return false;
+    }
+
+    final Path outputFile = outputOptions.getOutputFile();
+    try
+    {
+      if (!Files.isRegularFile(outputFile)
+          || Files.size(outputFile) < outputOffset)
+      {
+        LOGGER.log(Level.WARNING,
+                   new StringFormat("Output file <%s> is shorter than at the last checkpoint, so exporting all tables again",
+                                    outputFile));
+        checkpoint.clear();
+        return false;
+      }
+      try (final FileChannel channel = FileChannel.open(outputFile, WRITE);)
+      {
+        channel.truncate(outputOffset);
+      }
+    }
+    catch (final IOException e)
+    {
+      throw new SchemaCrawlerException(String
+        .format("Could not resume output to <%s>", outputFile), e);
+    }
+    LOGGER.log(Level.INFO,
+               new StringFormat("Resuming output to <%s> after %d bytes",
+                                outputFile,
+                                outputOffset));
+    return true;
+  }
+
 }
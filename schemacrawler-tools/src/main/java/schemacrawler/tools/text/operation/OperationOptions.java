@@ -29,6 +29,8 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.text.operation;
 
 
+import java.nio.file.Path;
+
 import schemacrawler.tools.text.base.BaseTextOptions;
 
 /**
@@ -42,8 +44,56 @@ public final class OperationOptions
 
   private static final long serialVersionUID = -7977434852526746391L;
 
+  private Path dumpCheckpointFile;
+  private int dumpChunkSize;
+  private int exportConcurrency = 1;
+  private boolean isLogTableTimings;
   private boolean isShowLobs;
 
+  /**
+   * File to save the progress of a data export to, so that an
+   * interrupted export can be resumed.
+   *
+   * @return Checkpoint file, or null if progress is not saved
+   */
+  public Path getDumpCheckpointFile()
+  {
+    return dumpCheckpointFile;
+  }
+
+  /**
+   * Number of rows fetched in each chunk, when tables with a primary
+   * key are dumped in chunks of primary key ranges. A value of 0 dumps
+   * each table with a single query.
+   *
+   * @return Number of rows in each chunk, or 0
+   */
+  public int getDumpChunkSize()
+  {
+    return dumpChunkSize;
+  }
+
+  /**
+   * Number of tables that are exported concurrently, each on its own
+   * connection. A value of 1 exports tables one after the other.
+   *
+   * @return Number of tables exported concurrently.
+   */
+  public int getExportConcurrency()
+  {
+    return exportConcurrency;
+  }
+
+  /**
+   * Whether to log the time taken to export each table.
+   *
+   * @return Whether to log per-table timings.
+   */
+  public boolean isLogTableTimings()
+  {
+    return isLogTableTimings;
+  }
+
   /**
    * Whether to show LOBs.
    *
@@ -54,6 +104,62 @@ public final class OperationOptions
     return isShowLobs;
   }
 
+  /**
+   * File to save the progress of a data export to, so that an
+   * interrupted export can be resumed.
+   *
+   * @param dumpCheckpointFile
+   *        Checkpoint file, or null if progress is not saved
+   */
+  public void setDumpCheckpointFile(final Path dumpCheckpointFile)
+  {
+    this.dumpCheckpointFile = dumpCheckpointFile;
+  }
+
+  /**
+   * Number of rows fetched in each chunk, when tables with a primary
+   * key are dumped in chunks of primary key ranges.
+   *
+   * @param dumpChunkSize
+   *        Number of rows in each chunk, or 0 to dump each table with a
+   *        single query
+   */
+  public void setDumpChunkSize(final int dumpChunkSize)
+  {
+    if (dumpChunkSize < 0)
+    {
+      throw new IllegalArgumentException("Dump chunk size cannot be negative");
+    }
+    this.dumpChunkSize = dumpChunkSize;
+  }
+
+  /**
+   * Number of tables that are exported concurrently, each on its own
+   * connection.
+   *
+   * @param exportConcurrency
+   *        Number of tables exported concurrently, at least 1
+   */
+  public void setExportConcurrency(final int exportConcurrency)
+  {
+    if (exportConcurrency < 1)
+    {
+      throw new IllegalArgumentException("Export concurrency needs to be at least 1");
+    }
+    this.exportConcurrency = exportConcurrency;
+  }
+
+  /**
+   * Whether to log the time taken to export each table.
+   *
+   * @param logTableTimings
+   *        Whether to log per-table timings
+   */
+  public void setLogTableTimings(final boolean logTableTimings)
+  {
+    isLogTableTimings = logTableTimings;
+  }
+
   /**
    * Whether to show LOBs.
    *
@@ -29,6 +29,11 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.text.operation;
 
 
+import static sf.util.Utility.isBlank;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import schemacrawler.schemacrawler.Config;
 import schemacrawler.tools.text.base.BaseTextOptionsBuilder;
 
@@ -41,6 +46,14 @@ public final class OperationOptionsBuilder
   extends BaseTextOptionsBuilder<OperationOptions>
 {
 
+  private static final String DUMP_CHECKPOINT_FILE = SCHEMACRAWLER_FORMAT_PREFIX
+                                                     + "data.dump.checkpoint_file";
+  private static final String DUMP_CHUNK_SIZE = SCHEMACRAWLER_FORMAT_PREFIX
+                                                + "data.dump.chunk_size";
+  private static final String EXPORT_CONCURRENCY = SCHEMACRAWLER_FORMAT_PREFIX
+                                                   + "data.export.concurrency";
+  private static final String LOG_TABLE_TIMINGS = SCHEMACRAWLER_FORMAT_PREFIX
+                                                  + "data.export.log_timings";
   private static final String SHOW_LOBS = SCHEMACRAWLER_FORMAT_PREFIX
                                           + "data.show_lobs";
 
@@ -52,6 +65,36 @@ public final class OperationOptionsBuilder
     super(new OperationOptions());
   }
 
+  /**
+   * File to save the progress of a data export to, so that an
+   * interrupted export can be resumed.
+   */
+  public OperationOptionsBuilder dumpCheckpointFile(final Path value)
+  {
+    options.setDumpCheckpointFile(value);
+    return this;
+  }
+
+  /**
+   * Number of rows to fetch in each chunk, when dumping tables with a
+   * primary key in chunks.
+   */
+  public OperationOptionsBuilder dumpChunkSize(final int value)
+  {
+    options.setDumpChunkSize(value);
+    return this;
+  }
+
+  /**
+   * Number of tables to export concurrently, each on its own
+   * connection.
+   */
+  public OperationOptionsBuilder exportConcurrency(final int value)
+  {
+    options.setExportConcurrency(value);
+    return this;
+  }
+
   @Override
   public OperationOptionsBuilder fromConfig(final Config map)
   {
@@ -63,10 +106,30 @@ public final class OperationOptionsBuilder
 
     final Config config = new Config(map);
     options.setShowLobs(config.getBooleanValue(SHOW_LOBS, false));
+    options.setExportConcurrency(Math
+      .max(1, config.getIntegerValue(EXPORT_CONCURRENCY, 1)));
+    options.setLogTableTimings(config.getBooleanValue(LOG_TABLE_TIMINGS, false));
+    options.setDumpChunkSize(Math
+      .max(0, config.getIntegerValue(DUMP_CHUNK_SIZE, 0)));
+    final String dumpCheckpointFile = config
+      .getStringValue(DUMP_CHECKPOINT_FILE, null);
+    if (!isBlank(dumpCheckpointFile))
+    {
+      options.setDumpCheckpointFile(Paths.get(dumpCheckpointFile));
+    }
 
     return this;
   }
 
+  /**
+   * Whether to log the time taken to export each table.
+   */
+  public OperationOptionsBuilder logTableTimings(final boolean value)
+  {
+    options.setLogTableTimings(value);
+    return this;
+  }
+
   /**
    * Whether to show LOBs.
    */
@@ -81,6 +144,16 @@ public final class OperationOptionsBuilder
   {
     final Config config = super.toConfig();
     config.setBooleanValue(SHOW_LOBS, options.isShowLobs());
+    config.setStringValue(EXPORT_CONCURRENCY,
+                          String.valueOf(options.getExportConcurrency()));
+    config.setBooleanValue(LOG_TABLE_TIMINGS, options.isLogTableTimings());
+    config.setStringValue(DUMP_CHUNK_SIZE,
+                          String.valueOf(options.getDumpChunkSize()));
+    if (options.getDumpCheckpointFile() != null)
+    {
+      config.setStringValue(DUMP_CHECKPOINT_FILE,
+                            options.getDumpCheckpointFile().toString());
+    }
     return config;
   }
 
@@ -74,7 +74,9 @@ public final class SchemaTextExecutable
     {
       catalog = new CatalogWithCounts(catalog,
                                       connection,
-                                      schemaCrawlerOptions);
+                                      getDataSource(),
+                                      schemaCrawlerOptions,
+                                      schemaTextOptions.getRowCountOptions());
     }
 
     final SchemaTraversalHandler formatter = getSchemaTraversalHandler();
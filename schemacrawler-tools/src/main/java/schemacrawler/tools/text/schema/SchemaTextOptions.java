@@ -29,6 +29,7 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.text.schema;
 
 
+import schemacrawler.tools.analysis.counts.RowCountOptions;
 import schemacrawler.tools.text.base.BaseTextOptions;
 
 public class SchemaTextOptions
@@ -50,6 +51,17 @@ public class SchemaTextOptions
   private boolean isShowOrdinalNumbers;
   private boolean isShowStandardColumnTypeNames;
   private boolean isShowRowCounts;
+  private final RowCountOptions rowCountOptions = new RowCountOptions();
+
+  /**
+   * Options for counting rows, when row counts are shown.
+   *
+   * @return Row count options
+   */
+  public RowCountOptions getRowCountOptions()
+  {
+    return rowCountOptions;
+  }
 
   public boolean isAlphabeticalSortForForeignKeys()
   {
@@ -101,6 +113,17 @@ public class SchemaTextOptions
     return isShowWeakAssociations;
   }
 
+  /**
+   * Whether row counts are exact, from counting the rows in each table,
+   * rather than estimated from database statistics.
+   *
+   * @return Whether to show exact row counts
+   */
+  public boolean isShowExactRowCounts()
+  {
+    return rowCountOptions.isExactRowCounts();
+  }
+
   public boolean isShowOrdinalNumbers()
   {
     return isShowOrdinalNumbers;
@@ -171,6 +194,11 @@ public class SchemaTextOptions
     this.isShowWeakAssociations = isShowWeakAssociations;
   }
 
+  public void setShowExactRowCounts(final boolean isShowExactRowCounts)
+  {
+    rowCountOptions.setExactRowCounts(isShowExactRowCounts);
+  }
+
   public void setShowOrdinalNumbers(final boolean isShowOrdinalNumbers)
   {
     this.isShowOrdinalNumbers = isShowOrdinalNumbers;
@@ -30,6 +30,7 @@ package schemacrawler.tools.text.schema;
 
 
 import schemacrawler.schemacrawler.Config;
+import schemacrawler.tools.analysis.counts.RowCountOptions;
 import schemacrawler.tools.text.base.BaseTextOptionsBuilder;
 
 public class SchemaTextOptionsBuilder
@@ -42,6 +43,14 @@ public class SchemaTextOptionsBuilder
                                                                 + "show_standard_column_type_names";
   private static final String SHOW_ROW_COUNTS = SCHEMACRAWLER_FORMAT_PREFIX
                                                 + "show_row_counts";
+  private static final String SHOW_EXACT_ROW_COUNTS = SCHEMACRAWLER_FORMAT_PREFIX
+                                                      + "show_row_counts.exact";
+  private static final String ROW_COUNT_CONCURRENCY = SCHEMACRAWLER_FORMAT_PREFIX
+                                                      + "show_row_counts.concurrency";
+  private static final String ROW_COUNT_BATCH_SIZE = SCHEMACRAWLER_FORMAT_PREFIX
+                                                    + "show_row_counts.batch_size";
+  private static final String ROW_COUNT_QUERY_TIMEOUT = SCHEMACRAWLER_FORMAT_PREFIX
+                                                        + "show_row_counts.query_timeout";
 
   private static final String HIDE_PRIMARY_KEY_NAMES = SCHEMACRAWLER_FORMAT_PREFIX
                                                        + "hide_primarykey_names";
@@ -90,6 +99,15 @@ public class SchemaTextOptionsBuilder
       .getBooleanValue(SHOW_STANDARD_COLUMN_TYPE_NAMES));
     options.setShowOrdinalNumbers(config.getBooleanValue(SHOW_ORDINAL_NUMBERS));
     options.setShowRowCounts(config.getBooleanValue(SHOW_ROW_COUNTS));
+    options
+      .setShowExactRowCounts(config.getBooleanValue(SHOW_EXACT_ROW_COUNTS));
+    final RowCountOptions rowCountOptions = options.getRowCountOptions();
+    rowCountOptions.setConcurrency(Math
+      .max(1, config.getIntegerValue(ROW_COUNT_CONCURRENCY, 1)));
+    rowCountOptions.setQueryTimeout(Math
+      .max(0, config.getIntegerValue(ROW_COUNT_QUERY_TIMEOUT, 0)));
+    rowCountOptions.setBatchSize(Math
+      .max(1, config.getIntegerValue(ROW_COUNT_BATCH_SIZE, 1)));
 
     options
       .setHideForeignKeyNames(config.getBooleanValue(HIDE_FOREIGN_KEY_NAMES));
@@ -154,6 +172,13 @@ public class SchemaTextOptionsBuilder
     config.setBooleanValue(SHOW_ORDINAL_NUMBERS,
                            options.isShowOrdinalNumbers());
     config.setBooleanValue(SHOW_ROW_COUNTS, options.isShowRowCounts());
+    config.setBooleanValue(SHOW_EXACT_ROW_COUNTS,
+                           options.isShowExactRowCounts());
+    final RowCountOptions rowCountOptions = options.getRowCountOptions();
+    config.setStringValue(ROW_COUNT_CONCURRENCY,
+                          String.valueOf(rowCountOptions.getConcurrency()));
+    config.setStringValue(ROW_COUNT_QUERY_TIMEOUT,
+                          String.valueOf(rowCountOptions.getQueryTimeout()));
 
     config.setBooleanValue(HIDE_FOREIGN_KEY_NAMES,
                            options.isHideForeignKeyNames());
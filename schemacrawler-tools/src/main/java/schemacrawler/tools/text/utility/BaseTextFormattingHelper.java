@@ -99,6 +99,12 @@ abstract class BaseTextFormattingHelper
                       outputFormat).toString();
   }
 
+  @Override
+  public DataRowWriter newDataRowWriter()
+  {
+    return new DataRowWriter(out, outputFormat);
+  }
+
   @Override
   public void println()
   {
@@ -0,0 +1,262 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.utility;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.PrintWriter;
+
+import schemacrawler.tools.options.TextOutputFormat;
+
+/**
+ * Writes rows of data, one cell at a time, into a buffer that is reused
+ * for every row. Output is the same as for rows written with
+ * {@link TextFormattingHelper#writeRow(Object...)}, but without
+ * creating a table row, and a table cell for every value. Meant for
+ * dumping large amounts of data.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class DataRowWriter
+{
+
+  private static final String NULL = "NULL";
+
+  private final PrintWriter out;
+  private final TextOutputFormat outputFormat;
+  private final String fieldSeparator;
+  private final StringBuilder buffer;
+  private char[] chars;
+  private int cellCount;
+
+  DataRowWriter(final PrintWriter out, final TextOutputFormat outputFormat)
+  {
+    this.out = requireNonNull(out, "No output writer provided");
+    requireNonNull(outputFormat, "No output format provided");
+    if (outputFormat == TextOutputFormat.text)
+    {
+      this.outputFormat = TextOutputFormat.tsv;
+    }
+    else
+    {
+      this.outputFormat = outputFormat;
+    }
+
+    switch (this.outputFormat)
+    {
+      case csv:
+        fieldSeparator = ",";
+        break;
+      case tsv:
+        fieldSeparator = "\t";
+        break;
+      default:
+        fieldSeparator = "  ";
+    }
+
+    buffer = new StringBuilder(1024);
+    chars = new char[1024];
+  }
+
+  /**
+   * Writes the row to the output, and clears the buffer for the next
+   * row.
+   */
+  public void endRow()
+  {
+    if (outputFormat == TextOutputFormat.html)
+    {
+      buffer.append("\t</tr>");
+    }
+
+    final int length = buffer.length();
+    if (chars.length < length)
+    {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+    buffer.getChars(0, length, chars, 0);
+    out.write(chars, 0, length);
+    out.println();
+  }
+
+  public void startRow()
+  {
+    buffer.setLength(0);
+    cellCount = 0;
+    if (outputFormat == TextOutputFormat.html)
+    {
+      buffer.append("\t<tr>").append(System.lineSeparator());
+    }
+  }
+
+  public void writeNull()
+  {
+    startCell("data_null");
+    appendEscaped(NULL);
+    endCell();
+  }
+
+  public void writeNumber(final long value)
+  {
+    startCell("data_number");
+    buffer.append(value);
+    endCell();
+  }
+
+  public void writeText(final String text)
+  {
+    if (text == null)
+    {
+      writeNull();
+      return;
+    }
+    startCell("");
+    appendEscaped(text);
+    endCell();
+  }
+
+  /**
+   * Writes a value, with the style used for its type.
+   *
+   * @param value
+   *        Column value
+   */
+  public void writeValue(final Object value)
+  {
+    if (value == null)
+    {
+      writeNull();
+      return;
+    }
+
+    final String styleClass;
+    if (value instanceof BinaryData)
+    {
+      styleClass = "data_binary";
+    }
+    else if (value instanceof Number)
+    {
+      styleClass = "data_number";
+    }
+    else
+    {
+      styleClass = "";
+    }
+    startCell(styleClass);
+    appendEscaped(value.toString());
+    endCell();
+  }
+
+  /**
+   * Appends text to the buffer, escaped for the output format.
+   */
+  private void appendEscaped(final String text)
+  {
+    final int length = text.length();
+    switch (outputFormat)
+    {
+      case html:
+        for (int i = 0; i < length; i++)
+        {
+          final char ch = text.charAt(i);
+          switch (ch)
+          {
+            case '>':
+              buffer.append("&gt;");
+              break;
+            case '&':
+              buffer.append("&amp;");
+              break;
+            case '<':
+              buffer.append("&lt;");
+              break;
+            default:
+              buffer.append(ch);
+              break;
+          }
+        }
+        break;
+      case csv:
+        if (length == 0)
+        {
+          buffer.append("\"\"");
+        }
+        else if (text.indexOf(',') < 0 && text.indexOf('"') < 0)
+        {
+          buffer.append(text);
+        }
+        else
+        {
+          // Enclose in quotes, and double quotes that are inside
+          buffer.append('"');
+          for (int i = 0; i < length; i++)
+          {
+            final char ch = text.charAt(i);
+            if (ch == '"')
+            {
+              buffer.append('"');
+            }
+            buffer.append(ch);
+          }
+          buffer.append('"');
+        }
+        break;
+      default:
+        buffer.append(text);
+        break;
+    }
+  }
+
+  private void endCell()
+  {
+    if (outputFormat == TextOutputFormat.html)
+    {
+      buffer.append("</td>").append(System.lineSeparator());
+    }
+    cellCount++;
+  }
+
+  private void startCell(final String styleClass)
+  {
+    if (outputFormat == TextOutputFormat.html)
+    {
+      buffer.append("\t\t<td");
+      if (!styleClass.isEmpty())
+      {
+        buffer.append(" class='").append(styleClass).append("'");
+      }
+      buffer.append(">");
+    }
+    else if (cellCount > 0)
+    {
+      buffer.append(fieldSeparator);
+    }
+  }
+
+}
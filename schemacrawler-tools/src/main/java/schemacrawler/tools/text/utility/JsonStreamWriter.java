@@ -0,0 +1,251 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.utility;
+
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import schemacrawler.tools.text.utility.org.json.JSONException;
+import schemacrawler.tools.text.utility.org.json.JSONObject;
+
+/**
+ * Writes JSON text to the output as it is produced, so that large
+ * documents do not need to be held in memory. Objects and arrays are
+ * opened and closed explicitly, and values, including complete
+ * {@link JSONObject}s and arrays, are written into the open object or
+ * array. Values are pretty-printed in the same way as
+ * {@link JSONObject#write(java.io.Writer, int)}.
+ *
+ * @author Sualeh Fatehi
+ */
+public final class JsonStreamWriter
+{
+
+  private static final class Scope
+  {
+
+    private final boolean isObject;
+    private int length;
+
+    Scope(final boolean isObject)
+    {
+      this.isObject = isObject;
+    }
+
+  }
+
+  private final PrintWriter out;
+  private final int indentFactor;
+  private final Deque<Scope> scopes;
+  private boolean isKeyWritten;
+
+  public JsonStreamWriter(final PrintWriter out, final int indentFactor)
+  {
+    this.out = requireNonNull(out, "No output writer provided");
+    this.indentFactor = indentFactor;
+    scopes = new ArrayDeque<>();
+  }
+
+  /**
+   * Opens an array.
+   *
+   * @return This writer
+   */
+  public JsonStreamWriter beginArray()
+  {
+    beginValue();
+    out.print('[');
+    scopes.push(new Scope(false));
+    return this;
+  }
+
+  /**
+   * Opens an object.
+   *
+   * @return This writer
+   */
+  public JsonStreamWriter beginObject()
+  {
+    beginValue();
+    out.print('{');
+    scopes.push(new Scope(true));
+    return this;
+  }
+
+  /**
+   * Closes all open arrays and objects, and flushes the output. The
+   * output writer is not closed.
+   */
+  public void close()
+  {
+    while (!scopes.isEmpty())
+    {
+      endScope();
+    }
+    out.flush();
+  }
+
+  /**
+   * Closes the open array.
+   *
+   * @return This writer
+   */
+  public JsonStreamWriter endArray()
+  {
+    if (scopes.isEmpty() || scopes.peek().isObject)
+    {
+      throw new IllegalStateException("No array is open");
+    }
+    endScope();
+    return this;
+  }
+
+  /**
+   * Closes the open object.
+   *
+   * @return This writer
+   */
+  public JsonStreamWriter endObject()
+  {
+    if (scopes.isEmpty() || !scopes.peek().isObject)
+    {
+      throw new IllegalStateException("No object is open");
+    }
+    endScope();
+    return this;
+  }
+
+  /**
+   * Writes a key in the open object. The key needs to be followed by a
+   * value, or by an object or array.
+   *
+   * @param key
+   *        Key
+   * @return This writer
+   */
+  public JsonStreamWriter key(final String key)
+  {
+    requireNonNull(key, "No key provided");
+    if (scopes.isEmpty() || !scopes.peek().isObject || isKeyWritten)
+    {
+      throw new IllegalStateException(String
+        .format("Cannot write key <%s> here", key));
+    }
+    newLine();
+    out.print(JSONObject.quote(key));
+    out.print(": ");
+    isKeyWritten = true;
+    return this;
+  }
+
+  /**
+   * Writes a value, which may be a complete {@link JSONObject} or
+   * array.
+   *
+   * @param value
+   *        Value
+   * @return This writer
+   * @throws JSONException
+   *         If the value is or contains an invalid number.
+   */
+  public JsonStreamWriter value(final Object value)
+    throws JSONException
+  {
+    beginValue();
+    out.print(JSONObject.valueToString(value, indentFactor, getIndent()));
+    return this;
+  }
+
+  private void beginValue()
+  {
+    if (isKeyWritten)
+    {
+      isKeyWritten = false;
+    }
+    else if (!scopes.isEmpty())
+    {
+      if (scopes.peek().isObject)
+      {
+        throw new IllegalStateException("Cannot write a value in an object, without a key");
+      }
+      newLine();
+    }
+  }
+
+  private void endScope()
+  {
+    if (isKeyWritten)
+    {
+      throw new IllegalStateException("No value provided for key");
+    }
+    final Scope scope = scopes.pop();
+    if (scope.length > 0)
+    {
+      out.println();
+      indent(getIndent());
+    }
+    out.print(scope.isObject? '}': ']');
+  }
+
+  private int getIndent()
+  {
+    return scopes.size() * indentFactor;
+  }
+
+  private void indent(final int indent)
+  {
+    for (int i = 0; i < indent; i++)
+    {
+      out.print(' ');
+    }
+  }
+
+  /**
+   * Starts the next member of the open object or array on a new line,
+   * after a comma if needed.
+   */
+  private void newLine()
+  {
+    final Scope scope = scopes.peek();
+    if (scope.length > 0)
+    {
+      out.println(",");
+    }
+    else
+    {
+      out.println();
+    }
+    scope.length++;
+    indent(getIndent());
+  }
+
+}
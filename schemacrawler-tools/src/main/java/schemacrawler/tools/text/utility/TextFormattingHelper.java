@@ -128,6 +128,15 @@ public interface TextFormattingHelper
    */
   String createWeakRightArrow();
 
+  /**
+   * Creates a writer for rows of data, which writes the same output as
+   * {@link #writeRow(Object...)}, but reuses its buffers from row to
+   * row.
+   *
+   * @return Row writer
+   */
+  DataRowWriter newDataRowWriter();
+
   void println();
 
   /**
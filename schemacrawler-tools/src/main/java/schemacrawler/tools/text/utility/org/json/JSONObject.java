@@ -592,9 +592,9 @@ public class JSONObject
    * @throws JSONException
    *         If the object contains an invalid number.
    */
-  static String valueToString(final Object value,
-                              final int indentFactor,
-                              final int indent)
+  public static String valueToString(final Object value,
+                                     final int indentFactor,
+                                     final int indent)
     throws JSONException
   {
     if (value == null || value.equals(null))
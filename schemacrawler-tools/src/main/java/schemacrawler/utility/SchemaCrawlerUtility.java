@@ -77,6 +77,32 @@ public final class SchemaCrawlerUtility
     return catalog;
   }
 
+  /**
+   * Crawls the database incrementally, and only crawls tables that have
+   * changed since the previous catalog was obtained.
+   *
+   * @see SchemaCrawler#crawl(SchemaCrawlerOptions, Catalog)
+   */
+  public static Catalog getCatalog(final Connection connection,
+                                   final SchemaCrawlerOptions schemaCrawlerOptions,
+                                   final Catalog previousCatalog)
+    throws SchemaCrawlerException
+  {
+    checkConnection(connection);
+    if (LOGGER.isLoggable(Level.CONFIG))
+    {
+      LOGGER.log(Level.CONFIG, ObjectToString.toString(schemaCrawlerOptions));
+    }
+
+    final DatabaseSpecificOverrideOptions dbSpecificOverrideOptions = matchDatabaseSpecificOverrideOptions(connection);
+    final SchemaCrawler schemaCrawler = new SchemaCrawler(connection,
+                                                          dbSpecificOverrideOptions);
+    final Catalog catalog = schemaCrawler.crawl(schemaCrawlerOptions,
+                                                previousCatalog);
+
+    return catalog;
+  }
+
   public static ResultsColumns getResultColumns(final ResultSet resultSet)
   {
     return SchemaCrawler.getResultColumns(resultSet);
@@ -0,0 +1,162 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static schemacrawler.test.utility.TestUtility.createTempFile;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptionsBuilder;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.RegularExpressionExclusionRule;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.tools.executable.Executable;
+import schemacrawler.tools.executable.SchemaCrawlerExecutable;
+import schemacrawler.tools.options.InfoLevel;
+import schemacrawler.tools.options.OutputOptions;
+import schemacrawler.tools.options.TextOutputFormat;
+import schemacrawler.tools.text.operation.Operation;
+import schemacrawler.tools.text.schema.SchemaTextDetailType;
+
+public class JsonStreamingOutputTest
+  extends BaseDatabaseTest
+{
+
+  @Test
+  public void streamData()
+    throws Exception
+  {
+    final JsonObject json = executeJson(Operation.dump.name(), false);
+    final JsonObject streamedJson = executeJson(Operation.dump.name(), true);
+
+    assertEquals(json.get("description"), streamedJson.get("description"));
+    assertEquals(json.get("data"), streamedJson.get("data"));
+  }
+
+  @Test
+  public void streamSchema()
+    throws Exception
+  {
+    final JsonObject json = executeJson(SchemaTextDetailType.details.name(),
+                                        false);
+    final JsonObject streamedJson = executeJson(SchemaTextDetailType.details
+      .name(), true);
+
+    for (final String key: new String[] {
+                                          "tables",
+                                          "routines",
+                                          "sequences",
+                                          "columnDataypes" })
+    {
+      assertEquals("Values for <" + key + "> do not match",
+                   asArray(json.get(key)),
+                   streamedJson.get(key));
+    }
+    for (final String key: new String[] {
+                                          "schemaCrawlerInfo",
+                                          "databaseInfo",
+                                          "jdbcDriverInfo" })
+    {
+      assertTrue("No value for <" + key + ">",
+                 streamedJson.get(key).isJsonObject());
+    }
+  }
+
+  /**
+   * Single values are not wrapped in an array when JSON is built in
+   * memory, but always are when it is streamed.
+   */
+  private JsonArray asArray(final JsonElement jsonElement)
+  {
+    if (jsonElement.isJsonArray())
+    {
+      return jsonElement.getAsJsonArray();
+    }
+    else
+    {
+      final JsonArray jsonArray = new JsonArray();
+      jsonArray.add(jsonElement);
+      return jsonArray;
+    }
+  }
+
+  private JsonObject executeJson(final String command,
+                                 final boolean isStreamJson)
+    throws Exception
+  {
+    final Path testOutputFile = createTempFile(command,
+                                               TextOutputFormat.json
+                                                 .getFormat());
+    final OutputOptions outputOptions = new OutputOptions(TextOutputFormat.json,
+                                                          testOutputFile);
+
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions
+      .setSchemaInfoLevel(InfoLevel.maximum.buildSchemaInfoLevel());
+    schemaCrawlerOptions
+      .setSchemaInclusionRule(new RegularExpressionExclusionRule(".*\\.SYSTEM_LOBS|.*\\.FOR_LINT"));
+    schemaCrawlerOptions.setSequenceInclusionRule(new IncludeAll());
+
+    final Config config = Config
+      .loadResource("/hsqldb.INFORMATION_SCHEMA.config.properties");
+    final DatabaseSpecificOverrideOptionsBuilder databaseSpecificOverrideOptionsBuilder = new DatabaseSpecificOverrideOptionsBuilder()
+      .fromConfig(config);
+    config.put("schemacrawler.format.json.streaming",
+               Boolean.toString(isStreamJson));
+
+    final Executable executable = new SchemaCrawlerExecutable(command);
+    executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    executable.setOutputOptions(outputOptions);
+    executable.setAdditionalConfiguration(config);
+    executable.execute(getConnection(),
+                       databaseSpecificOverrideOptionsBuilder.toOptions());
+
+    try (final Reader reader = Files.newBufferedReader(testOutputFile);)
+    {
+      final JsonArray jsonArray = new JsonParser().parse(reader)
+        .getAsJsonArray();
+      assertEquals(1, jsonArray.size());
+      return jsonArray.get(0).getAsJsonObject();
+    }
+  }
+
+}
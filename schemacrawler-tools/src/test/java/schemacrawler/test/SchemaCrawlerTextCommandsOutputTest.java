@@ -31,6 +31,8 @@ package schemacrawler.test;
 
 import static schemacrawler.test.utility.TestUtility.clean;
 
+import javax.sql.DataSource;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -59,6 +61,30 @@ public class SchemaCrawlerTextCommandsOutputTest
     clean(COMMAND_OUTPUT);
   }
 
+  @Test
+  public void chunkedDumpOutput()
+    throws Exception
+  {
+    final Config config = new Config();
+    config.put("schemacrawler.format.data.dump.chunk_size", "2");
+    // Rows are in primary key order
+    textOutputTest("dump_chunked", Operation.dump.name(), config, null);
+  }
+
+  @Test
+  public void concurrentCountOutput()
+    throws Exception
+  {
+    testConcurrentOperationOutput(Operation.count);
+  }
+
+  @Test
+  public void concurrentDumpOutput()
+    throws Exception
+  {
+    testConcurrentOperationOutput(Operation.dump);
+  }
+
   @Test
   public void countOutput()
     throws Exception
@@ -134,6 +160,18 @@ public class SchemaCrawlerTextCommandsOutputTest
     textOutputTest(SchemaTextDetailType.brief.name(), new Config());
   }
 
+  private void testConcurrentOperationOutput(final Operation operation)
+    throws Exception
+  {
+    final Config config = new Config();
+    config.put("schemacrawler.format.data.export.concurrency", "4");
+    // Output needs to be the same as for a sequential export
+    textOutputTest(operation.name(),
+                   operation.name(),
+                   config,
+                   getDatabaseConnectionOptions());
+  }
+
   private void testOperationOutput(final Operation operation)
     throws Exception
   {
@@ -142,6 +180,15 @@ public class SchemaCrawlerTextCommandsOutputTest
 
   private void textOutputTest(final String command, final Config config)
     throws Exception
+  {
+    textOutputTest(command, command, config, null);
+  }
+
+  private void textOutputTest(final String referenceFile,
+                              final String command,
+                              final Config config,
+                              final DataSource dataSource)
+    throws Exception
   {
     try (final TestWriter writer = new TestWriter(TextOutputFormat.text
       .getFormat());)
@@ -165,9 +212,10 @@ public class SchemaCrawlerTextCommandsOutputTest
       executable.setSchemaCrawlerOptions(schemaCrawlerOptions);
       executable.setAdditionalConfiguration(config);
       executable.setOutputOptions(outputOptions);
+      executable.setDataSource(dataSource);
       executable.execute(getConnection());
 
-      writer.assertEquals(COMMAND_OUTPUT + command + ".txt");
+      writer.assertEquals(COMMAND_OUTPUT + referenceFile + ".txt");
     }
   }
 
@@ -0,0 +1,112 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.associations;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import schemacrawler.schema.Table;
+
+public class TableMatchKeysTest
+{
+
+  /**
+   * Creates a table that only has a name, which is all that table match
+   * keys need.
+   */
+  private static Table table(final String name)
+  {
+    return (Table) Proxy
+      .newProxyInstance(Table.class.getClassLoader(),
+                        new Class<?>[] { Table.class },
+                        (proxy, method, args) -> {
+                          switch (method.getName())
+                          {
+                            case "getName":
+                            case "toString":
+                              return name;
+                            case "hashCode":
+                              return System.identityHashCode(proxy);
+                            case "equals":
+                              return proxy == args[0];
+                            default:
+                              throw new UnsupportedOperationException(method
+                                .getName());
+                          }
+                        });
+  }
+
+  @Test
+  public void prefixes()
+  {
+    final Table orders = table("ABC_ORDERS");
+    final Table customers = table("ABC_CUSTOMERS");
+    final Table orderItems = table("ABC_ORDER_ITEMS");
+    final Table settings = table("SETTINGS");
+
+    final TableMatchKeys tableMatchKeys = new TableMatchKeys(Arrays
+      .asList(orders, customers, orderItems, settings));
+
+    assertEquals(Arrays.asList("order", "abc_order"),
+                 tableMatchKeys.get(orders));
+    assertEquals(Arrays.asList("customer", "abc_customer"),
+                 tableMatchKeys.get(customers));
+    assertEquals(Arrays.asList("order_item", "abc_order_item"),
+                 tableMatchKeys.get(orderItems));
+    assertEquals(Arrays.asList("setting"), tableMatchKeys.get(settings));
+  }
+
+  @Test(timeout = 60_000)
+  public void manyTables()
+  {
+    final List<Table> tables = new ArrayList<>();
+    for (int i = 0; i < 30_000; i++)
+    {
+      tables.add(table(String.format("APP%d_%c%d",
+                                     i % 7,
+                                     (char) ('A' + i % 26),
+                                     i)));
+    }
+
+    final TableMatchKeys tableMatchKeys = new TableMatchKeys(tables);
+    for (final Table table: tables)
+    {
+      final String tableName = table.getName().toLowerCase();
+      assertEquals(Arrays.asList(tableName.substring(5), tableName),
+                   tableMatchKeys.get(table));
+    }
+  }
+
+}
@@ -0,0 +1,321 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static schemacrawler.tools.analysis.counts.CountsUtility.getCrawlTimestamp;
+import static schemacrawler.tools.analysis.counts.CountsUtility.getRowCount;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+
+public class ConcurrentRowCounterTest
+  extends BaseDatabaseTest
+{
+
+  private static Object defaultValue(final Class<?> type)
+  {
+    if (type == boolean.class)
+    {
+      return false;
+    }
+    else if (type == int.class)
+    {
+      return 0;
+    }
+    else if (type == long.class)
+    {
+      return 0L;
+    }
+    else
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Data source for connections with queries that run until they are
+   * interrupted, from a driver that ignores query timeouts and
+   * cancellation, and keeps the thread interrupted.
+   */
+  private static DataSource hangingDataSource(final List<Connection> connections)
+  {
+    final InvocationHandler statementHandler = (proxy, method, args) -> {
+      if (method.getName().startsWith("execute"))
+      {
+        try
+        {
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        }
+        catch (final InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+        }
+        throw new SQLException("Query was interrupted");
+      }
+      return defaultValue(method.getReturnType());
+    };
+    final InvocationHandler dataSourceHandler = (dataSourceProxy,
+                                                 dataSourceMethod,
+                                                 dataSourceArgs) -> {
+      if (!dataSourceMethod.getName().equals("getConnection"))
+      {
+        return defaultValue(dataSourceMethod.getReturnType());
+      }
+      final AtomicBoolean closed = new AtomicBoolean();
+      final Connection connection = (Connection) Proxy
+        .newProxyInstance(Connection.class.getClassLoader(),
+                          new Class<?>[] { Connection.class },
+                          (proxy, method, args) -> {
+                            switch (method.getName())
+                            {
+                              case "close":
+                                closed.set(true);
+                                return null;
+                              case "isClosed":
+                                return closed.get();
+                              case "createStatement":
+                                return Proxy
+                                  .newProxyInstance(Statement.class
+                                    .getClassLoader(),
+                                                    new Class<?>[] {
+                                                                     Statement.class },
+                                                    statementHandler);
+                              default:
+                                return defaultValue(method.getReturnType());
+                            }
+                          });
+      connections.add(connection);
+      return connection;
+    };
+    return (DataSource) Proxy
+      .newProxyInstance(DataSource.class.getClassLoader(),
+                        new Class<?>[] { DataSource.class },
+                        dataSourceHandler);
+  }
+
+  @Before
+  public void clearRowCountCache()
+  {
+    RowCountCache.clear();
+  }
+
+  @Test
+  public void batchedCounts()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final List<Table> tables = new ArrayList<>(catalog.getTables());
+
+    final Map<Table, Long> rowCounts;
+    try (final Connection connection = getConnection();)
+    {
+      rowCounts = new ExactRowCountProvider(connection).getRowCounts(tables);
+    }
+    assertEquals(tables.size(), rowCounts.size());
+
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setBatchSize(4);
+    try (final Connection connection = getConnection();)
+    {
+      assertEquals(rowCounts,
+                   new ExactRowCountProvider(connection, null, rowCountOptions)
+                     .getRowCounts(tables));
+    }
+
+    rowCountOptions.setConcurrency(2);
+    assertEquals(rowCounts,
+                 new ConcurrentRowCounter(getDatabaseConnectionOptions(),
+                                          rowCountOptions,
+                                          null).getRowCounts(tables));
+  }
+
+  @Test
+  public void catalogWithConcurrentCounts()
+    throws Exception
+  {
+    final SchemaCrawlerOptions options = new SchemaCrawlerOptions();
+    options.setSchemaInfoLevel(SchemaInfoLevelBuilder.minimum());
+    final Catalog catalog = getCatalog(options);
+
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setExactRowCounts(true);
+    rowCountOptions.setConcurrency(3);
+    rowCountOptions.setQueryTimeout(30);
+    try (final Connection connection = getConnection();)
+    {
+      final CatalogWithCounts catalogWithCounts = new CatalogWithCounts(catalog,
+                                                                        connection,
+                                                                        getDatabaseConnectionOptions(),
+                                                                        options,
+                                                                        rowCountOptions);
+      final Table authors = lookupTable(catalogWithCounts, "AUTHORS");
+      assertEquals(20, getRowCount(authors));
+      assertEquals(Long.valueOf(20),
+                   catalogWithCounts.getCounts().get(authors));
+      assertEquals(catalog.getTables().size(),
+                   catalogWithCounts.getCounts().size());
+    }
+  }
+
+  @Test
+  public void concurrentCallers()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final List<Table> tables = new ArrayList<>(catalog.getTables());
+
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setConcurrency(2);
+    rowCountOptions.setBatchSize(1);
+    final ConcurrentRowCounter rowCounter = new ConcurrentRowCounter(getDatabaseConnectionOptions(),
+                                                                     rowCountOptions,
+                                                                     null);
+
+    // Each call counts on its own connections, so calls at the same
+    // time do not share or close each other's connections
+    final int callers = 4;
+    final ExecutorService executor = Executors.newFixedThreadPool(callers);
+    try
+    {
+      final List<Future<Map<Table, Long>>> futures = new ArrayList<>();
+      for (int i = 0; i < callers; i++)
+      {
+        futures.add(executor.submit(() -> rowCounter.getRowCounts(tables)));
+      }
+      for (final Future<Map<Table, Long>> future: futures)
+      {
+        assertEquals(tables.size(), future.get().size());
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void countsAreCached()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final LocalDateTime crawlTimestamp = getCrawlTimestamp(catalog
+      .getCrawlInfo());
+    final List<Table> tables = new ArrayList<>(catalog.getTables());
+
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setConcurrency(2);
+    final Map<Table, Long> rowCounts = new ConcurrentRowCounter(getDatabaseConnectionOptions(),
+                                                                rowCountOptions,
+                                                                crawlTimestamp)
+                                                                  .getRowCounts(tables);
+    assertEquals(tables.size(), rowCounts.size());
+
+    final Table authors = lookupTable(catalog, "AUTHORS");
+    assertEquals(Long.valueOf(20), rowCounts.get(authors));
+    assertEquals(20, RowCountCache.get(crawlTimestamp, authors));
+    // Not cached for a different crawl
+    assertEquals(-1, RowCountCache.get(crawlTimestamp.minusDays(1), authors));
+
+    // Cached counts do not need a live connection
+    final Connection connection = getConnection();
+    connection.close();
+    final RowCountProvider rowCountProvider = new ExactRowCountProvider(connection,
+                                                                        crawlTimestamp,
+                                                                        new RowCountOptions());
+    assertTrue(rowCountProvider.isExact());
+    assertEquals(20, rowCountProvider.getRowCount(authors));
+  }
+
+  @Test(timeout = 30_000)
+  public void timeoutsWithMoreTablesThanConnections()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final List<Table> tables = new ArrayList<>(catalog.getTables())
+      .subList(0, 6);
+
+    final RowCountOptions rowCountOptions = new RowCountOptions();
+    rowCountOptions.setConcurrency(2);
+    rowCountOptions.setQueryTimeout(1);
+    rowCountOptions.setBatchSize(1);
+    final List<Connection> connections = new ArrayList<>();
+    final Map<Table, Long> rowCounts = new ConcurrentRowCounter(hangingDataSource(connections),
+                                                                rowCountOptions,
+                                                                null)
+                                                                  .getRowCounts(tables);
+
+    assertTrue(rowCounts.isEmpty());
+    assertEquals(2, connections.size());
+    for (final Connection connection: connections)
+    {
+      assertTrue(connection.isClosed());
+    }
+  }
+
+  private Catalog getCatalog()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.minimum());
+    return getCatalog(schemaCrawlerOptions);
+  }
+
+  private Table lookupTable(final Catalog catalog, final String tableName)
+  {
+    final Schema schema = catalog.lookupSchema("PUBLIC.BOOKS").get();
+    return catalog.lookupTable(schema, tableName).get();
+  }
+
+}
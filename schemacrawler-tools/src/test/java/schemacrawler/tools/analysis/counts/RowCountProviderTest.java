@@ -0,0 +1,132 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.analysis.counts;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static schemacrawler.tools.analysis.counts.CountsUtility.addRowCountToTable;
+import static schemacrawler.tools.analysis.counts.CountsUtility.getRowCount;
+import static schemacrawler.tools.analysis.counts.CountsUtility.getRowCountMessage;
+import static schemacrawler.tools.analysis.counts.CountsUtility.isRowCountEstimated;
+
+import java.sql.Connection;
+
+import org.junit.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.IncludeAll;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.utility.Query;
+
+public class RowCountProviderTest
+  extends BaseDatabaseTest
+{
+
+  /**
+   * HyperSQL keeps table cardinality in its system tables, which stand
+   * in for optimizer statistics.
+   */
+  private static final String TABLE_STATISTICS_SQL = "SELECT TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, "
+                                                     + "CARDINALITY AS ROW_COUNT "
+                                                     + "FROM INFORMATION_SCHEMA.SYSTEM_TABLESTATS "
+                                                     + "WHERE TABLE_NAME <> 'PUBLISHERS'";
+
+  @Test
+  public void estimatedRowCounts()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final Table authors = lookupTable(catalog, "AUTHORS");
+    final Table publishers = lookupTable(catalog, "PUBLISHERS");
+    final Table globalCounts = lookupTable(catalog, "\"Global Counts\"");
+    try (final Connection connection = getConnection();)
+    {
+      final Query query = new Query("EXT_TABLE_ROW_COUNTS",
+                                    TABLE_STATISTICS_SQL);
+      final RowCountProvider rowCountProvider = new EstimatedRowCountProvider(connection,
+                                                                              query,
+                                                                              new IncludeAll());
+      assertFalse(rowCountProvider.isExact());
+      assertEquals(20, rowCountProvider.getRowCount(authors));
+      // Quoted names are looked up without quotes
+      assertEquals(0, rowCountProvider.getRowCount(globalCounts));
+      // No statistics
+      assertEquals(-1, rowCountProvider.getRowCount(publishers));
+
+      addRowCountToTable(authors,
+                         rowCountProvider.getRowCount(authors),
+                         rowCountProvider.isExact());
+      assertEquals(20, getRowCount(authors));
+      assertTrue(isRowCountEstimated(authors));
+      assertEquals("about 20 rows", getRowCountMessage(authors));
+    }
+  }
+
+  @Test
+  public void exactRowCounts()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog();
+    final Table authors = lookupTable(catalog, "AUTHORS");
+    try (final Connection connection = getConnection();)
+    {
+      // The test database plugin has no statistics query
+      final RowCountProvider rowCountProvider = CountsUtility
+        .newRowCountProvider(connection, new IncludeAll(), false);
+      assertTrue(rowCountProvider.isExact());
+      assertEquals(20, rowCountProvider.getRowCount(authors));
+
+      addRowCountToTable(authors,
+                         rowCountProvider.getRowCount(authors),
+                         rowCountProvider.isExact());
+      assertFalse(isRowCountEstimated(authors));
+      assertEquals("20 rows", getRowCountMessage(authors));
+    }
+  }
+
+  private Catalog getCatalog()
+    throws Exception
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.minimum());
+    return getCatalog(schemaCrawlerOptions);
+  }
+
+  private Table lookupTable(final Catalog catalog, final String tableName)
+  {
+    final Schema schema = catalog.lookupSchema("PUBLIC.BOOKS").get();
+    return catalog.lookupTable(schema, tableName).get();
+  }
+
+}
@@ -0,0 +1,452 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.operation;
+
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import schemacrawler.crawl.SchemaCrawler;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.Config;
+import schemacrawler.schemacrawler.DatabaseSpecificOverrideOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerException;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.BaseDatabaseTest;
+import schemacrawler.tools.options.OutputOptions;
+import schemacrawler.tools.options.TextOutputFormat;
+
+public class ChunkedTableDumpTest
+  extends BaseDatabaseTest
+{
+
+  private static Object delegate(final Object target,
+                                 final Method method,
+                                 final Object[] args)
+    throws Throwable
+  {
+    try
+    {
+      return method.invoke(target, args);
+    }
+    catch (final InvocationTargetException e)
+    {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Connection that fails a query after a number of chunks have been
+   * read, as if the export was interrupted.
+   */
+  private static Connection interruptingConnection(final Connection connection,
+                                                   final int chunkQueries)
+  {
+    final AtomicInteger chunkQueryCount = new AtomicInteger();
+    final Connection[] proxyConnection = new Connection[1];
+    proxyConnection[0] = (Connection) Proxy
+      .newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { Connection.class },
+                        (proxy, method, args) -> {
+                          final Object result = delegate(connection,
+                                                         method,
+                                                         args);
+                          if (result instanceof PreparedStatement)
+                          {
+                            return Proxy
+                              .newProxyInstance(PreparedStatement.class
+                                .getClassLoader(),
+                                                new Class<?>[] {
+                                                                 PreparedStatement.class },
+                                                (statementProxy,
+                                                 statementMethod,
+                                                 statementArgs) -> {
+                                                  if (statementMethod
+                                                    .getName()
+                                                    .equals("executeQuery")
+                                                      && chunkQueryCount
+                                                        .incrementAndGet() > chunkQueries)
+                                                  {
+                                                    throw new SQLException("Export was interrupted");
+                                                  }
+                                                  return delegate(result,
+                                                                  statementMethod,
+                                                                  statementArgs);
+                                                });
+                          }
+                          else if (result instanceof Statement)
+                          {
+                            return Proxy
+                              .newProxyInstance(Statement.class
+                                .getClassLoader(),
+                                                new Class<?>[] {
+                                                                 Statement.class },
+                                                (statementProxy,
+                                                 statementMethod,
+                                                 statementArgs) -> {
+                                                  if (statementMethod
+                                                    .getName()
+                                                    .equals("getConnection"))
+                                                  {
+                                                    return proxyConnection[0];
+                                                  }
+                                                  return delegate(result,
+                                                                  statementMethod,
+                                                                  statementArgs);
+                                                });
+                          }
+                          return result;
+                        });
+    return proxyConnection[0];
+  }
+
+  @Test
+  public void chunks()
+    throws Exception
+  {
+    final Table table = getAuthorsTable();
+    try (final Connection connection = getConnection();)
+    {
+      final List<Integer> ids = dumpIds(connection, table, 100, null);
+      assertEquals(20, ids.size());
+      for (final int chunkSize: new int[] { 1, 3, 10, 20 })
+      {
+        assertEquals("Chunk size " + chunkSize,
+                     ids,
+                     dumpIds(connection, table, chunkSize, null));
+      }
+    }
+  }
+
+  @Test
+  public void quotedKeyColumns()
+    throws Exception
+  {
+    try (final Connection connection = newTestConnection("quoted_keys",
+                                                         "CREATE TABLE \"Dump Keys\" (\"Key Id\" INTEGER PRIMARY KEY, NAME VARCHAR(20))");)
+    {
+      final List<Integer> keys = new ArrayList<>();
+      try (final Statement statement = connection.createStatement();)
+      {
+        for (int i = 1; i <= 7; i++)
+        {
+          statement.execute("INSERT INTO \"Dump Keys\" VALUES (" + i
+                            + ", 'Name " + i + "')");
+          keys.add(i);
+        }
+      }
+      final Table table = getTable(connection, "\"Dump Keys\"");
+
+      final List<Integer> dumpedKeys = new ArrayList<>();
+      try (final ResultSet results = ChunkedTableDump
+        .executeInChunks(connection, table, 3, false, null);)
+      {
+        while (results.next())
+        {
+          dumpedKeys.add(results.getInt("Key Id"));
+        }
+      }
+      assertEquals(keys, dumpedKeys);
+    }
+  }
+
+  @Test
+  public void resume()
+    throws Exception
+  {
+    final Table table = getAuthorsTable();
+    final Path checkpointFile = Files.createTempFile("schemacrawler", ".test");
+    try (final Connection connection = getConnection();)
+    {
+      final List<Integer> ids = dumpIds(connection, table, 100, null);
+
+      // Progress is saved after every full chunk
+      final DumpCheckpoint checkpoint = new DumpCheckpoint(checkpointFile);
+      assertNull(checkpoint.getLastKey(table));
+      dumpIds(connection, table, 3, checkpoint);
+      assertArrayEquals(new Object[] { ids.get(17) },
+                        new DumpCheckpoint(checkpointFile).getLastKey(table));
+
+      // Resume after the fifth row, from a reloaded checkpoint
+      checkpoint.saveLastKey(table, new Object[] { ids.get(4) });
+      final DumpCheckpoint resumedCheckpoint = new DumpCheckpoint(checkpointFile);
+      assertEquals(ids.subList(5, ids.size()),
+                   dumpIds(connection, table, 4, resumedCheckpoint));
+
+      assertFalse(resumedCheckpoint.isCompleted(table));
+      resumedCheckpoint.saveCompleted(table);
+      final DumpCheckpoint completedCheckpoint = new DumpCheckpoint(checkpointFile);
+      assertTrue(completedCheckpoint.isCompleted(table));
+      assertNull(completedCheckpoint.getLastKey(table));
+
+      completedCheckpoint.delete();
+      assertFalse(Files.exists(checkpointFile));
+    }
+    finally
+    {
+      Files.deleteIfExists(checkpointFile);
+    }
+  }
+
+  @Test
+  public void resumeWithTypedKeys()
+    throws Exception
+  {
+    final Path checkpointFile = Files.createTempFile("schemacrawler", ".test");
+    try (final Connection connection = newTestConnection("typed_keys",
+                                                         "CREATE TABLE TYPED_KEYS (CREATED TIMESTAMP(9), AMOUNT DECIMAL(10, 4), CODE VARBINARY(4), NAME VARCHAR(20), PRIMARY KEY (CREATED, AMOUNT, CODE))");)
+    {
+      try (final Statement statement = connection.createStatement();)
+      {
+        for (int i = 0; i < 10; i++)
+        {
+          statement.execute(String
+            .format("INSERT INTO TYPED_KEYS VALUES ('2017-01-01 10:00:00.12345678%d', %d.1050, X'0%d', 'Row %d')",
+                    i / 4,
+                    i % 3,
+                    i,
+                    i));
+        }
+      }
+      final Table table = getTable(connection, "TYPED_KEYS");
+
+      final List<String> names = new ArrayList<>();
+      final List<Object[]> keys = new ArrayList<>();
+      try (final ResultSet results = ChunkedTableDump
+        .executeInChunks(connection, table, 100, false, null);)
+      {
+        while (results.next())
+        {
+          names.add(results.getString("NAME"));
+          keys.add(new Object[] { results.getObject("CREATED"),
+                                  results.getObject("AMOUNT"),
+                                  results.getObject("CODE") });
+        }
+      }
+      assertEquals(10, names.size());
+
+      // Key values are read back with the same types and values
+      final DumpCheckpoint checkpoint = new DumpCheckpoint(checkpointFile);
+      checkpoint.saveLastKey(table, keys.get(4));
+      final DumpCheckpoint resumedCheckpoint = new DumpCheckpoint(checkpointFile);
+      final Object[] lastKey = resumedCheckpoint.getLastKey(table);
+      assertTrue(Arrays.deepEquals(keys.get(4), lastKey));
+
+      final List<String> resumedNames = new ArrayList<>();
+      try (final ResultSet results = ChunkedTableDump
+        .executeInChunks(connection, table, 3, false, resumedCheckpoint);)
+      {
+        while (results.next())
+        {
+          resumedNames.add(results.getString("NAME"));
+        }
+      }
+      assertEquals(names.subList(5, names.size()), resumedNames);
+      // Progress is saved after the last full chunk
+      final DumpCheckpoint savedCheckpoint = new DumpCheckpoint(checkpointFile);
+      assertTrue(Arrays.deepEquals(keys.get(7),
+                                   savedCheckpoint.getLastKey(table)));
+
+      // Keys that cannot be read back exactly are not saved
+      savedCheckpoint.saveLastKey(table,
+                                  new Object[] { new Time(0),
+                                                 keys.get(8)[1],
+                                                 keys.get(8)[2] });
+      assertTrue(Arrays.deepEquals(keys.get(7),
+                                   new DumpCheckpoint(checkpointFile)
+                                     .getLastKey(table)));
+    }
+    finally
+    {
+      Files.deleteIfExists(checkpointFile);
+    }
+  }
+
+  @Test
+  public void resumeInterruptedExport()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog(newSchemaCrawlerOptions());
+    final Path checkpointFile = Files.createTempFile("schemacrawler", ".test");
+    Files.delete(checkpointFile);
+    final Path expectedFile = Files.createTempFile("schemacrawler", ".html");
+    final Path outputFile = Files.createTempFile("schemacrawler", ".html");
+    try (final Connection connection = getConnection();)
+    {
+      dump(catalog, connection, expectedFile, checkpointFile);
+      assertFalse(Files.exists(checkpointFile));
+
+      try
+      {
+        dump(catalog,
+             interruptingConnection(connection, 10),
+             outputFile,
+             checkpointFile);
+        fail("Export was not interrupted");
+      }
+      catch (final SchemaCrawlerException e)
+      {
+        // Expected
+      }
+      final DumpCheckpoint checkpoint = new DumpCheckpoint(checkpointFile);
+      assertTrue("No table was partially dumped",
+                 checkpoint.isPartiallyDumped());
+      assertTrue("Output was not tracked", checkpoint.getOutputOffset() > 0);
+      // Output of rows after the last checkpoint, which were flushed
+      // before the export was interrupted
+      Files.write(outputFile,
+                  "\t<tr>\n\t\t<td>unsaved</td>\n\t</tr>\n".getBytes("UTF-8"),
+                  APPEND);
+
+      // Resuming discards output written after the last checkpoint, and
+      // appends the remaining data, without writing headers again
+      dump(catalog, connection, outputFile, checkpointFile);
+      assertFalse(Files.exists(checkpointFile));
+      assertEquals(new String(Files.readAllBytes(expectedFile), "UTF-8"),
+                   new String(Files.readAllBytes(outputFile), "UTF-8"));
+    }
+    finally
+    {
+      Files.deleteIfExists(checkpointFile);
+      Files.deleteIfExists(expectedFile);
+      Files.deleteIfExists(outputFile);
+    }
+  }
+
+  private void dump(final Catalog catalog,
+                    final Connection connection,
+                    final Path outputFile,
+                    final Path checkpointFile)
+    throws Exception
+  {
+    final Config config = new Config();
+    config.put("schemacrawler.format.data.dump.chunk_size", "3");
+    config.put("schemacrawler.format.data.dump.checkpoint_file",
+               checkpointFile.toString());
+
+    final OperationExecutable executable = new OperationExecutable(Operation.dump
+      .name());
+    executable.setSchemaCrawlerOptions(newSchemaCrawlerOptions());
+    executable.setOutputOptions(new OutputOptions(TextOutputFormat.html,
+                                                  outputFile));
+    executable.setAdditionalConfiguration(config);
+    executable.executeOn(catalog, connection);
+  }
+
+  /**
+   * Connection to a separate in-memory database, so that tables can be
+   * created without changing the shared test database.
+   */
+  private Connection newTestConnection(final String databaseName,
+                                       final String... sql)
+    throws Exception
+  {
+    final Connection connection = DriverManager
+      .getConnection("jdbc:hsqldb:mem:" + databaseName, "sa", "");
+    try (final Statement statement = connection.createStatement();)
+    {
+      for (final String sqlStatement: sql)
+      {
+        statement.execute(sqlStatement);
+      }
+    }
+    return connection;
+  }
+
+  private List<Integer> dumpIds(final Connection connection,
+                                final Table table,
+                                final int chunkSize,
+                                final DumpCheckpoint checkpoint)
+    throws Exception
+  {
+    final List<Integer> ids = new ArrayList<>();
+    try (final ResultSet results = ChunkedTableDump
+      .executeInChunks(connection, table, chunkSize, false, checkpoint);)
+    {
+      while (results.next())
+      {
+        ids.add(results.getInt("ID"));
+      }
+      assertFalse(results.next());
+    }
+    return ids;
+  }
+
+  private Table getAuthorsTable()
+    throws Exception
+  {
+    final Catalog catalog = getCatalog(newSchemaCrawlerOptions());
+    final Schema schema = catalog.lookupSchema("PUBLIC.BOOKS").get();
+    return catalog.lookupTable(schema, "AUTHORS").get();
+  }
+
+  private Table getTable(final Connection connection, final String tableName)
+    throws Exception
+  {
+    final Catalog catalog = new SchemaCrawler(connection,
+                                              new DatabaseSpecificOverrideOptions())
+                                                .crawl(newSchemaCrawlerOptions());
+    final Schema schema = catalog.lookupSchema("PUBLIC.PUBLIC").get();
+    return catalog.lookupTable(schema, tableName).get();
+  }
+
+  private SchemaCrawlerOptions newSchemaCrawlerOptions()
+  {
+    final SchemaCrawlerOptions schemaCrawlerOptions = new SchemaCrawlerOptions();
+    schemaCrawlerOptions.setSchemaInfoLevel(SchemaInfoLevelBuilder.standard());
+    return schemaCrawlerOptions;
+  }
+
+}
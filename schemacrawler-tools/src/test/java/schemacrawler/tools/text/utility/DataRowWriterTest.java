@@ -0,0 +1,133 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2017, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+package schemacrawler.tools.text.utility;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import schemacrawler.tools.options.TextOutputFormat;
+
+public class DataRowWriterTest
+{
+
+  private static final Object[] ROW = new Object[] {
+                                                     null,
+                                                     42,
+                                                     new BigDecimal("-1.50"),
+                                                     "plain",
+                                                     "",
+                                                     "comma, \"quoted\"",
+                                                     "<a & b>",
+                                                     "tab\tand\nnewline",
+                                                     new BinaryData(),
+                                                     new BinaryData("lob, data"),
+                                                     Boolean.TRUE };
+
+  private static TextFormattingHelper formattingHelper(final PrintWriter out,
+                                                       final TextOutputFormat outputFormat)
+  {
+    switch (outputFormat)
+    {
+      case html:
+        return new HtmlFormattingHelper(out, outputFormat);
+      case json:
+        return new JsonFormattingHelper(out, outputFormat);
+      default:
+        return new PlainTextFormattingHelper(out, outputFormat);
+    }
+  }
+
+  @Test
+  public void sameOutputAsWriteRow()
+  {
+    for (final TextOutputFormat outputFormat: TextOutputFormat.values())
+    {
+      final StringWriter expected = new StringWriter();
+      final TextFormattingHelper expectedHelper = formattingHelper(new PrintWriter(expected),
+                                                                   outputFormat);
+      expectedHelper.writeRow(ROW);
+      expectedHelper.writeRow(ROW);
+
+      final StringWriter actual = new StringWriter();
+      final DataRowWriter rowWriter = formattingHelper(new PrintWriter(actual),
+                                                       outputFormat)
+                                                         .newDataRowWriter();
+      for (int i = 0; i < 2; i++)
+      {
+        rowWriter.startRow();
+        for (final Object value: ROW)
+        {
+          if (value instanceof Integer)
+          {
+            rowWriter.writeNumber((Integer) value);
+          }
+          else if (value instanceof String)
+          {
+            rowWriter.writeText((String) value);
+          }
+          else
+          {
+            rowWriter.writeValue(value);
+          }
+        }
+        rowWriter.endRow();
+      }
+
+      assertEquals(outputFormat.name(),
+                   expected.toString(),
+                   actual.toString());
+    }
+  }
+
+  @Test
+  public void nullText()
+  {
+    final StringWriter expected = new StringWriter();
+    new PlainTextFormattingHelper(new PrintWriter(expected),
+                                  TextOutputFormat.csv)
+                                    .writeRow(new Object[] { null, "a" });
+
+    final StringWriter actual = new StringWriter();
+    final DataRowWriter rowWriter = new PlainTextFormattingHelper(new PrintWriter(actual),
+                                                                  TextOutputFormat.csv)
+                                                                    .newDataRowWriter();
+    rowWriter.startRow();
+    rowWriter.writeText(null);
+    rowWriter.writeText("a");
+    rowWriter.endRow();
+
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+}